@@ -0,0 +1,2 @@
+# Measures the startup of samples on the JVM, on the JVM with the AOT generated code and as native executables
+java -classpath `dirname $0`/../spring-native-tools/target/spring-native-tools-*.jar org.springframework.nativex.support.SampleBenchmark $*
@@ -0,0 +1,2 @@
+# Compares the footprint of two native-image builds and fails if it grew more than configured
+java -classpath `dirname $0`/../spring-native-tools/target/spring-native-tools-*.jar org.springframework.nativex.support.FootprintDiff $*
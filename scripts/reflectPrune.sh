@@ -0,0 +1,2 @@
+# Minimizes a reflect json file using a call tree and/or agent output of a previous build
+java -classpath `dirname $0`/../spring-native-tools/target/spring-native-tools-*.jar org.springframework.nativex.support.ReflectionJsonPrune $*
@@ -0,0 +1,2 @@
+# Computes the union, intersection, difference or deduplicated content of reflect json files
+java -classpath `dirname $0`/../spring-native-tools/target/spring-native-tools-*.jar org.springframework.nativex.support.ReflectionJsonSetAlgebra $*
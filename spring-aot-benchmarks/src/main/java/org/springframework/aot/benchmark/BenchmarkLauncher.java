@@ -0,0 +1,43 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.Main;
+
+/**
+ * Run the JMH benchmarks of this module. Arguments are passed as is to JMH, with the
+ * GC profiler enabled unless another profiler is requested so that the allocation
+ * rate is reported next to the throughput.
+ *
+ * @author agent
+ */
+public class BenchmarkLauncher {
+
+	public static void main(String[] args) throws Exception {
+		List<String> arguments = new ArrayList<>(Arrays.asList(args));
+		if (!arguments.contains("-prof") && !arguments.contains("-h") && !arguments.contains("-l")) {
+			arguments.add(0, "-prof");
+			arguments.add(1, "gc");
+		}
+		Main.main(arguments.toArray(new String[0]));
+	}
+
+}
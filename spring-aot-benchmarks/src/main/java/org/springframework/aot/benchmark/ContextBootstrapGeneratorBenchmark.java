@@ -0,0 +1,133 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+import com.squareup.javapoet.JavaFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.annotation.BuildTimeBeanDefinitionsRegistrar;
+import org.springframework.context.bootstrap.generator.BootstrapGenerationResult;
+import org.springframework.context.bootstrap.generator.ContextBootstrapGenerator;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Benchmarks for the generation of the bootstrap class of contexts with the specified
+ * number of beans, and for the compilation of the generated code.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContextBootstrapGeneratorBenchmark {
+
+	private static final String PACKAGE_NAME = "com.example";
+
+	@Param({ "100", "1000", "5000", "10000" })
+	private int beanCount;
+
+	private ConfigurableListableBeanFactory beanFactory;
+
+	private ContextBootstrapGenerator generator;
+
+	private List<JavaFileObject> sourceFiles;
+
+	private JavaCompiler compiler;
+
+	private Path outputDirectory;
+
+	@Setup
+	public void setup() throws IOException {
+		GenericApplicationContext context = new GenericApplicationContext();
+		for (int i = 0; i < this.beanCount; i++) {
+			RootBeanDefinition beanDefinition = new RootBeanDefinition(SampleBean.class);
+			if (i % 2 == 1) {
+				beanDefinition.getConstructorArgumentValues()
+						.addIndexedArgumentValue(0, new RuntimeBeanReference("bean" + (i - 1)));
+			}
+			beanDefinition.getPropertyValues().add("name", "bean" + i);
+			context.registerBeanDefinition("bean" + i, beanDefinition);
+		}
+		this.beanFactory = new BuildTimeBeanDefinitionsRegistrar().processBeanDefinitions(context);
+		this.generator = new ContextBootstrapGenerator(getClass().getClassLoader());
+		this.sourceFiles = generateBootstrapClass().getSourceFiles().stream()
+				.map(JavaFile::toJavaFileObject).collect(Collectors.toList());
+		this.compiler = ToolProvider.getSystemJavaCompiler();
+		if (this.compiler == null) {
+			throw new IllegalStateException("No Java compiler available, benchmarks must be run with a JDK");
+		}
+		this.outputDirectory = Files.createTempDirectory("bootstrap-benchmark");
+	}
+
+	@TearDown
+	public void cleanUp() throws IOException {
+		FileSystemUtils.deleteRecursively(this.outputDirectory);
+	}
+
+	@Benchmark
+	public BootstrapGenerationResult generateBootstrapClass() {
+		return this.generator.generateBootstrapClass(this.beanFactory, PACKAGE_NAME);
+	}
+
+	@Benchmark
+	public boolean compileBootstrapClass() throws IOException {
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		try (StandardJavaFileManager fileManager = this.compiler.getStandardFileManager(diagnostics, null, null)) {
+			fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singletonList(this.outputDirectory.toFile()));
+			List<String> options = Arrays.asList("-classpath", System.getProperty("java.class.path"), "-proc:none");
+			if (!this.compiler.getTask(null, fileManager, diagnostics, options, null, this.sourceFiles).call()) {
+				throw new IllegalStateException("Failed to compile generated code: " + diagnostics.getDiagnostics());
+			}
+			return true;
+		}
+	}
+
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.nativex.domain.init.InitializationDescriptor;
+import org.springframework.nativex.domain.init.InitializationJsonMarshaller;
+import org.springframework.nativex.domain.proxies.JdkProxyDescriptor;
+import org.springframework.nativex.domain.proxies.ProxiesDescriptor;
+import org.springframework.nativex.domain.proxies.ProxiesDescriptorJsonMarshaller;
+import org.springframework.nativex.domain.reflect.ClassDescriptor;
+import org.springframework.nativex.domain.reflect.FieldDescriptor;
+import org.springframework.nativex.domain.reflect.JsonMarshaller;
+import org.springframework.nativex.domain.reflect.MethodDescriptor;
+import org.springframework.nativex.domain.reflect.ReflectionDescriptor;
+import org.springframework.nativex.domain.resources.ResourcesDescriptor;
+import org.springframework.nativex.domain.resources.ResourcesJsonMarshaller;
+import org.springframework.nativex.domain.serialization.SerializationDescriptor;
+import org.springframework.nativex.domain.serialization.SerializationDescriptorJsonMarshaller;
+import org.springframework.nativex.hint.Flag;
+
+/**
+ * Benchmarks for the JSON marshallers of the native configuration, writing and reading
+ * descriptors with the specified number of entries.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonMarshallerBenchmark {
+
+	@Param({ "100", "1000", "10000" })
+	private int entries;
+
+	private ReflectionDescriptor reflectionDescriptor;
+
+	private byte[] reflectionJson;
+
+	private ResourcesDescriptor resourcesDescriptor;
+
+	private byte[] resourcesJson;
+
+	private ProxiesDescriptor proxiesDescriptor;
+
+	private byte[] proxiesJson;
+
+	private SerializationDescriptor serializationDescriptor;
+
+	private byte[] serializationJson;
+
+	private InitializationDescriptor initializationDescriptor;
+
+	private byte[] initializationJson;
+
+	@Setup
+	public void setup() throws IOException {
+		this.reflectionDescriptor = new ReflectionDescriptor();
+		this.resourcesDescriptor = new ResourcesDescriptor();
+		this.proxiesDescriptor = new ProxiesDescriptor();
+		this.serializationDescriptor = new SerializationDescriptor();
+		this.initializationDescriptor = new InitializationDescriptor();
+		for (int i = 0; i < this.entries; i++) {
+			String typeName = "com.example.package" + (i % 50) + ".SampleType" + i;
+			ClassDescriptor classDescriptor = ClassDescriptor.of(typeName);
+			classDescriptor.setFlag(Flag.allDeclaredConstructors);
+			classDescriptor.setFlag(Flag.allPublicMethods);
+			classDescriptor.addMethodDescriptor(MethodDescriptor.of("setName", "java.lang.String"));
+			classDescriptor.addFieldDescriptor(FieldDescriptor.of("name", true, false));
+			this.reflectionDescriptor.add(classDescriptor);
+			this.resourcesDescriptor.add("com/example/package" + (i % 50) + "/resource" + i + ".properties");
+			this.proxiesDescriptor.add(new JdkProxyDescriptor(Arrays.asList(typeName,
+					"org.springframework.aop.SpringProxy", "org.springframework.core.DecoratingProxy")));
+			this.serializationDescriptor.add(typeName);
+			this.initializationDescriptor.addBuildtimeClass(typeName);
+		}
+		this.reflectionJson = writeReflection();
+		this.resourcesJson = writeResources();
+		this.proxiesJson = writeProxies();
+		this.serializationJson = writeSerialization();
+		this.initializationJson = writeInitialization();
+	}
+
+	@Benchmark
+	public byte[] writeReflection() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		JsonMarshaller.write(this.reflectionDescriptor, out);
+		return out.toByteArray();
+	}
+
+	@Benchmark
+	public ReflectionDescriptor readReflection() throws Exception {
+		return JsonMarshaller.read(this.reflectionJson);
+	}
+
+	@Benchmark
+	public byte[] writeResources() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ResourcesJsonMarshaller.write(this.resourcesDescriptor, out);
+		return out.toByteArray();
+	}
+
+	@Benchmark
+	public ResourcesDescriptor readResources() throws Exception {
+		return ResourcesJsonMarshaller.read(this.resourcesJson);
+	}
+
+	@Benchmark
+	public byte[] writeProxies() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ProxiesDescriptorJsonMarshaller.write(this.proxiesDescriptor, out);
+		return out.toByteArray();
+	}
+
+	@Benchmark
+	public ProxiesDescriptor readProxies() throws Exception {
+		return ProxiesDescriptorJsonMarshaller.read(this.proxiesJson);
+	}
+
+	@Benchmark
+	public byte[] writeSerialization() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		SerializationDescriptorJsonMarshaller.write(this.serializationDescriptor, out);
+		return out.toByteArray();
+	}
+
+	@Benchmark
+	public SerializationDescriptor readSerialization() throws Exception {
+		return SerializationDescriptorJsonMarshaller.read(this.serializationJson);
+	}
+
+	@Benchmark
+	public byte[] writeInitialization() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		InitializationJsonMarshaller.write(this.initializationDescriptor, out);
+		return out.toByteArray();
+	}
+
+	@Benchmark
+	public InitializationDescriptor readInitialization() throws Exception {
+		return InitializationJsonMarshaller.read(this.initializationJson);
+	}
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.benchmark;
+
+/**
+ * A bean used to populate the contexts of {@link ContextBootstrapGeneratorBenchmark}.
+ *
+ * @author agent
+ */
+public class SampleBean {
+
+	private final SampleBean parent;
+
+	private String name;
+
+	public SampleBean() {
+		this(null);
+	}
+
+	public SampleBean(SampleBean parent) {
+		this.parent = parent;
+	}
+
+	public SampleBean getParent() {
+		return this.parent;
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.benchmark;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The classpath that the type system benchmarks operate on: the Spring jars this module
+ * depends on, so that results only change when the dependencies are upgraded.
+ *
+ * @author agent
+ */
+final class SampleClasspath {
+
+	private SampleClasspath() {
+	}
+
+	static List<String> get() {
+		List<String> classpath = new ArrayList<>();
+		for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+			String name = new File(entry).getName();
+			if (name.startsWith("spring-") && name.endsWith(".jar")) {
+				classpath.add(entry);
+			}
+		}
+		if (classpath.isEmpty()) {
+			throw new IllegalStateException("No Spring jar found on the classpath: "
+					+ System.getProperty("java.class.path"));
+		}
+		return classpath;
+	}
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.aot.beans.factory.BeanDependencyGraph;
+import org.springframework.aot.beans.factory.IndexedListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+
+/**
+ * Benchmarks for the eager instantiation of the singletons of a synthetic context
+ * where each bean depends on up to two other beans, sequentially and in parallel.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SingletonInstantiationBenchmark {
+
+	@Param({ "1000", "5000" })
+	private int beanCount;
+
+	@Param({ "1", "4" })
+	private int parallelism;
+
+	@Param({ "1000" })
+	private int tokensPerBean;
+
+	private IndexedListableBeanFactory beanFactory;
+
+	@Setup(Level.Invocation)
+	public void setup() {
+		this.beanFactory = new IndexedListableBeanFactory();
+		BeanDependencyGraph.Builder graph = BeanDependencyGraph.builder();
+		for (int i = 0; i < this.beanCount; i++) {
+			String[] dependencies = (i < 2) ? new String[0]
+					: new String[] { "bean" + (i / 2 - 1), "bean" + (i - 2) };
+			this.beanFactory.registerBeanDefinition("bean" + i, new RootBeanDefinition(SampleBean.class, () -> {
+				for (String dependency : dependencies) {
+					this.beanFactory.getBean(dependency);
+				}
+				Blackhole.consumeCPU(this.tokensPerBean);
+				return new SampleBean();
+			}));
+			graph.bean("bean" + i, dependencies);
+		}
+		this.beanFactory.setBeanDependencyGraph(graph.build());
+		this.beanFactory.setInstantiationParallelism(this.parallelism);
+	}
+
+	@Benchmark
+	public IndexedListableBeanFactory preInstantiateSingletons() {
+		this.beanFactory.preInstantiateSingletons();
+		return this.beanFactory;
+	}
+
+}
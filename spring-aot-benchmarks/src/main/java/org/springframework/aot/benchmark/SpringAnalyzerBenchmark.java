@@ -0,0 +1,69 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.nativex.AotOptions;
+import org.springframework.nativex.support.ConfigurationCollector;
+import org.springframework.nativex.support.SpringAnalyzer;
+import org.springframework.nativex.type.TypeSystem;
+
+/**
+ * Benchmark for the analysis of the sample classpath. The bulk of the work happens in
+ * {@code ResourcesHandler#register}, that processes the {@code spring.factories} and
+ * the hints they trigger.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpringAnalyzerBenchmark {
+
+	private TypeSystem typeSystem;
+
+	private AotOptions aotOptions;
+
+	@Setup
+	public void setup() {
+		this.typeSystem = new TypeSystem(SampleClasspath.get());
+		this.aotOptions = new AotOptions();
+	}
+
+	@Benchmark
+	public ConfigurationCollector analyze() {
+		SpringAnalyzer analyzer = new SpringAnalyzer(this.typeSystem, this.aotOptions);
+		analyzer.analyze();
+		return analyzer.getConfigurationCollector();
+	}
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.nativex.type.Type;
+import org.springframework.nativex.type.TypeSystem;
+
+/**
+ * Benchmarks for the {@link TypeSystem} operations that dominate the analysis of an
+ * application.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TypeSystemBenchmark {
+
+	static final String[] TYPES = {
+			"org/springframework/boot/autoconfigure/jdbc/DataSourceAutoConfiguration",
+			"org/springframework/boot/autoconfigure/jackson/JacksonAutoConfiguration",
+			"org/springframework/boot/autoconfigure/web/servlet/WebMvcAutoConfiguration",
+			"org/springframework/boot/autoconfigure/web/reactive/WebFluxAutoConfiguration",
+			"org/springframework/boot/autoconfigure/task/TaskExecutionAutoConfiguration",
+			"org/springframework/boot/autoconfigure/context/PropertyPlaceholderAutoConfiguration",
+			"org/springframework/boot/autoconfigure/condition/ConditionalOnClass",
+			"org/springframework/boot/context/properties/ConfigurationProperties",
+			"org/springframework/boot/SpringApplication",
+			"org/springframework/context/annotation/Configuration",
+			"org/springframework/context/annotation/Bean",
+			"org/springframework/context/support/GenericApplicationContext",
+			"org/springframework/beans/factory/support/DefaultListableBeanFactory",
+			"org/springframework/core/env/StandardEnvironment",
+			"org/springframework/core/io/support/SpringFactoriesLoader"
+	};
+
+	private List<String> classpath;
+
+	private TypeSystem typeSystem;
+
+	private List<Type> types;
+
+	@Setup
+	public void setup() {
+		this.classpath = SampleClasspath.get();
+		this.typeSystem = new TypeSystem(this.classpath);
+		this.types = new ArrayList<>();
+		for (String type : TYPES) {
+			this.types.add(this.typeSystem.resolveSlashed(type));
+		}
+	}
+
+	@Benchmark
+	public TypeSystem index() {
+		return new TypeSystem(this.classpath);
+	}
+
+	@Benchmark
+	public void resolveSlashed(Blackhole blackhole) {
+		for (String type : TYPES) {
+			blackhole.consume(this.typeSystem.resolveSlashed(type));
+		}
+	}
+
+	@Benchmark
+	public void resolveSlashedUncached(UncachedTypeSystem uncached, Blackhole blackhole) {
+		for (String type : TYPES) {
+			blackhole.consume(uncached.typeSystem.resolveSlashed(type));
+		}
+	}
+
+	@Benchmark
+	public TypeSystem scan() {
+		this.typeSystem.scan();
+		return this.typeSystem;
+	}
+
+	@Benchmark
+	public void getApplicableHints(Blackhole blackhole) {
+		for (Type type : this.types) {
+			blackhole.consume(type.getApplicableHints());
+		}
+	}
+
+	/**
+	 * A {@link TypeSystem} that has not resolved any type yet, recreated for each
+	 * invocation.
+	 */
+	@State(Scope.Thread)
+	public static class UncachedTypeSystem {
+
+		private List<String> classpath;
+
+		TypeSystem typeSystem;
+
+		@Setup(Level.Trial)
+		public void setupClasspath() {
+			this.classpath = SampleClasspath.get();
+		}
+
+		@Setup(Level.Invocation)
+		public void setup() {
+			this.typeSystem = new TypeSystem(this.classpath);
+		}
+
+	}
+
+}
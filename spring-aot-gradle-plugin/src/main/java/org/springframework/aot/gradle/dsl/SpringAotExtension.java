@@ -17,6 +17,7 @@
 package org.springframework.aot.gradle.dsl;
 
 import org.gradle.api.Incubating;
+import org.gradle.api.file.RegularFileProperty;
 import org.gradle.api.model.ObjectFactory;
 import org.gradle.api.provider.Property;
 
@@ -51,6 +52,20 @@ public class SpringAotExtension {
 
 	private final Property<String> mainClass;
 
+	private final Property<Boolean> parallelGeneration;
+
+	private final Property<Boolean> foldIsPresentChecks;
+
+	private final Property<Boolean> inferBuildTimeInitialization;
+
+	private final Property<Boolean> instrumentation;
+
+	private final RegularFileProperty reflectionConfigOverride;
+
+	private final RegularFileProperty conditionEvaluationCache;
+
+	private final Property<Boolean> verifyConditionEvaluationCache;
+
 	public SpringAotExtension(ObjectFactory objectFactory) {
 		this.mode = objectFactory.property(AotMode.class).convention(AotMode.NATIVE);
 		this.debugVerify = objectFactory.property(Boolean.class).convention(false);
@@ -64,6 +79,13 @@ public class SpringAotExtension {
 		this.buildTimePropertiesMatchIfMissing = objectFactory.property(Boolean.class).convention(true);
 		this.buildTimePropertiesChecks = objectFactory.property(String[].class).convention(new String[0]);
 		this.mainClass = objectFactory.property(String.class).convention((String)null);
+		this.parallelGeneration = objectFactory.property(Boolean.class).convention(false);
+		this.foldIsPresentChecks = objectFactory.property(Boolean.class).convention(false);
+		this.inferBuildTimeInitialization = objectFactory.property(Boolean.class).convention(false);
+		this.instrumentation = objectFactory.property(Boolean.class).convention(false);
+		this.reflectionConfigOverride = objectFactory.fileProperty();
+		this.conditionEvaluationCache = objectFactory.fileProperty();
+		this.verifyConditionEvaluationCache = objectFactory.property(Boolean.class).convention(false);
 	}
 
 	/**
@@ -159,4 +181,62 @@ public class SpringAotExtension {
 		return this.buildTimePropertiesChecks;
 	}
 
+	/**
+	 * Process independent parts of the source generation concurrently (false by default).
+	 */
+	@Incubating
+	public Property<Boolean> getParallelGeneration() {
+		return this.parallelGeneration;
+	}
+
+	/**
+	 * Initialize classes that only make isPresent checks in their static initializer at build time (false by default).
+	 */
+	@Incubating
+	public Property<Boolean> getFoldIsPresentChecks() {
+		return this.foldIsPresentChecks;
+	}
+
+	/**
+	 * Initialize classes whose static initializer has no side effects at build time (false by default).
+	 */
+	@Incubating
+	public Property<Boolean> getInferBuildTimeInitialization() {
+		return this.inferBuildTimeInitialization;
+	}
+
+	/**
+	 * Record the time and allocations of each phase of the processing in a report (false by default).
+	 */
+	@Incubating
+	public Property<Boolean> getInstrumentation() {
+		return this.instrumentation;
+	}
+
+	/**
+	 * A {@code reflect-config.json} file, typically minimized from a previous build, whose entries replace
+	 * the computed reflection configuration of the types it describes.
+	 */
+	@Incubating
+	public RegularFileProperty getReflectionConfigOverride() {
+		return this.reflectionConfigOverride;
+	}
+
+	/**
+	 * A file where the outcome of condition evaluations is cached, so that conditions whose inputs have
+	 * not changed are not evaluated again on the next build.
+	 */
+	@Incubating
+	public RegularFileProperty getConditionEvaluationCache() {
+		return this.conditionEvaluationCache;
+	}
+
+	/**
+	 * Evaluate all conditions and report those whose outcome differs from the cache (false by default).
+	 */
+	@Incubating
+	public Property<Boolean> getVerifyConditionEvaluationCache() {
+		return this.verifyConditionEvaluationCache;
+	}
+
 }
@@ -18,9 +18,12 @@ package org.springframework.aot.gradle.tasks;
 
 import java.io.Serializable;
 
+import org.gradle.api.file.RegularFileProperty;
 import org.gradle.api.provider.Property;
 import org.gradle.api.provider.Provider;
 import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
 
 import org.gradle.api.tasks.Optional;
 import org.springframework.aot.gradle.dsl.SpringAotExtension;
@@ -57,6 +60,20 @@ public class GenerateAotOptions implements Serializable {
 
 	private final Property<String[]> buildTimePropertiesChecks;
 
+	private final Property<Boolean> parallelGeneration;
+
+	private final Property<Boolean> foldIsPresentChecks;
+
+	private final Property<Boolean> inferBuildTimeInitialization;
+
+	private final Property<Boolean> instrumentation;
+
+	private final RegularFileProperty reflectionConfigOverride;
+
+	private final RegularFileProperty conditionEvaluationCache;
+
+	private final Property<Boolean> verifyConditionEvaluationCache;
+
 	public GenerateAotOptions(SpringAotExtension extension) {
 		this.mode = extension.getMode().map(aotMode -> aotMode.getSlug());
 		this.debugVerify = extension.getDebugVerify();
@@ -70,6 +87,13 @@ public class GenerateAotOptions implements Serializable {
 		this.mainClass = extension.getMainClass();
 		this.buildTimePropertiesMatchIfMissing = extension.getBuildTimePropertiesMatchIfMissing();
 		this.buildTimePropertiesChecks = extension.getBuildTimePropertiesChecks();
+		this.parallelGeneration = extension.getParallelGeneration();
+		this.foldIsPresentChecks = extension.getFoldIsPresentChecks();
+		this.inferBuildTimeInitialization = extension.getInferBuildTimeInitialization();
+		this.instrumentation = extension.getInstrumentation();
+		this.reflectionConfigOverride = extension.getReflectionConfigOverride();
+		this.conditionEvaluationCache = extension.getConditionEvaluationCache();
+		this.verifyConditionEvaluationCache = extension.getVerifyConditionEvaluationCache();
 	}
 
 	@Input
@@ -133,6 +157,43 @@ public class GenerateAotOptions implements Serializable {
 		return this.buildTimePropertiesChecks;
 	}
 
+	@Input
+	public Property<Boolean> getParallelGeneration() {
+		return this.parallelGeneration;
+	}
+
+	@Input
+	public Property<Boolean> getFoldIsPresentChecks() {
+		return this.foldIsPresentChecks;
+	}
+
+	@Input
+	public Property<Boolean> getInferBuildTimeInitialization() {
+		return this.inferBuildTimeInitialization;
+	}
+
+	@Input
+	public Property<Boolean> getInstrumentation() {
+		return this.instrumentation;
+	}
+
+	@InputFiles
+	@Optional
+	public RegularFileProperty getReflectionConfigOverride() {
+		return this.reflectionConfigOverride;
+	}
+
+	// The cache is read and rewritten by each build so it does not affect up-to-date checks
+	@Internal
+	public RegularFileProperty getConditionEvaluationCache() {
+		return this.conditionEvaluationCache;
+	}
+
+	@Input
+	public Property<Boolean> getVerifyConditionEvaluationCache() {
+		return this.verifyConditionEvaluationCache;
+	}
+
 	AotOptions toAotOptions() {
 		AotOptions options = new AotOptions();
 		options.setMode(this.mode.get());
@@ -146,6 +207,17 @@ public class GenerateAotOptions implements Serializable {
 		options.setFailOnMissingSelectorHint(this.failOnMissingSelectorHint.get());
 		options.setBuildTimePropertiesMatchIfMissing(this.buildTimePropertiesMatchIfMissing.get());
 		options.setBuildTimePropertiesChecks(this.buildTimePropertiesChecks.get());
+		options.setParallelGeneration(this.parallelGeneration.get());
+		options.setFoldIsPresentChecks(this.foldIsPresentChecks.get());
+		options.setInferBuildTimeInitialization(this.inferBuildTimeInitialization.get());
+		options.setInstrumentation(this.instrumentation.get());
+		if (this.reflectionConfigOverride.isPresent()) {
+			options.setReflectionConfigOverride(this.reflectionConfigOverride.get().getAsFile().getAbsolutePath());
+		}
+		if (this.conditionEvaluationCache.isPresent()) {
+			options.setConditionEvaluationCache(this.conditionEvaluationCache.get().getAsFile().getAbsolutePath());
+		}
+		options.setVerifyConditionEvaluationCache(this.verifyConditionEvaluationCache.get());
 		return options;
 	}
 }
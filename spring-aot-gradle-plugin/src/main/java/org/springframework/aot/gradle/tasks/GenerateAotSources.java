@@ -122,6 +122,27 @@ public class GenerateAotSources extends JavaExec {
 			if (aotOptions.isRemoveYamlSupport()) {
 				arguments.add("--remove-yaml");
 			}
+			if (aotOptions.isParallelGeneration()) {
+				arguments.add("--parallel");
+			}
+			if (aotOptions.isFoldIsPresentChecks()) {
+				arguments.add("--fold-is-present");
+			}
+			if (aotOptions.isInferBuildTimeInitialization()) {
+				arguments.add("--infer-init");
+			}
+			if (aotOptions.isInstrumentation()) {
+				arguments.add("--instrumentation");
+			}
+			if (aotOptions.getReflectionConfigOverride() != null) {
+				arguments.add("--reflection-override=" + aotOptions.getReflectionConfigOverride());
+			}
+			if (aotOptions.getConditionEvaluationCache() != null) {
+				arguments.add("--condition-cache=" + aotOptions.getConditionEvaluationCache());
+			}
+			if (aotOptions.isVerifyConditionEvaluationCache()) {
+				arguments.add("--verify-condition-cache");
+			}
 			if (aotOptions.isBuildTimePropertyChecking()) {
 				arguments.add("--props=" + StringUtils.arrayToCommaDelimitedString(aotOptions.getBuildTimePropertiesChecks()));
 			}
@@ -105,6 +105,27 @@ abstract class AbstractBootstrapMojo extends AbstractMojo {
 	@Parameter
 	private boolean failOnMissingSelectorHint;
 
+	@Parameter
+	private boolean parallelGeneration;
+
+	@Parameter
+	private boolean foldIsPresentChecks;
+
+	@Parameter
+	private boolean inferBuildTimeInitialization;
+
+	@Parameter
+	private boolean instrumentation;
+
+	@Parameter
+	private File reflectionConfigOverride;
+
+	@Parameter
+	private File conditionEvaluationCache;
+
+	@Parameter
+	private boolean verifyConditionEvaluationCache;
+
 	@Parameter(property = "spring.aot.mainClass")
 	protected String mainClass;
 
@@ -125,6 +146,17 @@ abstract class AbstractBootstrapMojo extends AbstractMojo {
 		aotOptions.setBuildTimePropertiesMatchIfMissing(buildTimePropertiesMatchIfMissing);
 		aotOptions.setBuildTimePropertiesChecks(buildTimePropertiesChecks);
 		aotOptions.setFailOnMissingSelectorHint(failOnMissingSelectorHint);
+		aotOptions.setParallelGeneration(parallelGeneration);
+		aotOptions.setFoldIsPresentChecks(foldIsPresentChecks);
+		aotOptions.setInferBuildTimeInitialization(inferBuildTimeInitialization);
+		aotOptions.setInstrumentation(instrumentation);
+		if (reflectionConfigOverride != null) {
+			aotOptions.setReflectionConfigOverride(reflectionConfigOverride.getAbsolutePath());
+		}
+		if (conditionEvaluationCache != null) {
+			aotOptions.setConditionEvaluationCache(conditionEvaluationCache.getAbsolutePath());
+		}
+		aotOptions.setVerifyConditionEvaluationCache(verifyConditionEvaluationCache);
 		return aotOptions;
 	}
 
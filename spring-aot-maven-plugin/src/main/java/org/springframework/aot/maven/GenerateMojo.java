@@ -125,6 +125,27 @@ public class GenerateMojo extends AbstractBootstrapMojo {
 				if (aotOptions.isRemoveYamlSupport()) {
 					args.add("--remove-yaml");
 				}
+				if (aotOptions.isParallelGeneration()) {
+					args.add("--parallel");
+				}
+				if (aotOptions.isFoldIsPresentChecks()) {
+					args.add("--fold-is-present");
+				}
+				if (aotOptions.isInferBuildTimeInitialization()) {
+					args.add("--infer-init");
+				}
+				if (aotOptions.isInstrumentation()) {
+					args.add("--instrumentation");
+				}
+				if (aotOptions.getReflectionConfigOverride() != null) {
+					args.add("--reflection-override=" + aotOptions.getReflectionConfigOverride());
+				}
+				if (aotOptions.getConditionEvaluationCache() != null) {
+					args.add("--condition-cache=" + aotOptions.getConditionEvaluationCache());
+				}
+				if (aotOptions.isVerifyConditionEvaluationCache()) {
+					args.add("--verify-condition-cache");
+				}
 				if (aotOptions.isBuildTimePropertyChecking()) {
 					args.add("--props=" + StringUtils.arrayToCommaDelimitedString(aotOptions.getBuildTimePropertiesChecks()));
 				}
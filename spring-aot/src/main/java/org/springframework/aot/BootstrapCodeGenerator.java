@@ -20,7 +20,10 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.ServiceLoader;
 import java.util.Set;
 import java.util.regex.Pattern;
@@ -31,7 +34,12 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.aot.context.bootstrap.ContextBootstrapContributor;
 import org.springframework.aot.factories.ModifiedSpringApplicationContributor;
 import org.springframework.aot.factories.SpringFactoriesContributor;
+import org.springframework.aot.instrument.AotInstrumentation;
+import org.springframework.aot.instrument.AotInstrumentation.Phase;
+import org.springframework.aot.instrument.AotInstrumentationReport;
+import org.springframework.aot.logging.LogbackConfigurationContributor;
 import org.springframework.aot.nativex.ConfigurationContributor;
+import org.springframework.aot.properties.ApplicationPropertiesContributor;
 import org.springframework.nativex.AotOptions;
 import org.springframework.nativex.domain.proxies.ProxiesDescriptor;
 import org.springframework.nativex.domain.proxies.ProxiesDescriptorJsonMarshaller;
@@ -55,6 +63,8 @@ public class BootstrapCodeGenerator {
 
 	private static Log logger = LogFactory.getLog(BootstrapCodeGenerator.class);
 
+	private static final String INSTRUMENTATION_REPORT = "aot-instrumentation";
+
 	private AotOptions aotOptions;
 
 	private final Set<Pattern> resourcePatternCache = new HashSet<>();
@@ -65,8 +75,26 @@ public class BootstrapCodeGenerator {
 
 	public void generate(ApplicationStructure structure) throws IOException {
 		logger.debug("Starting code generation with classLoader: " + structure.getClassLoader());
-		DefaultBuildContext buildContext = new DefaultBuildContext(structure);
-		generate(structure.getSourcesPath(), structure.getResourcesPath(), structure.getResourceFolders(), buildContext);
+		AotInstrumentationReport report = this.aotOptions.isInstrumentation() ? AotInstrumentation.startRecording() : null;
+		try {
+			try (Phase phase = AotInstrumentation.start("generator", "generate")) {
+				DefaultBuildContext buildContext = new DefaultBuildContext(structure);
+				generate(structure.getSourcesPath(), structure.getResourcesPath(), structure.getResourceFolders(), buildContext);
+			}
+		}
+		finally {
+			if (report != null) {
+				AotInstrumentation.stopRecording();
+				writeInstrumentationReport(report, structure.getSourcesPath());
+			}
+		}
+	}
+
+	private void writeInstrumentationReport(AotInstrumentationReport report, Path sourcesPath) throws IOException {
+		Path jsonReport = sourcesPath.resolveSibling(INSTRUMENTATION_REPORT + ".json");
+		report.writeJson(jsonReport);
+		report.writeHtml(sourcesPath.resolveSibling(INSTRUMENTATION_REPORT + ".html"));
+		logger.info("AOT instrumentation report written to " + jsonReport.getParent());
 	}
 
 	/**
@@ -79,35 +107,36 @@ public class BootstrapCodeGenerator {
 	 * @throws IOException if an I/O error is thrown when opening the resource folders
 	 */
 	private void generate(Path sourcesPath, Path resourcesPath, Set<Path> resourceFolders, DefaultBuildContext buildContext) throws IOException {
+		BootstrapContributorExecutor contributorExecutor = new BootstrapContributorExecutor(buildContext, this.aotOptions);
 		if (this.aotOptions.toMode().equals(Mode.NATIVE)) {
 			// TODO temporary whilst migrating the inferencing to Aot land
 			TypeSystem.setDefaultAotOptions(aotOptions);
-			ContextBootstrapContributor bootstrapContributor = new ContextBootstrapContributor();
-			logger.debug("Executing Contributor: " + bootstrapContributor.getClass().getName());
-			bootstrapContributor.contribute(buildContext, this.aotOptions);
-
-			SpringFactoriesContributor factoriesContributor = new SpringFactoriesContributor();
-			logger.debug("Executing Contributor: " + factoriesContributor.getClass().getName());
-			factoriesContributor.contribute(buildContext, this.aotOptions);
-			
-			ConfigurationContributor configurationContributor = new ConfigurationContributor();
-			logger.debug("Executing Contributor: " + factoriesContributor.getClass().getName());
-			configurationContributor.contribute(buildContext, this.aotOptions);		
-
-            ModifiedSpringApplicationContributor contributor = new ModifiedSpringApplicationContributor();
-            logger.debug("Executing Contributor: " + contributor.getClass().getName());
-            contributor.contribute(buildContext, this.aotOptions);
+			contributorExecutor.execute(Arrays.asList(new ContextBootstrapContributor(), new SpringFactoriesContributor(),
+					new ConfigurationContributor(), new ModifiedSpringApplicationContributor(),
+					new LogbackConfigurationContributor(), new ApplicationPropertiesContributor()));
 		}
 		else {
-			ServiceLoader<BootstrapContributor> contributors = ServiceLoader.load(BootstrapContributor.class);
-			for (BootstrapContributor contributor : contributors) {
-				logger.debug("Executing Contributor: " + contributor.getClass().getName());
-				contributor.contribute(buildContext, this.aotOptions);
-			}
+			List<BootstrapContributor> contributors = new ArrayList<>();
+			ServiceLoader.load(BootstrapContributor.class).forEach(contributors::add);
+			contributorExecutor.execute(contributors);
 		}
 
 		buildResourcePatternCache(buildContext.getResourcesDescriptor());
 
+		try (Phase phase = AotInstrumentation.start("generator", "resource-folders")) {
+			describeResourceFolders(resourceFolders, buildContext);
+		}
+
+		try (Phase phase = AotInstrumentation.start("generator", "write-sources")) {
+			writeGeneratedFiles(sourcesPath, resourcesPath, buildContext);
+		}
+
+		try (Phase phase = AotInstrumentation.start("generator", "write-native-configuration")) {
+			writeNativeConfiguration(resourcesPath, buildContext);
+		}
+	}
+
+	private void describeResourceFolders(Set<Path> resourceFolders, DefaultBuildContext buildContext) throws IOException {
 		if (!resourceFolders.isEmpty()) {
 			logger.debug("Processing resource folders: " + resourceFolders);
 			for (Path resourceFolder : resourceFolders) {
@@ -130,7 +159,9 @@ public class BootstrapCodeGenerator {
 				}
 			}
 		}
+	}
 
+	private void writeGeneratedFiles(Path sourcesPath, Path resourcesPath, DefaultBuildContext buildContext) throws IOException {
 		logger.debug("Writing generated sources to: " + sourcesPath);
 		for (SourceFile sourceFile : buildContext.getSourceFiles()) {
 			sourceFile.writeTo(sourcesPath);
@@ -138,7 +169,9 @@ public class BootstrapCodeGenerator {
 		for (ResourceFile resourceFile : buildContext.getResourceFiles()) {
 			resourceFile.writeTo(resourcesPath);
 		}
+	}
 
+	private void writeNativeConfiguration(Path resourcesPath, DefaultBuildContext buildContext) throws IOException {
 		Path graalVMConfigPath = resourcesPath.resolve(ResourceFile.NATIVE_CONFIG_PATH);
 		Files.createDirectories(graalVMConfigPath);
 		// reflect-config.json
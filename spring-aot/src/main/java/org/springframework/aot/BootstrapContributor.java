@@ -16,6 +16,9 @@
 
 package org.springframework.aot;
 
+import java.util.Collections;
+import java.util.Set;
+
 import org.springframework.core.Ordered;
 import org.springframework.nativex.AotOptions;
 
@@ -26,6 +29,11 @@ import org.springframework.nativex.AotOptions;
  *
  * <p>Invoked with an {@link Ordered order} of {@code 0} by default, considering overriding {@link #getOrder()}
  * to customize this behaviour.
+ *
+ * <p>When generation runs in parallel, contributors are invoked concurrently: what they
+ * contribute is only visible to the next contributors once they have all completed, in
+ * order. A contributor that reads what another contributor has produced should declare
+ * it as a {@link #getDependencies() dependency}.
  * 
  * @author Brian Clozel
  * @author Sebastien Deleuze
@@ -44,4 +52,13 @@ public interface BootstrapContributor extends Ordered {
 		return 0;
 	}
 
+	/**
+	 * Return the types of the contributors that must be invoked before this one, if they
+	 * are present.
+	 * @return the contributors this instance depends on
+	 */
+	default Set<Class<? extends BootstrapContributor>> getDependencies() {
+		return Collections.emptySet();
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.aot.instrument.AotInstrumentation;
+import org.springframework.aot.instrument.AotInstrumentation.Phase;
+import org.springframework.nativex.AotOptions;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Invoke {@link BootstrapContributor contributors} against a {@link DefaultBuildContext}.
+ * Contributors are invoked in the specified order, except that a contributor is always
+ * invoked after its {@link BootstrapContributor#getDependencies() dependencies}.
+ * <p>
+ * If {@link AotOptions#isParallelGeneration() parallel generation} is enabled, all
+ * contributors run concurrently against a {@link ContributorBuildContext}, and their
+ * contributions are committed to the build context in order. The result is therefore the
+ * same as invoking them one after the other.
+ *
+ * @author agent
+ */
+class BootstrapContributorExecutor {
+
+	private static final Log logger = LogFactory.getLog(BootstrapContributorExecutor.class);
+
+	private final DefaultBuildContext buildContext;
+
+	private final AotOptions aotOptions;
+
+	BootstrapContributorExecutor(DefaultBuildContext buildContext, AotOptions aotOptions) {
+		this.buildContext = buildContext;
+		this.aotOptions = aotOptions;
+	}
+
+	/**
+	 * Invoke the specified contributors.
+	 * @param contributors the contributors to invoke
+	 */
+	void execute(List<BootstrapContributor> contributors) {
+		List<BootstrapContributor> sortedContributors = sort(contributors);
+		if (this.aotOptions.isParallelGeneration() && sortedContributors.size() > 1) {
+			executeInParallel(sortedContributors);
+		}
+		else {
+			for (BootstrapContributor contributor : sortedContributors) {
+				logger.debug("Executing Contributor: " + contributor.getClass().getName());
+				try (Phase phase = AotInstrumentation.start("contributor", contributor.getClass().getName())) {
+					contributor.contribute(this.buildContext, this.aotOptions);
+				}
+			}
+		}
+	}
+
+	private void executeInParallel(List<BootstrapContributor> contributors) {
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		ExecutorService executor = Executors.newFixedThreadPool(contributors.size(),
+				new CustomizableThreadFactory("bootstrap-contributor-"));
+		try {
+			List<Future<?>> results = new ArrayList<>();
+			ContributorBuildContext previous = null;
+			for (BootstrapContributor contributor : contributors) {
+				ContributorBuildContext context = new ContributorBuildContext(this.buildContext, previous);
+				results.add(executor.submit(() -> contribute(contributor, context, classLoader)));
+				previous = context;
+			}
+			// The first failure in contributor order is the root cause of the next ones
+			for (Future<?> result : results) {
+				waitFor(result);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void contribute(BootstrapContributor contributor, ContributorBuildContext context, ClassLoader classLoader) {
+		Thread thread = Thread.currentThread();
+		ClassLoader originalClassLoader = thread.getContextClassLoader();
+		thread.setContextClassLoader(classLoader);
+		try {
+			logger.debug("Executing Contributor: " + contributor.getClass().getName());
+			try (Phase phase = AotInstrumentation.start("contributor", contributor.getClass().getName())) {
+				contributor.contribute(context, this.aotOptions);
+			}
+			context.commit();
+		}
+		catch (RuntimeException | Error ex) {
+			context.fail(ex);
+			throw ex;
+		}
+		finally {
+			thread.setContextClassLoader(originalClassLoader);
+		}
+	}
+
+	private void waitFor(Future<?> result) {
+		try {
+			result.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while executing contributors", ex);
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException("Failed to execute contributor", cause);
+		}
+	}
+
+	/**
+	 * Sort the specified contributors so that each contributor comes after its
+	 * dependencies, preserving the original order otherwise.
+	 * @param contributors the contributors to sort
+	 * @return the sorted contributors
+	 */
+	static List<BootstrapContributor> sort(List<BootstrapContributor> contributors) {
+		List<BootstrapContributor> remaining = new ArrayList<>(contributors);
+		List<BootstrapContributor> sorted = new ArrayList<>(contributors.size());
+		while (!remaining.isEmpty()) {
+			BootstrapContributor next = remaining.stream().filter((candidate) -> isReady(candidate, remaining))
+					.findFirst().orElseThrow(() -> new IllegalStateException("Cycle detected between contributors "
+							+ remaining.stream().map((contributor) -> contributor.getClass().getName())
+							.collect(Collectors.toList())));
+			remaining.remove(next);
+			sorted.add(next);
+		}
+		return sorted;
+	}
+
+	private static boolean isReady(BootstrapContributor contributor, List<BootstrapContributor> remaining) {
+		for (Class<? extends BootstrapContributor> dependency : contributor.getDependencies()) {
+			for (BootstrapContributor candidate : remaining) {
+				if (candidate != contributor && dependency.isInstance(candidate)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import org.springframework.core.type.classreading.TypeSystem;
+import org.springframework.nativex.domain.init.InitializationDescriptor;
+import org.springframework.nativex.domain.proxies.ProxiesDescriptor;
+import org.springframework.nativex.domain.reflect.ReflectionDescriptor;
+import org.springframework.nativex.domain.resources.ResourcesDescriptor;
+import org.springframework.nativex.domain.serialization.SerializationDescriptor;
+
+/**
+ * A {@link BuildContext} for a contributor that runs concurrently with others. What
+ * the contributor contributes is recorded and only applied to the shared
+ * {@link DefaultBuildContext} once the previous contributor has committed its own
+ * contributions. Reading the state of the shared context waits for that as well, so
+ * that a contributor observes the same state as if contributors were invoked one after
+ * the other.
+ *
+ * @author agent
+ */
+class ContributorBuildContext implements BuildContext {
+
+	private final DefaultBuildContext buildContext;
+
+	private final ContributorBuildContext previous;
+
+	private final CompletableFuture<Void> committed = new CompletableFuture<>();
+
+	private final List<Consumer<DefaultBuildContext>> pendingContributions = new ArrayList<>();
+
+	private boolean active;
+
+	ContributorBuildContext(DefaultBuildContext buildContext, ContributorBuildContext previous) {
+		this.buildContext = buildContext;
+		this.previous = previous;
+	}
+
+	@Override
+	public TypeSystem getTypeSystem() {
+		return this.buildContext.getTypeSystem();
+	}
+
+	@Override
+	@Deprecated
+	public List<String> getClasspath() {
+		return this.buildContext.getClasspath();
+	}
+
+	@Override
+	public String getMainClass() {
+		return this.buildContext.getMainClass();
+	}
+
+	@Override
+	public String getApplicationClass() {
+		return this.buildContext.getApplicationClass();
+	}
+
+	@Override
+	public Set<String> getOptions() {
+		activate();
+		return this.buildContext.getOptions();
+	}
+
+	@Override
+	public ProxiesDescriptor getProxiesDescriptor() {
+		activate();
+		return this.buildContext.getProxiesDescriptor();
+	}
+
+	@Override
+	public void addSourceFiles(SourceFile... sourceFiles) {
+		contribute((context) -> context.addSourceFiles(sourceFiles));
+	}
+
+	@Override
+	public void addResources(ResourceFile... resourceFiles) {
+		contribute((context) -> context.addResources(resourceFiles));
+	}
+
+	@Override
+	public void describeReflection(Consumer<ReflectionDescriptor> consumer) {
+		contribute((context) -> context.describeReflection(consumer));
+	}
+
+	@Override
+	public void describeJNIReflection(Consumer<ReflectionDescriptor> consumer) {
+		contribute((context) -> context.describeJNIReflection(consumer));
+	}
+
+	@Override
+	public void describeProxies(Consumer<ProxiesDescriptor> consumer) {
+		contribute((context) -> context.describeProxies(consumer));
+	}
+
+	@Override
+	public void describeSerialization(Consumer<SerializationDescriptor> consumer) {
+		contribute((context) -> context.describeSerialization(consumer));
+	}
+
+	@Override
+	public void describeResources(Consumer<ResourcesDescriptor> consumer) {
+		contribute((context) -> context.describeResources(consumer));
+	}
+
+	@Override
+	public void describeInitialization(Consumer<InitializationDescriptor> consumer) {
+		contribute((context) -> context.describeInitialization(consumer));
+	}
+
+	private synchronized void contribute(Consumer<DefaultBuildContext> contribution) {
+		if (this.active) {
+			contribution.accept(this.buildContext);
+		}
+		else {
+			this.pendingContributions.add(contribution);
+		}
+	}
+
+	/**
+	 * Wait for the previous contributor to commit and apply the pending contributions.
+	 * Once active, contributions are applied directly to the shared context.
+	 */
+	private synchronized void activate() {
+		if (this.active) {
+			return;
+		}
+		if (this.previous != null) {
+			this.previous.committed.join();
+		}
+		this.pendingContributions.forEach((contribution) -> contribution.accept(this.buildContext));
+		this.pendingContributions.clear();
+		this.active = true;
+	}
+
+	/**
+	 * Apply the contributions of the contributor, once the previous contributor has
+	 * committed, and signal the next contributor that it can proceed.
+	 */
+	void commit() {
+		try {
+			activate();
+			this.committed.complete(null);
+		}
+		catch (RuntimeException | Error ex) {
+			fail(ex);
+			throw ex;
+		}
+	}
+
+	/**
+	 * Signal that the contributor has failed. Next contributors fail as soon as they need
+	 * to access the shared state.
+	 * @param ex the failure
+	 */
+	void fail(Throwable ex) {
+		this.committed.completeExceptionally(ex);
+	}
+
+}
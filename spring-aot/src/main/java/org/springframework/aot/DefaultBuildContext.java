@@ -18,6 +18,7 @@ package org.springframework.aot;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
@@ -32,7 +33,8 @@ import org.springframework.nativex.domain.resources.ResourcesDescriptor;
 import org.springframework.nativex.domain.serialization.SerializationDescriptor;
 
 /**
- * Default implementation for the {@link BuildContext}
+ * Default implementation for the {@link BuildContext}. Contributions are thread-safe:
+ * each {@code describe*} callback is invoked atomically with regards to the others.
  */
 class DefaultBuildContext implements BuildContext {
 
@@ -44,7 +46,7 @@ class DefaultBuildContext implements BuildContext {
 
 	private final List<String> classpath;
 
-	private final Set<String> options = new LinkedHashSet<>();
+	private final Set<String> options = Collections.synchronizedSet(new LinkedHashSet<>());
 
 	private final List<SourceFile> sourceFiles = new ArrayList<>();
 
@@ -95,42 +97,42 @@ class DefaultBuildContext implements BuildContext {
 	}
 
 	@Override
-	public void addSourceFiles(SourceFile... sourceFiles) {
+	public synchronized void addSourceFiles(SourceFile... sourceFiles) {
 		this.sourceFiles.addAll(Arrays.asList(sourceFiles));
 	}
 
 	@Override
-	public void addResources(ResourceFile... resourceFiles) {
+	public synchronized void addResources(ResourceFile... resourceFiles) {
 		this.resourceFiles.addAll(Arrays.asList(resourceFiles));
 	}
 
 	@Override
-	public void describeReflection(Consumer<ReflectionDescriptor> consumer) {
+	public synchronized void describeReflection(Consumer<ReflectionDescriptor> consumer) {
 		consumer.accept(this.reflectionDescriptor);
 	}
 
 	@Override
-	public void describeJNIReflection(Consumer<ReflectionDescriptor> consumer) {
+	public synchronized void describeJNIReflection(Consumer<ReflectionDescriptor> consumer) {
 		consumer.accept(this.jniReflectionDescriptor);
 	}
 
 	@Override
-	public void describeSerialization(Consumer<SerializationDescriptor> consumer) {
+	public synchronized void describeSerialization(Consumer<SerializationDescriptor> consumer) {
 		consumer.accept(this.serializationDescriptor);
 	}
 
 	@Override
-	public void describeInitialization(Consumer<InitializationDescriptor> consumer) {
+	public synchronized void describeInitialization(Consumer<InitializationDescriptor> consumer) {
 		consumer.accept(this.initializationDescriptor);
 	}
 
 	@Override
-	public void describeProxies(Consumer<ProxiesDescriptor> consumer) {
+	public synchronized void describeProxies(Consumer<ProxiesDescriptor> consumer) {
 		consumer.accept(this.proxiesDescriptor);
 	}
 
 	@Override
-	public void describeResources(Consumer<ResourcesDescriptor> consumer) {
+	public synchronized void describeResources(Consumer<ResourcesDescriptor> consumer) {
 		consumer.accept(this.resourcesDescriptor);
 	}
 
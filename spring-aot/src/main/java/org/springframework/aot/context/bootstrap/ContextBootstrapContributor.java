@@ -16,19 +16,31 @@
 
 package org.springframework.aot.context.bootstrap;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.stream.Collectors;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.aot.BootstrapContributor;
 import org.springframework.aot.BuildContext;
+import org.springframework.aot.ResourceFile;
 import org.springframework.aot.SourceFiles;
+import org.springframework.aot.instrument.AotInstrumentation;
+import org.springframework.aot.instrument.AotInstrumentation.Phase;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.boot.AotApplicationContextFactory;
 import org.springframework.context.annotation.BuildTimeBeanDefinitionsRegistrar;
+import org.springframework.context.annotation.ConditionEvaluationCache;
 import org.springframework.context.bootstrap.generator.BootstrapGenerationResult;
 import org.springframework.context.bootstrap.generator.ContextBootstrapGenerator;
+import org.springframework.context.bootstrap.generator.ContextBootstrapGeneratorOptions;
 import org.springframework.context.support.GenericApplicationContext;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.PropertiesPropertySource;
@@ -66,9 +78,19 @@ public class ContextBootstrapContributor implements BootstrapContributor {
 		GenericApplicationContext applicationContext = new AotApplicationContextFactory(resourceLoader)
 				.createApplicationContext(applicationClass);
 		configureEnvironment(applicationContext.getEnvironment());
-		ConfigurableListableBeanFactory beanFactory = new BuildTimeBeanDefinitionsRegistrar().processBeanDefinitions(applicationContext);
-		ContextBootstrapGenerator bootstrapGenerator = new ContextBootstrapGenerator(classLoader);
-		BootstrapGenerationResult bootstrapGenerationResult = bootstrapGenerator.generateBootstrapClass(beanFactory, "org.springframework.aot");
+		ConditionEvaluationCache conditionEvaluationCache = loadConditionEvaluationCache(context, aotOptions);
+		ConfigurableListableBeanFactory beanFactory;
+		try (Phase phase = AotInstrumentation.start("context-bootstrap", "process-bean-definitions")) {
+			beanFactory = new BuildTimeBeanDefinitionsRegistrar(conditionEvaluationCache).processBeanDefinitions(applicationContext);
+		}
+		if (conditionEvaluationCache != null) {
+			saveConditionEvaluationCache(conditionEvaluationCache, aotOptions);
+		}
+		ContextBootstrapGenerator bootstrapGenerator = new ContextBootstrapGenerator(classLoader, createGeneratorOptions(aotOptions));
+		BootstrapGenerationResult bootstrapGenerationResult;
+		try (Phase phase = AotInstrumentation.start("context-bootstrap", "generate-bootstrap-class")) {
+			bootstrapGenerationResult = bootstrapGenerator.generateBootstrapClass(beanFactory, "org.springframework.aot");
+		}
 		bootstrapGenerationResult.getSourceFiles().forEach(javaFile -> context.addSourceFiles(SourceFiles.fromJavaFile(javaFile)));
 		context.getOptions().addAll(bootstrapGenerationResult.getOptions());
 		context.describeReflection(reflectionDescriptor -> bootstrapGenerationResult.getClassDescriptors().forEach(reflectionDescriptor::merge));
@@ -77,6 +99,51 @@ public class ContextBootstrapContributor implements BootstrapContributor {
 		context.describeInitialization(initializationDescriptor -> initializationDescriptor.merge(bootstrapGenerationResult.getInitializationDescriptor()));
 		context.describeSerialization(serializationDescriptor -> serializationDescriptor.merge(bootstrapGenerationResult.getSerializationDescriptor()));
 		context.describeJNIReflection(reflectionDescriptor -> bootstrapGenerationResult.getJniClassDescriptors().forEach(reflectionDescriptor::merge));
+		Map<String, String> fallbacks = bootstrapGenerationResult.getDependencyResolutionFallbacks();
+		if (!fallbacks.isEmpty()) {
+			logger.debug("Storing dependency resolution report for " + fallbacks.size() + " beans");
+			context.addResources(new ResourceFile() {
+				@Override
+				public void writeTo(Path rootPath) throws IOException {
+					Path nativeConfigFolder = rootPath.resolve(ResourceFile.NATIVE_CONFIG_PATH);
+					Files.createDirectories(nativeConfigFolder);
+					List<String> lines = fallbacks.entrySet().stream().map((entry) -> entry.getKey() + ": " + entry.getValue())
+							.sorted().collect(Collectors.toList());
+					Files.write(nativeConfigFolder.resolve("dependency-resolution-report.txt"), lines);
+				}
+			});
+		}
+	}
+
+	private ConditionEvaluationCache loadConditionEvaluationCache(BuildContext context, AotOptions aotOptions) {
+		if (aotOptions.getConditionEvaluationCache() == null) {
+			return null;
+		}
+		return ConditionEvaluationCache.load(Paths.get(aotOptions.getConditionEvaluationCache()),
+				context.getClasspath(), aotOptions.isVerifyConditionEvaluationCache());
+	}
+
+	private void saveConditionEvaluationCache(ConditionEvaluationCache cache, AotOptions aotOptions) {
+		logger.info("Condition evaluation cache: " + cache.getHitCount() + " hit(s), " + cache.getMissCount() + " miss(es)");
+		if (!cache.getMismatches().isEmpty()) {
+			logger.warn(cache.getMismatches().size() + " condition outcome(s) differ from the cache:");
+			cache.getMismatches().forEach((mismatch) -> logger.warn("  " + mismatch));
+		}
+		Path file = Paths.get(aotOptions.getConditionEvaluationCache());
+		try {
+			cache.save(file);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Failed to write condition evaluation cache " + file, ex);
+		}
+	}
+
+	private ContextBootstrapGeneratorOptions createGeneratorOptions(AotOptions aotOptions) {
+		ContextBootstrapGeneratorOptions.Builder options = ContextBootstrapGeneratorOptions.builder();
+		if (aotOptions.isParallelGeneration()) {
+			options.withParallelism(Runtime.getRuntime().availableProcessors());
+		}
+		return options.build();
 	}
 
 	private void configureEnvironment(ConfigurableEnvironment environment) {
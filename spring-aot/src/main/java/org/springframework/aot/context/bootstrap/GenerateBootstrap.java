@@ -75,6 +75,27 @@ public class GenerateBootstrap implements Callable<Integer> {
 	@Option(names = {"--remove-spel"}, description = "Remove SpEL support.")
 	private boolean removeSpel;
 
+	@Option(names = {"--parallel"}, description = "Process independent parts of the generation concurrently.")
+	private boolean parallel;
+
+	@Option(names = {"--fold-is-present"}, description = "Initialize classes only making isPresent checks at build time.")
+	private boolean foldIsPresent;
+
+	@Option(names = {"--infer-init"}, description = "Initialize classes whose static initializer has no side effects at build time.")
+	private boolean inferInitialization;
+
+	@Option(names = {"--instrumentation"}, description = "Record the time and allocations of each phase in a report.")
+	private boolean instrumentation;
+
+	@Option(names = {"--reflection-override"}, description = "Reflection configuration that replaces the computed one for the types it describes.")
+	private String reflectionConfigOverride;
+
+	@Option(names = {"--condition-cache"}, description = "File where condition outcomes are cached between builds.")
+	private String conditionEvaluationCache;
+
+	@Option(names = {"--verify-condition-cache"}, description = "Evaluate all conditions and report those that differ from the cache.")
+	private boolean verifyConditionEvaluationCache;
+
 	@Option(names = {"--props"}, split = ",", description = "Build time properties checks.")
 	private List<String> propertiesCheck = Collections.emptyList();
 
@@ -87,6 +108,13 @@ public class GenerateBootstrap implements Callable<Integer> {
 		aotOptions.setRemoveXmlSupport(this.removeXml);
 		aotOptions.setRemoveSpelSupport(this.removeSpel);
 		aotOptions.setBuildTimePropertiesChecks(propertiesCheck.toArray(new String[0]));
+		aotOptions.setParallelGeneration(this.parallel);
+		aotOptions.setFoldIsPresentChecks(this.foldIsPresent);
+		aotOptions.setInferBuildTimeInitialization(this.inferInitialization);
+		aotOptions.setInstrumentation(this.instrumentation);
+		aotOptions.setReflectionConfigOverride(this.reflectionConfigOverride);
+		aotOptions.setConditionEvaluationCache(this.conditionEvaluationCache);
+		aotOptions.setVerifyConditionEvaluationCache(this.verifyConditionEvaluationCache);
 
 		ConfigurableEnvironment environment = new StandardEnvironment();
 		LogFile logFile = LogFile.get(environment);
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.instrument;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Instrumentation of the phases of the AOT processing. Each phase emits an
+ * {@link AotPhaseEvent} when a JFR recording is in progress and, if
+ * {@link #startRecording() recording} has been started, is aggregated in an
+ * {@link AotInstrumentationReport}. When neither is the case, starting a phase has
+ * no effect.
+ * <p>
+ * Phases are identified by a category (for instance {@code contributor}) and a name
+ * (for instance the class name of the contributor), and should be used in a
+ * try-with-resources block:
+ * <pre class="code">
+ * try (Phase phase = AotInstrumentation.start("analysis", "resources")) {
+ *     // ...
+ * }
+ * </pre>
+ *
+ * @author agent
+ */
+public final class AotInstrumentation {
+
+	private static final Phase NO_OP = new Phase(null, null, null, null, null);
+
+	private static final ThreadLocal<Phase> currentPhase = new ThreadLocal<>();
+
+	private static final com.sun.management.ThreadMXBean threadMXBean = getThreadMXBean();
+
+	private static volatile AotInstrumentationReport report;
+
+	private AotInstrumentation() {
+	}
+
+	/**
+	 * Start aggregating the phases that complete from now on, on any thread.
+	 * @return the report that phases are aggregated in
+	 */
+	public static AotInstrumentationReport startRecording() {
+		AotInstrumentationReport newReport = new AotInstrumentationReport();
+		report = newReport;
+		return newReport;
+	}
+
+	/**
+	 * Stop aggregating phases.
+	 */
+	public static void stopRecording() {
+		report = null;
+	}
+
+	/**
+	 * Start a phase, that ends when the returned {@link Phase} is closed.
+	 * @param category the category of the phase
+	 * @param name the name of the phase within its category
+	 * @return the phase
+	 */
+	public static Phase start(String category, String name) {
+		AotInstrumentationReport currentReport = report;
+		AotPhaseEvent event = new AotPhaseEvent();
+		if (currentReport == null && !event.isEnabled()) {
+			return NO_OP;
+		}
+		Phase phase = new Phase(category, name, event.isEnabled() ? event : null, currentReport, currentPhase.get());
+		currentPhase.set(phase);
+		return phase;
+	}
+
+	private static long allocatedBytes() {
+		return (threadMXBean != null) ? threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+	}
+
+	private static com.sun.management.ThreadMXBean getThreadMXBean() {
+		ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean candidate = (com.sun.management.ThreadMXBean) threadMXBean;
+			if (candidate.isThreadAllocatedMemorySupported() && candidate.isThreadAllocatedMemoryEnabled()) {
+				return candidate;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * A phase in progress. The time and allocations of a phase include those of the
+	 * phases started on the same thread while it is in progress.
+	 */
+	public static final class Phase implements AutoCloseable {
+
+		private final String category;
+
+		private final String name;
+
+		private final AotPhaseEvent event;
+
+		private final AotInstrumentationReport report;
+
+		private final Phase parent;
+
+		private final long startNanos;
+
+		private final long startAllocated;
+
+		private long nestedNanos;
+
+		private long nestedAllocated;
+
+		private Phase(String category, String name, AotPhaseEvent event, AotInstrumentationReport report,
+				Phase parent) {
+			this.category = category;
+			this.name = name;
+			this.event = event;
+			this.report = report;
+			this.parent = parent;
+			if (event != null) {
+				event.begin();
+			}
+			this.startNanos = (category != null) ? System.nanoTime() : 0;
+			this.startAllocated = (category != null) ? allocatedBytes() : 0;
+		}
+
+		@Override
+		public void close() {
+			if (this.category == null) {
+				return;
+			}
+			long nanos = System.nanoTime() - this.startNanos;
+			long allocated = allocatedBytes() - this.startAllocated;
+			currentPhase.set(this.parent);
+			if (this.parent != null) {
+				this.parent.nestedNanos += nanos;
+				this.parent.nestedAllocated += allocated;
+			}
+			if (this.event != null) {
+				this.event.category = this.category;
+				this.event.name = this.name;
+				this.event.allocated = allocated;
+				this.event.commit();
+			}
+			if (this.report != null) {
+				this.report.record(this.category, this.name, nanos, nanos - this.nestedNanos, allocated,
+						allocated - this.nestedAllocated, isRecursive());
+			}
+		}
+
+		private boolean isRecursive() {
+			for (Phase candidate = this.parent; candidate != null; candidate = candidate.parent) {
+				if (this.category.equals(candidate.category) && this.name.equals(candidate.name)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+	}
+
+}
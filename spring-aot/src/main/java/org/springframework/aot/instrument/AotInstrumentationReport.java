@@ -0,0 +1,216 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.instrument;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.nativex.json.JSONArray;
+import org.springframework.nativex.json.JSONObject;
+
+/**
+ * Aggregation of the {@link AotInstrumentation phases} that completed while recording,
+ * by category and name, that can be written as JSON or HTML.
+ *
+ * @author agent
+ */
+public class AotInstrumentationReport {
+
+	private static final Comparator<PhaseStatistics> BY_SELF_TIME = Comparator
+			.comparingLong(PhaseStatistics::getSelfNanos).reversed()
+			.thenComparing(PhaseStatistics::getCategory).thenComparing(PhaseStatistics::getName);
+
+	private final Map<String, PhaseStatistics> statistics = new ConcurrentHashMap<>();
+
+	private final long startNanos = System.nanoTime();
+
+	void record(String category, String name, long nanos, long selfNanos, long allocated, long selfAllocated,
+			boolean recursive) {
+		this.statistics.computeIfAbsent(category + '\u0000' + name, (key) -> new PhaseStatistics(category, name))
+				.add(nanos, selfNanos, allocated, selfAllocated, recursive);
+	}
+
+	/**
+	 * Return the statistics of each phase, the phases that took the most time
+	 * themselves first.
+	 * @return the statistics of each phase
+	 */
+	public List<PhaseStatistics> getPhases() {
+		List<PhaseStatistics> phases = new ArrayList<>(this.statistics.values());
+		phases.sort(BY_SELF_TIME);
+		return phases;
+	}
+
+	/**
+	 * Write this report as JSON to the specified file.
+	 * @param file the file to write
+	 * @throws IOException if writing fails
+	 */
+	public void writeJson(Path file) throws IOException {
+		try {
+			JSONObject json = new JSONObject();
+			json.put("elapsedMillis", toMillis(System.nanoTime() - this.startNanos));
+			JSONArray phases = new JSONArray();
+			for (PhaseStatistics phase : getPhases()) {
+				JSONObject entry = new JSONObject();
+				entry.put("category", phase.getCategory());
+				entry.put("name", phase.getName());
+				entry.put("count", phase.getCount());
+				entry.put("totalMillis", toMillis(phase.getTotalNanos()));
+				entry.put("selfMillis", toMillis(phase.getSelfNanos()));
+				entry.put("maxMillis", toMillis(phase.getMaxNanos()));
+				entry.put("allocatedBytes", phase.getAllocatedBytes());
+				entry.put("selfAllocatedBytes", phase.getSelfAllocatedBytes());
+				phases.put(entry);
+			}
+			json.put("phases", phases);
+			write(file, json.toString(2));
+		}
+		catch (IOException ex) {
+			throw ex;
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * Write this report as an HTML page to the specified file.
+	 * @param file the file to write
+	 * @throws IOException if writing fails
+	 */
+	public void writeHtml(Path file) throws IOException {
+		StringBuilder html = new StringBuilder();
+		html.append("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"UTF-8\">\n<title>AOT processing report</title>\n");
+		html.append("<style>body{font-family:sans-serif}table{border-collapse:collapse}")
+				.append("th,td{border:1px solid #ccc;padding:2px 6px}td.n{text-align:right}</style>\n");
+		html.append("</head>\n<body>\n<h1>AOT processing report</h1>\n");
+		html.append(String.format("<p>Elapsed time: %.1f ms. Time and allocations of a phase include those of ",
+				toMillis(System.nanoTime() - this.startNanos)));
+		html.append("its nested phases, self values exclude them.</p>\n");
+		html.append("<table>\n<tr><th>Category</th><th>Name</th><th>Count</th><th>Total (ms)</th><th>Self (ms)</th>")
+				.append("<th>Max (ms)</th><th>Allocated (MB)</th><th>Self allocated (MB)</th></tr>\n");
+		for (PhaseStatistics phase : getPhases()) {
+			html.append(String.format("<tr><td>%s</td><td>%s</td><td class=\"n\">%d</td><td class=\"n\">%.1f</td>"
+					+ "<td class=\"n\">%.1f</td><td class=\"n\">%.1f</td><td class=\"n\">%.1f</td><td class=\"n\">%.1f</td></tr>\n",
+					escape(phase.getCategory()), escape(phase.getName()), phase.getCount(),
+					toMillis(phase.getTotalNanos()), toMillis(phase.getSelfNanos()), toMillis(phase.getMaxNanos()),
+					toMegabytes(phase.getAllocatedBytes()), toMegabytes(phase.getSelfAllocatedBytes())));
+		}
+		html.append("</table>\n</body>\n</html>\n");
+		write(file, html.toString());
+	}
+
+	private static void write(Path file, String content) throws IOException {
+		if (file.getParent() != null) {
+			Files.createDirectories(file.getParent());
+		}
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / 1_000_000d;
+	}
+
+	private static double toMegabytes(long bytes) {
+		return bytes / (1024d * 1024d);
+	}
+
+	private static String escape(String value) {
+		return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+	}
+
+	/**
+	 * Statistics of the phases with a given category and name.
+	 */
+	public static final class PhaseStatistics {
+
+		private final String category;
+
+		private final String name;
+
+		private long count;
+
+		private long totalNanos;
+
+		private long selfNanos;
+
+		private long maxNanos;
+
+		private long allocatedBytes;
+
+		private long selfAllocatedBytes;
+
+		PhaseStatistics(String category, String name) {
+			this.category = category;
+			this.name = name;
+		}
+
+		synchronized void add(long nanos, long selfNanos, long allocated, long selfAllocated, boolean recursive) {
+			this.count++;
+			this.selfNanos += selfNanos;
+			this.selfAllocatedBytes += selfAllocated;
+			// The total of a recursive phase is already accounted for by its outermost invocation
+			if (!recursive) {
+				this.totalNanos += nanos;
+				this.allocatedBytes += allocated;
+				this.maxNanos = Math.max(this.maxNanos, nanos);
+			}
+		}
+
+		public String getCategory() {
+			return this.category;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public synchronized long getCount() {
+			return this.count;
+		}
+
+		public synchronized long getTotalNanos() {
+			return this.totalNanos;
+		}
+
+		public synchronized long getSelfNanos() {
+			return this.selfNanos;
+		}
+
+		public synchronized long getMaxNanos() {
+			return this.maxNanos;
+		}
+
+		public synchronized long getAllocatedBytes() {
+			return this.allocatedBytes;
+		}
+
+		public synchronized long getSelfAllocatedBytes() {
+			return this.selfAllocatedBytes;
+		}
+
+	}
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.instrument;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event emitted for each {@link AotInstrumentation#start(String, String) phase}
+ * of the AOT processing.
+ *
+ * @author agent
+ */
+@Name("org.springframework.aot.Phase")
+@Label("AOT Phase")
+@Category({ "Spring", "AOT" })
+@Description("A phase of the AOT processing of a Spring application")
+@StackTrace(false)
+class AotPhaseEvent extends Event {
+
+	@Label("Category")
+	String category;
+
+	@Label("Name")
+	String name;
+
+	@Label("Allocated")
+	@Description("Bytes allocated by the thread during the phase, including nested phases")
+	@DataAmount
+	long allocated;
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.logging;
+
+import java.util.List;
+
+import com.squareup.javapoet.JavaFile;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.aot.BootstrapContributor;
+import org.springframework.aot.BuildContext;
+import org.springframework.aot.CodeGenerationException;
+import org.springframework.aot.SourceFiles;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.nativex.AotOptions;
+import org.springframework.nativex.domain.reflect.ClassDescriptor;
+import org.springframework.nativex.domain.reflect.MethodDescriptor;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Contribute a {@code StaticLogbackConfiguration} class that applies the Logback XML
+ * configuration of the application without parsing it at runtime. Substitutions of
+ * Logback's {@code ContextInitializer} and Spring Boot's {@code LogbackLoggingSystem}
+ * invoke it in place of Joran.
+ *
+ * <p>A configuration that cannot be translated fails the build with a report of the
+ * unsupported constructs.
+ *
+ * @author agent
+ */
+public class LogbackConfigurationContributor implements BootstrapContributor {
+
+	private static final Log logger = LogFactory.getLog(LogbackConfigurationContributor.class);
+
+	/**
+	 * The configuration files that are translated, in the order Spring Boot looks them up.
+	 */
+	static final String[] CONFIGURATION_FILES = { "logback.xml", "logback-spring.xml" };
+
+	private static final String LOGGER_CONTEXT = "ch.qos.logback.classic.LoggerContext";
+
+	@Override
+	public void contribute(BuildContext context, AotOptions aotOptions) {
+		ClassLoader classLoader = context.getTypeSystem().getResourceLoader().getClassLoader();
+		if (!ClassUtils.isPresent(LOGGER_CONTEXT, classLoader)) {
+			return;
+		}
+		for (String fileName : CONFIGURATION_FILES) {
+			ClassPathResource resource = new ClassPathResource(fileName, classLoader);
+			if (resource.exists()) {
+				contribute(context, resource, fileName, classLoader);
+				return;
+			}
+		}
+	}
+
+	private void contribute(BuildContext context, ClassPathResource resource, String fileName, ClassLoader classLoader) {
+		LogbackConfigurationGenerator generator = new LogbackConfigurationGenerator(classLoader);
+		JavaFile javaFile = generator.generate(resource, fileName);
+		List<String> problems = generator.getProblems();
+		if (!problems.isEmpty()) {
+			StringBuilder report = new StringBuilder("Logback configuration '" + fileName
+					+ "' cannot be translated for native, remove or rewrite the following constructs:");
+			problems.forEach((problem) -> report.append(System.lineSeparator()).append("\t- ").append(problem));
+			throw new CodeGenerationException(report.toString());
+		}
+		logger.debug("Translated Logback configuration " + resource.getDescription());
+		context.addSourceFiles(SourceFiles.fromJavaFile(javaFile));
+		generator.getReflectiveTypes().forEach((type) -> {
+			ClassDescriptor descriptor = ClassDescriptor.of(type);
+			descriptor.addMethodDescriptor(MethodDescriptor.of(MethodDescriptor.CONSTRUCTOR_NAME));
+			context.describeReflection((reflect) -> reflect.merge(descriptor));
+		});
+	}
+
+}
@@ -0,0 +1,748 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.logging;
+
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.lang.model.element.Modifier;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeSpec;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Translate a Logback XML configuration into a class that applies the same configuration
+ * programmatically. Components are instantiated with their constructor and configured
+ * with their setters, as Joran would, but the matching is done at build time so that
+ * no XML parsing nor reflection happens at runtime. Variables are still substituted at
+ * runtime and {@code <springProfile>} blocks are evaluated against the
+ * {@code Environment} of the application.
+ *
+ * <p>Constructs that cannot be translated are collected rather than ignored: the
+ * generated class is only available if {@link #getProblems()} is empty.
+ *
+ * @author agent
+ */
+class LogbackConfigurationGenerator {
+
+	static final ClassName GENERATED_CLASS = ClassName.get("org.springframework.aot", "StaticLogbackConfiguration");
+
+	private static final ClassName LOGGER_CONTEXT = ClassName.get("ch.qos.logback.classic", "LoggerContext");
+
+	private static final ClassName LOGGER = ClassName.get("ch.qos.logback.classic", "Logger");
+
+	private static final ClassName LEVEL = ClassName.get("ch.qos.logback.classic", "Level");
+
+	private static final ClassName OPTION_HELPER = ClassName.get("ch.qos.logback.core.util", "OptionHelper");
+
+	private static final ClassName CORE_CONSTANTS = ClassName.get("ch.qos.logback.core", "CoreConstants");
+
+	private static final ClassName CACHING_DATE_FORMATTER = ClassName.get("ch.qos.logback.core.util", "CachingDateFormatter");
+
+	private static final ClassName ON_CONSOLE_STATUS_LISTENER = ClassName.get("ch.qos.logback.core.status", "OnConsoleStatusListener");
+
+	private static final ClassName ENVIRONMENT = ClassName.get("org.springframework.core.env", "Environment");
+
+	private static final ClassName PROFILES = ClassName.get("org.springframework.core.env", "Profiles");
+
+	private static final String CONTEXT_AWARE = "ch.qos.logback.core.spi.ContextAware";
+
+	private static final String LIFE_CYCLE = "ch.qos.logback.core.spi.LifeCycle";
+
+	private static final String APPENDER_ATTACHABLE = "ch.qos.logback.core.spi.AppenderAttachable";
+
+	private static final String DEFAULT_CLASS = "ch.qos.logback.core.joran.spi.DefaultClass";
+
+	private static final String NO_AUTO_START = "ch.qos.logback.core.joran.spi.NoAutoStart";
+
+	// Same as Logback's DefaultNestedComponentRules
+	private static final Map<String, Map<String, String>> DEFAULT_NESTED_COMPONENTS = new LinkedHashMap<>();
+
+	static {
+		Map<String, String> appender = new HashMap<>();
+		appender.put("layout", "ch.qos.logback.classic.PatternLayout");
+		appender.put("encoder", "ch.qos.logback.classic.encoder.PatternLayoutEncoder");
+		DEFAULT_NESTED_COMPONENTS.put("ch.qos.logback.core.AppenderBase", appender);
+		DEFAULT_NESTED_COMPONENTS.put("ch.qos.logback.core.UnsynchronizedAppenderBase", appender);
+		DEFAULT_NESTED_COMPONENTS.put("ch.qos.logback.core.encoder.LayoutWrappingEncoder",
+				Collections.singletonMap("layout", "ch.qos.logback.classic.PatternLayout"));
+	}
+
+	private final ClassLoader classLoader;
+
+	private final List<String> problems = new ArrayList<>();
+
+	private final Map<String, String> appenders = new HashMap<>();
+
+	private final Set<String> scopedAppenders = new HashSet<>();
+
+	private final Set<String> reflectiveTypes = new LinkedHashSet<>();
+
+	private int variables;
+
+	LogbackConfigurationGenerator(ClassLoader classLoader) {
+		this.classLoader = classLoader;
+	}
+
+	/**
+	 * Generate the class that applies the specified configuration.
+	 * @param resource the XML configuration
+	 * @param fileName the name of the configuration file, matched against the location
+	 * that Logback or Spring Boot attempts to load at runtime
+	 * @return the generated class
+	 */
+	JavaFile generate(Resource resource, String fileName) {
+		CodeBlock.Builder code = CodeBlock.builder();
+		code.beginControlFlow("if (!location.equals($S) && !location.endsWith($S) && !location.endsWith($S))", fileName,
+				"/" + fileName, ":" + fileName);
+		code.addStatement("return false");
+		code.endControlFlow();
+		Element configuration = parse(resource);
+		if (configuration != null) {
+			if (!"configuration".equals(configuration.getTagName())) {
+				this.problems.add("Root element <" + configuration.getTagName() + "> is not supported, expected <configuration>");
+			}
+			else {
+				processConfigurationAttributes(configuration, code);
+				processConfigurationElements(configuration, "configuration", code);
+			}
+		}
+		code.addStatement("return true");
+		MethodSpec configure = MethodSpec.methodBuilder("configure")
+				.addJavadoc("Apply the configuration translated from {@code $L} at build time.\n", fileName)
+				.addJavadoc("@param location the location of the configuration that should be applied\n")
+				.addJavadoc("@param context the context to configure\n")
+				.addJavadoc("@param environment the environment to use for Spring profiles and properties, or {@code null}\n")
+				.addJavadoc("@return {@code true} if the configuration was applied\n")
+				.addModifiers(Modifier.PUBLIC, Modifier.STATIC).returns(boolean.class)
+				.addParameter(String.class, "location").addParameter(LOGGER_CONTEXT, "context")
+				.addParameter(ENVIRONMENT, "environment").addCode(code.build()).build();
+		MethodSpec resolve = MethodSpec.methodBuilder("resolve").addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.returns(String.class).addParameter(LOGGER_CONTEXT, "context").addParameter(String.class, "value")
+				.addStatement("return $T.substVars(value, context)", OPTION_HELPER).build();
+		MethodSpec toLevel = MethodSpec.methodBuilder("toLevel").addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.returns(LEVEL).addParameter(String.class, "value")
+				.beginControlFlow("if ($S.equalsIgnoreCase(value) || $S.equalsIgnoreCase(value))", "INHERITED", "NULL")
+				.addStatement("return null").endControlFlow()
+				.addStatement("return $T.toLevel(value, $T.DEBUG)", LEVEL, LEVEL).build();
+		MethodSpec isProfileActive = MethodSpec.methodBuilder("isProfileActive")
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC).returns(boolean.class)
+				.addParameter(ENVIRONMENT, "environment").addParameter(String[].class, "profiles").varargs()
+				.addStatement("return environment != null && environment.acceptsProfiles($T.of(profiles))", PROFILES)
+				.build();
+		TypeSpec type = TypeSpec.classBuilder(GENERATED_CLASS).addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+				.addJavadoc("Logback configuration translated from {@code $L}.\n", fileName)
+				.addMethod(configure).addMethod(resolve).addMethod(toLevel).addMethod(isProfileActive).build();
+		return JavaFile.builder(GENERATED_CLASS.packageName(), type).build();
+	}
+
+	/**
+	 * Return the constructs that could not be translated.
+	 * @return a description of each problem, or an empty list
+	 */
+	List<String> getProblems() {
+		return this.problems;
+	}
+
+	/**
+	 * Return the types that Logback instantiates reflectively at runtime, such as the
+	 * converters of conversion rules.
+	 * @return the names of the types
+	 */
+	Set<String> getReflectiveTypes() {
+		return this.reflectiveTypes;
+	}
+
+	private Element parse(Resource resource) {
+		try (InputStream in = resource.getInputStream()) {
+			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+			factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+			factory.setExpandEntityReferences(false);
+			DocumentBuilder builder = factory.newDocumentBuilder();
+			return builder.parse(in).getDocumentElement();
+		}
+		catch (Exception ex) {
+			this.problems.add("Failed to parse " + resource.getDescription() + ": " + ex.getMessage());
+			return null;
+		}
+	}
+
+	private void processConfigurationAttributes(Element configuration, CodeBlock.Builder code) {
+		for (Attr attribute : attributes(configuration)) {
+			String value = attribute.getValue().trim();
+			switch (attribute.getName()) {
+			case "debug":
+				if (Boolean.parseBoolean(value)) {
+					code.addStatement("$T.addNewInstanceToContext(context)", ON_CONSOLE_STATUS_LISTENER);
+				}
+				break;
+			case "packagingData":
+				code.addStatement("context.setPackagingDataEnabled($L)", Boolean.parseBoolean(value));
+				break;
+			case "scan":
+				if (Boolean.parseBoolean(value)) {
+					this.problems.add("configuration: scan=\"true\" is not supported, the configuration cannot change at runtime");
+				}
+				break;
+			case "scanPeriod":
+				break;
+			default:
+				this.problems.add("configuration: attribute '" + attribute.getName() + "' is not supported");
+			}
+		}
+	}
+
+	private void processConfigurationElements(Element parent, String path, CodeBlock.Builder code) {
+		for (Element element : children(parent)) {
+			String elementPath = path + "/" + element.getTagName();
+			switch (element.getTagName()) {
+			case "contextName":
+				code.addStatement("context.setName($L)", value(text(element)));
+				break;
+			case "property":
+			case "variable":
+				processProperty(element, elementPath, code);
+				break;
+			case "springProperty":
+				processSpringProperty(element, elementPath, code);
+				break;
+			case "timestamp":
+				processTimestamp(element, elementPath, code);
+				break;
+			case "conversionRule":
+				processConversionRule(element, elementPath, code);
+				break;
+			case "statusListener":
+				processStatusListener(element, elementPath, code);
+				break;
+			case "shutdownHook":
+				processShutdownHook(element, elementPath, code);
+				break;
+			case "turboFilter":
+				processTurboFilter(element, elementPath, code);
+				break;
+			case "appender":
+				processAppender(element, elementPath, code);
+				break;
+			case "logger":
+				processLogger(element, elementPath, code);
+				break;
+			case "root":
+				processRoot(element, elementPath, code);
+				break;
+			case "springProfile":
+				processSpringProfile(element, elementPath, code,
+						(nestedPath, nestedCode) -> processConfigurationElements(element, nestedPath, nestedCode));
+				break;
+			case "include":
+				processInclude(element, elementPath, code);
+				break;
+			default:
+				this.problems.add(elementPath + ": element is not supported");
+			}
+		}
+	}
+
+	private void processProperty(Element element, String path, CodeBlock.Builder code) {
+		String name = element.getAttribute("name");
+		if (element.hasAttribute("file") || element.hasAttribute("resource")) {
+			this.problems.add(path + ": properties loaded from a file or resource are not supported, use name and value");
+		}
+		else if (!StringUtils.hasText(name) || !element.hasAttribute("value")) {
+			this.problems.add(path + ": name and value are required");
+		}
+		else {
+			code.addStatement("context.putProperty($S, $L)", name, value(element.getAttribute("value")));
+		}
+	}
+
+	private void processSpringProperty(Element element, String path, CodeBlock.Builder code) {
+		String name = element.getAttribute("name");
+		String source = element.getAttribute("source");
+		if (!StringUtils.hasText(name) || !StringUtils.hasText(source)) {
+			this.problems.add(path + ": name and source are required");
+			return;
+		}
+		String variable = newVariable("property");
+		if (element.hasAttribute("defaultValue")) {
+			String defaultValue = element.getAttribute("defaultValue");
+			code.addStatement("String $L = (environment != null) ? environment.getProperty($S, $S) : $S", variable,
+					source, defaultValue, defaultValue);
+		}
+		else {
+			code.addStatement("String $L = (environment != null) ? environment.getProperty($S) : null", variable, source);
+		}
+		code.beginControlFlow("if ($L != null)", variable);
+		code.addStatement("context.putProperty($S, $L)", name, variable);
+		code.endControlFlow();
+	}
+
+	private void processTimestamp(Element element, String path, CodeBlock.Builder code) {
+		String key = element.getAttribute("key");
+		String datePattern = element.getAttribute("datePattern");
+		if (!StringUtils.hasText(key) || !StringUtils.hasText(datePattern)) {
+			this.problems.add(path + ": key and datePattern are required");
+			return;
+		}
+		String time = "contextBirth".equalsIgnoreCase(element.getAttribute("timeReference"))
+				? "context.getBirthTime()" : "System.currentTimeMillis()";
+		code.addStatement("context.putProperty($S, new $T($L).format($L))", key, CACHING_DATE_FORMATTER,
+				value(datePattern), time);
+	}
+
+	private void processConversionRule(Element element, String path, CodeBlock.Builder code) {
+		String word = element.getAttribute("conversionWord");
+		String converterClass = element.getAttribute("converterClass");
+		if (!StringUtils.hasText(word) || !StringUtils.hasText(converterClass)) {
+			this.problems.add(path + ": conversionWord and converterClass are required");
+			return;
+		}
+		if (loadClass(converterClass, path) == null) {
+			return;
+		}
+		// PatternLayout instantiates converters reflectively
+		this.reflectiveTypes.add(converterClass);
+		String registry = newVariable("registry");
+		code.addStatement("@SuppressWarnings(\"unchecked\") $T<String, String> $L = ($T<String, String>) context.getObject($T.PATTERN_RULE_REGISTRY)",
+				Map.class, registry, Map.class, CORE_CONSTANTS);
+		code.beginControlFlow("if ($L == null)", registry);
+		code.addStatement("$L = new $T<>()", registry, HashMap.class);
+		code.addStatement("context.putObject($T.PATTERN_RULE_REGISTRY, $L)", CORE_CONSTANTS, registry);
+		code.endControlFlow();
+		code.addStatement("$L.put($S, $S)", registry, word, converterClass);
+	}
+
+	private void processStatusListener(Element element, String path, CodeBlock.Builder code) {
+		String variable = processComponent(element, path, null, code);
+		if (variable != null) {
+			code.addStatement("context.getStatusManager().add($L)", variable);
+		}
+	}
+
+	private void processShutdownHook(Element element, String path, CodeBlock.Builder code) {
+		String variable = processComponent(element, path, "ch.qos.logback.core.hook.DelayingShutdownHook", code);
+		if (variable != null) {
+			code.addStatement("Runtime.getRuntime().addShutdownHook(new Thread($L, \"Logback shutdown hook [\" + context.getName() + \"]\"))",
+					variable);
+		}
+	}
+
+	private void processTurboFilter(Element element, String path, CodeBlock.Builder code) {
+		String variable = processComponent(element, path, null, code);
+		if (variable != null) {
+			code.addStatement("context.addTurboFilter($L)", variable);
+		}
+	}
+
+	private void processAppender(Element element, String path, CodeBlock.Builder code) {
+		String name = element.getAttribute("name");
+		if (!StringUtils.hasText(name)) {
+			this.problems.add(path + ": name is required");
+			return;
+		}
+		String appenderPath = path + "[" + name + "]";
+		Class<?> type = loadComponentClass(element, appenderPath, null);
+		if (type == null) {
+			return;
+		}
+		String variable = newInstance(type, code);
+		code.addStatement("$L.setName($S)", variable, name);
+		processProperties(element, appenderPath, type, variable, code);
+		code.addStatement("$L.start()", variable);
+		this.appenders.put(name, variable);
+	}
+
+	private void processLogger(Element element, String path, CodeBlock.Builder code) {
+		String name = element.getAttribute("name");
+		if (!StringUtils.hasText(name)) {
+			this.problems.add(path + ": name is required");
+			return;
+		}
+		String variable = newVariable("logger");
+		code.addStatement("$T $L = context.getLogger($L)", LOGGER, variable, value(name));
+		if (element.hasAttribute("additivity")) {
+			code.addStatement("$L.setAdditive($T.toBoolean($L, true))", variable, OPTION_HELPER,
+					value(element.getAttribute("additivity")));
+		}
+		processLoggerElements(element, path + "[" + name + "]", variable, code);
+	}
+
+	private void processRoot(Element element, String path, CodeBlock.Builder code) {
+		String variable = newVariable("root");
+		code.addStatement("$T $L = context.getLogger($T.ROOT_LOGGER_NAME)", LOGGER, variable, LOGGER);
+		processLoggerElements(element, path, variable, code);
+	}
+
+	private void processLoggerElements(Element element, String path, String variable, CodeBlock.Builder code) {
+		if (element.hasAttribute("level")) {
+			code.addStatement("$L.setLevel(toLevel($L))", variable, value(element.getAttribute("level")));
+		}
+		for (Element child : children(element)) {
+			String childPath = path + "/" + child.getTagName();
+			switch (child.getTagName()) {
+			case "level":
+				code.addStatement("$L.setLevel(toLevel($L))", variable, value(child.getAttribute("value")));
+				break;
+			case "appender-ref":
+				String appender = appenderVariable(child, childPath);
+				if (appender != null) {
+					code.addStatement("$L.addAppender($L)", variable, appender);
+				}
+				break;
+			case "springProfile":
+				processSpringProfile(child, childPath, code,
+						(nestedPath, nestedCode) -> processLoggerElements(child, nestedPath, variable, nestedCode));
+				break;
+			default:
+				this.problems.add(childPath + ": element is not supported");
+			}
+		}
+	}
+
+	private void processSpringProfile(Element element, String path, CodeBlock.Builder code, NestedElements nested) {
+		String[] profiles = StringUtils.trimArrayElements(StringUtils.commaDelimitedListToStringArray(element.getAttribute("name")));
+		if (profiles.length == 0) {
+			this.problems.add(path + ": name is required");
+			return;
+		}
+		CodeBlock arguments = Arrays.stream(profiles).map((profile) -> CodeBlock.of("$S", profile))
+				.collect(CodeBlock.joining(", "));
+		code.beginControlFlow("if (isProfileActive(environment, $L))", arguments);
+		Set<String> appenders = new HashSet<>(this.appenders.keySet());
+		nested.process(path + "[" + element.getAttribute("name") + "]", code);
+		code.endControlFlow();
+		// Appenders defined in the block are out of scope past this point
+		this.appenders.keySet().removeIf((name) -> !appenders.contains(name) && this.scopedAppenders.add(name));
+	}
+
+	private void processInclude(Element element, String path, CodeBlock.Builder code) {
+		String resource = element.getAttribute("resource");
+		if (!StringUtils.hasText(resource)) {
+			this.problems.add(path + ": only includes of a classpath resource are supported");
+			return;
+		}
+		String location = resource.startsWith("/") ? resource.substring(1) : resource;
+		if (this.classLoader.getResource(location) == null) {
+			if (!Boolean.parseBoolean(element.getAttribute("optional"))) {
+				this.problems.add(path + ": resource '" + resource + "' not found");
+			}
+			return;
+		}
+		Element included = parse(new ClassPathResource(location, this.classLoader));
+		if (included != null) {
+			// Included files have an <included> root element
+			processConfigurationElements(included, path + "[" + resource + "]", code);
+		}
+	}
+
+	/**
+	 * Generate the instantiation of a component and the invocation of its setters, but
+	 * not its registration.
+	 * @return the variable holding the component or {@code null} if it is not supported
+	 */
+	private String processComponent(Element element, String path, String defaultClassName, CodeBlock.Builder code) {
+		Class<?> type = loadComponentClass(element, path, defaultClassName);
+		if (type == null) {
+			return null;
+		}
+		String variable = newInstance(type, code);
+		processProperties(element, path, type, variable, code);
+		if (isAssignable(LIFE_CYCLE, type) && !isAnnotated(type, NO_AUTO_START)) {
+			code.addStatement("$L.start()", variable);
+		}
+		return variable;
+	}
+
+	private void processProperties(Element element, String path, Class<?> type, String variable, CodeBlock.Builder code) {
+		for (Element child : children(element)) {
+			String name = child.getTagName();
+			String childPath = path + "/" + name;
+			if (name.equals("springProfile")) {
+				processSpringProfile(child, childPath, code,
+						(nestedPath, nestedCode) -> processProperties(child, nestedPath, type, variable, nestedCode));
+			}
+			else if (name.equals("appender-ref") && isAssignable(APPENDER_ATTACHABLE, type)) {
+				String appender = appenderVariable(child, childPath);
+				if (appender != null) {
+					code.addStatement("$L.addAppender($L)", variable, appender);
+				}
+			}
+			else {
+				processProperty(child, childPath, type, variable, code);
+			}
+		}
+	}
+
+	private void processProperty(Element element, String path, Class<?> type, String variable, CodeBlock.Builder code) {
+		String name = element.getTagName();
+		Method method = findMethod(type, "add" + StringUtils.capitalize(name));
+		if (method == null) {
+			method = findMethod(type, "set" + StringUtils.capitalize(name));
+		}
+		if (method == null) {
+			this.problems.add(path + ": no property '" + name + "' on " + type.getName());
+			return;
+		}
+		Class<?> parameterType = method.getParameterTypes()[0];
+		if (!element.hasAttribute("class") && isBasic(parameterType)) {
+			CodeBlock value = convert(text(element), parameterType, path);
+			if (value != null) {
+				code.addStatement("$L.$L($L)", variable, method.getName(), value);
+			}
+			return;
+		}
+		String defaultClassName = defaultClassName(method, type, name);
+		if (defaultClassName == null && !parameterType.isInterface() && !java.lang.reflect.Modifier.isAbstract(parameterType.getModifiers())) {
+			defaultClassName = parameterType.getName();
+		}
+		Class<?> nestedType = loadComponentClass(element, path, defaultClassName);
+		if (nestedType == null) {
+			return;
+		}
+		if (!parameterType.isAssignableFrom(nestedType)) {
+			this.problems.add(path + ": " + nestedType.getName() + " is not assignable to " + parameterType.getName());
+			return;
+		}
+		String nested = newInstance(nestedType, code);
+		processProperties(element, path, nestedType, nested, code);
+		Method setParent = findMethod(nestedType, "setParent");
+		if (setParent != null && setParent.getParameterTypes()[0].isAssignableFrom(type)) {
+			code.addStatement("$L.setParent($L)", nested, variable);
+		}
+		if (isAssignable(LIFE_CYCLE, nestedType) && !isAnnotated(nestedType, NO_AUTO_START)) {
+			code.addStatement("$L.start()", nested);
+		}
+		code.addStatement("$L.$L($L)", variable, method.getName(), nested);
+	}
+
+	private String defaultClassName(Method method, Class<?> parentType, String name) {
+		for (Annotation annotation : method.getAnnotations()) {
+			if (annotation.annotationType().getName().equals(DEFAULT_CLASS)) {
+				try {
+					return ((Class<?>) annotation.annotationType().getMethod("value").invoke(annotation)).getName();
+				}
+				catch (Exception ex) {
+					throw new IllegalStateException("Failed to read " + annotation, ex);
+				}
+			}
+		}
+		for (Map.Entry<String, Map<String, String>> entry : DEFAULT_NESTED_COMPONENTS.entrySet()) {
+			if (isAssignable(entry.getKey(), parentType) && entry.getValue().containsKey(name)) {
+				return entry.getValue().get(name);
+			}
+		}
+		return null;
+	}
+
+	private Class<?> loadComponentClass(Element element, String path, String defaultClassName) {
+		String className = element.hasAttribute("class") ? element.getAttribute("class").trim() : defaultClassName;
+		if (!StringUtils.hasText(className)) {
+			this.problems.add(path + ": class is required");
+			return null;
+		}
+		if (className.contains("${")) {
+			this.problems.add(path + ": class '" + className + "' must not use variables");
+			return null;
+		}
+		Class<?> type = loadClass(className, path);
+		if (type == null) {
+			return null;
+		}
+		if (!java.lang.reflect.Modifier.isPublic(type.getModifiers()) || java.lang.reflect.Modifier.isAbstract(type.getModifiers())) {
+			this.problems.add(path + ": " + className + " must be a public concrete class");
+			return null;
+		}
+		try {
+			Constructor<?> constructor = type.getConstructor();
+			if (!java.lang.reflect.Modifier.isPublic(constructor.getModifiers())) {
+				throw new NoSuchMethodException();
+			}
+		}
+		catch (NoSuchMethodException ex) {
+			this.problems.add(path + ": " + className + " must have a public no-arg constructor");
+			return null;
+		}
+		return type;
+	}
+
+	private Class<?> loadClass(String className, String path) {
+		try {
+			return ClassUtils.forName(className, this.classLoader);
+		}
+		catch (ClassNotFoundException | LinkageError ex) {
+			this.problems.add(path + ": class " + className + " not found");
+			return null;
+		}
+	}
+
+	private String newInstance(Class<?> type, CodeBlock.Builder code) {
+		String variable = newVariable(StringUtils.uncapitalize(type.getSimpleName()));
+		code.addStatement("$T $L = new $T()", type, variable, type);
+		if (isAssignable(CONTEXT_AWARE, type)) {
+			code.addStatement("$L.setContext(context)", variable);
+		}
+		return variable;
+	}
+
+	private String newVariable(String prefix) {
+		return prefix + (this.variables++);
+	}
+
+	private String appenderVariable(Element element, String path) {
+		String ref = element.getAttribute("ref");
+		String variable = this.appenders.get(ref);
+		if (variable == null && this.scopedAppenders.contains(ref)) {
+			this.problems.add(path + ": appender '" + ref + "' is defined in a <springProfile> block and must be referenced in the same block");
+		}
+		else if (variable == null) {
+			this.problems.add(path + ": appender '" + ref + "' must be defined before it is referenced");
+		}
+		return variable;
+	}
+
+	private boolean isBasic(Class<?> type) {
+		return type == String.class || ClassUtils.isPrimitiveOrWrapper(type) || type.isEnum()
+				|| Charset.class.isAssignableFrom(type) || findValueOf(type) != null;
+	}
+
+	private CodeBlock convert(String text, Class<?> type, String path) {
+		CodeBlock value = value(text);
+		if (type == String.class) {
+			return value;
+		}
+		Class<?> wrapper = ClassUtils.resolvePrimitiveIfNecessary(type);
+		if (wrapper == Boolean.class) {
+			return CodeBlock.of("$T.parseBoolean($L.trim())", Boolean.class, value);
+		}
+		if (wrapper == Integer.class || wrapper == Long.class || wrapper == Short.class || wrapper == Byte.class
+				|| wrapper == Float.class || wrapper == Double.class) {
+			return CodeBlock.of("$T.valueOf($L.trim())", wrapper, value);
+		}
+		if (type.isEnum()) {
+			if (!text.contains("${") && Arrays.stream(type.getEnumConstants()).noneMatch((constant) -> ((Enum<?>) constant).name().equals(text))) {
+				this.problems.add(path + ": '" + text + "' is not a valid " + type.getName());
+				return null;
+			}
+			return CodeBlock.of("$T.valueOf($L.trim())", type, value);
+		}
+		if (Charset.class.isAssignableFrom(type)) {
+			return CodeBlock.of("$T.forName($L.trim())", Charset.class, value);
+		}
+		if (java.lang.reflect.Modifier.isPublic(type.getModifiers())) {
+			return CodeBlock.of("$T.valueOf($L.trim())", type, value);
+		}
+		this.problems.add(path + ": " + type.getName() + " is not public");
+		return null;
+	}
+
+	private static Method findValueOf(Class<?> type) {
+		try {
+			Method valueOf = type.getMethod("valueOf", String.class);
+			return (java.lang.reflect.Modifier.isStatic(valueOf.getModifiers()) && type.isAssignableFrom(valueOf.getReturnType())) ? valueOf : null;
+		}
+		catch (NoSuchMethodException ex) {
+			return null;
+		}
+	}
+
+	private static Method findMethod(Class<?> type, String name) {
+		for (Method method : type.getMethods()) {
+			if (method.getName().equals(name) && method.getParameterCount() == 1 && !java.lang.reflect.Modifier.isStatic(method.getModifiers())) {
+				return method;
+			}
+		}
+		return null;
+	}
+
+	private boolean isAssignable(String typeName, Class<?> type) {
+		try {
+			return ClassUtils.forName(typeName, this.classLoader).isAssignableFrom(type);
+		}
+		catch (ClassNotFoundException | LinkageError ex) {
+			return false;
+		}
+	}
+
+	private static boolean isAnnotated(Class<?> type, String annotationName) {
+		return Arrays.stream(type.getAnnotations()).anyMatch((annotation) -> annotation.annotationType().getName().equals(annotationName));
+	}
+
+	private static CodeBlock value(String value) {
+		return value.contains("${") ? CodeBlock.of("resolve(context, $S)", value) : CodeBlock.of("$S", value);
+	}
+
+	private static String text(Element element) {
+		return element.getTextContent().trim();
+	}
+
+	private static List<Element> children(Element element) {
+		List<Element> children = new ArrayList<>();
+		NodeList nodes = element.getChildNodes();
+		for (int i = 0; i < nodes.getLength(); i++) {
+			if (nodes.item(i).getNodeType() == Node.ELEMENT_NODE) {
+				children.add((Element) nodes.item(i));
+			}
+		}
+		return children;
+	}
+
+	private static List<Attr> attributes(Element element) {
+		List<Attr> attributes = new ArrayList<>();
+		NamedNodeMap nodes = element.getAttributes();
+		for (int i = 0; i < nodes.getLength(); i++) {
+			attributes.add((Attr) nodes.item(i));
+		}
+		return attributes;
+	}
+
+	@FunctionalInterface
+	private interface NestedElements {
+
+		void process(String path, CodeBlock.Builder code);
+
+	}
+
+}
@@ -19,6 +19,7 @@ package org.springframework.aot.nativex;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
@@ -26,9 +27,13 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -38,15 +43,20 @@ import org.springframework.aop.framework.ProxyGenerator;
 import org.springframework.aot.BootstrapContributor;
 import org.springframework.aot.BuildContext;
 import org.springframework.aot.ResourceFile;
+import org.springframework.aot.context.bootstrap.ContextBootstrapContributor;
 import org.springframework.boot.loader.tools.MainClassFinder;
 import org.springframework.nativex.AotOptions;
 import org.springframework.nativex.domain.proxies.AotProxyDescriptor;
 import org.springframework.nativex.domain.proxies.JdkProxyDescriptor;
 import org.springframework.nativex.domain.reflect.ClassDescriptor;
+import org.springframework.nativex.domain.reflect.FieldDescriptor;
+import org.springframework.nativex.domain.reflect.JsonMarshaller;
+import org.springframework.nativex.domain.reflect.MethodDescriptor;
 import org.springframework.nativex.domain.reflect.ReflectionDescriptor;
 import org.springframework.nativex.hint.Flag;
 import org.springframework.nativex.support.ConfigurationCollector;
 import org.springframework.nativex.support.SpringAnalyzer;
+import org.springframework.nativex.type.InitializationDecision;
 import org.springframework.nativex.type.TypeSystem;
 
 import net.bytebuddy.description.type.TypeDescription;
@@ -62,6 +72,19 @@ import net.bytebuddy.dynamic.DynamicType.Unloaded;
 public class ConfigurationContributor implements BootstrapContributor {
 	
 	private static Log logger = LogFactory.getLog(ConfigurationContributor.class);
+
+	private static final Set<Flag> METHOD_FLAGS = EnumSet.of(Flag.allDeclaredMethods, Flag.allPublicMethods);
+
+	private static final Set<Flag> CONSTRUCTOR_FLAGS = EnumSet.of(Flag.allDeclaredConstructors,
+			Flag.allPublicConstructors);
+
+	private static final Set<Flag> FIELD_FLAGS = EnumSet.of(Flag.allDeclaredFields, Flag.allPublicFields);
+
+	@Override
+	public Set<Class<? extends BootstrapContributor>> getDependencies() {
+		// AOT proxies and options are contributed by the context bootstrap
+		return Collections.singleton(ContextBootstrapContributor.class);
+	}
 	
 	@Override
 	public void contribute(BuildContext context, AotOptions aotOptions) {
@@ -71,7 +94,17 @@ public class ConfigurationContributor implements BootstrapContributor {
 		springAnalyzer.analyze();
 		ConfigurationCollector configurationCollector = springAnalyzer.getConfigurationCollector();
 		processBuildTimeClassProxyRequests(context, configurationCollector);
-		context.describeReflection(reflect -> reflect.merge(configurationCollector.getReflectionDescriptor()));
+		Path reflectionConfigOverrideFile = getReflectionConfigOverrideFile(aotOptions);
+		ReflectionDescriptor reflectionConfigOverride = (reflectionConfigOverrideFile != null)
+				? readReflectionDescriptor(reflectionConfigOverrideFile) : null;
+		ReflectionDescriptor reflectionConfigOverrideInput = (reflectionConfigOverrideFile != null)
+				? readReflectionDescriptor(getReflectionConfigOverrideInputFile(reflectionConfigOverrideFile)) : null;
+		context.describeReflection(reflect -> {
+			reflect.merge(configurationCollector.getReflectionDescriptor());
+			if (reflectionConfigOverride != null) {
+				applyReflectionConfigOverride(reflect, reflectionConfigOverride, reflectionConfigOverrideInput);
+			}
+		});
 		context.describeResources(resources -> resources.merge(configurationCollector.getResourcesDescriptors()));
 		context.describeProxies(proxies -> proxies.merge(configurationCollector.getProxyDescriptors()));
 		context.describeSerialization(serial -> serial.merge(configurationCollector.getSerializationDescriptor()));
@@ -108,6 +141,154 @@ public class ConfigurationContributor implements BootstrapContributor {
 				}
 			}
 		});
+		List<InitializationDecision> initializationDecisions = configurationCollector.getInitializationDecisions();
+		if (!initializationDecisions.isEmpty()) {
+			logger.debug("Storing initialization report for " + initializationDecisions.size() + " classes");
+			context.addResources(new ResourceFile() {
+				@Override
+				public void writeTo(Path rootPath) throws IOException {
+					Path nativeConfigFolder = rootPath.resolve(ResourceFile.NATIVE_CONFIG_PATH);
+					Files.createDirectories(nativeConfigFolder);
+					List<String> lines = initializationDecisions.stream().map(InitializationDecision::toString)
+							.sorted().collect(Collectors.toList());
+					Files.write(nativeConfigFolder.resolve("initialization-report.txt"), lines);
+				}
+			});
+		}
+	}
+
+	private Path getReflectionConfigOverrideFile(AotOptions aotOptions) {
+		if (aotOptions.getReflectionConfigOverride() == null) {
+			return null;
+		}
+		Path file = Paths.get(aotOptions.getReflectionConfigOverride());
+		if (!Files.isRegularFile(file)) {
+			logger.info("Reflection configuration override " + file + " does not exist, using the computed configuration");
+			return null;
+		}
+		Path inputFile = getReflectionConfigOverrideInputFile(file);
+		if (!Files.isRegularFile(inputFile)) {
+			logger.warn("Reflection configuration override " + file + " has no " + inputFile.getFileName()
+					+ " describing the configuration it was pruned from, using the computed configuration");
+			return null;
+		}
+		return file;
+	}
+
+	/**
+	 * Return the file that describes the configuration that the specified override was
+	 * pruned from, as written by {@code ReflectionJsonPrune} next to its result.
+	 */
+	static Path getReflectionConfigOverrideInputFile(Path file) {
+		String name = file.getFileName().toString();
+		String baseName = name.endsWith(".json") ? name.substring(0, name.length() - ".json".length()) : name;
+		return file.resolveSibling(baseName + "-input.json");
+	}
+
+	private ReflectionDescriptor readReflectionDescriptor(Path file) {
+		try (InputStream in = Files.newInputStream(file)) {
+			return JsonMarshaller.read(in);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unable to read reflection configuration override " + file, ex);
+		}
+	}
+
+	/**
+	 * Prune the configuration of the types that the override describes. Only the flags
+	 * and members that the configuration the override was pruned from knew about are
+	 * pruned: a member is removed if that input covered it and the override does not,
+	 * so that members that are required since the override was produced are kept.
+	 * Flags that have been pruned are replaced with the members of the override that
+	 * they covered. Types that the override does not describe are left as is, and the
+	 * entries of the override for types that are no longer registered are ignored.
+	 */
+	static void applyReflectionConfigOverride(ReflectionDescriptor reflectionDescriptor, ReflectionDescriptor override,
+			ReflectionDescriptor overrideInput) {
+		Map<String, ClassDescriptor> overrides = index(override);
+		Map<String, ClassDescriptor> inputs = index(overrideInput);
+		int pruned = 0;
+		List<ClassDescriptor> classDescriptors = reflectionDescriptor.getClassDescriptors();
+		for (int i = 0; i < classDescriptors.size(); i++) {
+			ClassDescriptor classDescriptor = classDescriptors.get(i);
+			ClassDescriptor overrideEntry = overrides.get(classDescriptor.getName());
+			ClassDescriptor inputEntry = inputs.get(classDescriptor.getName());
+			if (overrideEntry != null && inputEntry != null) {
+				classDescriptors.set(i, prune(classDescriptor, inputEntry, overrideEntry));
+				pruned++;
+			}
+		}
+		logger.debug("Reflection configuration override pruned the configuration of " + pruned + " of "
+				+ classDescriptors.size() + " types");
+	}
+
+	private static Map<String, ClassDescriptor> index(ReflectionDescriptor reflectionDescriptor) {
+		Map<String, ClassDescriptor> index = new HashMap<>();
+		for (ClassDescriptor classDescriptor : reflectionDescriptor.getClassDescriptors()) {
+			index.put(classDescriptor.getName(), classDescriptor);
+		}
+		return index;
+	}
+
+	private static ClassDescriptor prune(ClassDescriptor computed, ClassDescriptor input, ClassDescriptor override) {
+		ClassDescriptor result = ClassDescriptor.of(computed.getName());
+		Set<Flag> prunedFlags = EnumSet.noneOf(Flag.class);
+		if (computed.getFlags() != null) {
+			for (Flag flag : computed.getFlags()) {
+				if (hasFlag(input, flag) && !hasFlag(override, flag)) {
+					prunedFlags.add(flag);
+				}
+				else {
+					result.setFlag(flag);
+				}
+			}
+		}
+		if (computed.getMethods() != null) {
+			for (MethodDescriptor method : computed.getMethods()) {
+				Set<Flag> flags = getMemberFlags(method);
+				boolean known = input.contains(method) || hasAnyFlag(input, flags);
+				if (!known || override.contains(method) || hasAnyFlag(override, flags)) {
+					result.addMethodDescriptor(method);
+				}
+			}
+		}
+		if (override.getMethods() != null) {
+			for (MethodDescriptor method : override.getMethods()) {
+				if (!Collections.disjoint(prunedFlags, getMemberFlags(method)) && !result.contains(method)) {
+					result.addMethodDescriptor(method);
+				}
+			}
+		}
+		if (computed.getFields() != null) {
+			for (FieldDescriptor field : computed.getFields()) {
+				boolean known = input.getFieldDescriptorNamed(field.getName()) != null
+						|| hasAnyFlag(input, FIELD_FLAGS);
+				if (!known || override.getFieldDescriptorNamed(field.getName()) != null
+						|| hasAnyFlag(override, FIELD_FLAGS)) {
+					result.addFieldDescriptor(field);
+				}
+			}
+		}
+		if (override.getFields() != null && !Collections.disjoint(prunedFlags, FIELD_FLAGS)) {
+			for (FieldDescriptor field : override.getFields()) {
+				if (result.getFieldDescriptorNamed(field.getName()) == null) {
+					result.addFieldDescriptor(field);
+				}
+			}
+		}
+		return result;
+	}
+
+	private static Set<Flag> getMemberFlags(MethodDescriptor method) {
+		return method.getName().equals(MethodDescriptor.CONSTRUCTOR_NAME) ? CONSTRUCTOR_FLAGS : METHOD_FLAGS;
+	}
+
+	private static boolean hasFlag(ClassDescriptor classDescriptor, Flag flag) {
+		return classDescriptor.getFlags() != null && classDescriptor.getFlags().contains(flag);
+	}
+
+	private static boolean hasAnyFlag(ClassDescriptor classDescriptor, Set<Flag> flags) {
+		return classDescriptor.getFlags() != null && !Collections.disjoint(classDescriptor.getFlags(), flags);
 	}
 
 	private String getMainClass(BuildContext context) {
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.properties;
+
+import com.squareup.javapoet.JavaFile;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.aot.BootstrapContributor;
+import org.springframework.aot.BuildContext;
+import org.springframework.aot.CodeGenerationException;
+import org.springframework.aot.SourceFiles;
+import org.springframework.nativex.AotOptions;
+import org.springframework.nativex.PrecompiledPropertySourceLoader;
+import org.springframework.nativex.domain.reflect.ClassDescriptor;
+import org.springframework.nativex.domain.reflect.MethodDescriptor;
+
+/**
+ * Contribute a {@code StaticApplicationProperties} class holding the property sources
+ * of the {@code application.properties} and {@code application.yml} files of the
+ * application, so that they do not have to be parsed at runtime. The class is used by
+ * {@link PrecompiledPropertySourceLoader}.
+ *
+ * @author agent
+ */
+public class ApplicationPropertiesContributor implements BootstrapContributor {
+
+	private static final Log logger = LogFactory.getLog(ApplicationPropertiesContributor.class);
+
+	@Override
+	public void contribute(BuildContext context, AotOptions aotOptions) {
+		ClassLoader classLoader = context.getTypeSystem().getResourceLoader().getClassLoader();
+		ApplicationPropertiesGenerator generator = new ApplicationPropertiesGenerator(classLoader);
+		JavaFile javaFile;
+		try {
+			javaFile = generator.generate();
+		}
+		catch (Exception ex) {
+			throw new CodeGenerationException("Could not generate application properties source code", ex);
+		}
+		if (javaFile == null) {
+			return;
+		}
+		logger.debug("Precompiled configuration files " + generator.getLocations());
+		context.addSourceFiles(SourceFiles.fromJavaFile(javaFile));
+		// Instantiated by PrecompiledPropertySourceLoader
+		ClassDescriptor descriptor = ClassDescriptor.of(ApplicationPropertiesGenerator.GENERATED_CLASS.canonicalName());
+		descriptor.addMethodDescriptor(MethodDescriptor.of(MethodDescriptor.CONSTRUCTOR_NAME));
+		context.describeReflection((reflect) -> reflect.merge(descriptor));
+	}
+
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.properties;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import javax.lang.model.element.Modifier;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.boot.env.OriginTrackedMapPropertySource;
+import org.springframework.boot.env.PropertiesPropertySourceLoader;
+import org.springframework.boot.env.PropertySourceLoader;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.boot.origin.Origin;
+import org.springframework.boot.origin.OriginTrackedValue;
+import org.springframework.boot.origin.TextResourceOrigin;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.nativex.PrecompiledPropertySources;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Parse the profile-independent configuration files of the application with the loaders
+ * of Spring Boot and generate a {@link PrecompiledPropertySources} implementation that
+ * recreates the same property sources from constants.
+ *
+ * <p>Only the default classpath locations are considered. A file whose values cannot be
+ * written as constants is left out, and is therefore parsed at runtime.
+ *
+ * @author agent
+ */
+class ApplicationPropertiesGenerator {
+
+	private static final Log logger = LogFactory.getLog(ApplicationPropertiesGenerator.class);
+
+	static final ClassName GENERATED_CLASS = ClassName.get("org.springframework.aot", "StaticApplicationProperties");
+
+	/**
+	 * The classpath locations Spring Boot loads configuration files from by default.
+	 */
+	static final String[] LOCATIONS = { "", "config/" };
+
+	private static final String NAME = "application";
+
+	// Maximum number of properties per method, to stay below the method size limit
+	private static final int CHUNK_SIZE = 200;
+
+	private static final TypeName PROPERTY_SOURCES = ParameterizedTypeName.get(ClassName.get(List.class),
+			ParameterizedTypeName.get(ClassName.get(PropertySource.class), WildcardTypeName.subtypeOf(Object.class)));
+
+	private static final TypeName DOCUMENT = ParameterizedTypeName.get(Map.class, String.class, Object.class);
+
+	private final ClassLoader classLoader;
+
+	private final List<PropertySourceLoader> loaders = new ArrayList<>();
+
+	private final Map<String, String> digests = new LinkedHashMap<>();
+
+	private final List<MethodSpec> methods = new ArrayList<>();
+
+	private final CodeBlock.Builder load = CodeBlock.builder();
+
+	ApplicationPropertiesGenerator(ClassLoader classLoader) {
+		this.classLoader = classLoader;
+		this.loaders.add(new PropertiesPropertySourceLoader());
+		if (ClassUtils.isPresent("org.yaml.snakeyaml.Yaml", YamlPropertySourceLoader.class.getClassLoader())) {
+			this.loaders.add(new YamlPropertySourceLoader());
+		}
+		else {
+			logger.debug("SnakeYAML is not available, YAML configuration files will be parsed at runtime");
+		}
+	}
+
+	/**
+	 * Parse the configuration files and generate the class.
+	 * @return the generated class or {@code null} if no configuration file was parsed
+	 * @throws IOException if a configuration file cannot be read
+	 */
+	JavaFile generate() throws IOException {
+		for (String location : LOCATIONS) {
+			for (PropertySourceLoader loader : this.loaders) {
+				for (String extension : loader.getFileExtensions()) {
+					String path = location + NAME + "." + extension;
+					ClassPathResource resource = new ClassPathResource(path, this.classLoader);
+					if (resource.exists()) {
+						process(path, resource, loader);
+					}
+				}
+			}
+		}
+		if (this.digests.isEmpty()) {
+			return null;
+		}
+		MethodSpec getDigest = MethodSpec.methodBuilder("getDigest").addAnnotation(Override.class)
+				.addModifiers(Modifier.PUBLIC).returns(String.class).addParameter(String.class, "location")
+				.addCode(switchOnLocation((path) -> CodeBlock.of("return $S", this.digests.get(path)))).build();
+		MethodSpec load = MethodSpec.methodBuilder("load").addAnnotation(Override.class)
+				.addModifiers(Modifier.PUBLIC).returns(PROPERTY_SOURCES).addParameter(String.class, "location")
+				.addParameter(String.class, "name").addParameter(Resource.class, "resource")
+				.addCode(switchOnLocation((path) -> CodeBlock.of("return $N(name, resource)", loadMethodName(path))))
+				.build();
+		TypeSpec type = TypeSpec.classBuilder(GENERATED_CLASS).addModifiers(Modifier.PUBLIC)
+				.addSuperinterface(PrecompiledPropertySources.class).addMethod(getDigest).addMethod(load)
+				.addMethods(this.methods).addJavadoc("Class generated - do not edit this file").build();
+		return JavaFile.builder(GENERATED_CLASS.packageName(), type).build();
+	}
+
+	/**
+	 * Return the classpath locations of the configuration files that were parsed.
+	 * @return the locations
+	 */
+	List<String> getLocations() {
+		return new ArrayList<>(this.digests.keySet());
+	}
+
+	private void process(String path, Resource resource, PropertySourceLoader loader) throws IOException {
+		List<PropertySource<?>> propertySources = loader.load("precompiled", resource);
+		String methodName = loadMethodName(path);
+		List<MethodSpec> methods = new ArrayList<>();
+		CodeBlock.Builder code = CodeBlock.builder();
+		code.addStatement("$T propertySources = new $T<>($L)", PROPERTY_SOURCES, ArrayList.class, propertySources.size());
+		for (int i = 0; i < propertySources.size(); i++) {
+			Map<String, Object> source = getSource(propertySources.get(i));
+			if (source == null) {
+				logger.debug("Unsupported property source in " + path + ", it will be parsed at runtime");
+				return;
+			}
+			String document = "document" + i;
+			code.addStatement("$T $L = new $T<>($L)", DOCUMENT, document, LinkedHashMap.class, capacity(source.size()));
+			List<Map.Entry<String, Object>> entries = new ArrayList<>(source.entrySet());
+			for (int start = 0; start < entries.size(); start += CHUNK_SIZE) {
+				String chunkName = methodName + "_" + i + "_" + (start / CHUNK_SIZE);
+				MethodSpec.Builder chunk = MethodSpec.methodBuilder(chunkName)
+						.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+						.addParameter(DOCUMENT, "document").addParameter(Resource.class, "resource");
+				for (Map.Entry<String, Object> entry : entries.subList(start, Math.min(start + CHUNK_SIZE, entries.size()))) {
+					CodeBlock value = value(entry.getValue());
+					if (value == null) {
+						logger.debug("Unsupported value for '" + entry.getKey() + "' in " + path
+								+ ", the file will be parsed at runtime");
+						return;
+					}
+					chunk.addStatement("document.put($S, $L)", entry.getKey(), value);
+				}
+				methods.add(chunk.build());
+				code.addStatement("$N($L, resource)", chunkName, document);
+			}
+			CodeBlock documentName = (propertySources.size() != 1)
+					? CodeBlock.of("name + $S", " (document #" + i + ")") : CodeBlock.of("name");
+			code.addStatement("propertySources.add(new $T($L, $T.unmodifiableMap($L), true))",
+					OriginTrackedMapPropertySource.class, documentName, Collections.class, document);
+		}
+		code.addStatement("return propertySources");
+		this.methods.add(MethodSpec.methodBuilder(methodName).addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.returns(PROPERTY_SOURCES).addParameter(String.class, "name").addParameter(Resource.class, "resource")
+				.addCode(code.build()).build());
+		this.methods.addAll(methods);
+		try (InputStream in = resource.getInputStream()) {
+			this.digests.put(path, DigestUtils.md5DigestAsHex(in));
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> getSource(PropertySource<?> propertySource) {
+		return (propertySource instanceof MapPropertySource) ? ((MapPropertySource) propertySource).getSource() : null;
+	}
+
+	private CodeBlock value(Object value) {
+		if (value instanceof OriginTrackedValue) {
+			OriginTrackedValue trackedValue = (OriginTrackedValue) value;
+			CodeBlock rawValue = value(trackedValue.getValue());
+			CodeBlock origin = origin(trackedValue.getOrigin());
+			if (rawValue == null || origin == null) {
+				return rawValue;
+			}
+			return CodeBlock.of("$T.of($L, $L)", OriginTrackedValue.class, rawValue, origin);
+		}
+		if (value == null) {
+			return CodeBlock.of("null");
+		}
+		if (value instanceof String || value instanceof Boolean || value instanceof Integer) {
+			return CodeBlock.of((value instanceof String) ? "$S" : "$L", value);
+		}
+		if (value instanceof Long) {
+			return CodeBlock.of("$LL", value);
+		}
+		if (value instanceof Double) {
+			Double number = (Double) value;
+			return (number.isNaN() || number.isInfinite()) ? null : CodeBlock.of("$Ld", value);
+		}
+		if (value instanceof BigInteger || value instanceof BigDecimal) {
+			return CodeBlock.of("new $T($S)", value.getClass(), value.toString());
+		}
+		return null;
+	}
+
+	private CodeBlock origin(Origin origin) {
+		if (origin instanceof TextResourceOrigin && ((TextResourceOrigin) origin).getLocation() != null) {
+			TextResourceOrigin.Location location = ((TextResourceOrigin) origin).getLocation();
+			return CodeBlock.of("new $T(resource, new $T($L, $L))", TextResourceOrigin.class,
+					TextResourceOrigin.Location.class, location.getLine(), location.getColumn());
+		}
+		return null;
+	}
+
+	private CodeBlock switchOnLocation(Function<String, CodeBlock> statement) {
+		CodeBlock.Builder code = CodeBlock.builder();
+		code.beginControlFlow("switch (location)");
+		for (String path : this.digests.keySet()) {
+			code.add("case $S:\n", path);
+			code.indent().addStatement(statement.apply(path)).unindent();
+		}
+		code.add("default:\n");
+		code.indent().addStatement("return null").unindent();
+		code.endControlFlow();
+		return code.build();
+	}
+
+	private static String loadMethodName(String path) {
+		String[] segments = StringUtils.tokenizeToStringArray(path, "/.-");
+		StringBuilder name = new StringBuilder("load");
+		for (String segment : segments) {
+			name.append(StringUtils.capitalize(segment));
+		}
+		return name.toString();
+	}
+
+	// Same as HashMap's default load factor, so that the map is never resized
+	private static int capacity(int size) {
+		return (int) (size / 0.75f) + 1;
+	}
+
+}
@@ -29,6 +29,7 @@ import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.context.support.GenericApplicationContext;
 import org.springframework.core.io.support.SpringFactoriesLoader;
 import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 
@@ -43,6 +44,25 @@ public class BuildTimeBeanDefinitionsRegistrar {
 
 	private static final Log logger = LogFactory.getLog(BuildTimeBeanDefinitionsRegistrar.class);
 
+	@Nullable
+	private final ConditionEvaluationCache conditionEvaluationCache;
+
+	/**
+	 * Create an instance that evaluates all conditions.
+	 */
+	public BuildTimeBeanDefinitionsRegistrar() {
+		this(null);
+	}
+
+	/**
+	 * Create an instance that reuses the condition outcomes of the specified cache when
+	 * their inputs have not changed, and records the outcomes of this build in it.
+	 * @param conditionEvaluationCache the cache to use, or {@code null}
+	 */
+	public BuildTimeBeanDefinitionsRegistrar(@Nullable ConditionEvaluationCache conditionEvaluationCache) {
+		this.conditionEvaluationCache = conditionEvaluationCache;
+	}
+
 	/**
 	 * Process bean definitions without creating any instance and return the
 	 * {@link ConfigurableListableBeanFactory bean factory}.
@@ -69,7 +89,17 @@ public class BuildTimeBeanDefinitionsRegistrar {
 		configurationClassPostProcessor.setBeanClassLoader(context.getClassLoader());
 		configurationClassPostProcessor.setEnvironment(context.getEnvironment());
 		configurationClassPostProcessor.setResourceLoader(context);
-		configurationClassPostProcessor.postProcessBeanFactory(context.getBeanFactory());
+		if (this.conditionEvaluationCache == null) {
+			configurationClassPostProcessor.postProcessBeanFactory(context.getBeanFactory());
+			return;
+		}
+		this.conditionEvaluationCache.attach(context.getBeanFactory(), context.getEnvironment());
+		try {
+			configurationClassPostProcessor.postProcessBeanFactory(context.getBeanFactory());
+		}
+		finally {
+			this.conditionEvaluationCache.detach(context.getBeanFactory());
+		}
 	}
 
 	private void resolveBeanDefinitionTypes(ConfigurableListableBeanFactory beanFactory) {
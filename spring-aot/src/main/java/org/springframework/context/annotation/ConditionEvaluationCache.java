@@ -0,0 +1,741 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.annotation.ConfigurationCondition.ConfigurationPhase;
+import org.springframework.core.annotation.MergedAnnotation.Adapt;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.lang.Nullable;
+import org.springframework.nativex.json.JSONArray;
+import org.springframework.nativex.json.JSONObject;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Persist the outcome of condition evaluations between builds, so that conditions whose
+ * inputs have not changed are not evaluated again. An outcome is reused when:
+ * <ul>
+ * <li>the classpath has the same fingerprint: same jars, and same files in directories.
+ * The content of a class in a directory is only considered for the {@link Condition}
+ * implementations, the annotations of the evaluated element and the types of the beans
+ * if the registry or bean factory was consulted</li>
+ * <li>the properties that the conditions have looked up resolve to the same values, and
+ * the active profiles are the same if the environment was consulted</li>
+ * <li>the bean definitions, with their predicted type, and singletons are the same if the
+ * registry or bean factory was consulted, other than to record the outcome in a report</li>
+ * </ul>
+ * Conditions that use the {@link ResourceLoader} are always evaluated. Properties that
+ * are enumerated rather than looked up by name, as well as inputs outside of the
+ * {@link ConditionContext}, are not tracked: a verification mode evaluates everything
+ * and reports the outcomes that differ from a valid cache entry.
+ *
+ * @author agent
+ * @see BuildTimeBeanDefinitionsRegistrar
+ */
+public final class ConditionEvaluationCache {
+
+	private static final Log logger = LogFactory.getLog(ConditionEvaluationCache.class);
+
+	static final String BEAN_NAME = "conditionEvaluationCache";
+
+	private static final int VERSION = 2;
+
+	// Bookkeeping singletons that are registered as a side effect of evaluating a condition
+	private static final Set<String> IGNORED_SINGLETONS = new LinkedHashSet<>(Arrays.asList(BEAN_NAME,
+			ConditionEvaluationStateReport.BEAN_NAME, "autoConfigurationReport"));
+
+	private final String classpathFingerprint;
+
+	private final Map<String, List<Entry>> previous;
+
+	private final Map<String, List<Entry>> current = new LinkedHashMap<>();
+
+	private final boolean verify;
+
+	private final List<String> mismatches = new ArrayList<>();
+
+	private final Deque<Recording> recordings = new ArrayDeque<>();
+
+	private final RecordingPropertySource propertySource = new RecordingPropertySource();
+
+	private final Map<String, String> classFileDigests = new HashMap<>();
+
+	@Nullable
+	private ConfigurableEnvironment environment;
+
+	private int hitCount;
+
+	private int missCount;
+
+	private ConditionEvaluationCache(String classpathFingerprint, Map<String, List<Entry>> previous, boolean verify) {
+		this.classpathFingerprint = classpathFingerprint;
+		this.previous = previous;
+		this.verify = verify;
+	}
+
+	/**
+	 * Create an empty cache for the specified classpath.
+	 * @param classpath the classpath of the application
+	 * @param verify whether conditions should be evaluated even if a valid entry exists
+	 * @return a new cache
+	 */
+	public static ConditionEvaluationCache create(List<String> classpath, boolean verify) {
+		return new ConditionEvaluationCache(fingerprint(classpath), Collections.emptyMap(), verify);
+	}
+
+	/**
+	 * Load the cache written by a previous build. Its entries are discarded if the file
+	 * does not exist, cannot be read, or if the classpath has changed.
+	 * @param file the file written by {@link #save(Path)}
+	 * @param classpath the classpath of the application
+	 * @param verify whether conditions should be evaluated even if a valid entry exists
+	 * @return the cache
+	 */
+	public static ConditionEvaluationCache load(Path file, List<String> classpath, boolean verify) {
+		String classpathFingerprint = fingerprint(classpath);
+		if (!Files.exists(file)) {
+			logger.info("No condition evaluation cache found at " + file);
+			return new ConditionEvaluationCache(classpathFingerprint, Collections.emptyMap(), verify);
+		}
+		try {
+			JSONObject json = new JSONObject(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+			if (json.getInt("version") != VERSION || !classpathFingerprint.equals(json.getString("classpath"))) {
+				logger.info("Classpath has changed, ignoring condition evaluation cache " + file);
+				return new ConditionEvaluationCache(classpathFingerprint, Collections.emptyMap(), verify);
+			}
+			Map<String, List<Entry>> entries = new HashMap<>();
+			JSONArray array = json.getJSONArray("entries");
+			for (int i = 0; i < array.length(); i++) {
+				JSONObject entry = array.getJSONObject(i);
+				entries.computeIfAbsent(entry.getString("key"), (key) -> new ArrayList<>()).add(Entry.fromJson(entry));
+			}
+			return new ConditionEvaluationCache(classpathFingerprint, entries, verify);
+		}
+		catch (Exception ex) {
+			logger.warn("Failed to read condition evaluation cache " + file + ", ignoring it", ex);
+			return new ConditionEvaluationCache(classpathFingerprint, Collections.emptyMap(), verify);
+		}
+	}
+
+	/**
+	 * Write the entries recorded by this build to the specified file.
+	 * @param file the file to write
+	 * @throws IOException if writing fails
+	 */
+	public void save(Path file) throws IOException {
+		try {
+			JSONObject json = new JSONObject();
+			json.put("version", VERSION);
+			json.put("classpath", this.classpathFingerprint);
+			JSONArray entries = new JSONArray();
+			this.current.forEach((key, candidates) -> candidates.forEach((entry) -> entries.put(entry.toJson(key))));
+			json.put("entries", entries);
+			if (file.getParent() != null) {
+				Files.createDirectories(file.getParent());
+			}
+			Files.write(file, json.toString(2).getBytes(StandardCharsets.UTF_8));
+		}
+		catch (IOException ex) {
+			throw ex;
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * Return the number of evaluations whose outcome was reused, or verified in
+	 * verification mode.
+	 * @return the number of valid cache entries that were found
+	 */
+	public int getHitCount() {
+		return this.hitCount;
+	}
+
+	/**
+	 * Return the number of evaluations for which no valid cache entry was found.
+	 * @return the number of conditions that had to be evaluated
+	 */
+	public int getMissCount() {
+		return this.missCount;
+	}
+
+	/**
+	 * Return a description of the evaluations whose outcome differed from a valid cache
+	 * entry. Only available in verification mode.
+	 * @return the mismatches
+	 */
+	public List<String> getMismatches() {
+		return Collections.unmodifiableList(this.mismatches);
+	}
+
+	/**
+	 * Return the cache registered with the specified bean factory, if any.
+	 * @param beanFactory the bean factory
+	 * @return the cache or {@code null}
+	 */
+	@Nullable
+	static ConditionEvaluationCache get(@Nullable BeanFactory beanFactory) {
+		if (beanFactory instanceof ConfigurableListableBeanFactory
+				&& ((ConfigurableListableBeanFactory) beanFactory).containsSingleton(BEAN_NAME)) {
+			return beanFactory.getBean(BEAN_NAME, ConditionEvaluationCache.class);
+		}
+		return null;
+	}
+
+	/**
+	 * Use this cache for the conditions evaluated against the specified bean factory and
+	 * record the properties that they look up in the specified environment.
+	 * @param beanFactory the bean factory
+	 * @param environment the environment
+	 */
+	void attach(ConfigurableListableBeanFactory beanFactory, ConfigurableEnvironment environment) {
+		beanFactory.registerSingleton(BEAN_NAME, this);
+		environment.getPropertySources().addFirst(this.propertySource);
+		this.environment = environment;
+	}
+
+	void detach(ConfigurableListableBeanFactory beanFactory) {
+		if (this.environment != null) {
+			this.environment.getPropertySources().remove(this.propertySource.getName());
+			this.environment = null;
+		}
+		if (beanFactory instanceof DefaultListableBeanFactory) {
+			((DefaultListableBeanFactory) beanFactory).destroySingleton(BEAN_NAME);
+		}
+	}
+
+	/**
+	 * Return the outcome of the specified conditions, reusing a valid cache entry if
+	 * possible, or invoking the specified {@link Evaluator} otherwise.
+	 * @param conditions the conditions to evaluate
+	 * @param phase the phase of the evaluation
+	 * @param context the context of the evaluation
+	 * @param evaluator the evaluator to use if the outcome cannot be reused
+	 * @return the outcome
+	 */
+	ConditionEvaluation evaluate(Conditions conditions, ConfigurationPhase phase, ConditionContext context,
+			Evaluator evaluator) {
+		// Property lookups are only recorded in the environment this cache is attached to
+		if (conditions.getConditionDefinitions().isEmpty() || context.getEnvironment() != this.environment) {
+			return evaluator.evaluate(conditions, phase, context);
+		}
+		String key = phase.name() + ':' + describeConditions(conditions, context.getClassLoader());
+		Entry cached = findValidEntry(key, context);
+		if (cached != null && !this.verify) {
+			this.hitCount++;
+			addEntry(key, cached);
+			return cached.toConditionEvaluation(conditions);
+		}
+		Recording recording = new Recording();
+		this.recordings.push(recording);
+		ConditionEvaluation evaluation;
+		try {
+			evaluation = evaluator.evaluate(conditions, phase, new RecordingConditionContext(context, recording));
+		}
+		finally {
+			this.recordings.pop();
+		}
+		Entry entry = recording.toEntry(conditions, evaluation, context, this::describeBeans);
+		if (cached != null) {
+			this.hitCount++;
+			Entry outcome = Entry.of(conditions, evaluation, Collections.emptyMap(), null, null);
+			if (!cached.hasSameOutcome(outcome)) {
+				this.mismatches.add(String.format("%s (%s): cached %s, evaluated %s", conditions.determineAnnotatedTypeId(),
+						phase, cached.describeOutcome(conditions), outcome.describeOutcome(conditions)));
+			}
+		}
+		else {
+			this.missCount++;
+		}
+		if (entry != null) {
+			addEntry(key, entry);
+		}
+		return evaluation;
+	}
+
+	private void addEntry(String key, Entry entry) {
+		List<Entry> entries = this.current.computeIfAbsent(key, (k) -> new ArrayList<>());
+		if (!entries.contains(entry)) {
+			entries.add(entry);
+		}
+	}
+
+	@Nullable
+	private Entry findValidEntry(String key, ConditionContext context) {
+		List<Entry> candidates = this.previous.get(key);
+		if (candidates != null) {
+			for (Entry candidate : candidates) {
+				if (candidate.isValid(context, this::describeBeans)) {
+					return candidate;
+				}
+			}
+		}
+		return null;
+	}
+
+	private String describeConditions(Conditions conditions, @Nullable ClassLoader classLoader) {
+		StringBuilder content = new StringBuilder(conditions.determineAnnotatedTypeId());
+		conditions.getMetadata().getAnnotations().stream().forEach((annotation) -> content.append('\n')
+				.append(annotation.getType().getName())
+				.append(describe(annotation.asMap(Adapt.CLASS_TO_STRING, Adapt.ANNOTATION_TO_MAP))));
+		for (ConditionDefinition definition : conditions.getConditionDefinitions()) {
+			content.append('\n').append(definition.getConditionType()).append('@')
+					.append(describeClassFile(definition.getConditionType(), classLoader));
+		}
+		return conditions.determineAnnotatedTypeId() + ':' + md5(content.toString());
+	}
+
+	private static String describe(@Nullable Object value) {
+		if (value instanceof Map) {
+			return ((Map<?, ?>) value).entrySet().stream()
+					.map((entry) -> entry.getKey() + "=" + describe(entry.getValue()))
+					.collect(Collectors.joining(", ", "{", "}"));
+		}
+		if (value instanceof Object[]) {
+			return Arrays.stream((Object[]) value).map(ConditionEvaluationCache::describe)
+					.collect(Collectors.joining(", ", "[", "]"));
+		}
+		return ObjectUtils.nullSafeToString(value);
+	}
+
+	// Classes in jars are covered by the classpath fingerprint
+	private String describeClassFile(@Nullable String className, @Nullable ClassLoader classLoader) {
+		if (className == null) {
+			return "";
+		}
+		return this.classFileDigests.computeIfAbsent(className, (name) -> digestClassFile(name, classLoader));
+	}
+
+	private static String digestClassFile(String className, @Nullable ClassLoader classLoader) {
+		URL url = (classLoader != null) ? classLoader.getResource(className.replace('.', '/') + ".class") : null;
+		if (url == null || !"file".equals(url.getProtocol())) {
+			return "";
+		}
+		try (InputStream in = url.openStream()) {
+			return DigestUtils.md5DigestAsHex(in);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Failed to read " + url, ex);
+		}
+	}
+
+	// A changed @Bean return type or bean class does not change the definition itself
+	private String describeBeans(ConfigurableListableBeanFactory beanFactory) {
+		ClassLoader classLoader = beanFactory.getBeanClassLoader();
+		StringBuilder content = new StringBuilder();
+		for (String name : beanFactory.getBeanDefinitionNames()) {
+			BeanDefinition bd = beanFactory.getBeanDefinition(name);
+			String type = predictType(beanFactory, name);
+			content.append(name).append('=').append(bd.getBeanClassName()).append(':')
+					.append(bd.getFactoryBeanName()).append(':').append(bd.getFactoryMethodName()).append(':')
+					.append(type).append('@').append(describeClassFile(type, classLoader)).append(':')
+					.append(describeClassFile(bd.getBeanClassName(), classLoader));
+			String factoryBeanName = bd.getFactoryBeanName();
+			if (factoryBeanName != null && beanFactory.containsBeanDefinition(factoryBeanName)) {
+				content.append(':').append(describeClassFile(
+						beanFactory.getBeanDefinition(factoryBeanName).getBeanClassName(), classLoader));
+			}
+			content.append('\n');
+		}
+		for (String name : beanFactory.getSingletonNames()) {
+			if (!IGNORED_SINGLETONS.contains(name)) {
+				content.append(name).append('=').append(predictType(beanFactory, name)).append('\n');
+			}
+		}
+		return md5(content.toString());
+	}
+
+	@Nullable
+	private static String predictType(ConfigurableListableBeanFactory beanFactory, String name) {
+		try {
+			Class<?> type = beanFactory.getType(name, false);
+			return (type != null) ? type.getName() : null;
+		}
+		catch (BeansException ex) {
+			return null;
+		}
+	}
+
+	@Nullable
+	private String describeBeans(ConditionContext context) {
+		ConfigurableListableBeanFactory beanFactory = context.getBeanFactory();
+		return (beanFactory != null) ? describeBeans(beanFactory) : null;
+	}
+
+	private static String describeProfiles(Environment environment) {
+		return String.join(",", environment.getActiveProfiles());
+	}
+
+	/**
+	 * Compute a fingerprint of the specified classpath. Jars are identified by their
+	 * size and last modification time, and directories by the files they contain.
+	 * @param classpath the classpath entries
+	 * @return the fingerprint
+	 */
+	static String fingerprint(List<String> classpath) {
+		StringBuilder content = new StringBuilder(System.getProperty("java.version"));
+		for (String entry : classpath) {
+			Path path = Paths.get(entry);
+			content.append('\n').append(entry);
+			try {
+				if (Files.isDirectory(path)) {
+					try (Stream<Path> files = Files.walk(path)) {
+						files.filter(Files::isRegularFile).map((file) -> path.relativize(file).toString()).sorted()
+								.forEach((file) -> content.append('\n').append(file));
+					}
+				}
+				else if (Files.exists(path)) {
+					content.append(':').append(Files.size(path)).append(':').append(Files.getLastModifiedTime(path).toMillis());
+				}
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Failed to compute fingerprint of " + path, ex);
+			}
+		}
+		return md5(content.toString());
+	}
+
+	private static String md5(String content) {
+		return DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Evaluate conditions without using the cache.
+	 */
+	@FunctionalInterface
+	interface Evaluator {
+
+		ConditionEvaluation evaluate(Conditions conditions, ConfigurationPhase phase, ConditionContext context);
+
+	}
+
+	/**
+	 * The inputs consulted while evaluating conditions.
+	 */
+	private static final class Recording {
+
+		private final Set<String> properties = new LinkedHashSet<>();
+
+		private boolean environment;
+
+		private boolean beans;
+
+		private boolean cacheable = true;
+
+		@Nullable
+		Entry toEntry(Conditions conditions, ConditionEvaluation evaluation, ConditionContext context,
+				Function<ConditionContext, String> beansDescriber) {
+			if (!this.cacheable) {
+				return null;
+			}
+			Map<String, String> values = new LinkedHashMap<>();
+			for (String name : this.properties) {
+				try {
+					values.put(name, context.getEnvironment().getProperty(name));
+				}
+				catch (IllegalArgumentException ex) {
+					// Unresolvable placeholder
+					return null;
+				}
+			}
+			return Entry.of(conditions, evaluation, values,
+					this.environment ? describeProfiles(context.getEnvironment()) : null,
+					this.beans ? beansDescriber.apply(context) : null);
+		}
+
+	}
+
+	/**
+	 * The outcome of an evaluation and the inputs it depends on.
+	 */
+	private static final class Entry {
+
+		private final Map<String, String> properties;
+
+		@Nullable
+		private final String profiles;
+
+		@Nullable
+		private final String beans;
+
+		private final int notMatching;
+
+		private final List<Integer> matching;
+
+		private final List<Integer> skipped;
+
+		Entry(Map<String, String> properties, @Nullable String profiles, @Nullable String beans, int notMatching,
+				List<Integer> matching, List<Integer> skipped) {
+			this.properties = properties;
+			this.profiles = profiles;
+			this.beans = beans;
+			this.notMatching = notMatching;
+			this.matching = matching;
+			this.skipped = skipped;
+		}
+
+		static Entry of(Conditions conditions, ConditionEvaluation evaluation, Map<String, String> properties,
+				@Nullable String profiles, @Nullable String beans) {
+			List<ConditionDefinition> definitions = conditions.getConditionDefinitions();
+			return new Entry(properties, profiles, beans, indexOf(definitions, evaluation.getNotMatching()),
+					indexesOf(definitions, evaluation.getMatching()), indexesOf(definitions, evaluation.getSkipped()));
+		}
+
+		private static int indexOf(List<ConditionDefinition> definitions, @Nullable ConditionDefinition definition) {
+			for (int i = 0; i < definitions.size(); i++) {
+				if (definitions.get(i) == definition) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		private static List<Integer> indexesOf(List<ConditionDefinition> definitions, List<ConditionDefinition> candidates) {
+			return candidates.stream().map((candidate) -> indexOf(definitions, candidate)).collect(Collectors.toList());
+		}
+
+		boolean isValid(ConditionContext context, Function<ConditionContext, String> beansDescriber) {
+			Environment environment = context.getEnvironment();
+			for (Map.Entry<String, String> property : this.properties.entrySet()) {
+				try {
+					if (!Objects.equals(environment.getProperty(property.getKey()), property.getValue())) {
+						return false;
+					}
+				}
+				catch (IllegalArgumentException ex) {
+					return false;
+				}
+			}
+			if (this.profiles != null && !this.profiles.equals(describeProfiles(environment))) {
+				return false;
+			}
+			return this.beans == null || this.beans.equals(beansDescriber.apply(context));
+		}
+
+		boolean hasSameOutcome(Entry other) {
+			return this.notMatching == other.notMatching && this.matching.equals(other.matching)
+					&& this.skipped.equals(other.skipped);
+		}
+
+		String describeOutcome(Conditions conditions) {
+			if (this.notMatching == -1) {
+				return "match";
+			}
+			return "skip due to " + conditions.getConditionDefinitions().get(this.notMatching).getConditionType();
+		}
+
+		ConditionEvaluation toConditionEvaluation(Conditions conditions) {
+			List<ConditionDefinition> definitions = conditions.getConditionDefinitions();
+			return new ConditionEvaluation((this.notMatching != -1) ? definitions.get(this.notMatching) : null,
+					get(definitions, this.matching), new ArrayList<>(), get(definitions, this.skipped));
+		}
+
+		private static List<ConditionDefinition> get(List<ConditionDefinition> definitions, List<Integer> indexes) {
+			return indexes.stream().map(definitions::get).collect(Collectors.toList());
+		}
+
+		JSONObject toJson(String key) {
+			try {
+				JSONObject json = new JSONObject();
+				json.put("key", key);
+				JSONObject properties = new JSONObject();
+				this.properties.forEach((name, value) -> {
+					try {
+						properties.put(name, (value != null) ? value : JSONObject.NULL);
+					}
+					catch (Exception ex) {
+						throw new IllegalStateException(ex);
+					}
+				});
+				json.put("properties", properties);
+				json.putOpt("profiles", this.profiles);
+				json.putOpt("beans", this.beans);
+				json.put("notMatching", this.notMatching);
+				json.put("matching", new JSONArray(this.matching));
+				json.put("skipped", new JSONArray(this.skipped));
+				return json;
+			}
+			catch (IllegalStateException ex) {
+				throw ex;
+			}
+			catch (Exception ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+
+		static Entry fromJson(JSONObject json) throws Exception {
+			Map<String, String> properties = new LinkedHashMap<>();
+			JSONObject values = json.getJSONObject("properties");
+			Iterator<?> names = values.keys();
+			while (names.hasNext()) {
+				String name = (String) names.next();
+				properties.put(name, values.isNull(name) ? null : values.getString(name));
+			}
+			return new Entry(properties, json.has("profiles") ? json.getString("profiles") : null,
+					json.has("beans") ? json.getString("beans") : null, json.getInt("notMatching"),
+					toList(json.getJSONArray("matching")), toList(json.getJSONArray("skipped")));
+		}
+
+		private static List<Integer> toList(JSONArray array) throws Exception {
+			List<Integer> values = new ArrayList<>();
+			for (int i = 0; i < array.length(); i++) {
+				values.add(array.getInt(i));
+			}
+			return values;
+		}
+
+	}
+
+	/**
+	 * A {@link ConditionContext} that records which inputs the conditions consult.
+	 */
+	private static final class RecordingConditionContext implements ConditionContext {
+
+		private final ConditionContext delegate;
+
+		private final Recording recording;
+
+		@Nullable
+		private ConfigurableListableBeanFactory beanFactory;
+
+		RecordingConditionContext(ConditionContext delegate, Recording recording) {
+			this.delegate = delegate;
+			this.recording = recording;
+		}
+
+		@Override
+		public BeanDefinitionRegistry getRegistry() {
+			this.recording.beans = true;
+			return this.delegate.getRegistry();
+		}
+
+		@Override
+		@Nullable
+		public ConfigurableListableBeanFactory getBeanFactory() {
+			ConfigurableListableBeanFactory beanFactory = this.delegate.getBeanFactory();
+			if (beanFactory == null) {
+				return null;
+			}
+			if (this.beanFactory == null) {
+				this.beanFactory = (ConfigurableListableBeanFactory) Proxy.newProxyInstance(
+						beanFactory.getClass().getClassLoader(), ClassUtils.getAllInterfaces(beanFactory),
+						(proxy, method, args) -> {
+							if (!isBookkeeping(method, args)) {
+								this.recording.beans = true;
+							}
+							try {
+								return method.invoke(beanFactory, args);
+							}
+							catch (InvocationTargetException ex) {
+								throw ex.getTargetException();
+							}
+						});
+			}
+			return this.beanFactory;
+		}
+
+		// Conditions typically access the bean factory to record their outcome in a report
+		private boolean isBookkeeping(Method method, @Nullable Object[] args) {
+			if (method.getName().equals("getParentBeanFactory")) {
+				return true;
+			}
+			return (args != null && args.length > 0 && IGNORED_SINGLETONS.contains(args[0]));
+		}
+
+		@Override
+		public Environment getEnvironment() {
+			this.recording.environment = true;
+			return this.delegate.getEnvironment();
+		}
+
+		@Override
+		public ResourceLoader getResourceLoader() {
+			this.recording.cacheable = false;
+			return this.delegate.getResourceLoader();
+		}
+
+		@Override
+		@Nullable
+		public ClassLoader getClassLoader() {
+			return this.delegate.getClassLoader();
+		}
+
+	}
+
+	/**
+	 * A {@link PropertySource} that records the names of the properties that are looked
+	 * up while conditions are evaluated, without providing any value.
+	 */
+	private final class RecordingPropertySource extends PropertySource<Object> {
+
+		RecordingPropertySource() {
+			super(BEAN_NAME, new Object());
+		}
+
+		@Override
+		@Nullable
+		public Object getProperty(String name) {
+			for (Recording recording : ConditionEvaluationCache.this.recordings) {
+				recording.properties.add(name);
+			}
+			return null;
+		}
+
+	}
+
+}
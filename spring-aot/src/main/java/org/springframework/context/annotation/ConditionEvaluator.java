@@ -47,6 +47,9 @@ class ConditionEvaluator {
 
 	private final ConditionEvaluationStateReport report;
 
+	@Nullable
+	private final ConditionEvaluationCache cache;
+
 
 	/**
 	 * Create a new {@link ConditionEvaluator} instance.
@@ -57,6 +60,7 @@ class ConditionEvaluator {
 		this.context = new ConditionContextImpl(registry, environment, resourceLoader);
 		this.report = (this.context.getBeanFactory() != null) ? ConditionEvaluationStateReport.get(this.context.getBeanFactory())
 				: new ConditionEvaluationStateReport();
+		this.cache = ConditionEvaluationCache.get(this.context.getBeanFactory());
 	}
 
 	/**
@@ -103,14 +107,16 @@ class ConditionEvaluator {
 			//System.out.println("We already have an evaluation for " + conditions.determineAnnotatedTypeId() + " and phase " + phase);
 			return existingEvaluation.shouldSkip();
 		}
-		ConditionEvaluation evaluation = evaluate(conditions, phase);
+		ConditionEvaluation evaluation = (this.cache != null)
+				? this.cache.evaluate(conditions, phase, this.context, this::evaluate)
+				: evaluate(conditions, phase, this.context);
 		state.recordConditionEvaluation(phase, evaluation);
 		return evaluation.shouldSkip();
 	}
 
-	private ConditionEvaluation evaluate(Conditions conditions, ConfigurationPhase phase) {
+	private ConditionEvaluation evaluate(Conditions conditions, ConfigurationPhase phase, ConditionContext context) {
 		List<ConditionHolder> conditionHolders = conditions.getConditionDefinitions().stream().map((definition) ->
-				new ConditionHolder(definition, definition.newInstance(this.context.classLoader)))
+				new ConditionHolder(definition, definition.newInstance(context.getClassLoader())))
 				.filter((holder) -> holder.hasRequiredPhase(phase))
 				.sorted().collect(Collectors.toList());
 		ConditionEvaluation.Builder stateBuilder = ConditionEvaluation.forConditions(conditionHolders.stream()
@@ -17,6 +17,7 @@
 package org.springframework.context.bootstrap.generator;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import com.squareup.javapoet.JavaFile;
@@ -51,10 +52,13 @@ public class BootstrapGenerationResult {
 
 	private final Set<String> options;
 
+	private final Map<String, String> dependencyResolutionFallbacks;
+
 	BootstrapGenerationResult(List<JavaFile> sourceFiles, List<ClassDescriptor> classDescriptors,
 			ResourcesDescriptor resourcesDescriptor, ProxiesDescriptor proxiesDescriptor,
 			InitializationDescriptor initializationDescriptor, SerializationDescriptor serializationDescriptor,
-			List<ClassDescriptor> jniClassDescriptors, Set<String> options) {
+			List<ClassDescriptor> jniClassDescriptors, Set<String> options,
+			Map<String, String> dependencyResolutionFallbacks) {
 		this.sourceFiles = sourceFiles;
 		this.classDescriptors = classDescriptors;
 		this.resourcesDescriptor = resourcesDescriptor;
@@ -63,6 +67,7 @@ public class BootstrapGenerationResult {
 		this.serializationDescriptor = serializationDescriptor;
 		this.jniClassDescriptors = jniClassDescriptors;
 		this.options = options;
+		this.dependencyResolutionFallbacks = dependencyResolutionFallbacks;
 	}
 
 	/**
@@ -136,4 +141,13 @@ public class BootstrapGenerationResult {
 		return this.options;
 	}
 
+	/**
+	 * Return the beans whose dependencies are resolved at runtime rather than at build
+	 * time, mapped to the reason why.
+	 * @return the dependency resolution fallbacks, by bean name
+	 */
+	public Map<String, String> getDependencyResolutionFallbacks() {
+		return this.dependencyResolutionFallbacks;
+	}
+
 }
@@ -18,7 +18,14 @@ package org.springframework.context.bootstrap.generator;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import javax.lang.model.element.Modifier;
@@ -29,25 +36,35 @@ import com.squareup.javapoet.CodeBlock.Builder;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeSpec;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.aot.instrument.AotInstrumentation;
+import org.springframework.aot.instrument.AotInstrumentation.Phase;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.bootstrap.generator.bean.AbstractBeanRegistrationWriterSupplier;
 import org.springframework.context.bootstrap.generator.bean.BeanRegistrationWriter;
 import org.springframework.context.bootstrap.generator.bean.BeanRegistrationWriterSupplier;
 import org.springframework.context.bootstrap.generator.bean.descriptor.BeanInstanceDescriptor;
+import org.springframework.context.bootstrap.generator.bean.support.DependencyCandidateResolver;
 import org.springframework.context.bootstrap.generator.event.EventListenerMethodRegistrationGenerator;
 import org.springframework.context.bootstrap.generator.infrastructure.nativex.NativeConfigurationRegistrar;
+import org.springframework.context.bootstrap.generator.infrastructure.BeanDependencyGraphWriter;
+import org.springframework.context.bootstrap.generator.infrastructure.BeanTypeIndexWriter;
 import org.springframework.context.bootstrap.generator.infrastructure.BootstrapClass;
 import org.springframework.context.bootstrap.generator.infrastructure.BootstrapInfrastructureWriter;
 import org.springframework.context.bootstrap.generator.infrastructure.BootstrapWriterContext;
 import org.springframework.context.bootstrap.generator.infrastructure.nativex.NativeConfigurationRegistry;
 import org.springframework.context.support.GenericApplicationContext;
 import org.springframework.core.io.support.SpringFactoriesLoader;
+import org.springframework.data.EntityMetadataWriter;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypesWriter;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
 /**
  * A simple experiment to generate a bootstrap class that represents the state of a fully
@@ -62,12 +79,24 @@ public class ContextBootstrapGenerator {
 
 	private final List<BeanRegistrationWriterSupplier> beanRegistrationWriterSuppliers;
 
+	private final ContextBootstrapGeneratorOptions options;
+
+	public ContextBootstrapGenerator(ClassLoader classLoader, ContextBootstrapGeneratorOptions options) {
+		this(SpringFactoriesLoader.loadFactories(BeanRegistrationWriterSupplier.class, classLoader), options);
+	}
+
 	public ContextBootstrapGenerator(ClassLoader classLoader) {
-		this(SpringFactoriesLoader.loadFactories(BeanRegistrationWriterSupplier.class, classLoader));
+		this(classLoader, ContextBootstrapGeneratorOptions.DEFAULTS);
 	}
 
-	ContextBootstrapGenerator(List<BeanRegistrationWriterSupplier> beanRegistrationWriterSuppliers) {
+	ContextBootstrapGenerator(List<BeanRegistrationWriterSupplier> beanRegistrationWriterSuppliers,
+			ContextBootstrapGeneratorOptions options) {
 		this.beanRegistrationWriterSuppliers = beanRegistrationWriterSuppliers;
+		this.options = options;
+	}
+
+	ContextBootstrapGenerator(List<BeanRegistrationWriterSupplier> beanRegistrationWriterSuppliers) {
+		this(beanRegistrationWriterSuppliers, ContextBootstrapGeneratorOptions.DEFAULTS);
 	}
 
 	/**
@@ -83,11 +112,16 @@ public class ContextBootstrapGenerator {
 		BootstrapClass defaultBoostrapJavaFile = createDefaultBoostrapJavaFile(packageName);
 		BootstrapWriterContext writerContext = new BootstrapWriterContext(defaultBoostrapJavaFile);
 		NativeConfigurationRegistry nativeConfigurationRegistry = writerContext.getNativeConfigurationRegistry();
-		this.beanRegistrationWriterSuppliers.stream().filter(BeanFactoryAware.class::isInstance)
-				.map(BeanFactoryAware.class::cast).forEach((callback) -> callback.setBeanFactory(beanFactory));
 		DefaultBeanDefinitionSelector selector = new DefaultBeanDefinitionSelector(
 				Arrays.stream(excludeTypes).map(Class::getName).collect(Collectors.toList()));
-		defaultBoostrapJavaFile.addMethod(generateBootstrapMethod(beanFactory, writerContext, selector));
+		DependencyCandidateResolver dependencyCandidateResolver = new DependencyCandidateResolver(beanFactory, selector);
+		this.beanRegistrationWriterSuppliers.stream().filter(BeanFactoryAware.class::isInstance)
+				.map(BeanFactoryAware.class::cast).forEach((callback) -> callback.setBeanFactory(beanFactory));
+		this.beanRegistrationWriterSuppliers.stream().filter(AbstractBeanRegistrationWriterSupplier.class::isInstance)
+				.map(AbstractBeanRegistrationWriterSupplier.class::cast)
+				.forEach((supplier) -> supplier.setDependencyCandidateResolver(dependencyCandidateResolver));
+		defaultBoostrapJavaFile.addMethod(generateBootstrapMethod(beanFactory, writerContext, selector,
+				dependencyCandidateResolver));
 		return new BootstrapGenerationResult(writerContext.toJavaFiles(),
 				nativeConfigurationRegistry.reflection().toClassDescriptors(),
 				nativeConfigurationRegistry.resources().toResourcesDescriptor(),
@@ -95,7 +129,8 @@ public class ContextBootstrapGenerator {
 				nativeConfigurationRegistry.initialization().toInitializationDescriptor(),
 				nativeConfigurationRegistry.serialization().toSerializationDescriptor(),
 				nativeConfigurationRegistry.jni().toClassDescriptors(),
-				nativeConfigurationRegistry.options()
+				nativeConfigurationRegistry.options(),
+				dependencyCandidateResolver.getFallbacks()
 		);
 	}
 
@@ -108,41 +143,183 @@ public class ContextBootstrapGenerator {
 	}
 
 	private MethodSpec generateBootstrapMethod(ConfigurableListableBeanFactory beanFactory, BootstrapWriterContext writerContext,
-			BeanDefinitionSelector selector) {
+			BeanDefinitionSelector selector, DependencyCandidateResolver dependencyCandidateResolver) {
 		MethodSpec.Builder method = MethodSpec.methodBuilder("initialize").addModifiers(Modifier.PUBLIC)
 				.addParameter(GenericApplicationContext.class, "context").addAnnotation(Override.class);
 		CodeBlock.Builder code = CodeBlock.builder();
 		registerApplicationContextInfrastructure(beanFactory, writerContext, code);
-		List<BeanInstanceDescriptor> descriptors = writeBeanDefinitions(beanFactory, writerContext, selector, code);
-
 		NativeConfigurationRegistrar nativeConfigurationRegistrar = new NativeConfigurationRegistrar(beanFactory);
 		NativeConfigurationRegistry nativeConfigurationRegistry = writerContext.getNativeConfigurationRegistry();
+		Map<String, BeanInstanceDescriptor> registeredBeans = new LinkedHashMap<>();
 		nativeConfigurationRegistrar.processBeanFactory(nativeConfigurationRegistry);
-		nativeConfigurationRegistrar.processBeans(nativeConfigurationRegistry, descriptors);
+		if (this.options.getParallelism() > 1) {
+			writeBeanDefinitionsInParallel(beanFactory, writerContext, selector, nativeConfigurationRegistrar,
+					registeredBeans, code);
+		}
+		else {
+			writeBeanDefinitions(beanFactory, writerContext, selector, nativeConfigurationRegistrar,
+					registeredBeans, code);
+		}
 
 		// FIXME: provide SPI for this
 		new EventListenerMethodRegistrationGenerator(beanFactory).writeEventListenersRegistration(writerContext, code);
+		new EntityMetadataWriter(beanFactory).writeEntityMetadata(writerContext, code);
+		new PersistenceManagedTypesWriter(beanFactory).writePersistenceManagedTypes(writerContext, code);
+		new BeanTypeIndexWriter(beanFactory).writeBeanTypeIndex(writerContext,
+				new ArrayList<>(registeredBeans.keySet()), code);
+		new BeanDependencyGraphWriter(beanFactory, dependencyCandidateResolver).writeBeanDependencyGraph(writerContext, registeredBeans, code);
 
 		method.addCode(code.build());
 		return method.build();
 	}
 
-	private List<BeanInstanceDescriptor> writeBeanDefinitions(ConfigurableListableBeanFactory beanFactory,
-			BootstrapWriterContext writerContext, BeanDefinitionSelector selector, Builder code) {
-		List<BeanInstanceDescriptor> descriptors = new ArrayList<>();
-		String[] beanNames = beanFactory.getBeanDefinitionNames();
-		for (String beanName : beanNames) {
-			BeanDefinition beanDefinition = beanFactory.getMergedBeanDefinition(beanName);
-			if (selector.select(beanName, beanDefinition)) {
-				BeanRegistrationWriter beanRegistrationWriter = getBeanRegistrationGenerator(
-						beanName, beanDefinition);
-				if (beanRegistrationWriter != null) {
-					beanRegistrationWriter.writeBeanRegistration(writerContext, code);
-					descriptors.add(beanRegistrationWriter.getBeanInstanceDescriptor());
+	/**
+	 * Write the bean definitions, in order, together with their bean-level native
+	 * configuration. Each bean is processed the same way as in {@linkplain
+	 * #writeBeanDefinitionsInParallel parallel mode} so that both modes produce the same
+	 * output.
+	 */
+	private void writeBeanDefinitions(ConfigurableListableBeanFactory beanFactory, BootstrapWriterContext writerContext,
+			BeanDefinitionSelector selector, NativeConfigurationRegistrar nativeConfigurationRegistrar,
+			Map<String, BeanInstanceDescriptor> registeredBeans, Builder code) {
+		List<CodeBlock> registrations = new ArrayList<>();
+		for (String beanName : beanFactory.getBeanDefinitionNames()) {
+			BeanRegistration registration = writeBeanRegistration(beanFactory, beanName, writerContext, selector,
+					nativeConfigurationRegistrar);
+			if (registration != null) {
+				registrations.add(registration.code);
+				registeredBeans.put(registration.beanName, registration.descriptor);
+			}
+		}
+		writeBeanRegistrations(writerContext, registrations, code);
+	}
+
+	/**
+	 * Write the bean definitions using a pool of {@link ContextBootstrapGeneratorOptions#getParallelism()
+	 * worker threads}. Each bean is written against a {@link BootstrapWriterContext#fork() fork}
+	 * of the writer context, together with its bean-level native configuration. Results
+	 * are then merged in the order of the bean definitions so that the output does not
+	 * depend on scheduling.
+	 */
+	private void writeBeanDefinitionsInParallel(ConfigurableListableBeanFactory beanFactory,
+			BootstrapWriterContext writerContext, BeanDefinitionSelector selector,
+			NativeConfigurationRegistrar nativeConfigurationRegistrar, Map<String, BeanInstanceDescriptor> registeredBeans,
+			Builder code) {
+		ExecutorService executor = Executors.newFixedThreadPool(this.options.getParallelism(),
+				new CustomizableThreadFactory("context-bootstrap-generator-"));
+		try {
+			List<Future<BeanRegistration>> results = new ArrayList<>();
+			for (String beanName : beanFactory.getBeanDefinitionNames()) {
+				results.add(executor.submit(() -> writeBeanRegistration(beanFactory, beanName,
+						writerContext.fork(), selector, nativeConfigurationRegistrar)));
+			}
+			List<CodeBlock> registrations = new ArrayList<>();
+			for (Future<BeanRegistration> result : results) {
+				BeanRegistration registration = getBeanRegistration(result);
+				if (registration != null) {
+					writerContext.merge(registration.writerContext);
+					registrations.add(registration.code);
+					registeredBeans.put(registration.beanName, registration.descriptor);
 				}
 			}
+			writeBeanRegistrations(writerContext, registrations, code);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private BeanRegistration writeBeanRegistration(ConfigurableListableBeanFactory beanFactory, String beanName,
+			BootstrapWriterContext writerContext, BeanDefinitionSelector selector,
+			NativeConfigurationRegistrar nativeConfigurationRegistrar) {
+		BeanDefinition beanDefinition = beanFactory.getMergedBeanDefinition(beanName);
+		if (!selector.select(beanName, beanDefinition)) {
+			return null;
+		}
+		BeanRegistrationWriter beanRegistrationWriter = getBeanRegistrationGenerator(beanName, beanDefinition);
+		if (beanRegistrationWriter == null) {
+			return null;
+		}
+		CodeBlock registration = writeRegistration(beanRegistrationWriter, writerContext);
+		BeanInstanceDescriptor descriptor = beanRegistrationWriter.getBeanInstanceDescriptor();
+		nativeConfigurationRegistrar.processBean(writerContext.getNativeConfigurationRegistry(), descriptor);
+		return new BeanRegistration(beanName, descriptor, registration, writerContext);
+	}
+
+	private CodeBlock writeRegistration(BeanRegistrationWriter beanRegistrationWriter,
+			BootstrapWriterContext writerContext) {
+		CodeBlock.Builder registration = CodeBlock.builder();
+		try (Phase phase = AotInstrumentation.start("bean-writer", beanRegistrationWriter.getClass().getName())) {
+			beanRegistrationWriter.writeBeanRegistration(writerContext, registration);
+		}
+		return registration.build();
+	}
+
+	private BeanRegistration getBeanRegistration(Future<BeanRegistration> result) {
+		try {
+			return result.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while writing bean registrations", ex);
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new IllegalStateException("Failed to write bean registration", cause);
+		}
+	}
+
+	/**
+	 * Write the specified bean registrations. If there are more registrations than
+	 * {@link ContextBootstrapGeneratorOptions#getBeansPerMethod() allowed in a single
+	 * method}, registrations are split in separate methods of the main bootstrap class.
+	 * If there are more registrations than {@link ContextBootstrapGeneratorOptions#getBeansPerClass()
+	 * allowed in a single class}, these methods are written in nested classes.
+	 * @param writerContext the writer context
+	 * @param registrations the bean registrations, in registration order
+	 * @param code the code of the main {@code initialize} method
+	 */
+	private void writeBeanRegistrations(BootstrapWriterContext writerContext, List<CodeBlock> registrations,
+			Builder code) {
+		if (registrations.size() <= this.options.getBeansPerMethod()) {
+			registrations.forEach(code::add);
+			return;
+		}
+		BootstrapClass mainBootstrapClass = writerContext.getMainBootstrapClass();
+		int beansPerClass = this.options.getBeansPerClass();
+		if (registrations.size() <= beansPerClass) {
+			writeBeanRegistrationMethods(registrations, mainBootstrapClass::addMethod, code, Modifier.PRIVATE);
+			return;
+		}
+		for (int i = 0; i < registrations.size(); i += beansPerClass) {
+			ClassName className = mainBootstrapClass.getClassName().nestedClass("BeanDefinitions" + (i / beansPerClass));
+			TypeSpec.Builder type = TypeSpec.classBuilder(className)
+					.addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL);
+			CodeBlock.Builder body = CodeBlock.builder();
+			writeBeanRegistrationMethods(registrations.subList(i, Math.min(i + beansPerClass, registrations.size())),
+					type::addMethod, body, Modifier.PRIVATE, Modifier.STATIC);
+			type.addMethod(MethodSpec.methodBuilder("registerBeanDefinitions").addModifiers(Modifier.STATIC)
+					.addParameter(GenericApplicationContext.class, "context").addCode(body.build()).build());
+			mainBootstrapClass.addType(type.build());
+			code.addStatement("$T.registerBeanDefinitions(context)", className);
+		}
+	}
+
+	private void writeBeanRegistrationMethods(List<CodeBlock> registrations, Consumer<MethodSpec> methods,
+			Builder code, Modifier... modifiers) {
+		int beansPerMethod = this.options.getBeansPerMethod();
+		for (int i = 0; i < registrations.size(); i += beansPerMethod) {
+			CodeBlock.Builder body = CodeBlock.builder();
+			registrations.subList(i, Math.min(i + beansPerMethod, registrations.size())).forEach(body::add);
+			MethodSpec method = MethodSpec.methodBuilder("initializeBeanDefinitions" + (i / beansPerMethod))
+					.addModifiers(modifiers).addParameter(GenericApplicationContext.class, "context")
+					.addCode(body.build()).build();
+			methods.accept(method);
+			code.addStatement("$N(context)", method);
 		}
-		return descriptors;
 	}
 
 	private void registerApplicationContextInfrastructure(ConfigurableListableBeanFactory beanFactory,
@@ -164,4 +341,24 @@ public class ContextBootstrapGenerator {
 		return null;
 	}
 
+	private static final class BeanRegistration {
+
+		private final String beanName;
+
+		private final BeanInstanceDescriptor descriptor;
+
+		private final CodeBlock code;
+
+		private final BootstrapWriterContext writerContext;
+
+		BeanRegistration(String beanName, BeanInstanceDescriptor descriptor, CodeBlock code,
+				BootstrapWriterContext writerContext) {
+			this.beanName = beanName;
+			this.descriptor = descriptor;
+			this.code = code;
+			this.writerContext = writerContext;
+		}
+
+	}
+
 }
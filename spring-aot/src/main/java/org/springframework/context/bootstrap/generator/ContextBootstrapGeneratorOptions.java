@@ -0,0 +1,138 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.bootstrap.generator;
+
+import org.springframework.util.Assert;
+
+/**
+ * Options for the {@link ContextBootstrapGenerator}.
+ *
+ * @author agent
+ */
+public class ContextBootstrapGeneratorOptions {
+
+	/**
+	 * Constant for the default options.
+	 */
+	public static final ContextBootstrapGeneratorOptions DEFAULTS = builder().build();
+
+	private final int beansPerMethod;
+
+	private final int beansPerClass;
+
+	private final int parallelism;
+
+	private ContextBootstrapGeneratorOptions(Builder builder) {
+		this.beansPerMethod = builder.beansPerMethod;
+		this.beansPerClass = builder.beansPerClass;
+		this.parallelism = builder.parallelism;
+	}
+
+	/**
+	 * Return the maximum number of bean registrations that are written in a single
+	 * method. When the context defines more beans than that, registrations are split
+	 * in several methods invoked in order by the main {@code initialize} method.
+	 * @return the maximum number of bean registrations per method
+	 */
+	public int getBeansPerMethod() {
+		return this.beansPerMethod;
+	}
+
+	/**
+	 * Return the maximum number of bean registrations that are written in a single
+	 * class. When the context defines more beans than that, registrations are split in
+	 * nested classes of the main bootstrap class, each with its own constant pool.
+	 * @return the maximum number of bean registrations per class
+	 */
+	public int getBeansPerClass() {
+		return this.beansPerClass;
+	}
+
+	/**
+	 * Return the number of threads to use to write bean registrations. With more than
+	 * one thread, the code and native configuration of each bean are computed
+	 * concurrently and merged in bean registration order.
+	 * @return the number of threads to use, {@code 1} to process beans sequentially
+	 */
+	public int getParallelism() {
+		return this.parallelism;
+	}
+
+	/**
+	 * Create a new options {@link Builder}
+	 * @return a builder with default settings
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public static class Builder {
+
+		private int beansPerMethod = 200;
+
+		private int beansPerClass = 1000;
+
+		private int parallelism = 1;
+
+		private Builder() {
+		}
+
+		/**
+		 * Specify the maximum number of bean registrations per generated method.
+		 * Keeping generated methods small avoids the 64KB bytecode limit of a single
+		 * method.
+		 * @param beansPerMethod the maximum number of registrations per method
+		 * @return this for method chaining
+		 */
+		public Builder withBeansPerMethod(int beansPerMethod) {
+			Assert.isTrue(beansPerMethod > 0, "BeansPerMethod must be strictly positive");
+			this.beansPerMethod = beansPerMethod;
+			return this;
+		}
+
+		/**
+		 * Specify the maximum number of bean registrations per generated class. Each
+		 * registration adds entries to the constant pool of the class that holds it,
+		 * which is limited to 65535 entries: a single class cannot hold the
+		 * registrations of more than a few thousand beans.
+		 * @param beansPerClass the maximum number of registrations per class
+		 * @return this for method chaining
+		 */
+		public Builder withBeansPerClass(int beansPerClass) {
+			Assert.isTrue(beansPerClass > 0, "BeansPerClass must be strictly positive");
+			this.beansPerClass = beansPerClass;
+			return this;
+		}
+
+		/**
+		 * Specify the number of threads to use to write bean registrations.
+		 * @param parallelism the number of threads, {@code 1} to disable parallel processing
+		 * @return this for method chaining
+		 */
+		public Builder withParallelism(int parallelism) {
+			Assert.isTrue(parallelism > 0, "Parallelism must be strictly positive");
+			this.parallelism = parallelism;
+			return this;
+		}
+
+		public ContextBootstrapGeneratorOptions build() {
+			return new ContextBootstrapGeneratorOptions(this);
+		}
+
+	}
+
+}
@@ -5,9 +5,11 @@ import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.context.bootstrap.generator.bean.descriptor.BeanInstanceDescriptor;
 import org.springframework.context.bootstrap.generator.bean.descriptor.BeanInstanceDescriptorFactory;
 import org.springframework.context.bootstrap.generator.bean.descriptor.DefaultBeanInstanceDescriptorFactory;
+import org.springframework.context.bootstrap.generator.bean.support.DependencyCandidateResolver;
 
 /**
  * Base {@link BeanRegistrationWriterSupplier} implementation taking care of creating
@@ -19,9 +21,22 @@ public abstract class AbstractBeanRegistrationWriterSupplier implements BeanRegi
 
 	private BeanInstanceDescriptorFactory beanInstanceDescriptorFactory;
 
+	private DependencyCandidateResolver dependencyCandidateResolver;
+
 	@Override
 	public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
 		this.beanInstanceDescriptorFactory = new DefaultBeanInstanceDescriptorFactory((ConfigurableBeanFactory) beanFactory);
+		this.dependencyCandidateResolver = (beanFactory instanceof ConfigurableListableBeanFactory)
+				? new DependencyCandidateResolver((ConfigurableListableBeanFactory) beanFactory) : null;
+	}
+
+	/**
+	 * Set the {@link DependencyCandidateResolver} to use to resolve dependencies at
+	 * build time, replacing the one that is created for the bean factory.
+	 * @param dependencyCandidateResolver the resolver to use
+	 */
+	public void setDependencyCandidateResolver(DependencyCandidateResolver dependencyCandidateResolver) {
+		this.dependencyCandidateResolver = dependencyCandidateResolver;
 	}
 
 	@Override
@@ -45,7 +60,8 @@ public abstract class AbstractBeanRegistrationWriterSupplier implements BeanRegi
 	 * @return a builder with sensible defaults
 	 */
 	protected BeanRegistrationWriterOptions.Builder initializeOptions() {
-		return BeanRegistrationWriterOptions.builder().withWriterFactory(this::get);
+		return BeanRegistrationWriterOptions.builder().withWriterFactory(this::get)
+				.withDependencyCandidateResolver(this.dependencyCandidateResolver);
 	}
 
 	private BeanInstanceDescriptor resolveBeanInstanceDescriptor(BeanDefinition beanDefinition) {
@@ -3,6 +3,7 @@ package org.springframework.context.bootstrap.generator.bean;
 import java.util.function.BiFunction;
 
 import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.bootstrap.generator.bean.support.DependencyCandidateResolver;
 
 /**
  * Bean registration writer options.
@@ -18,8 +19,11 @@ public class BeanRegistrationWriterOptions {
 
 	private final BiFunction<String, BeanDefinition, BeanRegistrationWriter> writerFactory;
 
+	private final DependencyCandidateResolver dependencyCandidateResolver;
+
 	private BeanRegistrationWriterOptions(Builder builder) {
 		this.writerFactory = builder.writerFactory;
+		this.dependencyCandidateResolver = builder.dependencyCandidateResolver;
 	}
 
 	/**
@@ -33,6 +37,16 @@ public class BeanRegistrationWriterOptions {
 		return (this.writerFactory != null) ? this.writerFactory.apply(beanName, beanDefinition) : null;
 	}
 
+	/**
+	 * Return the {@link DependencyCandidateResolver} to use to resolve the arguments
+	 * of instance creators at build time.
+	 * @return the dependency candidate resolver, or {@code null} if arguments are
+	 * resolved at runtime
+	 */
+	public DependencyCandidateResolver getDependencyCandidateResolver() {
+		return this.dependencyCandidateResolver;
+	}
+
 	/**
 	 * Create a new options {@link Builder}
 	 * @return a builder with default settings
@@ -48,11 +62,18 @@ public class BeanRegistrationWriterOptions {
 
 		private BiFunction<String, BeanDefinition, BeanRegistrationWriter> writerFactory;
 
+		private DependencyCandidateResolver dependencyCandidateResolver;
+
 		public Builder withWriterFactory(BiFunction<String, BeanDefinition, BeanRegistrationWriter> writerFactory) {
 			this.writerFactory = writerFactory;
 			return this;
 		}
 
+		public Builder withDependencyCandidateResolver(DependencyCandidateResolver dependencyCandidateResolver) {
+			this.dependencyCandidateResolver = dependencyCandidateResolver;
+			return this;
+		}
+
 
 		public BeanRegistrationWriterOptions build() {
 			return new BeanRegistrationWriterOptions(this);
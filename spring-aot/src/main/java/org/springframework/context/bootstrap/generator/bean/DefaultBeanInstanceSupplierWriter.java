@@ -18,11 +18,14 @@ package org.springframework.context.bootstrap.generator.bean;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Executable;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import com.squareup.javapoet.CodeBlock.Builder;
 
@@ -42,14 +45,39 @@ class DefaultBeanInstanceSupplierWriter {
 
 	private final BeanDefinition beanDefinition;
 
+	private final List<String> instanceCreatorDependencies;
+
+	private final Map<Member, List<String>> injectionPointDependencies;
+
 	private final InjectionPointWriter injectionPointWriter;
 
-	DefaultBeanInstanceSupplierWriter(BeanInstanceDescriptor descriptor, BeanDefinition beanDefinition) {
+	/**
+	 * Create a new instance.
+	 * @param descriptor the descriptor of the bean
+	 * @param beanDefinition the definition of the bean
+	 * @param instanceCreatorDependencies the names of the beans to inject in the
+	 * instance creator, or {@code null} to resolve them at runtime
+	 * @param injectionPointDependencies the names of the beans to inject, for each
+	 * injection point whose dependencies have been resolved at build time
+	 */
+	DefaultBeanInstanceSupplierWriter(BeanInstanceDescriptor descriptor, BeanDefinition beanDefinition,
+			List<String> instanceCreatorDependencies, Map<Member, List<String>> injectionPointDependencies) {
 		this.descriptor = descriptor;
 		this.beanDefinition = beanDefinition;
+		this.instanceCreatorDependencies = instanceCreatorDependencies;
+		this.injectionPointDependencies = injectionPointDependencies;
 		this.injectionPointWriter = new InjectionPointWriter();
 	}
 
+	DefaultBeanInstanceSupplierWriter(BeanInstanceDescriptor descriptor, BeanDefinition beanDefinition,
+			List<String> instanceCreatorDependencies) {
+		this(descriptor, beanDefinition, instanceCreatorDependencies, Collections.emptyMap());
+	}
+
+	DefaultBeanInstanceSupplierWriter(BeanInstanceDescriptor descriptor, BeanDefinition beanDefinition) {
+		this(descriptor, beanDefinition, null);
+	}
+
 	public void writeInstanceSupplier(Builder code) {
 		MemberDescriptor<Executable> descriptor = this.descriptor.getInstanceCreator();
 		if (descriptor == null) {
@@ -88,13 +116,11 @@ class DefaultBeanInstanceSupplierWriter {
 		if (multiStatements) {
 			code.add("$T bean = ", declaringType);
 		}
-		code.add(this.injectionPointWriter.writeInstantiation(constructor));
+		code.add(this.injectionPointWriter.writeInstantiation(constructor, this.instanceCreatorDependencies));
 		if (multiStatements) {
 			code.add(";\n");
 		}
-		for (MemberDescriptor<?> injectionPoint : this.descriptor.getInjectionPoints()) {
-			code.add(this.injectionPointWriter.writeInjection(injectionPoint.getMember(), injectionPoint.isRequired())).add(";\n");
-		}
+		writeInjectionPoints(code);
 		if (multiStatements) {
 			code.add("return bean;\n");
 			code.unindent().add("}");
@@ -123,19 +149,25 @@ class DefaultBeanInstanceSupplierWriter {
 		if (multiStatements) {
 			code.add("$T bean = ", this.descriptor.getUserBeanClass());
 		}
-		code.add(this.injectionPointWriter.writeInstantiation(method));
+		code.add(this.injectionPointWriter.writeInstantiation(method, this.instanceCreatorDependencies));
 		if (multiStatements) {
 			code.add(";\n");
 		}
-		for (MemberDescriptor<?> injectionPoint : this.descriptor.getInjectionPoints()) {
-			code.add(this.injectionPointWriter.writeInjection(injectionPoint.getMember(), injectionPoint.isRequired())).add(";\n");
-		}
+		writeInjectionPoints(code);
 		if (multiStatements) {
 			code.add("return bean;\n");
 			code.unindent().add("}");
 		}
 	}
 
+	private void writeInjectionPoints(Builder code) {
+		for (MemberDescriptor<?> injectionPoint : this.descriptor.getInjectionPoints()) {
+			Member member = injectionPoint.getMember();
+			code.add(this.injectionPointWriter.writeInjection(member, injectionPoint.isRequired(),
+					this.injectionPointDependencies.get(member))).add(";\n");
+		}
+	}
+
 	private static void branch(boolean condition, Runnable ifTrue, Runnable ifFalse) {
 		if (condition) {
 			ifTrue.run();
@@ -1,10 +1,15 @@
 package org.springframework.context.bootstrap.generator.bean;
 
-import java.lang.reflect.Constructor;
 import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -26,12 +31,16 @@ import org.springframework.beans.factory.config.ConstructorArgumentValues.ValueH
 import org.springframework.beans.factory.config.RuntimeBeanReference;
 import org.springframework.beans.factory.support.AbstractBeanDefinition;
 import org.springframework.context.bootstrap.generator.bean.descriptor.BeanInstanceDescriptor;
+import org.springframework.context.bootstrap.generator.bean.descriptor.BeanInstanceDescriptor.MemberDescriptor;
+import org.springframework.context.bootstrap.generator.bean.support.DependencyCandidateResolver;
+import org.springframework.context.bootstrap.generator.bean.support.InstanceCreatorAnalyzer;
 import org.springframework.context.bootstrap.generator.bean.support.MultiStatement;
 import org.springframework.context.bootstrap.generator.bean.support.ParameterWriter;
 import org.springframework.context.bootstrap.generator.bean.support.TypeWriter;
 import org.springframework.context.bootstrap.generator.infrastructure.BootstrapClass;
 import org.springframework.context.bootstrap.generator.infrastructure.BootstrapWriterContext;
 import org.springframework.context.bootstrap.generator.infrastructure.ProtectedAccessAnalysis;
+import org.springframework.context.bootstrap.generator.infrastructure.nativex.NativeConfigurationRegistry;
 import org.springframework.context.support.GenericApplicationContext;
 import org.springframework.core.AttributeAccessor;
 import org.springframework.core.ResolvableType;
@@ -58,6 +67,8 @@ public class DefaultBeanRegistrationWriter implements BeanRegistrationWriter {
 
 	private final ParameterWriter parameterWriter;
 
+	private final Set<Member> reflectiveInjectionPoints = new LinkedHashSet<>();
+
 	private int nesting = 0;
 
 	public DefaultBeanRegistrationWriter(String beanName, BeanDefinition beanDefinition,
@@ -92,6 +103,24 @@ public class DefaultBeanRegistrationWriter implements BeanRegistrationWriter {
 			javaFile.addMethod(method);
 			code.addStatement("$T.$N(context)", javaFile.getClassName(), method);
 		}
+		registerReflectiveInjectionPoints(context.getNativeConfigurationRegistry());
+	}
+
+	/**
+	 * Register the injection points that the generated code accesses using reflection.
+	 * Injection points that are written as a direct field assignment or method
+	 * invocation do not need any reflection metadata.
+	 * @param registry the registry to use
+	 */
+	private void registerReflectiveInjectionPoints(NativeConfigurationRegistry registry) {
+		for (Member member : this.reflectiveInjectionPoints) {
+			if (member instanceof Field) {
+				registry.reflection().addField((Field) member);
+			}
+			else if (member instanceof Method) {
+				registry.reflection().addExecutable((Method) member);
+			}
+		}
 	}
 
 	/**
@@ -106,21 +135,14 @@ public class DefaultBeanRegistrationWriter implements BeanRegistrationWriter {
 	/**
 	 * Specify if the creator {@link Executable} should be defined. By default, a creator
 	 * is specified if the {@code instanceSupplier} callback is used with an
-	 * {@code instanceContext} callback.
+	 * {@code instanceContext} callback, or if the factory method holds metadata that
+	 * the bean factory may introspect at runtime.
 	 * @param descriptor the bean descriptor
 	 * @return {@code true} to declare the creator
+	 * @see InstanceCreatorAnalyzer
 	 */
 	protected boolean shouldDeclareCreator(BeanInstanceDescriptor descriptor) {
-		Executable executable = (descriptor.getInstanceCreator() != null)
-				? descriptor.getInstanceCreator().getMember() : null;
-		if (executable instanceof Method) {
-			return true;
-		}
-		if (executable instanceof Constructor) {
-			int minArgs = isInnerClass(descriptor.getUserBeanClass()) ? 2 : 1;
-			return executable.getParameterCount() >= minArgs;
-		}
-		return false;
+		return InstanceCreatorAnalyzer.isResolvedAtRuntime(descriptor);
 	}
 
 	/**
@@ -128,7 +150,53 @@ public class DefaultBeanRegistrationWriter implements BeanRegistrationWriter {
 	 * @param code the code builder to use
 	 */
 	protected void writeInstanceSupplier(Builder code) {
-		new DefaultBeanInstanceSupplierWriter(this.beanInstanceDescriptor, this.beanDefinition).writeInstanceSupplier(code);
+		Map<Member, List<String>> injectionPointDependencies = resolveInjectionPointDependencies();
+		for (MemberDescriptor<?> injectionPoint : this.beanInstanceDescriptor.getInjectionPoints()) {
+			Member member = injectionPoint.getMember();
+			if (InjectionPointWriter.requiresReflection(member, injectionPointDependencies.get(member))) {
+				this.reflectiveInjectionPoints.add(member);
+			}
+		}
+		new DefaultBeanInstanceSupplierWriter(this.beanInstanceDescriptor, this.beanDefinition,
+				resolveInstanceCreatorDependencies(), injectionPointDependencies).writeInstanceSupplier(code);
+	}
+
+	/**
+	 * Resolve the beans to inject in the instance creator at build time, if possible.
+	 * @return the names of the beans to inject, or {@code null} to resolve them at runtime
+	 */
+	private List<String> resolveInstanceCreatorDependencies() {
+		DependencyCandidateResolver resolver = this.options.getDependencyCandidateResolver();
+		MemberDescriptor<Executable> instanceCreator = this.beanInstanceDescriptor.getInstanceCreator();
+		if (resolver == null || instanceCreator == null) {
+			return null;
+		}
+		Executable creator = instanceCreator.getMember();
+		Class<?> targetType = (creator instanceof Method) ? creator.getDeclaringClass()
+				: this.beanInstanceDescriptor.getUserBeanClass();
+		return resolver.resolve(this.beanName, this.beanDefinition, creator, targetType);
+	}
+
+	/**
+	 * Resolve the beans to inject in each field or method at build time, if possible.
+	 * @return the names of the beans to inject, for each injection point that does not
+	 * have to be resolved at runtime
+	 */
+	private Map<Member, List<String>> resolveInjectionPointDependencies() {
+		DependencyCandidateResolver resolver = this.options.getDependencyCandidateResolver();
+		Map<Member, List<String>> dependencies = new LinkedHashMap<>();
+		if (resolver == null) {
+			return dependencies;
+		}
+		for (MemberDescriptor<?> injectionPoint : this.beanInstanceDescriptor.getInjectionPoints()) {
+			Member member = injectionPoint.getMember();
+			List<String> candidates = resolver.resolve(this.beanName, this.beanDefinition, member,
+					injectionPoint.isRequired(), this.beanInstanceDescriptor.getUserBeanClass());
+			if (candidates != null) {
+				dependencies.put(member, candidates);
+			}
+		}
+		return dependencies;
 	}
 
 	void writeBeanRegistration(Builder code) {
@@ -162,10 +230,6 @@ public class DefaultBeanRegistrationWriter implements BeanRegistrationWriter {
 		handleBeanDefinitionMetadata(code);
 	}
 
-	private static boolean isInnerClass(Class<?> type) {
-		return type.isMemberClass() && !java.lang.reflect.Modifier.isStatic(type.getModifiers());
-	}
-
 	private void handleCreatorReference(Builder code, Executable creator) {
 		if (creator instanceof Method) {
 			code.add(".withFactoryMethod($T.class, $S", creator.getDeclaringClass(), creator.getName());
@@ -279,6 +343,7 @@ public class DefaultBeanRegistrationWriter implements BeanRegistrationWriter {
 		if (value instanceof BeanDefinition) {
 			DefaultBeanRegistrationWriter nestedGenerator = writeNestedBeanDefinition((BeanDefinition) value);
 			nestedGenerator.writeBeanDefinition(code);
+			this.reflectiveInjectionPoints.addAll(nestedGenerator.reflectiveInjectionPoints);
 		}
 		if (value instanceof BeanReference) {
 			code.add("new $T($S)", RuntimeBeanReference.class, ((BeanReference) value).getBeanName());
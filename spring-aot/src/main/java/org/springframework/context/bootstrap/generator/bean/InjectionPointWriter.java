@@ -3,10 +3,13 @@ package org.springframework.context.bootstrap.generator.bean;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Executable;
 import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -39,16 +42,46 @@ class InjectionPointWriter {
 	private final ParameterWriter parameterWriter = new ParameterWriter();
 
 	CodeBlock writeInstantiation(Executable creator) {
+		return writeInstantiation(creator, null);
+	}
+
+	/**
+	 * Write the instantiation of a bean using the specified creator.
+	 * @param creator the constructor or factory method to invoke
+	 * @param dependencies the names of the beans to inject in the creator, as resolved
+	 * at build time, or {@code null} to resolve the arguments at runtime
+	 * @return the code that creates the bean instance
+	 */
+	CodeBlock writeInstantiation(Executable creator, List<String> dependencies) {
 		if (creator instanceof Constructor) {
-			return write((Constructor<?>) creator);
+			return write((Constructor<?>) creator, dependencies);
 		}
 		if (creator instanceof Method) {
-			return writeMethodInstantiation((Method) creator);
+			return writeMethodInstantiation((Method) creator, dependencies);
 		}
 		throw new IllegalArgumentException("Could not handle creator " + creator);
 	}
 
 	CodeBlock writeInjection(Member member, boolean required) {
+		return writeInjection(member, required, null);
+	}
+
+	/**
+	 * Write the injection of the specified field or method. If the dependencies have
+	 * been resolved at build time, the field is assigned or the method is invoked
+	 * directly. Otherwise, the dependencies are resolved at runtime, which requires
+	 * the member to be available for reflection.
+	 * @param member the field or method to inject
+	 * @param required whether the injection point is required
+	 * @param dependencies the names of the beans to inject, as resolved at build time,
+	 * or {@code null} to resolve them at runtime
+	 * @return the code that injects the dependencies in the {@code bean} instance
+	 * @see #requiresReflection(Member, List)
+	 */
+	CodeBlock writeInjection(Member member, boolean required, List<String> dependencies) {
+		if (!requiresReflection(member, dependencies)) {
+			return writeDirectInjection(member, dependencies);
+		}
 		if (member instanceof Method) {
 			return writeMethodInjection((Method) member, required);
 		}
@@ -58,7 +91,50 @@ class InjectionPointWriter {
 		throw new IllegalArgumentException("Could not handle member " + member);
 	}
 
-	private CodeBlock write(Constructor<?> creator) {
+	/**
+	 * Specify if the code written for the specified injection point accesses the
+	 * member using reflection at runtime. Only private members, members whose type
+	 * is a type variable, and members whose dependencies are resolved at runtime
+	 * require reflection.
+	 * @param member the field or method to inject
+	 * @param dependencies the names of the beans to inject, as resolved at build time,
+	 * or {@code null} if they are resolved at runtime
+	 * @return {@code true} if the member should be registered for reflection
+	 */
+	static boolean requiresReflection(Member member, List<String> dependencies) {
+		if (dependencies == null || Modifier.isPrivate(member.getModifiers())) {
+			return true;
+		}
+		if (member instanceof Field) {
+			return !isAssignable(((Field) member).getGenericType());
+		}
+		if (member instanceof Method) {
+			return !Arrays.stream(((Method) member).getGenericParameterTypes())
+					.allMatch(InjectionPointWriter::isAssignable);
+		}
+		return true;
+	}
+
+	private static boolean isAssignable(Type type) {
+		return !(type instanceof TypeVariable) && !(type instanceof GenericArrayType);
+	}
+
+	private CodeBlock writeDirectInjection(Member member, List<String> dependencies) {
+		CodeBlock.Builder code = CodeBlock.builder();
+		if (member instanceof Field) {
+			Field field = (Field) member;
+			code.add("bean.$L = context.getBean($S, $T.class)", field.getName(), dependencies.get(0), field.getType());
+		}
+		else {
+			Method method = (Method) member;
+			code.add("bean.$L(", method.getName());
+			code.add(CodeBlock.join(resolveParameters(method.getParameters(), dependencies), ", "));
+			code.add(")");
+		}
+		return code.build();
+	}
+
+	private CodeBlock write(Constructor<?> creator, List<String> dependencies) {
 		CodeBlock.Builder code = CodeBlock.builder();
 		Class<?> declaringType = ClassUtils.getUserClass(creator.getDeclaringClass());
 		boolean innerClass = isInnerClass(declaringType);
@@ -74,13 +150,19 @@ class InjectionPointWriter {
 		}
 		boolean isAmbiguous = Arrays.stream(creator.getDeclaringClass().getDeclaredConstructors())
 				.filter(constructor -> constructor.getParameterCount() == parameterTypes.length).count() > 1;
-		code.add("instanceContext.create(context, (attributes) ->");
-		List<CodeBlock> parameters = resolveParameters(creator.getParameters(), isAmbiguous);
+		boolean resolved = (dependencies != null);
+		List<CodeBlock> parameters;
+		if (resolved) {
+			parameters = resolveParameters(creator.getParameters(), dependencies);
+		}
+		else {
+			code.add("instanceContext.create(context, (attributes) ->");
+			parameters = resolveParameters(creator.getParameters(), isAmbiguous);
+			code.add(" ");
+		}
 		if (innerClass) { // Remove the implicit argument
 			parameters.remove(0);
 		}
-
-		code.add(" ");
 		if (innerClass) {
 			code.add("context.getBean($T.class).new $L(", declaringType.getEnclosingClass(), declaringType.getSimpleName());
 		}
@@ -94,7 +176,9 @@ class InjectionPointWriter {
 			}
 		}
 		code.add(")");
-		code.add(")");
+		if (!resolved) {
+			code.add(")");
+		}
 		return code.build();
 	}
 
@@ -102,8 +186,8 @@ class InjectionPointWriter {
 		return type.isMemberClass() && !Modifier.isStatic(type.getModifiers());
 	}
 
-	private CodeBlock writeMethodInstantiation(Method injectionPoint) {
-		if (injectionPoint.getParameterCount() == 0) {
+	private CodeBlock writeMethodInstantiation(Method injectionPoint, List<String> dependencies) {
+		if (injectionPoint.getParameterCount() == 0 || dependencies != null) {
 			Builder code = CodeBlock.builder();
 			Class<?> declaringType = injectionPoint.getDeclaringClass();
 			if (Modifier.isStatic(injectionPoint.getModifiers())) {
@@ -112,7 +196,11 @@ class InjectionPointWriter {
 			else {
 				code.add("context.getBean($T.class)", declaringType);
 			}
-			code.add(".$L()", injectionPoint.getName());
+			code.add(".$L(", injectionPoint.getName());
+			if (dependencies != null) {
+				code.add(CodeBlock.join(resolveParameters(injectionPoint.getParameters(), dependencies), ", "));
+			}
+			code.add(")");
 			return code.build();
 		}
 		return write(injectionPoint, (code) -> code.add(".create(context, (attributes) ->"), true);
@@ -194,6 +282,14 @@ class InjectionPointWriter {
 		return code.build();
 	}
 
+	private List<CodeBlock> resolveParameters(Parameter[] parameters, List<String> beanNames) {
+		List<CodeBlock> parameterValues = new ArrayList<>();
+		for (int i = 0; i < parameters.length; i++) {
+			parameterValues.add(CodeBlock.of("context.getBean($S, $T.class)", beanNames.get(i), parameters[i].getType()));
+		}
+		return parameterValues;
+	}
+
 	private List<CodeBlock> resolveParameters(Parameter[] parameters, boolean shouldCast) {
 		List<CodeBlock> parameterValues = new ArrayList<>();
 		for (int i = 0; i < parameters.length; i++) {
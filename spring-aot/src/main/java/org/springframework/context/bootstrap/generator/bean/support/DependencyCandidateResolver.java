@@ -0,0 +1,369 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.bootstrap.generator.bean.support;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryUtils;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.DependencyDescriptor;
+import org.springframework.beans.factory.config.PlaceholderConfigurerSupport;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.ContextAnnotationAutowireCandidateResolver;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.bootstrap.generator.BeanDefinitionSelector;
+import org.springframework.context.bootstrap.generator.DefaultBeanDefinitionSelector;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Resolve, at build time, the bean that the bean factory would inject for each
+ * argument of an instance creator, or for each injected field or method. A unique
+ * candidate allows the generated code to retrieve the bean by name rather than
+ * performing a lookup by type on startup.
+ *
+ * <p>Candidates are matched using the {@link ContextAnnotationAutowireCandidateResolver}
+ * that the generated context uses, so that qualifiers and generics are honoured.
+ * Resolution only happens if it leads to the same outcome as the runtime: any argument
+ * that involves primary or priority-based selection, collections, {@code Optional},
+ * lazy or deferred access, or a bean whose type cannot be determined without
+ * instantiating it, is left to the bean factory. So is every dependency if the generated
+ * context runs bean factory post-processors, as they may register or change bean
+ * definitions on startup, unless they only resolve placeholders that no bean type
+ * depends on. Each bean whose dependencies are resolved at runtime is
+ * {@linkplain #getFallbacks() reported}.
+ *
+ * @author agent
+ */
+public class DependencyCandidateResolver {
+
+	private static final Log logger = LogFactory.getLog(DependencyCandidateResolver.class);
+
+	/**
+	 * Types that the context registers as resolvable dependencies rather than beans.
+	 */
+	private static final List<Class<?>> RESOLVABLE_DEPENDENCY_TYPES = Arrays.asList(BeanFactory.class,
+			ResourceLoader.class, ApplicationEventPublisher.class, ApplicationContext.class);
+
+	private static final String JAVAX_INJECT_PROVIDER = "javax.inject.Provider";
+
+	private final ConfigurableListableBeanFactory beanFactory;
+
+	private final ContextAnnotationAutowireCandidateResolver autowireCandidateResolver;
+
+	private final BeanDefinitionSelector selector;
+
+	private final String unresolvableBeanGraph;
+
+	private final Map<String, String> fallbacks = Collections.synchronizedMap(new LinkedHashMap<>());
+
+	/**
+	 * Create an instance for the specified bean factory, using the specified
+	 * {@link BeanDefinitionSelector} to determine the beans that the generated context
+	 * registers.
+	 * @param beanFactory the bean factory
+	 * @param selector the selector of the bean definitions that are generated
+	 */
+	public DependencyCandidateResolver(ConfigurableListableBeanFactory beanFactory, BeanDefinitionSelector selector) {
+		this.beanFactory = beanFactory;
+		this.autowireCandidateResolver = new ContextAnnotationAutowireCandidateResolver();
+		this.autowireCandidateResolver.setBeanFactory(beanFactory);
+		this.selector = selector;
+		this.unresolvableBeanGraph = detectUnresolvableBeanGraph(beanFactory, selector);
+	}
+
+	/**
+	 * Create an instance for the specified bean factory, assuming that the generated
+	 * context registers the bean definitions that are not excluded by default.
+	 * @param beanFactory the bean factory
+	 */
+	public DependencyCandidateResolver(ConfigurableListableBeanFactory beanFactory) {
+		this(beanFactory, new DefaultBeanDefinitionSelector(Collections.emptyList()));
+	}
+
+	/**
+	 * Resolve the name of the bean to inject for each argument of the specified
+	 * instance creator.
+	 * @param beanName the name of the bean to create, or {@code null} for an inner bean
+	 * @param beanDefinition the definition of the bean to create
+	 * @param creator the constructor or factory method that creates the bean
+	 * @param targetType the type that declares the injection point
+	 * @return the names of the bean to inject, in argument order, or {@code null} if at
+	 * least one argument has to be resolved at runtime
+	 */
+	public List<String> resolve(String beanName, BeanDefinition beanDefinition, Executable creator, Class<?> targetType) {
+		if (creator.getParameterCount() == 0) {
+			return null;
+		}
+		if (this.unresolvableBeanGraph != null) {
+			return fallback(beanName, beanDefinition, targetType, this.unresolvableBeanGraph);
+		}
+		if (beanDefinition.hasConstructorArgumentValues()) {
+			return fallback(beanName, beanDefinition, targetType, "argument values are defined on the bean definition");
+		}
+		List<String> candidates = new ArrayList<>();
+		for (int i = 0; i < creator.getParameterCount(); i++) {
+			DependencyDescriptor descriptor = new DependencyDescriptor(MethodParameter.forExecutable(creator, i), true);
+			descriptor.setContainingClass(targetType);
+			List<String> failures = new ArrayList<>(1);
+			String candidate = resolveCandidate(beanName, descriptor, failures);
+			if (candidate == null) {
+				return fallback(beanName, beanDefinition, targetType,
+						String.format("argument %s of %s: %s", i, creator, failures.get(0)));
+			}
+			candidates.add(candidate);
+		}
+		return candidates;
+	}
+
+	/**
+	 * Resolve the name of the bean to inject for the specified field, or for each
+	 * argument of the specified method.
+	 * @param beanName the name of the bean to inject, or {@code null} for an inner bean
+	 * @param beanDefinition the definition of the bean to inject
+	 * @param injectionPoint the field or method to inject
+	 * @param required whether the injection point is required
+	 * @param targetType the type of the bean to inject
+	 * @return the names of the bean to inject, in argument order, or {@code null} if at
+	 * least one dependency has to be resolved at runtime
+	 */
+	public List<String> resolve(String beanName, BeanDefinition beanDefinition, Member injectionPoint,
+			boolean required, Class<?> targetType) {
+		List<DependencyDescriptor> descriptors = new ArrayList<>();
+		if (injectionPoint instanceof Field) {
+			descriptors.add(new DependencyDescriptor((Field) injectionPoint, required));
+		}
+		else if (injectionPoint instanceof Method) {
+			Method method = (Method) injectionPoint;
+			for (int i = 0; i < method.getParameterCount(); i++) {
+				descriptors.add(new DependencyDescriptor(new MethodParameter(method, i), required));
+			}
+		}
+		else {
+			throw new IllegalArgumentException("Could not handle injection point " + injectionPoint);
+		}
+		if (descriptors.isEmpty()) {
+			return Collections.emptyList();
+		}
+		if (this.unresolvableBeanGraph != null) {
+			return fallback(beanName, beanDefinition, targetType, this.unresolvableBeanGraph);
+		}
+		List<String> candidates = new ArrayList<>();
+		for (DependencyDescriptor descriptor : descriptors) {
+			descriptor.setContainingClass(targetType);
+			List<String> failures = new ArrayList<>(1);
+			String candidate = resolveCandidate(beanName, descriptor, failures);
+			if (candidate == null) {
+				return fallback(beanName, beanDefinition, targetType,
+						String.format("%s: %s", injectionPoint, failures.get(0)));
+			}
+			candidates.add(candidate);
+		}
+		return candidates;
+	}
+
+	/**
+	 * Return the beans whose dependencies are resolved at runtime, mapped to the reason
+	 * why they could not be resolved at build time. Inner beans are identified by their
+	 * type and the identity of their bean definition.
+	 * @return the dependency resolution fallbacks, by bean name
+	 */
+	public Map<String, String> getFallbacks() {
+		synchronized (this.fallbacks) {
+			return new LinkedHashMap<>(this.fallbacks);
+		}
+	}
+
+	/**
+	 * Resolve the unique candidate for the specified dependency.
+	 * @return the candidate bean name, or {@code null} if it cannot be resolved
+	 * at build time, in which case the reason is added to {@code failures}
+	 */
+	private String resolveCandidate(String beanName, DependencyDescriptor descriptor, List<String> failures) {
+		Class<?> type = descriptor.getDependencyType();
+		if (type.isPrimitive()) {
+			failures.add("primitive types are converted at runtime");
+			return null;
+		}
+		if (this.autowireCandidateResolver.getSuggestedValue(descriptor) != null) {
+			failures.add("value is resolved from the environment");
+			return null;
+		}
+		if (isLazy(descriptor)) {
+			failures.add("lazy resolution proxy");
+			return null;
+		}
+		if (isMultipleOrDeferred(type)) {
+			failures.add(type.getName() + " is resolved at runtime");
+			return null;
+		}
+		for (Class<?> resolvableDependencyType : RESOLVABLE_DEPENDENCY_TYPES) {
+			if (resolvableDependencyType.isAssignableFrom(type)) {
+				failures.add(type.getName() + " is provided by the application context");
+				return null;
+			}
+		}
+		String[] candidateNames = BeanFactoryUtils.beanNamesForTypeIncludingAncestors(
+				this.beanFactory, type, true, false);
+		List<String> candidates = new ArrayList<>();
+		for (String candidateName : candidateNames) {
+			if (beanName != null && isSelfReference(beanName, candidateName)) {
+				failures.add("self reference to '" + candidateName + "'");
+				return null;
+			}
+			if (isAutowireCandidate(candidateName, descriptor)) {
+				candidates.add(candidateName);
+			}
+		}
+		if (candidates.size() != 1) {
+			failures.add((candidates.isEmpty()) ? "no candidate" : candidates.size() + " candidates " + candidates);
+			return null;
+		}
+		String candidate = candidates.get(0);
+		if (!this.beanFactory.containsBeanDefinition(candidate)
+				|| !this.selector.select(candidate, this.beanFactory.getMergedBeanDefinition(candidate))) {
+			failures.add("candidate '" + candidate + "' is registered at runtime");
+			return null;
+		}
+		return candidate;
+	}
+
+	private List<String> fallback(String beanName, BeanDefinition beanDefinition, Class<?> targetType, String reason) {
+		String name = (beanName != null) ? beanName : getInnerBeanName(beanDefinition, targetType);
+		this.fallbacks.put(name, reason);
+		if (logger.isDebugEnabled()) {
+			logger.debug("Dependencies of bean '" + name + "' are resolved at runtime: " + reason);
+		}
+		return null;
+	}
+
+	// Inner beans have no name: identify them by the instance of their bean definition
+	private static String getInnerBeanName(BeanDefinition beanDefinition, Class<?> targetType) {
+		String type = (beanDefinition.getBeanClassName() != null) ? beanDefinition.getBeanClassName()
+				: targetType.getName();
+		return "(inner bean) " + type + "#" + ObjectUtils.getIdentityHexString(beanDefinition);
+	}
+
+	private boolean isAutowireCandidate(String candidateName, DependencyDescriptor descriptor) {
+		if (!this.beanFactory.containsBeanDefinition(candidateName)) {
+			return true; // Manually registered singleton
+		}
+		BeanDefinitionHolder holder = new BeanDefinitionHolder(this.beanFactory.getMergedBeanDefinition(candidateName),
+				candidateName, this.beanFactory.getAliases(candidateName));
+		return this.autowireCandidateResolver.isAutowireCandidate(holder, descriptor);
+	}
+
+	private boolean isSelfReference(String beanName, String candidateName) {
+		if (beanName.equals(candidateName)) {
+			return true;
+		}
+		if (this.beanFactory.containsBeanDefinition(candidateName)) {
+			String factoryBeanName = this.beanFactory.getMergedBeanDefinition(candidateName).getFactoryBeanName();
+			return beanName.equals(factoryBeanName);
+		}
+		return false;
+	}
+
+	private static boolean isLazy(DependencyDescriptor descriptor) {
+		for (Annotation annotation : descriptor.getAnnotations()) {
+			if (AnnotationUtils.getAnnotation(annotation, Lazy.class) != null) {
+				return true;
+			}
+		}
+		MethodParameter methodParameter = descriptor.getMethodParameter();
+		if (methodParameter != null) {
+			Method method = methodParameter.getMethod();
+			if (method == null || void.class == method.getReturnType()) {
+				return AnnotationUtils.getAnnotation(methodParameter.getAnnotatedElement(), Lazy.class) != null;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isMultipleOrDeferred(Class<?> type) {
+		return type.isArray() || Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type)
+				|| Stream.class == type || Optional.class == type || ObjectFactory.class.isAssignableFrom(type)
+				|| JAVAX_INJECT_PROVIDER.equals(type.getName());
+	}
+
+	/**
+	 * Detect if the bean graph may differ at runtime, because a bean factory
+	 * post-processor that the generated context runs may register or change bean
+	 * definitions, or if the type of some beans cannot be determined without
+	 * instantiating them. In both cases, any lookup by type may miss a candidate.
+	 * @return the reason why the bean graph cannot be resolved, or {@code null}
+	 */
+	private static String detectUnresolvableBeanGraph(ConfigurableListableBeanFactory beanFactory,
+			BeanDefinitionSelector selector) {
+		List<String> postProcessorNames = Arrays.stream(
+				beanFactory.getBeanNamesForType(BeanFactoryPostProcessor.class, true, false))
+				.filter(beanFactory::containsBeanDefinition)
+				.filter((name) -> selector.select(name, beanFactory.getMergedBeanDefinition(name)))
+				.filter((name) -> mayChangeBeanGraph(beanFactory, name))
+				.collect(Collectors.toList());
+		if (!postProcessorNames.isEmpty()) {
+			return "bean factory post-processor(s) " + postProcessorNames + " may change bean definitions at runtime";
+		}
+		List<String> unresolvedBeanNames = Arrays.stream(beanFactory.getBeanDefinitionNames())
+				.filter((name) -> !beanFactory.getMergedBeanDefinition(name).isAbstract())
+				.filter((name) -> beanFactory.getType(name, false) == null)
+				.collect(Collectors.toList());
+		return (!unresolvedBeanNames.isEmpty())
+				? "type of bean(s) " + unresolvedBeanNames + " cannot be determined at build time" : null;
+	}
+
+	// Placeholders only change the bean graph if they are used to define the type of a bean
+	private static boolean mayChangeBeanGraph(ConfigurableListableBeanFactory beanFactory, String postProcessorName) {
+		Class<?> type = beanFactory.getType(postProcessorName, false);
+		if (type == null || !PlaceholderConfigurerSupport.class.isAssignableFrom(type)) {
+			return true;
+		}
+		return Arrays.stream(beanFactory.getBeanDefinitionNames()).map(beanFactory::getBeanDefinition)
+				.anyMatch((bd) -> hasPlaceholder(bd.getBeanClassName()) || hasPlaceholder(bd.getFactoryBeanName())
+						|| hasPlaceholder(bd.getFactoryMethodName()));
+	}
+
+	private static boolean hasPlaceholder(String value) {
+		return value != null && value.contains(PlaceholderConfigurerSupport.DEFAULT_PLACEHOLDER_PREFIX);
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.bootstrap.generator.bean.support;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Description;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.context.annotation.Scope;
+import org.springframework.context.bootstrap.generator.bean.descriptor.BeanInstanceDescriptor;
+import org.springframework.context.bootstrap.generator.bean.descriptor.BeanInstanceDescriptor.MemberDescriptor;
+import org.springframework.core.annotation.AnnotationUtils;
+
+/**
+ * Determine if the {@link Executable} used to create a bean has to be resolved at
+ * runtime. Creators without arguments are invoked directly by the generated instance
+ * supplier so that neither a reflective lookup nor a reflection entry is necessary,
+ * unless the bean factory has to introspect the factory method for metadata that is
+ * not known at build time, such as qualifiers or {@code @Order}.
+ *
+ * @author agent
+ */
+public final class InstanceCreatorAnalyzer {
+
+	/**
+	 * Annotations of a factory method whose semantic is fully captured in the bean
+	 * definition at build time.
+	 */
+	private static final Set<Class<? extends Annotation>> BUILD_TIME_ANNOTATIONS = Collections.unmodifiableSet(
+			new HashSet<>(Arrays.asList(Bean.class, Conditional.class, Primary.class, Lazy.class, DependsOn.class,
+					Role.class, Description.class, Scope.class)));
+
+	private InstanceCreatorAnalyzer() {
+	}
+
+	/**
+	 * Specify if the instance creator of the specified bean should be made available
+	 * to the runtime, i.e. declared on the generated {@code BeanDefinitionRegistrar}
+	 * and registered for reflection.
+	 * @param descriptor the bean descriptor
+	 * @return {@code true} if the instance creator is resolved at runtime
+	 */
+	public static boolean isResolvedAtRuntime(BeanInstanceDescriptor descriptor) {
+		MemberDescriptor<Executable> instanceCreator = descriptor.getInstanceCreator();
+		if (instanceCreator == null) {
+			return false;
+		}
+		Executable executable = instanceCreator.getMember();
+		if (executable instanceof Method) {
+			return executable.getParameterCount() > 0 || hasRuntimeAnnotation((Method) executable);
+		}
+		if (executable instanceof Constructor) {
+			int minArgs = isInnerClass(descriptor.getUserBeanClass()) ? 2 : 1;
+			return executable.getParameterCount() >= minArgs;
+		}
+		return false;
+	}
+
+	private static boolean hasRuntimeAnnotation(Method method) {
+		for (Annotation annotation : method.getDeclaredAnnotations()) {
+			Class<? extends Annotation> annotationType = annotation.annotationType();
+			if (!BUILD_TIME_ANNOTATIONS.contains(annotationType)
+					&& !AnnotationUtils.isAnnotationMetaPresent(annotationType, Conditional.class)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isInnerClass(Class<?> type) {
+		return type.isMemberClass() && !Modifier.isStatic(type.getModifiers());
+	}
+
+}
@@ -16,18 +16,36 @@
 
 package org.springframework.context.bootstrap.generator.event;
 
+import java.io.Closeable;
 import java.lang.reflect.Method;
-import java.util.EventListener;
+import java.lang.reflect.Modifier;
+import java.util.StringJoiner;
 
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
 
+import org.springframework.beans.factory.Aware;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.context.bootstrap.generator.infrastructure.nativex.NativeConfigurationRegistry;
+import org.springframework.context.event.EventListener;
 import org.springframework.context.event.EventListenerMetadata;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
 
 /**
  * Write the necessary code to identify an {@link EventListener @EventListener}-annotated
  * method.
+ * <p>
+ * Methods that can be invoked directly are registered with an invoker that calls them
+ * without reflection. This is the case of a public method with no SpEL condition that
+ * returns {@code void} and handles a single, non-generic, event type, on a bean that is
+ * not exposed through a JDK proxy. Other methods are invoked reflectively by an
+ * {@link org.springframework.context.event.EventListenerFactory}.
  *
  * @author Stephane Nicoll
  * @see EventListenerMetadata
@@ -45,18 +63,32 @@ class EventListenerMetadataGenerator {
 
 	private final String eventListenerFactoryBeanName;
 
+	private final EventListener annotation;
+
+	private final Class<?> directEventType;
+
 	EventListenerMetadataGenerator(String beanName, Class<?> beanType, Method method,
 			String eventListenerFactoryBeanName) {
 		this.beanName = beanName;
 		this.beanType = beanType;
 		this.method = method;
 		this.eventListenerFactoryBeanName = eventListenerFactoryBeanName;
+		this.annotation = AnnotatedElementUtils.findMergedAnnotation(method, EventListener.class);
+		this.directEventType = resolveDirectEventType();
 	}
 
 	Class<?> getBeanType() {
 		return this.beanType;
 	}
 
+	/**
+	 * Specify if the method can be invoked directly rather than reflectively.
+	 * @return {@code true} if no reflection is required to invoke the method
+	 */
+	boolean isDirectInvocation() {
+		return this.directEventType != null;
+	}
+
 	/**
 	 * Write an {@link EventListenerMetadata} registration.
 	 */
@@ -65,6 +97,25 @@ class EventListenerMetadataGenerator {
 		if (this.eventListenerFactoryBeanName != null) {
 			code.add(".eventListenerFactoryBeanName($S)", this.eventListenerFactoryBeanName);
 		}
+		if (isDirectInvocation()) {
+			writeDirectMethod(code);
+		}
+		else {
+			writeAnnotatedMethod(code);
+		}
+	}
+
+	private void writeDirectMethod(CodeBlock.Builder code) {
+		Order order = AnnotatedElementUtils.findMergedAnnotation(this.method, Order.class);
+		if (order != null) {
+			code.add(".order($L)", order.value());
+		}
+		code.add(".directMethod($S, $T.class, (bean, event) -> (($T) bean).$N($L))", getListenerId(),
+				this.directEventType, this.beanType, this.method.getName(),
+				(this.method.getParameterCount() > 0) ? "event" : "");
+	}
+
+	private void writeAnnotatedMethod(CodeBlock.Builder code) {
 		code.add(".annotatedMethod($S", this.method.getName());
 		Class<?>[] parameterTypes = this.method.getParameterTypes();
 		if (parameterTypes.length > 0) {
@@ -84,7 +135,79 @@ class EventListenerMetadataGenerator {
 	 * @param registry the registry to use
 	 */
 	void registerReflectionMetadata(NativeConfigurationRegistry registry) {
-		registry.reflection().addExecutable(this.method);
+		if (!isDirectInvocation()) {
+			registry.reflection().addExecutable(this.method);
+		}
+	}
+
+	private String getListenerId() {
+		if (StringUtils.hasText(this.annotation.id())) {
+			return this.annotation.id();
+		}
+		StringJoiner sj = new StringJoiner(",", "(", ")");
+		for (Class<?> parameterType : this.method.getParameterTypes()) {
+			sj.add(parameterType.getName());
+		}
+		return ClassUtils.getQualifiedMethodName(this.method) + sj;
+	}
+
+	private Class<?> resolveDirectEventType() {
+		if (this.annotation == null || this.eventListenerFactoryBeanName != null
+				|| StringUtils.hasText(this.annotation.condition())
+				|| this.method.getReturnType() != void.class
+				|| Modifier.isStatic(this.method.getModifiers())
+				|| !isAccessible(this.method.getModifiers(), this.method.getDeclaringClass())
+				|| mayBeJdkProxy(this.beanType)) {
+			return null;
+		}
+		Class<?>[] classes = this.annotation.classes();
+		if (this.method.getParameterCount() == 0) {
+			return (classes.length == 1 && isDirectEventType(ResolvableType.forClass(classes[0])))
+					? classes[0] : null;
+		}
+		if (this.method.getParameterCount() == 1 && classes.length == 0) {
+			ResolvableType eventType = ResolvableType.forMethodParameter(this.method, 0, this.beanType);
+			return (isDirectEventType(eventType)) ? eventType.toClass() : null;
+		}
+		return null;
+	}
+
+	private boolean isDirectEventType(ResolvableType eventType) {
+		Class<?> type = eventType.resolve();
+		return type != null && !type.isPrimitive() && !eventType.hasGenerics()
+				&& isAccessible(type.getModifiers(), type);
+	}
+
+	/**
+	 * Specify if a member is accessible from the generated code. Code for a bean type
+	 * that is not public is generated in the package of the bean type.
+	 */
+	private boolean isAccessible(int modifiers, Class<?> declaringClass) {
+		if (Modifier.isPublic(modifiers)) {
+			return true;
+		}
+		return !Modifier.isPrivate(modifiers) && !Modifier.isPublic(this.beanType.getModifiers())
+				&& declaringClass.getPackageName().equals(this.beanType.getPackageName());
+	}
+
+	/**
+	 * Specify if the specified bean type has interfaces that a JDK proxy could expose,
+	 * in which case the bean instance cannot be cast to its target type. This mirrors
+	 * the interfaces that {@code ProxyProcessorSupport} considers.
+	 */
+	private static boolean mayBeJdkProxy(Class<?> beanType) {
+		for (Class<?> ifc : ClassUtils.getAllInterfacesForClassAsSet(beanType)) {
+			boolean configurationCallback = (InitializingBean.class == ifc || DisposableBean.class == ifc
+					|| Closeable.class == ifc || AutoCloseable.class == ifc
+					|| ObjectUtils.containsElement(ifc.getInterfaces(), Aware.class));
+			boolean internalLanguage = (ifc.getName().equals("groovy.lang.GroovyObject")
+					|| ifc.getName().endsWith(".cglib.proxy.Factory")
+					|| ifc.getName().endsWith(".bytebuddy.MockAccess"));
+			if (!configurationCallback && !internalLanguage && ifc.getMethods().length > 0) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 }
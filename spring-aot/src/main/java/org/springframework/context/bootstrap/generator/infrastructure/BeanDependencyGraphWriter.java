@@ -0,0 +1,190 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.bootstrap.generator.infrastructure;
+
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.lang.model.element.Modifier;
+
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.MethodSpec;
+
+import org.springframework.aot.beans.factory.BeanDependencyGraph;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.bootstrap.generator.bean.descriptor.BeanInstanceDescriptor;
+import org.springframework.context.bootstrap.generator.bean.descriptor.BeanInstanceDescriptor.MemberDescriptor;
+import org.springframework.context.bootstrap.generator.bean.support.DependencyCandidateResolver;
+
+/**
+ * Write the {@link BeanDependencyGraph} of the singletons that can be instantiated in
+ * parallel at runtime.
+ *
+ * <p>A bean is part of the graph if all the beans it requires are known at build
+ * time, that is the arguments of its instance creator can be resolved to a single
+ * candidate, and it has no injected fields, methods or properties. Beans that declare
+ * lifecycle callbacks with potential side effects, such as an init method or
+ * {@link InitializingBean}, are left to the main thread, as are the beans that depend
+ * on them.
+ *
+ * @author agent
+ */
+public class BeanDependencyGraphWriter {
+
+	private static final int ENTRIES_PER_METHOD = 250;
+
+	private final ConfigurableListableBeanFactory beanFactory;
+
+	private final InitDestroyMethodsDiscoverer initDestroyMethodsDiscoverer;
+
+	private final DependencyCandidateResolver dependencyCandidateResolver;
+
+	public BeanDependencyGraphWriter(ConfigurableListableBeanFactory beanFactory,
+			DependencyCandidateResolver dependencyCandidateResolver) {
+		this.beanFactory = beanFactory;
+		this.initDestroyMethodsDiscoverer = new InitDestroyMethodsDiscoverer(beanFactory);
+		this.dependencyCandidateResolver = dependencyCandidateResolver;
+	}
+
+	public BeanDependencyGraphWriter(ConfigurableListableBeanFactory beanFactory) {
+		this(beanFactory, new DependencyCandidateResolver(beanFactory));
+	}
+
+	/**
+	 * Write the code that installs the dependency graph of the specified beans.
+	 * @param writerContext the writer context
+	 * @param registeredBeans the descriptors of the beans that are registered, by bean
+	 * name, in registration order
+	 * @param code the code of the main {@code initialize} method
+	 */
+	public void writeBeanDependencyGraph(BootstrapWriterContext writerContext,
+			Map<String, BeanInstanceDescriptor> registeredBeans, CodeBlock.Builder code) {
+		BeanDependencyGraph graph = createBeanDependencyGraph(registeredBeans);
+		if (!graph.getBeanNames().iterator().hasNext()) {
+			return;
+		}
+		List<CodeBlock> entries = new ArrayList<>();
+		for (String beanName : graph.getBeanNames()) {
+			CodeBlock.Builder entry = CodeBlock.builder().add("graph.bean($S", beanName);
+			graph.getDependencies(beanName).forEach((dependency) -> entry.add(", $S", dependency));
+			entries.add(entry.add(");\n").build());
+		}
+		BootstrapClass mainBootstrapClass = writerContext.getMainBootstrapClass();
+		CodeBlock.Builder body = CodeBlock.builder();
+		body.addStatement("$T graph = $T.builder()", BeanDependencyGraph.Builder.class, BeanDependencyGraph.class);
+		if (entries.size() <= ENTRIES_PER_METHOD) {
+			entries.forEach(body::add);
+		}
+		else {
+			for (int i = 0; i < entries.size(); i += ENTRIES_PER_METHOD) {
+				CodeBlock.Builder chunk = CodeBlock.builder();
+				entries.subList(i, Math.min(i + ENTRIES_PER_METHOD, entries.size())).forEach(chunk::add);
+				MethodSpec method = MethodSpec.methodBuilder("registerBeanDependencyGraph" + (i / ENTRIES_PER_METHOD))
+						.addModifiers(Modifier.PRIVATE).addParameter(BeanDependencyGraph.Builder.class, "graph")
+						.addCode(chunk.build()).build();
+				mainBootstrapClass.addMethod(method);
+				body.addStatement("$N(graph)", method);
+			}
+		}
+		body.addStatement("return graph.build()");
+		MethodSpec method = MethodSpec.methodBuilder("createBeanDependencyGraph").addModifiers(Modifier.PRIVATE)
+				.returns(BeanDependencyGraph.class).addCode(body.build()).build();
+		mainBootstrapClass.addMethod(method);
+		code.addStatement("$T.install(context, this::$N)", BeanDependencyGraph.class, method);
+	}
+
+	/**
+	 * Create the {@link BeanDependencyGraph} of the specified beans.
+	 * @param registeredBeans the descriptors of the beans that are registered, by bean
+	 * name, in registration order
+	 * @return the dependency graph
+	 */
+	BeanDependencyGraph createBeanDependencyGraph(Map<String, BeanInstanceDescriptor> registeredBeans) {
+		Map<String, List<String>> dependencies = new LinkedHashMap<>();
+		registeredBeans.forEach((beanName, descriptor) -> {
+			List<String> beanDependencies = getDependencies(beanName, descriptor);
+			if (beanDependencies != null) {
+				dependencies.put(beanName, beanDependencies);
+			}
+		});
+		boolean pruned = true;
+		while (pruned) {
+			pruned = dependencies.values().removeIf((beanDependencies) ->
+					!dependencies.keySet().containsAll(beanDependencies));
+		}
+		BeanDependencyGraph.Builder graph = BeanDependencyGraph.builder();
+		dependencies.forEach((beanName, beanDependencies) ->
+				graph.bean(beanName, beanDependencies.toArray(new String[0])));
+		return graph.build();
+	}
+
+	/**
+	 * Return the beans that the specified bean requires to be created.
+	 * @return the bean names, or {@code null} if the bean should be created on the
+	 * main thread
+	 */
+	private List<String> getDependencies(String beanName, BeanInstanceDescriptor descriptor) {
+		BeanDefinition beanDefinition = this.beanFactory.getMergedBeanDefinition(beanName);
+		if (!beanDefinition.isSingleton() || beanDefinition.isAbstract() || beanDefinition.isLazyInit()) {
+			return null;
+		}
+		Class<?> beanType = descriptor.getUserBeanClass();
+		if (FactoryBean.class.isAssignableFrom(beanType) || InitializingBean.class.isAssignableFrom(beanType)
+				|| this.initDestroyMethodsDiscoverer.hasInitMethods(beanName)) {
+			return null;
+		}
+		MemberDescriptor<Executable> instanceCreator = descriptor.getInstanceCreator();
+		if (instanceCreator == null || !descriptor.getInjectionPoints().isEmpty()
+				|| !descriptor.getProperties().isEmpty()) {
+			return null;
+		}
+		Set<String> dependencies = new LinkedHashSet<>();
+		Executable creator = instanceCreator.getMember();
+		if (creator.getParameterCount() > 0) {
+			Class<?> targetType = (creator instanceof Method) ? creator.getDeclaringClass() : beanType;
+			List<String> candidates = this.dependencyCandidateResolver.resolve(beanName, beanDefinition,
+					creator, targetType);
+			if (candidates == null) {
+				return null;
+			}
+			dependencies.addAll(candidates);
+		}
+		if (creator instanceof Method && !java.lang.reflect.Modifier.isStatic(creator.getModifiers())) {
+			String factoryBeanName = beanDefinition.getFactoryBeanName();
+			if (factoryBeanName == null) {
+				return null;
+			}
+			dependencies.add(factoryBeanName);
+		}
+		String[] dependsOn = beanDefinition.getDependsOn();
+		if (dependsOn != null) {
+			dependencies.addAll(Arrays.asList(dependsOn));
+		}
+		return new ArrayList<>(dependencies);
+	}
+
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.bootstrap.generator.infrastructure;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.lang.model.element.Modifier;
+
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.MethodSpec;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.aot.beans.factory.BeanTypeIndex;
+import org.springframework.aot.beans.factory.IndexedListableBeanFactory;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.ResolvableType;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * Write a {@link BeanTypeIndex} of the registered beans so that an
+ * {@link IndexedListableBeanFactory} can look up beans by type without predicting
+ * the type of each bean.
+ *
+ * <p>A type is only indexed if all the beans that could match it are singletons
+ * whose type is known at build time. No index is written if the type of a
+ * {@link FactoryBean} or of any other bean cannot be determined.
+ *
+ * @author agent
+ */
+public class BeanTypeIndexWriter {
+
+	private static final Log logger = LogFactory.getLog(BeanTypeIndexWriter.class);
+
+	private static final int ENTRIES_PER_METHOD = 250;
+
+	private final ConfigurableListableBeanFactory beanFactory;
+
+	public BeanTypeIndexWriter(ConfigurableListableBeanFactory beanFactory) {
+		this.beanFactory = beanFactory;
+	}
+
+	/**
+	 * Write the code that installs the index of the specified beans.
+	 * @param writerContext the writer context
+	 * @param beanNames the names of the beans that are registered, in registration order
+	 * @param code the code of the main {@code initialize} method
+	 */
+	public void writeBeanTypeIndex(BootstrapWriterContext writerContext, List<String> beanNames, CodeBlock.Builder code) {
+		BeanTypeIndex beanTypeIndex = createBeanTypeIndex(beanNames);
+		if (beanTypeIndex == null) {
+			return;
+		}
+		List<CodeBlock> entries = new ArrayList<>();
+		for (String beanName : beanTypeIndex.getBeanNames()) {
+			entries.add(CodeBlock.of("index.bean($S, $S);\n", beanName, beanTypeIndex.getBeanType(beanName)));
+		}
+		for (String type : beanTypeIndex.getTypes()) {
+			CodeBlock names = beanTypeIndex.getBeanNames(type).stream().map((name) -> CodeBlock.of("$S", name))
+					.collect(CodeBlock.joining(", "));
+			entries.add(CodeBlock.of("index.type($S, $L);\n", type, names));
+		}
+		BootstrapClass mainBootstrapClass = writerContext.getMainBootstrapClass();
+		CodeBlock.Builder body = CodeBlock.builder();
+		body.addStatement("$T index = $T.builder()", BeanTypeIndex.Builder.class, BeanTypeIndex.class);
+		if (entries.size() <= ENTRIES_PER_METHOD) {
+			entries.forEach(body::add);
+		}
+		else {
+			for (int i = 0; i < entries.size(); i += ENTRIES_PER_METHOD) {
+				CodeBlock.Builder chunk = CodeBlock.builder();
+				entries.subList(i, Math.min(i + ENTRIES_PER_METHOD, entries.size())).forEach(chunk::add);
+				MethodSpec method = MethodSpec.methodBuilder("registerBeanTypeIndex" + (i / ENTRIES_PER_METHOD))
+						.addModifiers(Modifier.PRIVATE).addParameter(BeanTypeIndex.Builder.class, "index")
+						.addCode(chunk.build()).build();
+				mainBootstrapClass.addMethod(method);
+				body.addStatement("$N(index)", method);
+			}
+		}
+		body.addStatement("return index.build()");
+		MethodSpec method = MethodSpec.methodBuilder("createBeanTypeIndex").addModifiers(Modifier.PRIVATE)
+				.returns(BeanTypeIndex.class).addCode(body.build()).build();
+		mainBootstrapClass.addMethod(method);
+		code.addStatement("$T.install(context, this::$N)", BeanTypeIndex.class, method);
+	}
+
+	/**
+	 * Create a {@link BeanTypeIndex} for the specified beans.
+	 * @param beanNames the names of the beans that are registered, in registration order
+	 * @return the index, or {@code null} if the type of a bean cannot be determined
+	 */
+	BeanTypeIndex createBeanTypeIndex(List<String> beanNames) {
+		BeanTypeIndex.Builder index = BeanTypeIndex.builder();
+		MultiValueMap<String, String> beanNamesByType = new LinkedMultiValueMap<>();
+		Set<String> unindexedTypes = new HashSet<>();
+		for (String beanName : beanNames) {
+			BeanDefinition beanDefinition = this.beanFactory.getMergedBeanDefinition(beanName);
+			Class<?> beanType = getBeanType(beanDefinition.getResolvableType());
+			if (beanType == null) {
+				return skipIndex("type of bean '" + beanName + "' cannot be determined");
+			}
+			if (FactoryBean.class.isAssignableFrom(beanType)) {
+				Class<?> objectType = this.beanFactory.getType(beanName, false);
+				if (objectType == null) {
+					return skipIndex("object type of factory bean '" + beanName + "' cannot be determined");
+				}
+				unindexedTypes.addAll(getTypeNames(beanType));
+				unindexedTypes.addAll(getTypeNames(objectType));
+			}
+			else if (!beanDefinition.isSingleton() || beanDefinition.isAbstract()) {
+				unindexedTypes.addAll(getTypeNames(beanType));
+			}
+			else {
+				index.bean(beanName, beanType.getName());
+				getTypeNames(beanType).forEach((type) -> beanNamesByType.add(type, beanName));
+			}
+		}
+		beanNamesByType.forEach((type, names) -> {
+			if (!unindexedTypes.contains(type)) {
+				index.type(type, names.toArray(new String[0]));
+			}
+		});
+		return index.build();
+	}
+
+	/**
+	 * Return the type that the generated registration uses for the bean.
+	 */
+	private static Class<?> getBeanType(ResolvableType resolvableType) {
+		Class<?> type = resolvableType.resolve();
+		if (type == null) {
+			return null;
+		}
+		return (resolvableType.hasGenerics()) ? type : ClassUtils.getUserClass(type);
+	}
+
+	/**
+	 * Return the names of all the types that the specified type can be assigned to.
+	 */
+	private static Set<String> getTypeNames(Class<?> type) {
+		Set<String> typeNames = new LinkedHashSet<>();
+		Class<?> current = type;
+		while (current != null) {
+			typeNames.add(current.getName());
+			addInterfaceNames(current, typeNames);
+			current = current.getSuperclass();
+		}
+		typeNames.add(Object.class.getName());
+		return typeNames;
+	}
+
+	private static void addInterfaceNames(Class<?> type, Set<String> typeNames) {
+		for (Class<?> candidate : type.getInterfaces()) {
+			if (typeNames.add(candidate.getName())) {
+				addInterfaceNames(candidate, typeNames);
+			}
+		}
+	}
+
+	private static BeanTypeIndex skipIndex(String reason) {
+		if (logger.isDebugEnabled()) {
+			logger.debug("Bean type index not written: " + reason);
+		}
+		return null;
+	}
+
+}
@@ -43,11 +43,14 @@ public class BootstrapClass {
 
 	private final List<MethodSpec> methods;
 
+	private final List<TypeSpec> types;
+
 	BootstrapClass(ClassName className, Consumer<TypeSpec.Builder> type) {
 		this.className = className;
 		this.type = TypeSpec.classBuilder(className);
 		type.accept(this.type);
 		this.methods = new ArrayList<>();
+		this.types = new ArrayList<>();
 	}
 
 	/**
@@ -85,13 +88,37 @@ public class BootstrapClass {
 		this.methods.add(method);
 	}
 
+	/**
+	 * Return the {@link MethodSpec methods} that have been added to this instance.
+	 * @return the methods of this instance, in registration order
+	 */
+	List<MethodSpec> getMethods() {
+		return this.methods;
+	}
+
+	/**
+	 * Add the specified {@link TypeSpec nested type}.
+	 * @param type the nested type to add
+	 */
+	public void addType(TypeSpec type) {
+		this.types.add(type);
+	}
+
+	/**
+	 * Return the {@link TypeSpec nested types} that have been added to this instance.
+	 * @return the nested types of this instance, in registration order
+	 */
+	List<TypeSpec> getTypes() {
+		return this.types;
+	}
+
 	/**
 	 * Return a {@link JavaFile} with the state of this instance
 	 * @return a java file
 	 */
 	public JavaFile toJavaFile() {
 		return JavaFile.builder(this.className.packageName(),
-				this.type.addMethods(this.methods).build()).build();
+				this.type.addMethods(this.methods).addTypes(this.types).build()).build();
 	}
 
 }
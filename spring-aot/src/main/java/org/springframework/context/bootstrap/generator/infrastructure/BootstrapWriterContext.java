@@ -27,11 +27,41 @@ public class BootstrapWriterContext {
 	private final NativeConfigurationRegistry nativeConfigurationRegistry = new NativeConfigurationRegistry();
 
 	public BootstrapWriterContext(BootstrapClass defaultJavaFile) {
+		this(defaultJavaFile, new ProtectedAccessAnalyzer(defaultJavaFile.getClassName().packageName()));
+	}
+
+	private BootstrapWriterContext(BootstrapClass defaultJavaFile, ProtectedAccessAnalyzer protectedAccessAnalyzer) {
 		this.packageName = defaultJavaFile.getClassName().packageName();
-		this.protectedAccessAnalyzer = new ProtectedAccessAnalyzer(this.packageName);
+		this.protectedAccessAnalyzer = protectedAccessAnalyzer;
 		this.bootstrapClasses.put(packageName, defaultJavaFile);
 	}
 
+	/**
+	 * Create a new, empty, context for the same target package. Methods and native
+	 * configuration that are registered against the fork are isolated from this
+	 * instance until the fork is {@link #merge(BootstrapWriterContext) merged}. This
+	 * allows code to be written concurrently while keeping a deterministic output.
+	 * @return a new context that can be merged with this instance
+	 */
+	public BootstrapWriterContext fork() {
+		return new BootstrapWriterContext(BootstrapClass.of(this.packageName), this.protectedAccessAnalyzer);
+	}
+
+	/**
+	 * Merge the state of the specified {@link #fork() fork} in this instance. Methods,
+	 * nested types and native configuration of the fork are added after the ones
+	 * already registered in this instance.
+	 * @param fork the fork to merge
+	 */
+	public void merge(BootstrapWriterContext fork) {
+		fork.bootstrapClasses.forEach((packageName, bootstrapClass) -> {
+			BootstrapClass target = getBootstrapClass(packageName);
+			bootstrapClass.getMethods().forEach(target::addMethod);
+			bootstrapClass.getTypes().forEach(target::addType);
+		});
+		this.nativeConfigurationRegistry.merge(fork.nativeConfigurationRegistry);
+	}
+
 	/**
 	 * Return the package name in which the main bootstrap class is located.
 	 * @return the default package name
@@ -79,6 +79,16 @@ class InitDestroyMethodsDiscoverer {
 		return processLifecycleMethods(nativeConfiguration, this::processInitMethods);
 	}
 
+	/**
+	 * Specify if the bean with the specified name has init methods.
+	 * @param beanName the name of the bean
+	 * @return {@code true} if an init method is invoked when the bean is created
+	 */
+	boolean hasInitMethods(String beanName) {
+		BeanDefinition beanDefinition = this.beanFactory.getMergedBeanDefinition(beanName);
+		return !processInitMethods(beanDefinition, getBeanType(beanDefinition)).isEmpty();
+	}
+
 	private Set<Method> processInitMethods(BeanDefinition beanDefinition, Class<?> beanType) {
 		Set<Method> methods = new LinkedHashSet<>();
 		String initMethodName = beanDefinition.getInitMethodName();
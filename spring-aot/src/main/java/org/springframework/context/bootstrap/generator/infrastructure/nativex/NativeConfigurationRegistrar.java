@@ -20,6 +20,8 @@ public class NativeConfigurationRegistrar {
 
 	private final List<BeanFactoryNativeConfigurationProcessor> beanFactoryProcessors;
 
+	private List<BeanNativeConfigurationProcessor> beanProcessors;
+
 	NativeConfigurationRegistrar(ConfigurableListableBeanFactory beanFactory,
 			List<BeanFactoryNativeConfigurationProcessor> beanFactoryProcessors) {
 		this.beanFactory = beanFactory;
@@ -46,10 +48,28 @@ public class NativeConfigurationRegistrar {
 	 * @param beans the bean instance descriptors
 	 */
 	public void processBeans(NativeConfigurationRegistry registry, Iterable<BeanInstanceDescriptor> beans) {
-		List<BeanNativeConfigurationProcessor> beanProcessors = loadBeanProcessors(this.beanFactory);
+		List<BeanNativeConfigurationProcessor> beanProcessors = getBeanProcessors();
 		beanProcessors.forEach((processor) -> beans.forEach((bean) -> processor.process(bean, registry)));
 	}
 
+	/**
+	 * Process a single {@link BeanInstanceDescriptor bean instance descriptor} against
+	 * the specified {@link NativeConfigurationRegistry}. Can be invoked concurrently
+	 * for different beans.
+	 * @param registry the registry to use
+	 * @param bean the bean instance descriptor
+	 */
+	public void processBean(NativeConfigurationRegistry registry, BeanInstanceDescriptor bean) {
+		getBeanProcessors().forEach((processor) -> processor.process(bean, registry));
+	}
+
+	private synchronized List<BeanNativeConfigurationProcessor> getBeanProcessors() {
+		if (this.beanProcessors == null) {
+			this.beanProcessors = loadBeanProcessors(this.beanFactory);
+		}
+		return this.beanProcessors;
+	}
+
 	protected List<BeanNativeConfigurationProcessor> loadBeanProcessors(ConfigurableListableBeanFactory beanFactory) {
 		List<BeanNativeConfigurationProcessor> processors = SpringFactoriesLoader.loadFactories(
 				BeanNativeConfigurationProcessor.class, beanFactory.getBeanClassLoader());
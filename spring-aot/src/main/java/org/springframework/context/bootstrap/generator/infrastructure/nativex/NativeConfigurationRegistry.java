@@ -19,6 +19,7 @@ package org.springframework.context.bootstrap.generator.infrastructure.nativex;
 import java.lang.reflect.Executable;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -37,6 +38,9 @@ import org.springframework.nativex.domain.serialization.SerializationDescriptor;
  * Collect the required native configuration, such as the need for
  * {@link NativeConfigurationRegistry#reflection() runtime reflection} or
  * {@link NativeConfigurationRegistry#resources() resources}.
+ * <p>A registry can be safely used by concurrent contributors. Contributions are kept
+ * in registration order so that registering the same entries in the same order leads
+ * to the same native configuration.
  *
  * @author Brian Clozel
  * @author Stephane Nicoll
@@ -56,7 +60,7 @@ public class NativeConfigurationRegistry {
 
 	private final SerializationConfiguration serialization = new SerializationConfiguration();
 
-	private final Set<String> options = new LinkedHashSet<>();
+	private final Set<String> options = Collections.synchronizedSet(new LinkedHashSet<>());
 
 	/**
 	 * Access the reflection configuration of this registry.
@@ -114,6 +118,24 @@ public class NativeConfigurationRegistry {
 		return this.options;
 	}
 
+	/**
+	 * Merge the entries of the specified {@link NativeConfigurationRegistry} in this
+	 * instance. Entries of the specified registry are added after the ones that have
+	 * already been registered in this instance.
+	 * @param other the registry to merge
+	 */
+	public void merge(NativeConfigurationRegistry other) {
+		this.reflection.merge(other.reflection);
+		this.jni.merge(other.jni);
+		this.resources.merge(other.resources);
+		this.proxy.merge(other.proxy);
+		this.initialization.merge(other.initialization);
+		this.serialization.merge(other.serialization);
+		synchronized (other.options) {
+			this.options.addAll(other.options);
+		}
+	}
+
 	/**
 	 * Configure the need for runtime reflection metadata on classes, methods, and fields.
 	 */
@@ -151,7 +173,7 @@ public class NativeConfigurationRegistry {
 		 * @param type a type to provide runtime reflection for
 		 * @return a builder to further describe the need for runtime reflection
 		 */
-		public NativeReflectionEntry.Builder forType(Class<?> type) {
+		public synchronized NativeReflectionEntry.Builder forType(Class<?> type) {
 			return this.reflection.computeIfAbsent(type, NativeReflectionEntry.Builder::new);
 		}
 
@@ -159,7 +181,7 @@ public class NativeConfigurationRegistry {
 		 * Return the {@link NativeReflectionEntry entries} of this registry.
 		 * @return the entries in the registry
 		 */
-		public List<NativeReflectionEntry> getEntries() {
+		public synchronized List<NativeReflectionEntry> getEntries() {
 			return this.reflection.values().stream().map(NativeReflectionEntry.Builder::build)
 					.collect(Collectors.toList());
 		}
@@ -168,11 +190,15 @@ public class NativeConfigurationRegistry {
 		 * Return the {@link ClassDescriptor entries} of this registry.
 		 * @return the classes entries in the registry, as {@link ClassDescriptor} instances
 		 */
-		public List<ClassDescriptor> toClassDescriptors() {
+		public synchronized List<ClassDescriptor> toClassDescriptors() {
 			return this.reflection.values().stream().map((builder) -> builder.build()
 					.toClassDescriptor()).collect(Collectors.toList());
 		}
 
+		private void merge(ReflectionConfiguration other) {
+			other.getEntries().forEach((entry) -> forType(entry.getType()).merge(entry));
+		}
+
 	}
 
 	/**
@@ -191,7 +217,7 @@ public class NativeConfigurationRegistry {
 		 * @param resource the resource that should be available
 		 * @return this for method chaining
 		 */
-		public ResourcesConfiguration add(NativeResourcesEntry resource) {
+		public synchronized ResourcesConfiguration add(NativeResourcesEntry resource) {
 			this.resources.add(resource);
 			return this;
 		}
@@ -200,12 +226,22 @@ public class NativeConfigurationRegistry {
 		 * Return the {@link ResourcesDescriptor} of this registry.
 		 * @return the resources entries in the registry, as a {@link ResourcesDescriptor} instance
 		 */
-		public ResourcesDescriptor toResourcesDescriptor() {
+		public synchronized ResourcesDescriptor toResourcesDescriptor() {
 			ResourcesDescriptor resourcesDescriptor = new ResourcesDescriptor();
 			this.resources.forEach((resource) -> resource.contribute(resourcesDescriptor));
 			return resourcesDescriptor;
 		}
 
+		private void merge(ResourcesConfiguration other) {
+			List<NativeResourcesEntry> entries;
+			synchronized (other) {
+				entries = new ArrayList<>(other.resources);
+			}
+			synchronized (this) {
+				this.resources.addAll(entries);
+			}
+		}
+
 	}
 
 	/**
@@ -224,7 +260,7 @@ public class NativeConfigurationRegistry {
 		 * @param proxy the proxy that should be available
 		 * @return this for method chaining
 		 */
-		public ProxyConfiguration add(NativeProxyEntry proxy) {
+		public synchronized ProxyConfiguration add(NativeProxyEntry proxy) {
 			this.proxies.add(proxy);
 			return this;
 		}
@@ -233,12 +269,22 @@ public class NativeConfigurationRegistry {
 		 * Return the {@link ProxiesDescriptor} of this registry.
 		 * @return the proxy entries in the registry, as a {@link ProxiesDescriptor} instance
 		 */
-		public ProxiesDescriptor toProxiesDescriptor() {
+		public synchronized ProxiesDescriptor toProxiesDescriptor() {
 			ProxiesDescriptor proxiesDescriptor = new ProxiesDescriptor();
 			this.proxies.forEach((proxy) -> proxy.contribute(proxiesDescriptor));
 			return proxiesDescriptor;
 		}
 
+		private void merge(ProxyConfiguration other) {
+			List<NativeProxyEntry> entries;
+			synchronized (other) {
+				entries = new ArrayList<>(other.proxies);
+			}
+			synchronized (this) {
+				this.proxies.addAll(entries);
+			}
+		}
+
 	}
 
 	/**
@@ -257,7 +303,7 @@ public class NativeConfigurationRegistry {
 		 * @param initialization the initialization that should be configured
 		 * @return this for method chaining
 		 */
-		public InitializationConfiguration add(NativeInitializationEntry initialization) {
+		public synchronized InitializationConfiguration add(NativeInitializationEntry initialization) {
 			this.initialization.add(initialization);
 			return this;
 		}
@@ -266,12 +312,22 @@ public class NativeConfigurationRegistry {
 		 * Return the {@link InitializationDescriptor} of this registry.
 		 * @return the initialization entries in the registry, as a {@link InitializationDescriptor} instance
 		 */
-		public InitializationDescriptor toInitializationDescriptor() {
+		public synchronized InitializationDescriptor toInitializationDescriptor() {
 			InitializationDescriptor initializationDescriptor = new InitializationDescriptor();
 			this.initialization.forEach((entry) -> entry.contribute(initializationDescriptor));
 			return initializationDescriptor;
 		}
 
+		private void merge(InitializationConfiguration other) {
+			List<NativeInitializationEntry> entries;
+			synchronized (other) {
+				entries = new ArrayList<>(other.initialization);
+			}
+			synchronized (this) {
+				this.initialization.addAll(entries);
+			}
+		}
+
 	}
 
 	/**
@@ -290,7 +346,7 @@ public class NativeConfigurationRegistry {
 		 * @param serialization the proxy for entry that should be available
 		 * @return this for method chaining
 		 */
-		public SerializationConfiguration add(NativeSerializationEntry serialization) {
+		public synchronized SerializationConfiguration add(NativeSerializationEntry serialization) {
 			this.serialization.add(serialization);
 			return this;
 		}
@@ -299,12 +355,22 @@ public class NativeConfigurationRegistry {
 		 * Return the {@link SerializationDescriptor} of this registry.
 		 * @return the serialization entries in the registry, as a {@link SerializationDescriptor} instance
 		 */
-		public SerializationDescriptor toSerializationDescriptor() {
+		public synchronized SerializationDescriptor toSerializationDescriptor() {
 			SerializationDescriptor serializationDescriptor = new SerializationDescriptor();
 			this.serialization.forEach((serialization) -> serialization.contribute(serializationDescriptor));
 			return serializationDescriptor;
 		}
 
+		private void merge(SerializationConfiguration other) {
+			List<NativeSerializationEntry> entries;
+			synchronized (other) {
+				entries = new ArrayList<>(other.serialization);
+			}
+			synchronized (this) {
+				this.serialization.addAll(entries);
+			}
+		}
+
 	}
 
 }
@@ -58,10 +58,10 @@ public class NativeReflectionEntry {
 
 	private NativeReflectionEntry(Builder builder) {
 		this.type = builder.type;
-		this.constructors = Collections.unmodifiableSet(builder.constructors);
-		this.methods = Collections.unmodifiableSet(builder.methods);
-		this.fields = Collections.unmodifiableSet(builder.fields);
-		this.flags = Collections.unmodifiableSet(builder.flags);
+		this.constructors = Collections.unmodifiableSet(new LinkedHashSet<>(builder.constructors));
+		this.methods = Collections.unmodifiableSet(new LinkedHashSet<>(builder.methods));
+		this.fields = Collections.unmodifiableSet(new LinkedHashSet<>(builder.fields));
+		this.flags = Collections.unmodifiableSet(new LinkedHashSet<>(builder.flags));
 	}
 
 	/**
@@ -180,7 +180,7 @@ public class NativeReflectionEntry {
 		 * @param methods the methods to add
 		 * @return this for method chaining
 		 */
-		public Builder withMethods(Executable... methods) {
+		public synchronized Builder withMethods(Executable... methods) {
 			Arrays.stream(methods).forEach((method) -> {
 				if (method instanceof Method) {
 					this.methods.add((Method) method);
@@ -197,7 +197,7 @@ public class NativeReflectionEntry {
 		 * @param fields the fields to add
 		 * @return this for method chaining
 		 */
-		public Builder withFields(Field... fields) {
+		public synchronized Builder withFields(Field... fields) {
 			this.fields.addAll(Arrays.asList(fields));
 			return this;
 		}
@@ -207,7 +207,7 @@ public class NativeReflectionEntry {
 		 * @param flags the flags to set
 		 * @return this for method chaining
 		 */
-		public Builder withFlags(Flag... flags) {
+		public synchronized Builder withFlags(Flag... flags) {
 			this.flags.addAll(Arrays.asList(flags));
 			return this;
 		}
@@ -216,10 +216,18 @@ public class NativeReflectionEntry {
 		 * Create a {@link NativeReflectionEntry} from the state of this builder
 		 * @return a new entry
 		 */
-		public NativeReflectionEntry build() {
+		public synchronized NativeReflectionEntry build() {
 			return new NativeReflectionEntry(this);
 		}
 
+		synchronized Builder merge(NativeReflectionEntry entry) {
+			this.constructors.addAll(entry.getConstructors());
+			this.methods.addAll(entry.getMethods());
+			this.fields.addAll(entry.getFields());
+			this.flags.addAll(entry.getFlags());
+			return this;
+		}
+
 	}
 
 }
@@ -16,9 +16,6 @@
 
 package org.springframework.context.bootstrap.generator.nativex;
 
-import java.lang.reflect.Executable;
-import java.lang.reflect.Field;
-import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 
 import org.springframework.beans.BeansException;
@@ -27,16 +24,20 @@ import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.bootstrap.generator.bean.descriptor.BeanInstanceDescriptor;
-import org.springframework.context.bootstrap.generator.bean.descriptor.BeanInstanceDescriptor.MemberDescriptor;
 import org.springframework.context.bootstrap.generator.bean.descriptor.BeanInstanceDescriptor.PropertyDescriptor;
 import org.springframework.context.bootstrap.generator.bean.descriptor.BeanInstanceDescriptorFactory;
 import org.springframework.context.bootstrap.generator.bean.descriptor.DefaultBeanInstanceDescriptorFactory;
+import org.springframework.context.bootstrap.generator.bean.support.InstanceCreatorAnalyzer;
 import org.springframework.context.bootstrap.generator.infrastructure.nativex.BeanNativeConfigurationProcessor;
 import org.springframework.context.bootstrap.generator.infrastructure.nativex.NativeConfigurationRegistry;
 import org.springframework.context.bootstrap.generator.infrastructure.nativex.NativeConfigurationRegistry.ReflectionConfiguration;
 
 /**
- * Register the reflection entries for each {@link BeanInstanceDescriptor}.
+ * Register the reflection entries for each {@link BeanInstanceDescriptor}. The instance
+ * creator is only registered if it is {@linkplain InstanceCreatorAnalyzer resolved at
+ * runtime}. Injection points are registered by the
+ * {@link org.springframework.context.bootstrap.generator.bean.DefaultBeanRegistrationWriter
+ * writer} only if the generated code requires reflection to access them.
  *
  * @author Stephane Nicoll
  */
@@ -53,18 +54,8 @@ class DefaultBeanNativeConfigurationProcessor implements BeanNativeConfiguration
 	@Override
 	public void process(BeanInstanceDescriptor descriptor, NativeConfigurationRegistry registry) {
 		ReflectionConfiguration reflectionConfiguration = registry.reflection();
-		MemberDescriptor<Executable> instanceCreator = descriptor.getInstanceCreator();
-		if (instanceCreator != null) {
-			reflectionConfiguration.addExecutable(instanceCreator.getMember());
-		}
-		for (MemberDescriptor<?> injectionPoint : descriptor.getInjectionPoints()) {
-			Member member = injectionPoint.getMember();
-			if (member instanceof Executable) {
-				reflectionConfiguration.addExecutable((Method) member);
-			}
-			else if (member instanceof Field) {
-				reflectionConfiguration.addField((Field) member);
-			}
+		if (InstanceCreatorAnalyzer.isResolvedAtRuntime(descriptor)) {
+			reflectionConfiguration.addExecutable(descriptor.getInstanceCreator().getMember());
 		}
 		for (PropertyDescriptor property : descriptor.getProperties()) {
 			Method writeMethod = property.getWriteMethod();
@@ -79,7 +79,11 @@ class HintsBeanNativeConfigurationProcessor implements BeanNativeConfigurationPr
 		SerializationConfiguration serializationConfiguration = registry.serialization();
 		ReflectionConfiguration jniConfiguration = registry.jni();
 
-		List<HintDeclaration> hints = TypeSystem.getClassLoaderBasedTypeSystem().findHints(beanType.getName());
+		TypeSystem typeSystem = TypeSystem.getClassLoaderBasedTypeSystem();
+		List<HintDeclaration> hints;
+		synchronized (typeSystem) { // the type system is not thread-safe, beans may be processed concurrently
+			hints = typeSystem.findHints(beanType.getName());
+		}
 		if (hints != null) {
 			for (HintDeclaration hint : hints) {
 				try {
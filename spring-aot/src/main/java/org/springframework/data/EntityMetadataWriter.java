@@ -0,0 +1,322 @@
+package org.springframework.data;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeName;
+
+import org.springframework.aot.data.mapping.GeneratedEntityMetadata;
+import org.springframework.aot.data.mapping.GeneratedEntityMetadataBeanPostProcessor;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.bootstrap.generator.infrastructure.BootstrapClass;
+import org.springframework.context.bootstrap.generator.infrastructure.BootstrapWriterContext;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.MergedAnnotations;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mapping.PersistentProperty;
+import org.springframework.data.mapping.PreferredConstructor;
+import org.springframework.data.mapping.model.PreferredConstructorDiscoverer;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Write the {@link GeneratedEntityMetadata} of the entities managed by the Spring Data
+ * repositories defined in the bean factory, and of the types they embed, so that
+ * mapping contexts and converters do not have to rely on reflection or class
+ * generation to instantiate them and to access their properties.
+ *
+ * <p>The metadata of an entity is written in the bootstrap class of its package so
+ * that fields and constructors that are not public can be used. A property is read
+ * and written using its field if it is accessible from that package, or using its
+ * getter and setter otherwise. Final fields are never written so that immutable
+ * entities keep using the default, instantiation-aware, property accessor.
+ *
+ * @author agent
+ */
+public class EntityMetadataWriter {
+
+	private static final String REPOSITORY_SUPPORT = "org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport";
+
+	private final ConfigurableListableBeanFactory beanFactory;
+
+	public EntityMetadataWriter(ConfigurableListableBeanFactory beanFactory) {
+		this.beanFactory = beanFactory;
+	}
+
+	/**
+	 * Write the code that registers the metadata of the entities managed by the
+	 * repositories of the bean factory, if any.
+	 * @param writerContext the writer context
+	 * @param code the code of the main {@code initialize} method
+	 */
+	public void writeEntityMetadata(BootstrapWriterContext writerContext, CodeBlock.Builder code) {
+		if (ClassUtils.isPresent(REPOSITORY_SUPPORT, this.beanFactory.getBeanClassLoader())) {
+			new Writer(this.beanFactory).writeEntityMetadata(writerContext, code);
+		}
+	}
+
+	private static class Writer {
+
+		private static final List<String> EXCLUDED_PACKAGES = List.of("java.", "javax.", "jakarta.", "kotlin.",
+				"org.springframework.data.", "org.bson.", "com.mongodb.");
+
+		private static final String KOTLIN_METADATA = "kotlin.Metadata";
+
+		private final ConfigurableListableBeanFactory beanFactory;
+
+		Writer(ConfigurableListableBeanFactory beanFactory) {
+			this.beanFactory = beanFactory;
+		}
+
+		void writeEntityMetadata(BootstrapWriterContext writerContext, CodeBlock.Builder code) {
+			List<CodeBlock> entries = new ArrayList<>();
+			for (Class<?> entityType : getEntityTypes()) {
+				MethodSpec method = createEntityMetadataMethod(entityType);
+				BootstrapClass bootstrapClass = writerContext.getBootstrapClass(entityType.getPackageName());
+				bootstrapClass.addMethod(method);
+				entries.add(CodeBlock.of("$T.$N()", bootstrapClass.getClassName(), method));
+			}
+			if (entries.isEmpty()) {
+				return;
+			}
+			code.add("context.getBeanFactory().addBeanPostProcessor(new $T(context, $T.of(\n",
+					GeneratedEntityMetadataBeanPostProcessor.class, List.class).indent().indent();
+			code.add(CodeBlock.join(entries, ",\n"));
+			code.add("\n").unindent().unindent().addStatement(")))");
+		}
+
+		/**
+		 * Return the domain types of the repositories, and the types they reference,
+		 * that generated code can handle.
+		 */
+		Set<Class<?>> getEntityTypes() {
+			Set<Class<?>> entityTypes = new LinkedHashSet<>();
+			Deque<Class<?>> candidates = new ArrayDeque<>(getRepositoryDomainTypes());
+			while (!candidates.isEmpty()) {
+				Class<?> candidate = candidates.poll();
+				if (isCandidate(candidate) && entityTypes.add(candidate)) {
+					getPersistentFields(candidate).forEach((field) -> candidates.addAll(getReferencedTypes(field)));
+				}
+			}
+			return entityTypes;
+		}
+
+		private Set<Class<?>> getRepositoryDomainTypes() {
+			Set<Class<?>> domainTypes = new LinkedHashSet<>();
+			for (String beanName : this.beanFactory.getBeanDefinitionNames()) {
+				BeanDefinition beanDefinition = this.beanFactory.getMergedBeanDefinition(beanName);
+				ResolvableType type = beanDefinition.getResolvableType().as(RepositoryFactoryBeanSupport.class);
+				if (type != ResolvableType.NONE && !type.hasUnresolvableGenerics()) {
+					domainTypes.add(type.getGeneric(1).resolve());
+				}
+			}
+			return domainTypes;
+		}
+
+		private List<Class<?>> getReferencedTypes(Field field) {
+			ResolvableType type = ResolvableType.forField(field);
+			List<Class<?>> types = new ArrayList<>();
+			if (type.isArray()) {
+				types.add(type.getComponentType().resolve());
+			}
+			else if (Collection.class.isAssignableFrom(type.toClass())) {
+				types.add(type.asCollection().getGeneric(0).resolve());
+			}
+			else if (Map.class.isAssignableFrom(type.toClass())) {
+				types.add(type.asMap().getGeneric(1).resolve());
+			}
+			else {
+				types.add(type.resolve());
+			}
+			types.removeIf((candidate) -> candidate == null);
+			return types;
+		}
+
+		private boolean isCandidate(Class<?> type) {
+			if (type.isPrimitive() || type.isArray() || type.isEnum() || type.isInterface()
+					|| type.isAnnotation() || type.isAnonymousClass() || type.isLocalClass()
+					|| EXCLUDED_PACKAGES.stream().anyMatch(type.getPackageName()::startsWith)
+					|| MergedAnnotations.from(type).isPresent(KOTLIN_METADATA)) {
+				return false;
+			}
+			Class<?> current = type;
+			while (current != null) {
+				if (Modifier.isPrivate(current.getModifiers())
+						|| (current.isMemberClass() && !Modifier.isStatic(current.getModifiers()))) {
+					return false;
+				}
+				current = current.getEnclosingClass();
+			}
+			return true;
+		}
+
+		private MethodSpec createEntityMetadataMethod(Class<?> type) {
+			CodeBlock.Builder code = CodeBlock.builder();
+			code.add("return $T.builder($T.class)", GeneratedEntityMetadata.class, type).indent().indent();
+			Constructor<?> constructor = getPersistenceConstructor(type);
+			if (constructor != null && isAccessible(type, constructor.getParameterTypes())) {
+				code.add("\n.instantiator($L, (args) -> new $T(", constructor.getParameterCount(), type);
+				Class<?>[] parameterTypes = constructor.getParameterTypes();
+				for (int i = 0; i < parameterTypes.length; i++) {
+					code.add((i > 0) ? ", " : "");
+					code.add(writeArgument(parameterTypes[i], i));
+				}
+				code.add("))");
+			}
+			for (Field field : getPersistentFields(type)) {
+				code.add("\n.property($S, $L, $L)", field.getName(), writeGetter(type, field),
+						writeSetter(type, field));
+			}
+			code.add("\n.build();\n").unindent().unindent();
+			String methodName = "create" + ClassUtils.getShortName(type).replace(".", "") + "EntityMetadata";
+			return MethodSpec.methodBuilder(methodName).returns(GeneratedEntityMetadata.class)
+					.addModifiers(javax.lang.model.element.Modifier.PUBLIC, javax.lang.model.element.Modifier.STATIC)
+					.addCode(code.build()).build();
+		}
+
+		private CodeBlock writeArgument(Class<?> parameterType, int index) {
+			if (parameterType.isPrimitive()) {
+				return CodeBlock.of("(args[$L] != null) ? ($T) args[$L] : $L", index, parameterType, index,
+						getDefaultValue(parameterType));
+			}
+			return CodeBlock.of("($T) args[$L]", parameterType, index);
+		}
+
+		private CodeBlock writeGetter(Class<?> type, Field field) {
+			if (isAccessible(type, field)) {
+				return CodeBlock.of("(bean) -> (($T) bean).$N", type, field.getName());
+			}
+			PropertyDescriptor property = BeanUtils.getPropertyDescriptor(type, field.getName());
+			Method readMethod = (property != null) ? property.getReadMethod() : null;
+			if (readMethod != null && isAccessible(type, readMethod)) {
+				return CodeBlock.of("(bean) -> (($T) bean).$N()", type, readMethod.getName());
+			}
+			return null;
+		}
+
+		private CodeBlock writeSetter(Class<?> type, Field field) {
+			if (Modifier.isFinal(field.getModifiers()) || !isAccessible(type, field.getType())) {
+				return null;
+			}
+			TypeName valueType = TypeName.get(field.getType());
+			if (isAccessible(type, field)) {
+				return CodeBlock.of("(bean, value) -> (($T) bean).$N = ($T) value", type, field.getName(), valueType);
+			}
+			PropertyDescriptor property = BeanUtils.getPropertyDescriptor(type, field.getName());
+			Method writeMethod = (property != null) ? property.getWriteMethod() : null;
+			if (writeMethod != null && isAccessible(type, writeMethod)
+					&& isAccessible(type, writeMethod.getParameterTypes())) {
+				return CodeBlock.of("(bean, value) -> (($T) bean).$N(($T) value)", type, writeMethod.getName(),
+						TypeName.get(writeMethod.getParameterTypes()[0]));
+			}
+			return null;
+		}
+
+		private boolean isAccessible(Class<?> type, Field field) {
+			return !Modifier.isPrivate(field.getModifiers()) && (Modifier.isPublic(field.getModifiers())
+					|| field.getDeclaringClass().getPackageName().equals(type.getPackageName()));
+		}
+
+		private boolean isAccessible(Class<?> type, Method method) {
+			return Modifier.isPublic(method.getModifiers())
+					&& (Modifier.isPublic(method.getDeclaringClass().getModifiers())
+					|| method.getDeclaringClass().getPackageName().equals(type.getPackageName()));
+		}
+
+		/**
+		 * Specify if the specified types can be referenced from the package of the
+		 * specified entity type.
+		 */
+		private boolean isAccessible(Class<?> type, Class<?>... candidates) {
+			for (Class<?> candidate : candidates) {
+				Class<?> current = ClassUtils.resolvePrimitiveIfNecessary(candidate);
+				while (current.isArray()) {
+					current = current.getComponentType();
+				}
+				while (current != null) {
+					if (Modifier.isPrivate(current.getModifiers()) || (!Modifier.isPublic(current.getModifiers())
+							&& !current.getPackageName().equals(type.getPackageName()))) {
+						return false;
+					}
+					current = current.getEnclosingClass();
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Return the fields of the specified type, and its super classes, that the
+		 * mapping context considers persistent properties.
+		 */
+		private List<Field> getPersistentFields(Class<?> type) {
+			Map<String, Field> fields = new LinkedHashMap<>();
+			Class<?> current = type;
+			while (current != null && current != Object.class) {
+				for (Field field : current.getDeclaredFields()) {
+					int modifiers = field.getModifiers();
+					if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()
+							&& !MergedAnnotations.from(field).isPresent(Transient.class)) {
+						fields.putIfAbsent(field.getName(), field);
+					}
+				}
+				current = current.getSuperclass();
+			}
+			return new ArrayList<>(fields.values());
+		}
+
+		/**
+		 * Return the persistence constructor of the specified type, if it can be invoked
+		 * from its package.
+		 */
+		private <P extends PersistentProperty<P>> Constructor<?> getPersistenceConstructor(Class<?> type) {
+			if (Modifier.isAbstract(type.getModifiers())) {
+				return null;
+			}
+			PreferredConstructor<?, P> constructor = PreferredConstructorDiscoverer.discover(type);
+			if (constructor == null || Modifier.isPrivate(constructor.getConstructor().getModifiers())) {
+				return null;
+			}
+			return constructor.getConstructor();
+		}
+
+		private static String getDefaultValue(Class<?> primitiveType) {
+			if (primitiveType == boolean.class) {
+				return "false";
+			}
+			if (primitiveType == char.class) {
+				return "'\\0'";
+			}
+			if (primitiveType == long.class) {
+				return "0L";
+			}
+			if (primitiveType == float.class) {
+				return "0F";
+			}
+			if (primitiveType == double.class) {
+				return "0D";
+			}
+			if (primitiveType == byte.class || primitiveType == short.class) {
+				return "(" + primitiveType.getName() + ") 0";
+			}
+			return "0";
+		}
+
+	}
+
+}
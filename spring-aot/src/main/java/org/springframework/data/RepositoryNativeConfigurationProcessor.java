@@ -0,0 +1,356 @@
+package org.springframework.data;
+
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.ConstructorArgumentValues.ValueHolder;
+import org.springframework.context.bootstrap.generator.infrastructure.nativex.BeanFactoryNativeConfigurationProcessor;
+import org.springframework.context.bootstrap.generator.infrastructure.nativex.NativeConfigurationRegistry;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.MergedAnnotation;
+import org.springframework.core.annotation.MergedAnnotations;
+import org.springframework.core.annotation.MergedAnnotations.SearchStrategy;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.data.annotation.QueryAnnotation;
+import org.springframework.data.domain.Sort.Order;
+import org.springframework.data.mapping.PropertyPath;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.RepositoryDefinition;
+import org.springframework.data.repository.core.RepositoryMetadata;
+import org.springframework.data.repository.core.support.AbstractRepositoryMetadata;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * A {@link BeanFactoryNativeConfigurationProcessor} that validates, at build time, the
+ * derived queries of the Spring Data repositories defined in the bean factory.
+ *
+ * <p>Each query method whose query is derived from its name is parsed against the
+ * domain type of the repository, the same way the repository factory does it on
+ * startup. An invalid method name fails the build rather than the application. The
+ * query methods, and the properties of the domain model that derived queries
+ * navigate, are registered for reflection, in addition to the hints that the Spring
+ * Data component processor contributes for the repository and its domain type. Methods
+ * with a named query, declared using an annotation on the domain type, a
+ * {@code META-INF/*-named-queries.properties} file, or a JPA mapping file, are not
+ * derived.
+ *
+ * <p>The result of the parsing is not used at runtime: the store-specific query
+ * implementations parse the method name themselves when the repository is created.
+ *
+ * @author agent
+ */
+class RepositoryNativeConfigurationProcessor implements BeanFactoryNativeConfigurationProcessor {
+
+	private static final String REPOSITORY_SUPPORT = "org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport";
+
+	@Override
+	public void process(ConfigurableListableBeanFactory beanFactory, NativeConfigurationRegistry registry) {
+		if (ClassUtils.isPresent(REPOSITORY_SUPPORT, beanFactory.getBeanClassLoader())) {
+			new Processor(beanFactory).process(registry);
+		}
+	}
+
+	private static class Processor {
+
+		private static final String NAMED_QUERIES_LOCATION = "classpath*:META-INF/*-named-queries.properties";
+
+		private static final String MAPPING_FILE_LOCATION = "classpath*:META-INF/orm.xml";
+
+		private static final String PERSISTENCE_UNITS_LOCATION = "classpath*:META-INF/persistence.xml";
+
+		private static final List<String> MAPPED_QUERY_ELEMENTS = List.of("named-query", "named-native-query");
+
+		private static final String USE_DECLARED_QUERY = "USE_DECLARED_QUERY";
+
+		private static final List<String> ENTITY_ANNOTATIONS = List.of(
+				"javax.persistence.Entity", "jakarta.persistence.Entity");
+
+		private static final List<String> NAMED_QUERY_ANNOTATIONS = List.of(
+				"javax.persistence.NamedQuery", "javax.persistence.NamedNativeQuery",
+				"jakarta.persistence.NamedQuery", "jakarta.persistence.NamedNativeQuery");
+
+		private static final List<String> DECLARED_QUERY_ANNOTATIONS = List.of(
+				"org.springframework.data.jpa.repository.query.Procedure");
+
+		private final ConfigurableListableBeanFactory beanFactory;
+
+		private final Properties namedQueries;
+
+		private final Set<String> mappedQueryNames;
+
+		Processor(ConfigurableListableBeanFactory beanFactory) {
+			this.beanFactory = beanFactory;
+			this.namedQueries = loadNamedQueries(beanFactory.getBeanClassLoader());
+			this.mappedQueryNames = loadMappedQueryNames(beanFactory.getBeanClassLoader());
+		}
+
+		void process(NativeConfigurationRegistry registry) {
+			for (String beanName : this.beanFactory.getBeanDefinitionNames()) {
+				BeanDefinition beanDefinition = this.beanFactory.getMergedBeanDefinition(beanName);
+				Class<?> repositoryInterface = getRepositoryInterface(beanDefinition);
+				if (repositoryInterface != null && !usesDeclaredQueriesOnly(beanDefinition)) {
+					processRepository(registry, beanName, repositoryInterface);
+				}
+			}
+		}
+
+		private void processRepository(NativeConfigurationRegistry registry, String beanName,
+				Class<?> repositoryInterface) {
+			RepositoryMetadata metadata = AbstractRepositoryMetadata.getMetadata(repositoryInterface);
+			Class<?> domainType = metadata.getDomainType();
+			Set<String> declaredQueries = getDeclaredQueryNames(domainType);
+			Set<String> baseMethods = getBaseMethods(repositoryInterface);
+			for (Method method : repositoryInterface.getMethods()) {
+				if (isDerivedQueryMethod(method, baseMethods, declaredQueries)) {
+					PartTree partTree = deriveQuery(beanName, method, domainType);
+					registry.reflection().forType(repositoryInterface).withMethods(method);
+					for (Part part : partTree.getParts()) {
+						registerPropertyPath(registry, part.getProperty());
+					}
+					for (Order order : partTree.getSort()) {
+						registerPropertyPath(registry, PropertyPath.from(order.getProperty(), domainType));
+					}
+				}
+			}
+		}
+
+		private PartTree deriveQuery(String beanName, Method method, Class<?> domainType) {
+			try {
+				return new PartTree(method.getName(), domainType);
+			}
+			catch (RuntimeException ex) {
+				throw new IllegalStateException(String.format("Failed to derive query for method %s of repository '%s': %s",
+						method, beanName, ex.getMessage()), ex);
+			}
+		}
+
+		private void registerPropertyPath(NativeConfigurationRegistry registry, PropertyPath propertyPath) {
+			PropertyPath current = propertyPath;
+			while (current != null) {
+				Class<?> owningType = current.getOwningType().getType();
+				Field field = ReflectionUtils.findField(owningType, current.getSegment());
+				if (field != null) {
+					registry.reflection().forType(field.getDeclaringClass()).withFields(field);
+				}
+				PropertyDescriptor property = BeanUtils.getPropertyDescriptor(owningType, current.getSegment());
+				if (property != null && property.getReadMethod() != null) {
+					Method readMethod = property.getReadMethod();
+					registry.reflection().forType(readMethod.getDeclaringClass()).withMethods(readMethod);
+				}
+				current = current.next();
+			}
+		}
+
+		/**
+		 * Specify if the specified method has a query derived from its name. Methods
+		 * that are implemented by the repository base class or by a fragment, and
+		 * methods that declare their query, are not candidates.
+		 */
+		private boolean isDerivedQueryMethod(Method method, Set<String> baseMethods, Set<String> declaredQueries) {
+			if (method.isDefault() || method.isBridge() || Modifier.isStatic(method.getModifiers())) {
+				return false;
+			}
+			Class<?> declaringClass = method.getDeclaringClass();
+			if (isSpringDataType(declaringClass) || !isRepositoryType(declaringClass)
+					|| baseMethods.contains(methodKey(method))) {
+				return false;
+			}
+			MergedAnnotations annotations = MergedAnnotations.from(method);
+			if (annotations.isPresent(QueryAnnotation.class)
+					|| DECLARED_QUERY_ANNOTATIONS.stream().anyMatch(annotations::isPresent)) {
+				return false;
+			}
+			return !declaredQueries.contains(method.getName());
+		}
+
+		private boolean isRepositoryType(Class<?> type) {
+			return Repository.class.isAssignableFrom(type)
+					|| MergedAnnotations.from(type).isPresent(RepositoryDefinition.class);
+		}
+
+		/**
+		 * Return the methods that the Spring Data interfaces of the specified repository
+		 * define, and that the repository base class implements.
+		 */
+		private Set<String> getBaseMethods(Class<?> repositoryInterface) {
+			Set<String> baseMethods = new HashSet<>();
+			for (Class<?> candidate : ClassUtils.getAllInterfacesForClassAsSet(repositoryInterface)) {
+				if (isSpringDataType(candidate)) {
+					for (Method method : candidate.getMethods()) {
+						baseMethods.add(methodKey(method));
+					}
+				}
+			}
+			return baseMethods;
+		}
+
+		/**
+		 * Return the names of the query methods of the specified domain type that have a
+		 * named query, either using an annotation on the domain type, a properties file,
+		 * or a mapping file.
+		 */
+		private Set<String> getDeclaredQueryNames(Class<?> domainType) {
+			String entityName = getEntityName(domainType);
+			Set<String> names = new HashSet<>();
+			MergedAnnotations annotations = MergedAnnotations.from(domainType, SearchStrategy.TYPE_HIERARCHY);
+			for (String annotationType : NAMED_QUERY_ANNOTATIONS) {
+				annotations.stream(annotationType).map((annotation) -> annotation.getString("name"))
+						.forEach(names::add);
+			}
+			this.namedQueries.stringPropertyNames().forEach(names::add);
+			names.addAll(this.mappedQueryNames);
+			String prefix = entityName + ".";
+			Set<String> methodNames = new HashSet<>();
+			for (String name : names) {
+				if (name.startsWith(prefix)) {
+					methodNames.add(name.substring(prefix.length()));
+				}
+			}
+			return methodNames;
+		}
+
+		private String getEntityName(Class<?> domainType) {
+			MergedAnnotations annotations = MergedAnnotations.from(domainType);
+			for (String annotationType : ENTITY_ANNOTATIONS) {
+				MergedAnnotation<?> entity = annotations.get(annotationType);
+				if (entity.isPresent() && StringUtils.hasText(entity.getString("name"))) {
+					return entity.getString("name");
+				}
+			}
+			return domainType.getSimpleName();
+		}
+
+		private boolean usesDeclaredQueriesOnly(BeanDefinition beanDefinition) {
+			PropertyValue key = beanDefinition.getPropertyValues().getPropertyValue("queryLookupStrategyKey");
+			return key != null && USE_DECLARED_QUERY.equals(String.valueOf(key.getValue()));
+		}
+
+		private Class<?> getRepositoryInterface(BeanDefinition beanDefinition) {
+			Class<?> beanType = beanDefinition.getResolvableType().resolve();
+			if (beanType == null || !RepositoryFactoryBeanSupport.class.isAssignableFrom(beanType)) {
+				return null;
+			}
+			ResolvableType factoryBeanType = beanDefinition.getResolvableType().as(RepositoryFactoryBeanSupport.class);
+			if (!factoryBeanType.hasUnresolvableGenerics()) {
+				return factoryBeanType.getGeneric(0).resolve();
+			}
+			ValueHolder valueHolder = beanDefinition.getConstructorArgumentValues().getIndexedArgumentValue(0, null);
+			Object value = (valueHolder != null) ? valueHolder.getValue() : null;
+			if (value instanceof Class) {
+				return (Class<?>) value;
+			}
+			if (value instanceof String && ClassUtils.isPresent((String) value, this.beanFactory.getBeanClassLoader())) {
+				return ClassUtils.resolveClassName((String) value, this.beanFactory.getBeanClassLoader());
+			}
+			return null;
+		}
+
+		private static Properties loadNamedQueries(ClassLoader classLoader) {
+			Properties namedQueries = new Properties();
+			try {
+				Resource[] resources = new PathMatchingResourcePatternResolver(classLoader)
+						.getResources(NAMED_QUERIES_LOCATION);
+				for (Resource resource : resources) {
+					try (InputStream in = resource.getInputStream()) {
+						namedQueries.load(in);
+					}
+				}
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Failed to load named queries from " + NAMED_QUERIES_LOCATION, ex);
+			}
+			return namedQueries;
+		}
+
+		/**
+		 * Return the names of the queries declared in the default JPA mapping file, as
+		 * well as in the mapping files that persistence units declare.
+		 */
+		private static Set<String> loadMappedQueryNames(ClassLoader classLoader) {
+			PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(classLoader);
+			Set<String> mappedQueryNames = new HashSet<>();
+			for (Resource mappingFile : getMappingFiles(resolver)) {
+				Element mappings = parse(mappingFile);
+				for (String elementName : MAPPED_QUERY_ELEMENTS) {
+					NodeList queries = mappings.getElementsByTagName(elementName);
+					for (int i = 0; i < queries.getLength(); i++) {
+						String name = ((Element) queries.item(i)).getAttribute("name");
+						if (StringUtils.hasText(name)) {
+							mappedQueryNames.add(name.trim());
+						}
+					}
+				}
+			}
+			return mappedQueryNames;
+		}
+
+		private static List<Resource> getMappingFiles(PathMatchingResourcePatternResolver resolver) {
+			List<Resource> mappingFiles = new ArrayList<>();
+			try {
+				mappingFiles.addAll(List.of(resolver.getResources(MAPPING_FILE_LOCATION)));
+				for (Resource persistenceUnits : resolver.getResources(PERSISTENCE_UNITS_LOCATION)) {
+					NodeList mappingFileNames = parse(persistenceUnits).getElementsByTagName("mapping-file");
+					for (int i = 0; i < mappingFileNames.getLength(); i++) {
+						String location = mappingFileNames.item(i).getTextContent().trim();
+						mappingFiles.addAll(List.of(resolver.getResources(
+								ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX + location)));
+					}
+				}
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Failed to load JPA mapping files", ex);
+			}
+			return mappingFiles;
+		}
+
+		private static Element parse(Resource resource) {
+			try (InputStream in = resource.getInputStream()) {
+				DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+				factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+				factory.setExpandEntityReferences(false);
+				DocumentBuilder builder = factory.newDocumentBuilder();
+				return builder.parse(in).getDocumentElement();
+			}
+			catch (Exception ex) {
+				throw new IllegalStateException("Failed to parse " + resource.getDescription(), ex);
+			}
+		}
+
+		private static boolean isSpringDataType(Class<?> type) {
+			return type.getPackageName().startsWith("org.springframework.data.");
+		}
+
+		private static String methodKey(Method method) {
+			return method.getName() + "/" + method.getParameterCount();
+		}
+
+	}
+
+}
@@ -126,6 +126,56 @@ public class AotOptions {
 	 */
 	private String[] buildTimePropertiesChecks;
 
+	/**
+	 * Determine whether independent parts of the source generation should be processed
+	 * concurrently, using as many threads as there are available processors. The output
+	 * is the same regardless of the scheduling of the concurrent tasks.
+	 */
+	private boolean parallelGeneration;
+
+	/**
+	 * Determine whether Spring classes whose static initializer only stores the result of
+	 * {@code ClassUtils.isPresent()} checks should be initialized at build time, so that
+	 * the checks are evaluated against the build classpath and fold to constants.
+	 */
+	private boolean foldIsPresentChecks;
+
+	/**
+	 * Determine whether the static initializer of classes registered for reflection should
+	 * be analyzed, so that those without side effects are initialized at build time. The
+	 * reason for each decision is available in a report.
+	 */
+	private boolean inferBuildTimeInitialization;
+
+	/**
+	 * Determine whether the wall time, allocations and count of each phase of the
+	 * processing should be recorded and written to a JSON and an HTML report next to the
+	 * generated sources. Phases are emitted as JFR events regardless of this flag when a
+	 * flight recording is in progress.
+	 */
+	private boolean instrumentation;
+
+	/**
+	 * Path to a {@code reflect-config.json} file, typically minimized from the output of
+	 * a previous build with the {@code ReflectionJsonPrune} tool, whose entries replace
+	 * the computed reflection configuration of the types it describes. Types that it
+	 * does not describe keep their computed configuration.
+	 */
+	private String reflectionConfigOverride;
+
+	/**
+	 * Path to a file where the outcome of condition evaluations and the inputs they
+	 * depend on are persisted, so that the conditions whose inputs have not changed
+	 * since the previous build are not evaluated again.
+	 */
+	private String conditionEvaluationCache;
+
+	/**
+	 * Determine whether all conditions should be evaluated even if their outcome is
+	 * cached, reporting the outcomes that differ from the cache.
+	 */
+	private boolean verifyConditionEvaluationCache;
+
 	public String getMode() {
 		return mode;
 	}
@@ -214,6 +264,62 @@ public class AotOptions {
 		this.removeSpelSupport = removeSpelSupport;
 	}
 
+	public boolean isParallelGeneration() {
+		return parallelGeneration;
+	}
+
+	public void setParallelGeneration(boolean parallelGeneration) {
+		this.parallelGeneration = parallelGeneration;
+	}
+
+	public boolean isFoldIsPresentChecks() {
+		return foldIsPresentChecks;
+	}
+
+	public void setFoldIsPresentChecks(boolean foldIsPresentChecks) {
+		this.foldIsPresentChecks = foldIsPresentChecks;
+	}
+
+	public boolean isInferBuildTimeInitialization() {
+		return inferBuildTimeInitialization;
+	}
+
+	public void setInferBuildTimeInitialization(boolean inferBuildTimeInitialization) {
+		this.inferBuildTimeInitialization = inferBuildTimeInitialization;
+	}
+
+	public boolean isInstrumentation() {
+		return instrumentation;
+	}
+
+	public void setInstrumentation(boolean instrumentation) {
+		this.instrumentation = instrumentation;
+	}
+
+	public String getReflectionConfigOverride() {
+		return reflectionConfigOverride;
+	}
+
+	public void setReflectionConfigOverride(String reflectionConfigOverride) {
+		this.reflectionConfigOverride = reflectionConfigOverride;
+	}
+
+	public String getConditionEvaluationCache() {
+		return conditionEvaluationCache;
+	}
+
+	public void setConditionEvaluationCache(String conditionEvaluationCache) {
+		this.conditionEvaluationCache = conditionEvaluationCache;
+	}
+
+	public boolean isVerifyConditionEvaluationCache() {
+		return verifyConditionEvaluationCache;
+	}
+
+	public void setVerifyConditionEvaluationCache(boolean verifyConditionEvaluationCache) {
+		this.verifyConditionEvaluationCache = verifyConditionEvaluationCache;
+	}
+
 	public boolean isFailOnMissingSelectorHint() {
 		return failOnMissingSelectorHint;
 	}
@@ -21,9 +21,14 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import org.springframework.nativex.hint.Flag;
 import org.springframework.nativex.json.JSONArray;
@@ -57,6 +62,120 @@ public class JsonMarshaller {
 		}
 	}
 	
+	/**
+	 * Write the specified class descriptors as a JSON array, one descriptor at a time.
+	 * Contrary to {@link #write(ReflectionDescriptor, OutputStream)}, descriptors are
+	 * written in iteration order.
+	 * @param classDescriptors the descriptors to write
+	 * @param writer the writer to use
+	 * @throws IOException if writing fails
+	 */
+	public static void write(Iterable<ClassDescriptor> classDescriptors, Writer writer) throws IOException {
+		JsonConverter converter = new JsonConverter();
+		writer.write("[");
+		boolean first = true;
+		for (ClassDescriptor classDescriptor : classDescriptors) {
+			writer.write(first ? "\n" : ",\n");
+			first = false;
+			writer.write(toJson(converter, classDescriptor));
+		}
+		writer.write("\n]\n");
+		writer.flush();
+	}
+
+	private static String toJson(JsonConverter converter, ClassDescriptor classDescriptor) {
+		try {
+			return converter.toJsonObject(classDescriptor).toString(2);
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException("Unable to write ClassDescriptor " + classDescriptor.getName(), ex);
+		}
+	}
+
+	/**
+	 * Read the class descriptors of a JSON array one at a time, without loading the
+	 * whole document in memory. Descriptors are provided as they are found, so a type
+	 * that is listed several times is provided several times.
+	 * @param reader the reader to use
+	 * @param consumer the consumer of each descriptor
+	 * @throws IOException if reading fails
+	 */
+	public static void read(Reader reader, Consumer<ClassDescriptor> consumer) throws IOException {
+		int c = skipWhitespace(reader);
+		if (c == -1) {
+			return;
+		}
+		if (c != '[') {
+			throw new IllegalStateException("Expected a JSON array but got '" + (char) c + "'");
+		}
+		StringBuilder object = new StringBuilder();
+		while (true) {
+			c = skipWhitespace(reader);
+			if (c == ',') {
+				continue;
+			}
+			if (c == ']') {
+				return;
+			}
+			if (c != '{') {
+				throw new IllegalStateException("Expected a JSON object but got " + ((c != -1) ? "'" + (char) c + "'" : "end of input"));
+			}
+			object.setLength(0);
+			readObject(reader, object);
+			try {
+				consumer.accept(toClassDescriptor(new JSONObject(object.toString())));
+			}
+			catch (RuntimeException ex) {
+				throw ex;
+			}
+			catch (Exception ex) {
+				throw new IllegalStateException("Unable to read ClassDescriptor from " + object, ex);
+			}
+		}
+	}
+
+	private static int skipWhitespace(Reader reader) throws IOException {
+		int c = reader.read();
+		while (c != -1 && Character.isWhitespace(c)) {
+			c = reader.read();
+		}
+		return c;
+	}
+
+	private static void readObject(Reader reader, StringBuilder object) throws IOException {
+		object.append('{');
+		int depth = 1;
+		boolean inString = false;
+		boolean escaped = false;
+		while (depth > 0) {
+			int c = reader.read();
+			if (c == -1) {
+				throw new IllegalStateException("Unexpected end of input in " + object);
+			}
+			object.append((char) c);
+			if (inString) {
+				if (escaped) {
+					escaped = false;
+				}
+				else if (c == '\\') {
+					escaped = true;
+				}
+				else if (c == '"') {
+					inString = false;
+				}
+			}
+			else if (c == '"') {
+				inString = true;
+			}
+			else if (c == '{') {
+				depth++;
+			}
+			else if (c == '}') {
+				depth--;
+			}
+		}
+	}
+
 	public static ReflectionDescriptor read(String input) throws Exception {
 		try (ByteArrayInputStream bais = new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8))) {
 			return read(bais);
@@ -79,16 +198,15 @@ public class JsonMarshaller {
 	}
 
 	private static ReflectionDescriptor toReflectionDescriptor(JSONArray array) throws Exception {
-		ReflectionDescriptor rd = new ReflectionDescriptor();
+		Map<String, ClassDescriptor> classDescriptors = new LinkedHashMap<>();
 		for (int i=0;i<array.length();i++) {
 			ClassDescriptor cd = toClassDescriptor((JSONObject)array.get(i));
-			if (rd.hasClassDescriptor(cd.getName())) {
-				rd.getClassDescriptor(cd.getName()).merge(cd);
-			} else {
-				rd.add(cd);
+			ClassDescriptor existing = classDescriptors.putIfAbsent(cd.getName(), cd);
+			if (existing != null) {
+				existing.merge(cd);
 			}
 		}
-		return rd;
+		return new ReflectionDescriptor(new ArrayList<>(classDescriptors.values()));
 	}
 	
 	private static ClassDescriptor toClassDescriptor(JSONObject object) throws Exception {
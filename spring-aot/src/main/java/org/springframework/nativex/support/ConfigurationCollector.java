@@ -47,6 +47,7 @@ import org.springframework.nativex.domain.reflect.ReflectionDescriptor;
 import org.springframework.nativex.domain.resources.ResourcesDescriptor;
 import org.springframework.nativex.domain.serialization.SerializationDescriptor;
 import org.springframework.nativex.hint.Flag;
+import org.springframework.nativex.type.InitializationDecision;
 import org.springframework.nativex.type.Type;
 import org.springframework.nativex.type.TypeSystem;
 
@@ -79,6 +80,8 @@ public class ConfigurationCollector {
 	private Set<String> options = new HashSet<>();
 
 	private Map<String,byte[]> newResourceFiles = new HashMap<>();
+
+	private List<InitializationDecision> initializationDecisions = new ArrayList<>();
 	
 	private TypeSystem ts;
 
@@ -142,6 +145,18 @@ public class ConfigurationCollector {
 	public InitializationDescriptor getInitializationDescriptor() {
 		return initializationDescriptor;
 	}
+
+	/**
+	 * Return the decisions taken by analyzing static initializers, if any.
+	 * @return the initialization decisions
+	 */
+	public List<InitializationDecision> getInitializationDecisions() {
+		return initializationDecisions;
+	}
+
+	public void addInitializationDecision(InitializationDecision initializationDecision) {
+		initializationDecisions.add(initializationDecision);
+	}
 	
 	public void setTypeSystem(TypeSystem ts) {
 		this.ts = ts;
@@ -16,13 +16,24 @@
 
 package org.springframework.nativex.support;
 
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
 import org.springframework.nativex.domain.init.InitializationDescriptor;
+import org.springframework.nativex.domain.reflect.ClassDescriptor;
+import org.springframework.nativex.type.InitializationDecision;
+import org.springframework.nativex.type.StaticInitializerAnalyzer;
+import org.springframework.nativex.type.Type;
 
 /**
  * 
  * @author Andy Clement
  */
 public class InitializationHandler extends Handler {
+
+	private static Log logger = LogFactory.getLog(InitializationHandler.class);
 	
 	InitializationHandler(ConfigurationCollector collector) {
 		super(collector);
@@ -48,4 +59,80 @@ public class InitializationHandler extends Handler {
 		collector.initializePackagesAtRunTime(packageNames);
 	}
 
+	/**
+	 * Initialize at build time the Spring classes whose static initializer only stores
+	 * the result of isPresent() checks, so that the checks fold to constants.
+	 */
+	public void initializeFoldableIsPresentChecksAtBuildTime() {
+		InitializationDescriptor initializationDescriptor = collector.getInitializationDescriptor();
+		int count = 0;
+		for (Map.Entry<String, Map<String, Boolean>> entry : ts.getFoldableIsPresentChecks().entrySet()) {
+			String typename = entry.getKey();
+			if (isInitializedAtRunTime(initializationDescriptor, typename)) {
+				logger.debug("Not folding isPresent() checks of " + typename + " as it is initialized at runtime");
+				continue;
+			}
+			logger.debug("Folding isPresent() checks of " + typename + ": " + entry.getValue());
+			collector.initializeClassesAtBuildTime(typename);
+			count++;
+		}
+		logger.debug("Initializing " + count + " classes making isPresent() checks at build time");
+	}
+
+	/**
+	 * Analyze the static initializer of the types registered for reflection and
+	 * initialize at build time those without side effects. Each decision is recorded
+	 * with its reason, see {@link ConfigurationCollector#getInitializationDecisions()}.
+	 */
+	public void inferBuildTimeInitialization() {
+		InitializationDescriptor initializationDescriptor = collector.getInitializationDescriptor();
+		StaticInitializerAnalyzer analyzer = new StaticInitializerAnalyzer(ts);
+		int count = 0;
+		for (ClassDescriptor classDescriptor : collector.getReflectionDescriptor().getClassDescriptors()) {
+			String typename = classDescriptor.getName();
+			// The JDK initialization policy is managed by the native image compiler
+			if (typename.endsWith("[]") || typename.startsWith("java.") || typename.startsWith("javax.")
+					|| isInitializedAtBuildTime(initializationDescriptor, typename)
+					|| isInitializedAtRunTime(initializationDescriptor, typename)) {
+				continue;
+			}
+			Type type = ts.resolveDotted(typename, true);
+			if (type == null || !type.hasMethod("<clinit>")) {
+				continue;
+			}
+			InitializationDecision decision = analyzer.analyze(typename);
+			logger.debug("Inferred initialization of " + decision);
+			collector.addInitializationDecision(decision);
+			if (decision.isBuildTime()) {
+				collector.initializeClassesAtBuildTime(typename);
+				count++;
+			}
+		}
+		logger.debug("Initializing " + count + " classes with a static initializer without side effects at build time");
+	}
+
+	private boolean isInitializedAtBuildTime(InitializationDescriptor initializationDescriptor, String typename) {
+		if (initializationDescriptor.getBuildtimeClasses().contains(typename)) {
+			return true;
+		}
+		for (String buildtimePackage : initializationDescriptor.getBuildtimePackages()) {
+			if (typename.startsWith(buildtimePackage + ".")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isInitializedAtRunTime(InitializationDescriptor initializationDescriptor, String typename) {
+		if (initializationDescriptor.getRuntimeClasses().contains(typename)) {
+			return true;
+		}
+		for (String runtimePackage : initializationDescriptor.getRuntimePackages()) {
+			if (typename.startsWith(runtimePackage + ".")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 }
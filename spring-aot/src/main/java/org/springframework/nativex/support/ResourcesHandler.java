@@ -41,6 +41,8 @@ import java.util.stream.Collectors;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.springframework.aot.instrument.AotInstrumentation;
+import org.springframework.aot.instrument.AotInstrumentation.Phase;
 import org.springframework.nativex.AotOptions;
 import org.springframework.nativex.domain.init.InitializationDescriptor;
 import org.springframework.nativex.domain.proxies.AotProxyDescriptor;
@@ -102,12 +104,18 @@ public class ResourcesHandler extends Handler {
 	public void register() {
 		if (aotOptions.toMode() == Mode.NATIVE ||
 				aotOptions.toMode() == Mode.NATIVE_AGENT) {
-			processSpringFactories();
+			try (Phase phase = AotInstrumentation.start("resources", "spring-factories")) {
+				processSpringFactories();
+			}
+		}
+		try (Phase phase = AotInstrumentation.start("resources", "constant-hints")) {
+			handleConstantHints(aotOptions.toMode() == Mode.NATIVE_INIT);
 		}
-		handleConstantHints(aotOptions.toMode() == Mode.NATIVE_INIT);
 		if (aotOptions.toMode() == Mode.NATIVE ||
 				aotOptions.toMode() == Mode.NATIVE_AGENT) {
-			handleSpringComponents();
+			try (Phase phase = AotInstrumentation.start("resources", "spring-components")) {
+				handleSpringComponents();
+			}
 		}
 	}
 
@@ -449,8 +457,10 @@ public class ResourcesHandler extends Handler {
 			}
 		}
 		for (ComponentProcessor componentProcessor: componentProcessors) {
-			if (componentProcessor.handle(context, componentTypename, values)) {
-				componentProcessor.process(context, componentTypename, values);
+			try (Phase phase = AotInstrumentation.start("component-processor", componentProcessor.getClass().getName())) {
+				if (componentProcessor.handle(context, componentTypename, values)) {
+					componentProcessor.process(context, componentTypename, values);
+				}
 			}
 		}	
 		return true;
@@ -989,6 +999,12 @@ public class ResourcesHandler extends Handler {
 	}
 
 	private boolean processType(ProcessingContext pc, Type type, ReachedBy reachedBy) {
+		try (Phase phase = AotInstrumentation.start("process-type", reachedBy.name())) {
+			return doProcessType(pc, type, reachedBy);
+		}
+	}
+
+	private boolean doProcessType(ProcessingContext pc, Type type, ReachedBy reachedBy) {
 		pc.push(type, reachedBy);
 		String typename = type.getDottedName();
 		logger.debug("Analyzing " + typename + " reached by " + pc);
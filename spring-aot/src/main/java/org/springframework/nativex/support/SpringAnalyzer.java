@@ -19,6 +19,8 @@ package org.springframework.nativex.support;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.aot.instrument.AotInstrumentation;
+import org.springframework.aot.instrument.AotInstrumentation.Phase;
 import org.springframework.nativex.AotOptions;
 import org.springframework.nativex.type.TypeSystem;
 
@@ -83,8 +85,22 @@ public class SpringAnalyzer {
 
 		logger.info("Spring Native operating mode: " + aotOptions.toMode().toString());
 
-		reflectionHandler.register();
-		resourcesHandler.register();
+		try (Phase phase = AotInstrumentation.start("analysis", "reflection")) {
+			reflectionHandler.register();
+		}
+		try (Phase phase = AotInstrumentation.start("analysis", "resources")) {
+			resourcesHandler.register();
+		}
+		if (aotOptions.isFoldIsPresentChecks()) {
+			try (Phase phase = AotInstrumentation.start("analysis", "fold-is-present-checks")) {
+				initializationHandler.initializeFoldableIsPresentChecksAtBuildTime();
+			}
+		}
+		if (aotOptions.isInferBuildTimeInitialization()) {
+			try (Phase phase = AotInstrumentation.start("analysis", "infer-build-time-initialization")) {
+				initializationHandler.inferBuildTimeInitialization();
+			}
+		}
 	}
 
 	public ConfigurationCollector getConfigurationCollector() {
@@ -110,6 +110,33 @@ public class ConstantPoolScanner {
 		}
 	}
 	
+	/**
+	 * Determine if the specified class references a method with the specified owner and
+	 * name in its constant pool. This is much cheaper than visiting the class as only
+	 * the constant pool is parsed, and can be used to skip classes that cannot be
+	 * relevant before analyzing them further.
+	 * @param classbytes the bytes of the class
+	 * @param slashedOwner the owner of the method, for instance {@code org/springframework/util/ClassUtils}
+	 * @param methodName the name of the method
+	 * @return {@code true} if the method is referenced by the class
+	 */
+	public static boolean referencesMethod(byte[] classbytes, String slashedOwner, String methodName) {
+		return new ConstantPoolScanner(classbytes).referencesMethod(slashedOwner, methodName);
+	}
+
+	public boolean referencesMethod(String slashedOwner, String methodName) {
+		for (int i = 0; i < cpsize; i++) {
+			if (type[i] == CONSTANT_Methodref) {
+				int[] indexes = (int[]) cpdata[i];
+				int nameIndex = (Integer) cpdata[indexes[1]];
+				if (utf8Equals(nameIndex, methodName) && utf8Equals((Integer) cpdata[indexes[0]], slashedOwner)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
 	public ConstantPoolScanner(File f) {
 		this(readBytes(f));
 	}
@@ -233,6 +260,18 @@ public class ConstantPoolScanner {
 		return value;
 	}
 
+	/**
+	 * Compare the UTF8 at the specified index with the specified value, without decoding
+	 * it if it is too short to match (each character is encoded with at least one byte).
+	 */
+	private boolean utf8Equals(int cpIndex, String value) {
+		Object object = cpdata[cpIndex];
+		if (object instanceof int[] && ((int[]) object)[1] < value.length()) {
+			return false;
+		}
+		return value.equals(accessUtf8(cpIndex));
+	}
+
 	/**
 	 * @return an int constructed from the next four bytes to be processed
 	 */
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.type;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A compact index of the {@link NativeConfiguration} providers of a jar, keyed by the
+ * trigger types of the hints they declare with annotations. The index is computed at
+ * build time by {@link HintIndexGenerator} and stored at {@value #LOCATION}.
+ * <p>
+ * It allows {@link SpringConfiguration} to only unpack the hints of a provider once
+ * one of its triggers is requested. Providers that compute hints programmatically or
+ * that implement {@link NativeConfiguration#isValid(TypeSystem)} are flagged as dynamic
+ * and are always processed upfront.
+ *
+ * @author agent
+ */
+public class HintIndex {
+
+	/**
+	 * The location of the index in a jar.
+	 */
+	public static final String LOCATION = "META-INF/spring-native/hints.idx";
+
+	private static final int MAGIC = 0x534e4849; // SNHI
+
+	private static final int VERSION = 1;
+
+	private final Set<String> staticProviders = new LinkedHashSet<>();
+
+	private final Set<String> dynamicProviders = new LinkedHashSet<>();
+
+	private final Map<String, Set<String>> providersPerTrigger = new LinkedHashMap<>();
+
+	/**
+	 * Load and merge the indexes available in the specified {@link ClassLoader}.
+	 * @param classLoader the class loader to use
+	 * @return the merged index, empty if no index is available
+	 */
+	public static HintIndex load(ClassLoader classLoader) {
+		HintIndex index = new HintIndex();
+		try {
+			Enumeration<URL> resources = classLoader.getResources(LOCATION);
+			while (resources.hasMoreElements()) {
+				URL resource = resources.nextElement();
+				try (InputStream in = resource.openStream()) {
+					index.read(in);
+				}
+			}
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unable to load hint index from " + LOCATION, ex);
+		}
+		return index;
+	}
+
+	/**
+	 * Register a provider.
+	 * @param provider the name of the {@link NativeConfiguration} implementation
+	 * @param dynamic whether the provider computes hints programmatically or is only
+	 * valid under some conditions
+	 * @param triggers the trigger types of the hints declared on the provider
+	 */
+	public void addProvider(String provider, boolean dynamic, Collection<String> triggers) {
+		if (dynamic) {
+			this.dynamicProviders.add(provider);
+			return;
+		}
+		this.staticProviders.add(provider);
+		for (String trigger : triggers) {
+			this.providersPerTrigger.computeIfAbsent(trigger, (key) -> new LinkedHashSet<>()).add(provider);
+		}
+	}
+
+	/**
+	 * Specify if the hints of the specified provider are indexed, so that its processing
+	 * can be deferred until one of its triggers is requested.
+	 * @param provider the name of the provider
+	 * @return {@code true} if the provider has been indexed and is not dynamic
+	 */
+	public boolean isDeferred(String provider) {
+		return this.staticProviders.contains(provider);
+	}
+
+	/**
+	 * Return the trigger types of the indexed providers.
+	 * @return the trigger types
+	 */
+	public Set<String> getTriggerTypenames() {
+		return Collections.unmodifiableSet(this.providersPerTrigger.keySet());
+	}
+
+	/**
+	 * Return the indexed providers that declare hints for the specified trigger.
+	 * @param trigger the trigger type
+	 * @return the names of the providers
+	 */
+	public Set<String> getProviders(String trigger) {
+		Set<String> providers = this.providersPerTrigger.get(trigger);
+		return (providers != null) ? providers : Collections.emptySet();
+	}
+
+	/**
+	 * Return all the non-dynamic providers of this index.
+	 * @return the names of the providers
+	 */
+	public Set<String> getDeferredProviders() {
+		return Collections.unmodifiableSet(this.staticProviders);
+	}
+
+	/**
+	 * Specify if this index contains at least one provider.
+	 * @return {@code true} if no provider has been indexed
+	 */
+	public boolean isEmpty() {
+		return this.staticProviders.isEmpty() && this.dynamicProviders.isEmpty();
+	}
+
+	/**
+	 * Write this index in its binary form.
+	 * @param outputStream the stream to write to
+	 * @throws IOException if writing fails
+	 */
+	public void write(OutputStream outputStream) throws IOException {
+		DataOutputStream out = new DataOutputStream(outputStream);
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		Map<String, Integer> providers = new LinkedHashMap<>();
+		out.writeInt(this.staticProviders.size());
+		for (String provider : this.staticProviders) {
+			providers.put(provider, providers.size());
+			out.writeUTF(provider);
+		}
+		out.writeInt(this.dynamicProviders.size());
+		for (String provider : this.dynamicProviders) {
+			out.writeUTF(provider);
+		}
+		out.writeInt(this.providersPerTrigger.size());
+		for (Map.Entry<String, Set<String>> entry : this.providersPerTrigger.entrySet()) {
+			out.writeUTF(entry.getKey());
+			out.writeInt(entry.getValue().size());
+			for (String provider : entry.getValue()) {
+				out.writeInt(providers.get(provider));
+			}
+		}
+		out.flush();
+	}
+
+	/**
+	 * Read an index in its binary form and merge it with this instance.
+	 * @param inputStream the stream to read from
+	 * @throws IOException if reading fails
+	 */
+	public void read(InputStream inputStream) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+		if (in.readInt() != MAGIC) {
+			throw new IllegalStateException("Not a hint index");
+		}
+		int version = in.readInt();
+		if (version != VERSION) {
+			throw new IllegalStateException("Unsupported hint index version " + version);
+		}
+		String[] providers = new String[in.readInt()];
+		for (int i = 0; i < providers.length; i++) {
+			providers[i] = in.readUTF();
+			this.staticProviders.add(providers[i]);
+		}
+		int dynamicProviders = in.readInt();
+		for (int i = 0; i < dynamicProviders; i++) {
+			this.dynamicProviders.add(in.readUTF());
+		}
+		int triggers = in.readInt();
+		for (int i = 0; i < triggers; i++) {
+			Set<String> target = this.providersPerTrigger.computeIfAbsent(in.readUTF(), (key) -> new LinkedHashSet<>());
+			int count = in.readInt();
+			for (int j = 0; j < count; j++) {
+				target.add(providers[in.readInt()]);
+			}
+		}
+	}
+
+	/**
+	 * Return the distinct trigger types of the specified hints, using
+	 * {@code java.lang.Object} for hints that apply unconditionally.
+	 * @param hints the hints
+	 * @return the trigger types
+	 */
+	static Set<String> getTriggerTypenames(List<HintDeclaration> hints) {
+		Set<String> triggers = new TreeSet<>();
+		for (HintDeclaration hint : hints) {
+			triggers.add((hint.getTriggerTypename() != null) ? hint.getTriggerTypename() : "java.lang.Object");
+		}
+		return triggers;
+	}
+
+}
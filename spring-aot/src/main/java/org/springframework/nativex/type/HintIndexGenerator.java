@@ -0,0 +1,120 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.type;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Build step that computes the {@link HintIndex} of a jar containing
+ * {@link NativeConfiguration} providers. Providers are read from
+ * {@code META-INF/services} in the specified classes directory and the index is written
+ * next to it at {@value HintIndex#LOCATION}.
+ * <p>
+ * Usage: {@code HintIndexGenerator <classesDirectory> <classpath>}
+ *
+ * @author agent
+ */
+public class HintIndexGenerator {
+
+	private static final String SERVICES = "META-INF/services/" + NativeConfiguration.class.getName();
+
+	private static final List<String> DYNAMIC_METHODS = Arrays.asList("computeHints", "isValid");
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.out.println("Usage: HintIndexGenerator <classesDirectory> <classpath>");
+			System.exit(1);
+		}
+		Path classesDirectory = Paths.get(args[0]);
+		List<String> classpath = new ArrayList<>();
+		classpath.add(classesDirectory.toString());
+		classpath.addAll(Arrays.asList(args[1].split(File.pathSeparator)));
+		HintIndex index = generate(classesDirectory, new TypeSystem(classpath));
+		Path location = classesDirectory.resolve(HintIndex.LOCATION);
+		Files.createDirectories(location.getParent());
+		try (OutputStream out = Files.newOutputStream(location)) {
+			index.write(out);
+		}
+	}
+
+	/**
+	 * Generate the index of the providers declared in the specified classes directory.
+	 * @param classesDirectory the directory containing the providers
+	 * @param typeSystem the type system to use to resolve the providers
+	 * @return the index
+	 * @throws IOException if the providers could not be read
+	 */
+	public static HintIndex generate(Path classesDirectory, TypeSystem typeSystem) throws IOException {
+		HintIndex index = new HintIndex();
+		Path services = classesDirectory.resolve(SERVICES);
+		if (!Files.exists(services)) {
+			return index;
+		}
+		List<String> providers = Files.readAllLines(services).stream().map(HintIndexGenerator::cleanLine)
+				.filter((line) -> !line.isEmpty()).collect(Collectors.toList());
+		for (String provider : providers) {
+			Type type = typeSystem.resolveName(provider);
+			if (type == null) {
+				throw new IllegalStateException("Unable to resolve hint provider " + provider);
+			}
+			if (isDynamic(type)) {
+				index.addProvider(provider, true, List.of());
+			}
+			else {
+				index.addProvider(provider, false, HintIndex.getTriggerTypenames(type.getCompilationHints()));
+			}
+		}
+		return index;
+	}
+
+	private static String cleanLine(String line) {
+		int comment = line.indexOf('#');
+		return ((comment != -1) ? line.substring(0, comment) : line).trim();
+	}
+
+	/**
+	 * Specify if the provider, or one of its super types, overrides one of the methods
+	 * of {@link NativeConfiguration}, in which case it has to be processed at runtime.
+	 */
+	private static boolean isDynamic(Type type) {
+		if (type == null || type.getDottedName().equals(NativeConfiguration.class.getName())
+				|| type.getDottedName().equals("java.lang.Object")) {
+			return false;
+		}
+		for (String method : DYNAMIC_METHODS) {
+			if (type.hasMethod(method)) {
+				return true;
+			}
+		}
+		for (Type ifc : type.getInterfaces()) {
+			if (isDynamic(ifc)) {
+				return true;
+			}
+		}
+		return isDynamic(type.getSuperclass());
+	}
+
+}
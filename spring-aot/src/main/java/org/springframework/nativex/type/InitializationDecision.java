@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.type;
+
+/**
+ * Whether a type can be initialized at build time, and why.
+ *
+ * @author agent
+ * @see StaticInitializerAnalyzer
+ */
+public class InitializationDecision {
+
+	private final String typename;
+
+	private final boolean buildTime;
+
+	private final String reason;
+
+	private InitializationDecision(String typename, boolean buildTime, String reason) {
+		this.typename = typename;
+		this.buildTime = buildTime;
+		this.reason = reason;
+	}
+
+	static InitializationDecision buildTime(String typename, String reason) {
+		return new InitializationDecision(typename, true, reason);
+	}
+
+	static InitializationDecision runTime(String typename, String reason) {
+		return new InitializationDecision(typename, false, reason);
+	}
+
+	/**
+	 * Return the dotted name of the type.
+	 * @return the type name
+	 */
+	public String getTypename() {
+		return this.typename;
+	}
+
+	/**
+	 * Specify if the type can be initialized at build time.
+	 * @return {@code true} if running the static initializer at build time is safe
+	 */
+	public boolean isBuildTime() {
+		return this.buildTime;
+	}
+
+	/**
+	 * Return a description of what led to the decision.
+	 * @return the reason
+	 */
+	public String getReason() {
+		return this.reason;
+	}
+
+	@Override
+	public String toString() {
+		return this.typename + ": " + (this.buildTime ? "build time" : "run time") + " (" + this.reason + ")";
+	}
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.type;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The {@code ClassUtils.isPresent()} checks made by the static initializer of a type.
+ *
+ * @author agent
+ * @see IsPresentDetectionVisitor
+ */
+public class IsPresentChecks {
+
+	private final String typename;
+
+	private final List<String> checkedTypes;
+
+	private final boolean foldable;
+
+	IsPresentChecks(String typename, List<String> checkedTypes, boolean foldable) {
+		this.typename = typename;
+		this.checkedTypes = Collections.unmodifiableList(checkedTypes);
+		this.foldable = foldable;
+	}
+
+	/**
+	 * Return the dotted name of the type making the checks.
+	 * @return the type name
+	 */
+	public String getTypename() {
+		return this.typename;
+	}
+
+	/**
+	 * Return the types the checks are made against, in order. May be incomplete if the
+	 * argument of some checks cannot be determined.
+	 * @return the checked types
+	 */
+	public List<String> getCheckedTypes() {
+		return this.checkedTypes;
+	}
+
+	/**
+	 * Specify if the static initializer only stores the result of checks against known
+	 * types in static fields of the type, so that running it at build time folds these
+	 * fields to constants.
+	 * @return {@code true} if the static initializer can be folded
+	 */
+	public boolean isFoldable() {
+		return this.foldable;
+	}
+
+	@Override
+	public String toString() {
+		return this.typename + (this.foldable ? " (foldable) " : " ") + this.checkedTypes;
+	}
+
+}
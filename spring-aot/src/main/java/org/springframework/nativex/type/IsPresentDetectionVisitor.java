@@ -23,6 +23,8 @@ import java.util.List;
 
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 
@@ -41,6 +43,9 @@ class IsPresentDetectionVisitor extends ClassVisitor {
 
 	private List<String> typesCheckedInIsPresentCalls = new ArrayList<>();
 
+	// Whether the static initializer only stores the result of isPresent() checks
+	private boolean foldable = true;
+
 	/**
 	 * Visit the class supplied in the input stream and determine if isPresent()
 	 * calls are made from the static initializer. If they are try to determine what
@@ -53,16 +58,34 @@ class IsPresentDetectionVisitor extends ClassVisitor {
 	 */
 	public static List<String> run(InputStream inputStream) {
 		try {
-			IsPresentDetectionVisitor node = new IsPresentDetectionVisitor(Opcodes.ASM9);
-			ClassReader reader = new ClassReader(inputStream);
-			reader.accept(node, ClassReader.SKIP_DEBUG);
-			return (node.containsIsPresentChecksInStaticInitializer ? node.typesCheckedInIsPresentCalls : null);
+			IsPresentChecks checks = analyze(new ClassReader(inputStream));
+			return (checks != null ? checks.getCheckedTypes() : null);
 		} catch (IOException e) {
 			e.printStackTrace();
 			return null;
 		}
 	}
 
+	/**
+	 * Visit the specified class and determine the isPresent() checks made from its static
+	 * initializer, as well as whether the static initializer does anything else than
+	 * storing the result of such checks in static fields of the class.
+	 * @param classbytes the bytes of the class
+	 * @return the checks or {@code null} if there are no isPresent() checks
+	 */
+	public static IsPresentChecks analyze(byte[] classbytes) {
+		return analyze(new ClassReader(classbytes));
+	}
+
+	private static IsPresentChecks analyze(ClassReader reader) {
+		IsPresentDetectionVisitor node = new IsPresentDetectionVisitor(Opcodes.ASM9);
+		reader.accept(node, ClassReader.SKIP_DEBUG);
+		if (!node.containsIsPresentChecksInStaticInitializer) {
+			return null;
+		}
+		return new IsPresentChecks(node.classname.replace('/', '.'), node.typesCheckedInIsPresentCalls, node.foldable);
+	}
+
 	private IsPresentDetectionVisitor(int api) {
 		super(api);
 	}
@@ -115,10 +138,110 @@ class IsPresentDetectionVisitor extends ClassVisitor {
 					typesCheckedInIsPresentCalls.add(mostRecentlyLoadedString);
 					state = 0;
 				}
+				else {
+					// The checked type cannot be determined
+					foldable = false;
+				}
 			} else {
+				if (!isClassLoaderLookup(opcode, owner, name)) {
+					// The argument of a subsequent check is computed
+					state = 0;
+					foldable = false;
+				}
 				super.visitMethodInsn(opcode, owner, name, descriptor, itface);
 			}
 		}
 
+		private boolean isClassLoaderLookup(int opcode, String owner, String name) {
+			return (opcode == Opcodes.INVOKEVIRTUAL && owner.equals("java/lang/Class") && name.equals("getClassLoader"))
+					|| (opcode == Opcodes.INVOKESTATIC && owner.equals("org/springframework/util/ClassUtils")
+							&& name.equals("getDefaultClassLoader"));
+		}
+
+		// Anything else than loading constants and class loaders, combining the results of
+		// the checks and storing them in static fields of the class prevents folding
+
+		@Override
+		public void visitInsn(int opcode) {
+			if (opcode != Opcodes.RETURN && (opcode < Opcodes.ICONST_0 || opcode > Opcodes.ICONST_1)) {
+				foldable = false;
+			}
+			super.visitInsn(opcode);
+		}
+
+		@Override
+		public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+			if (!owner.equals(classname) || !descriptor.equals("Z")
+					|| (opcode != Opcodes.PUTSTATIC && opcode != Opcodes.GETSTATIC)) {
+				foldable = false;
+			}
+			super.visitFieldInsn(opcode, owner, name, descriptor);
+		}
+
+		@Override
+		public void visitJumpInsn(int opcode, Label label) {
+			if (opcode != Opcodes.IFEQ && opcode != Opcodes.IFNE && opcode != Opcodes.GOTO) {
+				foldable = false;
+			}
+			super.visitJumpInsn(opcode, label);
+		}
+
+		@Override
+		public void visitVarInsn(int opcode, int var) {
+			if (opcode != Opcodes.ALOAD && opcode != Opcodes.ASTORE) {
+				foldable = false;
+			}
+			super.visitVarInsn(opcode, var);
+		}
+
+		@Override
+		public void visitIntInsn(int opcode, int operand) {
+			foldable = false;
+			super.visitIntInsn(opcode, operand);
+		}
+
+		@Override
+		public void visitTypeInsn(int opcode, String type) {
+			foldable = false;
+			super.visitTypeInsn(opcode, type);
+		}
+
+		@Override
+		public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle,
+				Object... bootstrapMethodArguments) {
+			foldable = false;
+			super.visitInvokeDynamicInsn(name, descriptor, bootstrapMethodHandle, bootstrapMethodArguments);
+		}
+
+		@Override
+		public void visitIincInsn(int var, int increment) {
+			foldable = false;
+			super.visitIincInsn(var, increment);
+		}
+
+		@Override
+		public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels) {
+			foldable = false;
+			super.visitTableSwitchInsn(min, max, dflt, labels);
+		}
+
+		@Override
+		public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
+			foldable = false;
+			super.visitLookupSwitchInsn(dflt, keys, labels);
+		}
+
+		@Override
+		public void visitMultiANewArrayInsn(String descriptor, int numDimensions) {
+			foldable = false;
+			super.visitMultiANewArrayInsn(descriptor, numDimensions);
+		}
+
+		@Override
+		public void visitTryCatchBlock(Label start, Label end, Label handler, String type) {
+			foldable = false;
+			super.visitTryCatchBlock(start, end, handler, type);
+		}
+
 	}
 }
\ No newline at end of file
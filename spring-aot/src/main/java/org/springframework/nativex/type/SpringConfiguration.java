@@ -19,14 +19,32 @@ package org.springframework.nativex.type;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.ServiceLoader.Provider;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.aot.instrument.AotInstrumentation;
+import org.springframework.aot.instrument.AotInstrumentation.Phase;
+import org.springframework.util.ClassUtils;
+
 /**
+ * Discover the hints contributed by {@link NativeConfiguration} providers, as well as
+ * the other processors registered in {@code META-INF/services}.
+ * <p>
+ * Providers that are listed in a {@link HintIndex} are not processed upfront: their hints
+ * are only unpacked once one of their trigger types is requested. Hints can be looked up
+ * concurrently: deferred providers are unpacked under a lock and the hints of a trigger
+ * are replaced rather than modified in place, so that a returned list never changes.
+ *
  * @author Andy Clement
  */
 public class SpringConfiguration {
@@ -35,19 +53,34 @@ public class SpringConfiguration {
 
 	private final static Map<String, String[]> proposedFactoryGuards = new HashMap<>();
 
-	private final Map<String, List<HintDeclaration>> proposedHints = new HashMap<>();
+	private final Map<String, List<HintDeclaration>> proposedHints = new ConcurrentHashMap<>();
 	
 	private final List<AccessChecker> accessVerifiers = new ArrayList<>();
 	
 	private final List<ComponentProcessor> processors = new ArrayList<>();
 
 	private final List<SpringFactoriesProcessor> springFactoriesProcessors = new ArrayList<>();
+
+	private final TypeSystem typeSystem;
+
+	private final HintIndex hintIndex;
+
+	private final Set<String> deferredProviders = ConcurrentHashMap.newKeySet();
 	
 	public SpringConfiguration(TypeSystem typeSystem) {
 		logger.debug("SpringConfiguration: Discovering hints");
+		this.typeSystem = typeSystem;
 		ServiceLoader<NativeConfiguration> hintProviders = ServiceLoader.load(NativeConfiguration.class);
-		for (NativeConfiguration hintProvider: hintProviders) {
-			Type t = typeSystem.resolveName(hintProvider.getClass().getName());
+		this.hintIndex = HintIndex.load(ClassUtils.getDefaultClassLoader());
+		List<Provider<NativeConfiguration>> providers = hintProviders.stream().collect(Collectors.toList());
+		for (Provider<NativeConfiguration> provider: providers) {
+			String providerName = provider.type().getName();
+			if (this.hintIndex.isDeferred(providerName)) {
+				this.deferredProviders.add(providerName);
+				continue;
+			}
+			NativeConfiguration hintProvider = provider.get();
+			Type t = typeSystem.resolveName(providerName);
 			if (t != null) {
 				boolean valid = hintProvider.isValid(typeSystem);
 				if (!valid) {
@@ -56,7 +89,7 @@ public class SpringConfiguration {
 				}
 				List<HintDeclaration> hints = new ArrayList<>();
 				hints.addAll(t.getCompilationHints());
-				try {
+				try (Phase phase = AotInstrumentation.start("hint-provider", providerName)) {
 					hints.addAll(hintProvider.computeHints(typeSystem));
 				} catch (NoClassDefFoundError ncdfe) {
 					System.out.println("WARNING: Hint provider computeHints() method in "+
@@ -64,20 +97,10 @@ public class SpringConfiguration {
 						": it is better if they handle that internally in case they are computing a variety of hints");
 				}
 				logger.debug("SpringConfiguration: processing provider: "+hintProvider.getClass().getName()+" - found "+hints.size()+" hints");
-				for (HintDeclaration hint: hints) {
-					if (hint.getTriggerTypename() == null) {
-						// Default to Object which means this hint always applies
-						hint.setTriggerTypename("java.lang.Object");
-					}
-					List<HintDeclaration> existingHints = proposedHints.get(hint.getTriggerTypename());
-					if (existingHints == null) {
-						existingHints = new ArrayList<>();
-						proposedHints.put(hint.getTriggerTypename(), existingHints);
-					}
-					existingHints.add(hint);
-				}
+				registerHints(hints);
 			}
 		}
+		logger.debug("SpringConfiguration: deferred processing of "+deferredProviders.size()+" indexed providers");
 		logger.debug("Discovering component processors...");
 		ServiceLoader<ComponentProcessor> componentProcessors = ServiceLoader.load(ComponentProcessor.class);
 		for (ComponentProcessor componentProcessor: componentProcessors) {
@@ -109,13 +132,86 @@ public class SpringConfiguration {
 			});
 	}
 	
+	private void registerHints(List<HintDeclaration> hints) {
+		Map<String, List<HintDeclaration>> hintsByTrigger = new LinkedHashMap<>();
+		for (HintDeclaration hint: hints) {
+			if (hint.getTriggerTypename() == null) {
+				// Default to Object which means this hint always applies
+				hint.setTriggerTypename("java.lang.Object");
+			}
+			hintsByTrigger.computeIfAbsent(hint.getTriggerTypename(), (key) -> new ArrayList<>()).add(hint);
+		}
+		// Lists are replaced so that the hints returned to a concurrent caller never change
+		hintsByTrigger.forEach((trigger, triggerHints) -> proposedHints.merge(trigger,
+				Collections.unmodifiableList(triggerHints), (existingHints, newHints) -> {
+					List<HintDeclaration> merged = new ArrayList<>(existingHints);
+					merged.addAll(newHints);
+					return Collections.unmodifiableList(merged);
+				}));
+	}
+
+	/**
+	 * Unpack the hints of the deferred providers that declare hints for the specified
+	 * trigger. All the hints of such a provider are registered, whatever their trigger.
+	 */
+	private void processDeferredProviders(String typename) {
+		if (deferredProviders.isEmpty()) {
+			return;
+		}
+		for (String providerName: hintIndex.getProviders(typename)) {
+			processDeferredProvider(providerName);
+		}
+	}
+
+	/**
+	 * Unpack the hints of the specified deferred provider, if necessary. A provider is
+	 * only discarded once its hints are registered, so that a concurrent caller that
+	 * requires it waits for its hints rather than missing them.
+	 */
+	private synchronized void processDeferredProvider(String providerName) {
+		if (deferredProviders.contains(providerName)) {
+			Type t = typeSystem.resolveName(providerName);
+			if (t != null) {
+				List<HintDeclaration> hints = t.getCompilationHints();
+				logger.debug("SpringConfiguration: processing indexed provider: "+providerName+" - found "+hints.size()+" hints");
+				registerHints(hints);
+			}
+			deferredProviders.remove(providerName);
+		}
+	}
+
 	// TODO sort out callers so they use a proper dotted name
 	public List<HintDeclaration> findProposedHints(String typename) {
+		processDeferredProviders(typename);
 		List<HintDeclaration> results = proposedHints.get(typename);
 		return (results==null?Collections.emptyList():results);
 	}
-	
+
+	/**
+	 * Return the trigger types for which hints are available, without unpacking the hints
+	 * of deferred providers.
+	 * @return the trigger types
+	 */
+	public Set<String> getTriggerTypenames() {
+		Set<String> triggers = new LinkedHashSet<>(proposedHints.keySet());
+		for (String trigger: hintIndex.getTriggerTypenames()) {
+			if (hintIndex.getProviders(trigger).stream().anyMatch(deferredProviders::contains)) {
+				triggers.add(trigger);
+			}
+		}
+		return triggers;
+	}
+
+	/**
+	 * Return all the proposed hints, keyed by trigger type. This forces the processing of
+	 * all deferred providers, consider {@link #getTriggerTypenames()} and
+	 * {@link #findProposedHints(String)} instead.
+	 * @return the proposed hints
+	 */
 	public Map<String, List<HintDeclaration>> getProposedhints() {
+		for (String providerName: new ArrayList<>(deferredProviders)) {
+			processDeferredProvider(providerName);
+		}
 		return proposedHints;
 	}
 	
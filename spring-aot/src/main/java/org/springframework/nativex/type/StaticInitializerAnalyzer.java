@@ -0,0 +1,581 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.type;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldInsnNode;
+import org.objectweb.asm.tree.InvokeDynamicInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.TypeInsnNode;
+
+/**
+ * Analyze the static initializer of types to determine if they can be initialized at
+ * build time. A static initializer is considered safe if it does not perform I/O, use
+ * threads or randomness, or read the environment or system properties. This applies to
+ * the methods it invokes, the static initializers of the types it uses and those of its
+ * super types as well.
+ * <p>
+ * The analysis is conservative: invocations that cannot be resolved to a single
+ * implementation, such as calls to overridable methods, make the type initialized at
+ * runtime. Methods of the JDK are not analyzed, only those that are known to be free of
+ * side effects are accepted. In particular, reflection, method handles, asynchronous
+ * execution, class loaders and JDK methods that invoke a callback make the type
+ * initialized at runtime. Converting an object that is not a string or a boxed primitive
+ * to a string, using {@code String.valueOf(Object)}, {@code StringBuilder.append(Object)}
+ * or string concatenation, is considered a callback as it invokes its {@code toString}
+ * method. JDK collection interfaces are assumed to be implemented by the JDK, and the
+ * {@code equals} and {@code hashCode} methods of the objects they hold are assumed to be
+ * free of side effects.
+ *
+ * @author agent
+ */
+public class StaticInitializerAnalyzer {
+
+	private static final int MAX_DEPTH = 10;
+
+	private static final String[] JDK_PACKAGES = { "java/", "javax/", "jdk/", "sun/", "com/sun/" };
+
+	private static final Map<String, String> IMPURE_TYPES;
+
+	private static final Map<String, String> IMPURE_METHODS;
+
+	private static final Set<String> PURE_JDK_TYPES = new HashSet<>(Arrays.asList("java/lang/String",
+			"java/lang/StringBuilder", "java/lang/StringBuffer", "java/lang/Boolean", "java/lang/Byte",
+			"java/lang/Short", "java/lang/Character", "java/lang/Integer", "java/lang/Long", "java/lang/Float",
+			"java/lang/Double", "java/lang/Math", "java/lang/StrictMath", "java/math/BigInteger",
+			"java/math/BigDecimal", "java/util/regex/Pattern", "java/util/regex/Matcher", "java/util/StringJoiner",
+			"java/util/Optional", "java/util/OptionalInt", "java/util/OptionalLong", "java/util/OptionalDouble",
+			"java/util/UUID", "java/util/BitSet", "java/time/Duration", "java/time/Period", "java/util/Collection",
+			"java/util/List", "java/util/Set", "java/util/SortedSet", "java/util/NavigableSet", "java/util/Map",
+			"java/util/Map$Entry", "java/util/SortedMap", "java/util/NavigableMap", "java/util/Queue",
+			"java/util/Deque", "java/util/Iterator", "java/util/ListIterator", "java/util/ArrayList",
+			"java/util/LinkedList", "java/util/ArrayDeque", "java/util/HashMap", "java/util/LinkedHashMap",
+			"java/util/TreeMap", "java/util/IdentityHashMap", "java/util/HashSet", "java/util/LinkedHashSet",
+			"java/util/TreeSet", "java/util/Properties", "java/util/concurrent/ConcurrentHashMap",
+			"java/util/concurrent/CopyOnWriteArrayList", "java/util/concurrent/CopyOnWriteArraySet",
+			"java/util/concurrent/ConcurrentLinkedQueue", "java/util/concurrent/ConcurrentLinkedDeque",
+			"java/util/concurrent/atomic/AtomicBoolean", "java/util/concurrent/atomic/AtomicInteger",
+			"java/util/concurrent/atomic/AtomicLong", "java/util/concurrent/atomic/AtomicReference",
+			"java/io/ByteArrayInputStream", "java/io/ByteArrayOutputStream", "java/io/StringReader",
+			"java/io/StringWriter", "java/io/ObjectStreamField", "java/io/IOException", "java/io/UncheckedIOException",
+			"java/lang/Throwable", "java/lang/Exception", "java/lang/RuntimeException", "java/lang/Error",
+			"java/lang/IllegalArgumentException", "java/lang/IllegalStateException",
+			"java/lang/UnsupportedOperationException", "java/lang/NullPointerException",
+			"java/lang/IndexOutOfBoundsException", "java/lang/ClassCastException", "java/lang/NumberFormatException",
+			"java/lang/AssertionError", "java/lang/ExceptionInInitializerError", "java/util/NoSuchElementException"));
+
+	private static final Set<String> PURE_JDK_METHODS = new HashSet<>(Arrays.asList("java/lang/Object.<init>",
+			"java/lang/Object.getClass", "java/lang/Enum.<init>", "java/lang/Enum.name", "java/lang/Enum.ordinal",
+			"java/lang/Class.getName", "java/lang/Class.getSimpleName", "java/lang/Class.getTypeName",
+			"java/lang/Class.getCanonicalName", "java/lang/Class.getPackageName", "java/lang/Class.getModifiers",
+			"java/lang/Class.getSuperclass", "java/lang/Class.getComponentType", "java/lang/Class.isInstance",
+			"java/lang/Class.isAssignableFrom", "java/lang/Class.isInterface", "java/lang/Class.isArray",
+			"java/lang/Class.isPrimitive", "java/lang/Class.isEnum", "java/lang/Class.isAnnotation",
+			"java/lang/Class.cast", "java/lang/Class.desiredAssertionStatus", "java/util/Arrays.asList",
+			"java/util/Arrays.copyOf", "java/util/Arrays.copyOfRange", "java/util/Arrays.fill",
+			"java/util/Collections.emptyList", "java/util/Collections.emptySet", "java/util/Collections.emptyMap",
+			"java/util/Collections.singleton", "java/util/Collections.singletonList",
+			"java/util/Collections.singletonMap", "java/util/Collections.unmodifiableCollection",
+			"java/util/Collections.unmodifiableList", "java/util/Collections.unmodifiableSet",
+			"java/util/Collections.unmodifiableSortedSet", "java/util/Collections.unmodifiableMap",
+			"java/util/Collections.unmodifiableSortedMap", "java/util/Collections.synchronizedList",
+			"java/util/Collections.synchronizedSet", "java/util/Collections.synchronizedMap",
+			"java/util/Objects.requireNonNull", "java/util/Objects.isNull", "java/util/Objects.nonNull"));
+
+	private static final Set<String> PURE_METHODS = new HashSet<>(Arrays.asList(
+			"org/springframework/util/ClassUtils.isPresent"));
+
+	private static final String[] CALLBACK_TYPES = { "java/util/function/", "java/lang/Runnable",
+			"java/util/concurrent/Callable", "java/util/Comparator", "java/util/concurrent/Executor",
+			"java/lang/Thread$UncaughtExceptionHandler" };
+
+	private static final Set<String> STRING_TYPES = new HashSet<>(Arrays.asList("java/lang/String",
+			"java/lang/StringBuilder", "java/lang/StringBuffer", "java/util/StringJoiner"));
+
+	private static final Set<String> TO_STRING_ARGUMENT_TYPES = new HashSet<>(Arrays.asList("java/lang/Object",
+			"java/lang/CharSequence", "java/lang/Iterable"));
+
+	private static final Set<String> TO_STRING_SAFE_TYPES = new HashSet<>(Arrays.asList("java/lang/String",
+			"java/lang/Boolean", "java/lang/Byte", "java/lang/Short", "java/lang/Character", "java/lang/Integer",
+			"java/lang/Long", "java/lang/Float", "java/lang/Double"));
+
+	static {
+		Map<String, String> types = new LinkedHashMap<>();
+		types.put("java/io/", "performs I/O");
+		types.put("java/nio/file/", "performs I/O");
+		types.put("java/nio/channels/", "performs I/O");
+		types.put("java/net/", "performs network I/O");
+		types.put("java/lang/ProcessBuilder", "starts a process");
+		types.put("java/lang/Runtime", "reads the runtime environment");
+		types.put("java/util/ServiceLoader", "loads services");
+		types.put("java/lang/Thread", "uses threads");
+		types.put("java/lang/ThreadGroup", "uses threads");
+		types.put("java/util/Timer", "uses threads");
+		types.put("java/util/concurrent/Executors", "uses threads");
+		types.put("java/util/concurrent/ThreadPoolExecutor", "uses threads");
+		types.put("java/util/concurrent/ScheduledThreadPoolExecutor", "uses threads");
+		types.put("java/util/concurrent/ForkJoinPool", "uses threads");
+		types.put("java/util/Random", "uses randomness");
+		types.put("java/util/SplittableRandom", "uses randomness");
+		types.put("java/util/concurrent/ThreadLocalRandom", "uses randomness");
+		types.put("java/security/SecureRandom", "uses randomness");
+		types.put("java/time/Clock", "reads the clock");
+		types.put("java/lang/reflect/", "uses reflection");
+		types.put("java/lang/invoke/", "uses method handles");
+		types.put("java/lang/ClassLoader", "uses a class loader");
+		types.put("java/util/concurrent/CompletableFuture", "runs code asynchronously");
+		types.put("java/util/concurrent/FutureTask", "runs code asynchronously");
+		types.put("java/util/concurrent/ForkJoinTask", "runs code asynchronously");
+		types.put("org/apache/commons/logging/", "creates a logger that is configured at runtime");
+		types.put("org/slf4j/", "creates a logger that is configured at runtime");
+		types.put("org/apache/logging/log4j/", "creates a logger that is configured at runtime");
+		types.put("ch/qos/logback/", "creates a logger that is configured at runtime");
+		types.put("java/util/logging/", "creates a logger that is configured at runtime");
+		IMPURE_TYPES = types;
+		Map<String, String> methods = new HashMap<>();
+		for (String method : Arrays.asList("getProperty", "getProperties", "setProperty", "setProperties",
+				"clearProperty")) {
+			methods.put("java/lang/System." + method, "reads system properties");
+		}
+		methods.put("java/lang/Integer.getInteger", "reads system properties");
+		methods.put("java/lang/Long.getLong", "reads system properties");
+		methods.put("java/lang/Boolean.getBoolean", "reads system properties");
+		methods.put("java/lang/System.getenv", "reads environment variables");
+		methods.put("java/lang/System.currentTimeMillis", "reads the clock");
+		methods.put("java/lang/System.nanoTime", "reads the clock");
+		methods.put("java/lang/System.load", "loads a native library");
+		methods.put("java/lang/System.loadLibrary", "loads a native library");
+		methods.put("java/lang/System.console", "performs I/O");
+		methods.put("java/lang/System.exit", "exits the JVM");
+		methods.put("java/lang/Math.random", "uses randomness");
+		methods.put("java/lang/StrictMath.random", "uses randomness");
+		methods.put("java/util/UUID.randomUUID", "uses randomness");
+		methods.put("java/lang/Class.forName", "initializes a type by name");
+		for (String method : Arrays.asList("newInstance", "getMethod", "getMethods", "getDeclaredMethod",
+				"getDeclaredMethods", "getConstructor", "getConstructors", "getDeclaredConstructor",
+				"getDeclaredConstructors", "getField", "getFields", "getDeclaredField", "getDeclaredFields",
+				"getEnumConstants", "getRecordComponents")) {
+			methods.put("java/lang/Class." + method, "uses reflection");
+		}
+		methods.put("java/lang/Class.getClassLoader", "captures the class loader");
+		methods.put("java/lang/Thread.getContextClassLoader", "captures the class loader");
+		methods.put("java/lang/ClassLoader.getSystemClassLoader", "captures the class loader");
+		methods.put("java/lang/ClassLoader.getPlatformClassLoader", "captures the class loader");
+		methods.put("org/springframework/util/ClassUtils.getDefaultClassLoader", "captures the class loader");
+		for (String method : Arrays.asList("getResource", "getResources", "getResourceAsStream", "getSystemResource",
+				"getSystemResources", "getSystemResourceAsStream")) {
+			methods.put("java/lang/Class." + method, "reads resources");
+			methods.put("java/lang/ClassLoader." + method, "reads resources");
+		}
+		methods.put("java/util/Properties.load", "performs I/O");
+		methods.put("java/util/Properties.loadFromXML", "performs I/O");
+		methods.put("java/util/ResourceBundle.getBundle", "reads the default locale");
+		methods.put("java/util/Locale.getDefault", "reads the default locale");
+		methods.put("java/util/TimeZone.getDefault", "reads the default time zone");
+		methods.put("java/time/ZoneId.systemDefault", "reads the default time zone");
+		methods.put("java/nio/charset/Charset.defaultCharset", "reads the default charset");
+		methods.put("java/lang/String.<init>([B)V", "reads the default charset");
+		methods.put("java/lang/String.getBytes()[B", "reads the default charset");
+		methods.put("java/lang/String.toLowerCase()Ljava/lang/String;", "reads the default locale");
+		methods.put("java/lang/String.toUpperCase()Ljava/lang/String;", "reads the default locale");
+		methods.put("java/lang/String.format(Ljava/lang/String;[Ljava/lang/Object;)Ljava/lang/String;",
+				"reads the default locale");
+		for (String type : Arrays.asList("Instant", "LocalDate", "LocalDateTime", "LocalTime", "OffsetDateTime",
+				"ZonedDateTime")) {
+			methods.put("java/time/" + type + ".now", "reads the clock");
+		}
+		methods.put("java/util/Date.<init>()V", "reads the clock");
+		IMPURE_METHODS = methods;
+	}
+
+	private final TypeSystem typeSystem;
+
+	private final Map<String, InitializationDecision> decisions = new HashMap<>();
+
+	private final Set<String> inProgress = new HashSet<>();
+
+	private boolean provisional;
+
+	public StaticInitializerAnalyzer(TypeSystem typeSystem) {
+		this.typeSystem = typeSystem;
+	}
+
+	/**
+	 * Determine if the specified type can be initialized at build time.
+	 * @param typename the dotted name of the type
+	 * @return the decision, with its reason
+	 */
+	public synchronized InitializationDecision analyze(String typename) {
+		this.provisional = false;
+		return analyzeType(typename.replace('.', '/'), 0);
+	}
+
+	/**
+	 * Analyze the specified type. Types that are being analyzed are optimistically
+	 * considered safe when they are used recursively. Decisions relying on that assumption
+	 * are not cached, unless for the type the analysis started from.
+	 * @return the decision, or {@code null} if the type is being analyzed
+	 */
+	private InitializationDecision analyzeType(String slashedName, int depth) {
+		InitializationDecision decision = this.decisions.get(slashedName);
+		if (decision != null) {
+			return decision;
+		}
+		if (this.inProgress.contains(slashedName)) {
+			this.provisional = true;
+			return null;
+		}
+		boolean outerProvisional = this.provisional;
+		this.provisional = false;
+		this.inProgress.add(slashedName);
+		try {
+			decision = doAnalyzeType(slashedName, depth);
+		}
+		finally {
+			this.inProgress.remove(slashedName);
+		}
+		if (!decision.isBuildTime() || !this.provisional || this.inProgress.isEmpty()) {
+			this.decisions.put(slashedName, decision);
+		}
+		this.provisional |= outerProvisional;
+		return decision;
+	}
+
+	private InitializationDecision doAnalyzeType(String slashedName, int depth) {
+		String typename = toDottedName(slashedName);
+		ClassNode node = getClassNode(slashedName);
+		if (node == null) {
+			return InitializationDecision.runTime(typename, "cannot be resolved on the classpath");
+		}
+		if (depth > MAX_DEPTH) {
+			return InitializationDecision.runTime(typename, "exceeds the maximum analysis depth");
+		}
+		// Super types are initialized first
+		if (node.superName != null) {
+			String reason = analyzeSuperType(node.superName, depth);
+			if (reason != null) {
+				return InitializationDecision.runTime(typename, "extends " + reason);
+			}
+		}
+		for (String superInterface : node.interfaces) {
+			String reason = analyzeSuperType(superInterface, depth);
+			if (reason != null) {
+				return InitializationDecision.runTime(typename, "implements " + reason);
+			}
+		}
+		MethodNode clinit = getMethod(node, "<clinit>", "()V");
+		if (clinit == null) {
+			return InitializationDecision.buildTime(typename, "has no static initializer");
+		}
+		String reason = analyzeMethod(node, clinit, slashedName, depth);
+		if (reason != null) {
+			return InitializationDecision.runTime(typename, reason);
+		}
+		return InitializationDecision.buildTime(typename, "has a static initializer without side effects");
+	}
+
+	private String analyzeSuperType(String slashedName, int depth) {
+		if (isJdkType(slashedName)) {
+			return null;
+		}
+		InitializationDecision decision = analyzeType(slashedName, depth + 1);
+		if (decision == null || decision.isBuildTime()) {
+			return null;
+		}
+		return toDottedName(slashedName) + " which " + decision.getReason();
+	}
+
+	/**
+	 * Analyze the use of a type that triggers its initialization.
+	 * @return the reason why it is not safe, or {@code null}
+	 */
+	private String analyzeTypeUse(String slashedName, String initializedType, int depth) {
+		if (slashedName.equals(initializedType) || slashedName.startsWith("[") || isJdkType(slashedName)) {
+			return null;
+		}
+		InitializationDecision decision = analyzeType(slashedName, depth + 1);
+		if (decision == null || decision.isBuildTime()) {
+			return null;
+		}
+		return "initializes " + toDottedName(slashedName) + " which " + decision.getReason();
+	}
+
+	/**
+	 * Analyze the instructions of the specified method, invoked while initializing the
+	 * specified type.
+	 * @return the reason why it is not safe, or {@code null}
+	 */
+	private String analyzeMethod(ClassNode owner, MethodNode method, String initializedType, int depth) {
+		String location = toDottedName(owner.name) + "." + method.name + "()";
+		if ((method.access & Opcodes.ACC_NATIVE) != 0) {
+			return "invokes native method " + location;
+		}
+		if ((method.access & Opcodes.ACC_ABSTRACT) != 0) {
+			return "invokes abstract method " + location;
+		}
+		for (AbstractInsnNode instruction : method.instructions) {
+			String reason = null;
+			if (instruction instanceof MethodInsnNode) {
+				MethodInsnNode invocation = (MethodInsnNode) instruction;
+				reason = analyzeInvocation(invocation.getOpcode(), invocation.owner, invocation.name, invocation.desc,
+						initializedType, depth);
+			}
+			else if (instruction instanceof InvokeDynamicInsnNode) {
+				reason = analyzeInvokeDynamic((InvokeDynamicInsnNode) instruction, initializedType, depth);
+			}
+			else if (instruction instanceof FieldInsnNode) {
+				int opcode = instruction.getOpcode();
+				if (opcode == Opcodes.GETSTATIC || opcode == Opcodes.PUTSTATIC) {
+					reason = analyzeTypeUse(((FieldInsnNode) instruction).owner, initializedType, depth);
+				}
+			}
+			else if (instruction instanceof TypeInsnNode && instruction.getOpcode() == Opcodes.NEW) {
+				reason = analyzeTypeUse(((TypeInsnNode) instruction).desc, initializedType, depth);
+			}
+			if (reason != null) {
+				return reason + " in " + location;
+			}
+		}
+		return null;
+	}
+
+	private String analyzeInvokeDynamic(InvokeDynamicInsnNode invocation, String initializedType, int depth) {
+		String bootstrapOwner = invocation.bsm.getOwner();
+		if (bootstrapOwner.equals("java/lang/invoke/StringConcatFactory")) {
+			return analyzeStringConcatenation(invocation);
+		}
+		if (!bootstrapOwner.equals("java/lang/invoke/LambdaMetafactory")) {
+			return "uses unsupported bootstrap method " + toDottedName(bootstrapOwner) + "."
+					+ invocation.bsm.getName() + "()";
+		}
+		// The lambda may be invoked during initialization
+		for (Object argument : invocation.bsmArgs) {
+			if (argument instanceof Handle) {
+				String reason = analyzeHandle((Handle) argument, initializedType, depth);
+				if (reason != null) {
+					return reason;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Analyze a string concatenation, that invokes the {@code toString} method of the
+	 * objects it concatenates.
+	 * @return the reason why it is not safe, or {@code null}
+	 */
+	private String analyzeStringConcatenation(InvokeDynamicInsnNode invocation) {
+		for (org.objectweb.asm.Type argumentType : org.objectweb.asm.Type.getArgumentTypes(invocation.desc)) {
+			if (argumentType.getSort() == org.objectweb.asm.Type.OBJECT
+					&& !TO_STRING_SAFE_TYPES.contains(argumentType.getInternalName())) {
+				return "invokes a callback via the toString() method of "
+						+ toDottedName(argumentType.getInternalName()) + " in a string concatenation";
+			}
+		}
+		return null;
+	}
+
+	private String analyzeHandle(Handle handle, String initializedType, int depth) {
+		switch (handle.getTag()) {
+			case Opcodes.H_INVOKESTATIC:
+				return analyzeInvocation(Opcodes.INVOKESTATIC, handle.getOwner(), handle.getName(), handle.getDesc(),
+						initializedType, depth);
+			case Opcodes.H_INVOKESPECIAL:
+			case Opcodes.H_NEWINVOKESPECIAL:
+				return analyzeInvocation(Opcodes.INVOKESPECIAL, handle.getOwner(), handle.getName(), handle.getDesc(),
+						initializedType, depth);
+			case Opcodes.H_INVOKEVIRTUAL:
+				return analyzeInvocation(Opcodes.INVOKEVIRTUAL, handle.getOwner(), handle.getName(), handle.getDesc(),
+						initializedType, depth);
+			case Opcodes.H_INVOKEINTERFACE:
+				return analyzeInvocation(Opcodes.INVOKEINTERFACE, handle.getOwner(), handle.getName(),
+						handle.getDesc(), initializedType, depth);
+			default:
+				return analyzeTypeUse(handle.getOwner(), initializedType, depth);
+		}
+	}
+
+	private String analyzeInvocation(int opcode, String owner, String name, String desc, String initializedType,
+			int depth) {
+		String reason = findSideEffect(owner, name, desc);
+		if (reason != null || owner.startsWith("[") || isJdkType(owner)) {
+			return reason;
+		}
+		if (opcode == Opcodes.INVOKESTATIC || name.equals("<init>")) {
+			reason = analyzeTypeUse(owner, initializedType, depth);
+			if (reason != null) {
+				return reason;
+			}
+		}
+		ClassNode ownerNode = getClassNode(owner);
+		if (ownerNode == null) {
+			return "invokes " + toDottedName(owner) + "." + name + "() which cannot be resolved on the classpath";
+		}
+		// Find the implementation, walking up the hierarchy as the method may be inherited
+		ClassNode declaringNode = ownerNode;
+		MethodNode target = getMethod(ownerNode, name, desc);
+		while (target == null && declaringNode.superName != null && !name.equals("<init>")
+				&& !isJdkType(declaringNode.superName)) {
+			declaringNode = getClassNode(declaringNode.superName);
+			if (declaringNode == null) {
+				break;
+			}
+			target = getMethod(declaringNode, name, desc);
+		}
+		boolean virtual = (opcode == Opcodes.INVOKEVIRTUAL || opcode == Opcodes.INVOKEINTERFACE);
+		if (virtual && !isFinal(ownerNode) && (target == null || !isFinalOrPrivate(target))) {
+			return "invokes " + toDottedName(owner) + "." + name + "() which may be overridden";
+		}
+		if (target == null) {
+			if (declaringNode != null && declaringNode.superName != null && isJdkType(declaringNode.superName)) {
+				return findSideEffect(declaringNode.superName, name, desc);
+			}
+			return "invokes " + toDottedName(owner) + "." + name + "() which cannot be resolved";
+		}
+		if (depth >= MAX_DEPTH) {
+			return "invokes " + toDottedName(owner) + "." + name + "() beyond the maximum analysis depth";
+		}
+		return analyzeMethod(declaringNode, target, initializedType, depth + 1);
+	}
+
+	/**
+	 * Check the specified invocation against the known side effects. Invocations of JDK
+	 * methods that are not known to be free of side effects are rejected as well.
+	 * @return the side effect, or {@code null}
+	 */
+	private static String findSideEffect(String owner, String name, String desc) {
+		String method = owner + "." + name;
+		if (PURE_METHODS.contains(method)) {
+			return null;
+		}
+		String sideEffect = IMPURE_METHODS.get(method);
+		if (sideEffect == null) {
+			sideEffect = IMPURE_METHODS.get(method + desc);
+		}
+		if (sideEffect == null && !PURE_JDK_TYPES.contains(owner)) {
+			sideEffect = findMatch(IMPURE_TYPES, owner);
+		}
+		if (sideEffect == null && isJdkType(owner)) {
+			sideEffect = findJdkSideEffect(owner, method, desc);
+		}
+		return (sideEffect != null) ? sideEffect + " via " + toDottedName(method) + "()" : null;
+	}
+
+	private static String findJdkSideEffect(String owner, String method, String desc) {
+		if (isCallbackType(owner)) {
+			return "invokes a callback";
+		}
+		for (org.objectweb.asm.Type argumentType : org.objectweb.asm.Type.getArgumentTypes(desc)) {
+			if (argumentType.getSort() == org.objectweb.asm.Type.OBJECT
+					&& isCallbackType(argumentType.getInternalName())) {
+				return "invokes a callback";
+			}
+		}
+		if (STRING_TYPES.contains(owner) && !method.endsWith(".equals") && convertsToString(desc)) {
+			return "invokes a callback";
+		}
+		if (PURE_JDK_TYPES.contains(owner) || PURE_JDK_METHODS.contains(method)) {
+			return null;
+		}
+		return "invokes a JDK method that is not known to be free of side effects";
+	}
+
+	/**
+	 * Specify if a method of a string type with the specified descriptor may invoke the
+	 * {@code toString} method of an object that is not a string.
+	 */
+	private static boolean convertsToString(String desc) {
+		for (org.objectweb.asm.Type argumentType : org.objectweb.asm.Type.getArgumentTypes(desc)) {
+			org.objectweb.asm.Type type = (argumentType.getSort() == org.objectweb.asm.Type.ARRAY)
+					? argumentType.getElementType() : argumentType;
+			if (type.getSort() == org.objectweb.asm.Type.OBJECT
+					&& TO_STRING_ARGUMENT_TYPES.contains(type.getInternalName())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String findMatch(Map<String, String> candidates, String owner) {
+		for (Map.Entry<String, String> entry : candidates.entrySet()) {
+			String type = entry.getKey();
+			if (type.endsWith("/") ? owner.startsWith(type) : owner.equals(type)) {
+				return entry.getValue();
+			}
+		}
+		return null;
+	}
+
+	private static boolean isCallbackType(String slashedName) {
+		for (String type : CALLBACK_TYPES) {
+			if (type.endsWith("/") ? slashedName.startsWith(type) : slashedName.equals(type)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private ClassNode getClassNode(String slashedName) {
+		Type type = this.typeSystem.resolveSlashed(slashedName, true);
+		return (type != null) ? type.getClassNode() : null;
+	}
+
+	private static MethodNode getMethod(ClassNode node, String name, String desc) {
+		List<MethodNode> methods = node.methods;
+		for (MethodNode method : methods) {
+			if (method.name.equals(name) && method.desc.equals(desc)) {
+				return method;
+			}
+		}
+		return null;
+	}
+
+	private static boolean isFinal(ClassNode node) {
+		return (node.access & Opcodes.ACC_FINAL) != 0;
+	}
+
+	private static boolean isFinalOrPrivate(MethodNode method) {
+		return (method.access & (Opcodes.ACC_FINAL | Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC)) != 0;
+	}
+
+	private static boolean isJdkType(String slashedName) {
+		for (String jdkPackage : JDK_PACKAGES) {
+			if (slashedName.startsWith(jdkPackage)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String toDottedName(String slashedName) {
+		return slashedName.replace('/', '.');
+	}
+
+}
@@ -41,6 +41,7 @@ import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -49,6 +50,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -62,6 +64,8 @@ import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.tree.AnnotationNode;
 import org.objectweb.asm.tree.ClassNode;
 
+import org.springframework.aot.instrument.AotInstrumentation;
+import org.springframework.aot.instrument.AotInstrumentation.Phase;
 import org.springframework.boot.loader.tools.MainClassFinder;
 import org.springframework.core.type.classreading.ClassDescriptor;
 import org.springframework.lang.Nullable;
@@ -114,6 +118,8 @@ public class TypeSystem {
 	// A map from the types whose clinits make isPresent checks to the types that they are checking the presence
 	// of (the parameters to the isPresent calls)
 	private Map<String,List<String>> typesMakingIsPresentChecksInStaticInitializers;
+
+	private Map<String,IsPresentChecks> isPresentChecks;
 	
 	public AotOptions aotOptions;
 
@@ -123,7 +129,7 @@ public class TypeSystem {
 	private static AotOptions defaultAotOptions;
 	
 	// TODO temporary until we switch out the need for TS altogether
-	public static TypeSystem getClassLoaderBasedTypeSystem() {
+	public static synchronized TypeSystem getClassLoaderBasedTypeSystem() {
 		if (withClassloaderResolution== null) {
 			withClassloaderResolution = new TypeSystem(Collections.emptyList());
 			withClassloaderResolution.setAotOptions(defaultAotOptions);
@@ -910,7 +916,9 @@ public class TypeSystem {
 	
 	private void ensureSpringConfigurationDiscovered() {
 		if (hintLocator == null) {
-			hintLocator = new SpringConfiguration(this);
+			try (Phase phase = AotInstrumentation.start("type-system", "discover-hints")) {
+				hintLocator = new SpringConfiguration(this);
+			}
 		}
 	}
 
@@ -918,7 +926,9 @@ public class TypeSystem {
 		if (annotatedTypes == null) {
 			annotatedTypes = new HashMap<>();
 			long t = System.currentTimeMillis();
-			scan();
+			try (Phase phase = AotInstrumentation.start("type-system", "scan")) {
+				scan();
+			}
 			logger.debug("SBG: scan time: " + (System.currentTimeMillis() - t) + "ms");
 		}
 	}
@@ -941,9 +951,7 @@ public class TypeSystem {
 	public List<HintDeclaration> findActiveDefaultHints() {
 		List<HintDeclaration> activeDefaultHints = new ArrayList<>();
 		activeDefaultHints.addAll(findHints("java.lang.Object"));
-		Map<String, List<HintDeclaration>> proposedhints = hintLocator.getProposedhints();
-		for (Map.Entry<String,List<HintDeclaration>> proposedhint: proposedhints.entrySet()) {
-			String keytype = proposedhint.getKey();
+		for (String keytype: hintLocator.getTriggerTypenames()) {
 			if (keytype.equals("java.lang.Object")) {
 				continue;
 			}
@@ -958,7 +966,7 @@ public class TypeSystem {
 					throw new IllegalStateException("Hint trigger " + type.getShortName()
 							+ " should not implement ImportBeanDefinitionRegistrar, ImportSelector, Condition or be annotation with @Conditional or @Import ");
 				} else {
-					for (HintDeclaration hint: proposedhint.getValue()) {
+					for (HintDeclaration hint: hintLocator.findProposedHints(keytype)) {
 						logger.debug("Considering hint not targeting config (trigger="+keytype+") as applicable: "+hint);
 						activeDefaultHints.add(hint);
 					}
@@ -1312,6 +1320,95 @@ public class TypeSystem {
 
 	public synchronized Map<String,List<String>> getSpringClassesMakingIsPresentChecks() {
 		if (typesMakingIsPresentChecksInStaticInitializers == null) {
+			Map<String, List<String>> result = new HashMap<>();
+			for (IsPresentChecks checks : getIsPresentChecks().values()) {
+				result.put(checks.getTypename(), checks.getCheckedTypes());
+			}
+			typesMakingIsPresentChecksInStaticInitializers = (result.isEmpty() ? Collections.emptyMap() : result);
+		}
+		return typesMakingIsPresentChecksInStaticInitializers;
+	}
+
+	/**
+	 * Evaluate the isPresent() checks of the Spring classes whose static initializer can
+	 * be folded against this type system. Such classes only store the result of the
+	 * checks in static fields, and neither them nor their super types have other static
+	 * initialization, so that initializing them at build time turns the checks into
+	 * constants.
+	 * @return the result of each check, keyed by the name of the type that makes them
+	 */
+	public synchronized Map<String, Map<String, Boolean>> getFoldableIsPresentChecks() {
+		Map<String, IsPresentChecks> allChecks = getIsPresentChecks();
+		Map<String, Map<String, Boolean>> result = new TreeMap<>();
+		for (IsPresentChecks checks : allChecks.values()) {
+			if (isFoldable(checks, allChecks)) {
+				Map<String, Boolean> results = new LinkedHashMap<>();
+				for (String checkedType : checks.getCheckedTypes()) {
+					results.put(checkedType, resolveDotted(checkedType, true) != null);
+				}
+				result.put(checks.getTypename(), results);
+			}
+		}
+		return result;
+	}
+
+	private boolean isFoldable(IsPresentChecks checks, Map<String, IsPresentChecks> allChecks) {
+		if (!checks.isFoldable()) {
+			return false;
+		}
+		try {
+			return hasFoldableSuperTypes(resolveDotted(checks.getTypename(), true), allChecks);
+		}
+		catch (MissingTypeException ex) {
+			return false;
+		}
+	}
+
+	private boolean hasFoldableSuperTypes(Type type, Map<String, IsPresentChecks> allChecks) {
+		if (type == null) {
+			return false;
+		}
+		List<Type> superTypes = new ArrayList<>(Arrays.asList(type.getInterfaces()));
+		Type superclass = type.getSuperclass();
+		if (superclass != null) {
+			superTypes.add(superclass);
+		}
+		for (Type superType : superTypes) {
+			String name = superType.getDottedName();
+			if (name.startsWith("java.")) {
+				continue;
+			}
+			if (superType.hasMethod("<clinit>")) {
+				IsPresentChecks checks = allChecks.get(name);
+				if (checks == null || !checks.isFoldable()) {
+					return false;
+				}
+			}
+			if (!hasFoldableSuperTypes(superType, allChecks)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean mayMakeIsPresentChecks(byte[] classbytes) {
+		try {
+			return ConstantPoolScanner.referencesMethod(classbytes, "org/springframework/util/ClassUtils", "isPresent");
+		}
+		catch (IllegalStateException ex) {
+			// Let the full visit decide
+			return true;
+		}
+	}
+
+	/**
+	 * Scan the Spring jars for classes making isPresent() checks in their static
+	 * initializer. The constant pool of each class is checked first so that only the
+	 * classes referencing {@code ClassUtils.isPresent} are visited.
+	 */
+	private Map<String, IsPresentChecks> getIsPresentChecks() {
+		if (isPresentChecks == null) {
+			Map<String, IsPresentChecks> result = new HashMap<>();
 			for (String classpathentry : classpath) {
 				if (classpathentry.endsWith(".jar") && classpathentry.contains("spring") && !classpathentry.contains("test")) {
 					try {
@@ -1320,13 +1417,17 @@ public class TypeSystem {
 							while (entries.hasMoreElements()) {
 								ZipEntry entry = entries.nextElement();
 								String name = entry.getName();
-								if (name.endsWith(".class")) {
-									List<String> presenceCheckedTypes = IsPresentDetectionVisitor.run(zf.getInputStream(entry));
-									if (presenceCheckedTypes != null) {
-										if (typesMakingIsPresentChecksInStaticInitializers == null) {
-											typesMakingIsPresentChecksInStaticInitializers = new HashMap<>();
-										}
-										typesMakingIsPresentChecksInStaticInitializers.put(name.substring(0,name.length()-6).replace('/', '.'),presenceCheckedTypes);
+								if (name.endsWith(".class") && !name.endsWith("module-info.class")) {
+									byte[] classbytes;
+									try (InputStream is = zf.getInputStream(entry)) {
+										classbytes = is.readAllBytes();
+									}
+									if (!mayMakeIsPresentChecks(classbytes)) {
+										continue;
+									}
+									IsPresentChecks checks = IsPresentDetectionVisitor.analyze(classbytes);
+									if (checks != null) {
+										result.put(checks.getTypename(), checks);
 									}
 								}
 							}
@@ -1338,11 +1439,9 @@ public class TypeSystem {
 					}
 				}
 			}
-			if (typesMakingIsPresentChecksInStaticInitializers == null) {
-				typesMakingIsPresentChecksInStaticInitializers = Collections.emptyMap();
-			}
+			isPresentChecks = result;
 		}
-		return typesMakingIsPresentChecksInStaticInitializers;
+		return isPresentChecks;
 	}
 
 	// TODO Should be able to perform an AOT analysis of @ComponentScan, see https://github.com/spring-projects-experimental/spring-native/issues/801
@@ -1566,16 +1665,22 @@ public class TypeSystem {
 	}
 
 	private static Map<String, Map<String, String>> applicationPropertiesFiles = null;
-	private static Map<String, String> mergedApplicationProperties = null;
+	private static volatile Map<String, String> mergedApplicationProperties = null;
 
 	public Map<String,String> getActiveProperties() {
 		if (mergedApplicationProperties == null) {
-			applicationPropertiesFiles = scanForApplicationProperties();
-			mergedApplicationProperties = new HashMap<>();
-			Collection<Map<String, String>> propertiesFiles = applicationPropertiesFiles.values();
-			for (Map<String,String> propertiesFile: propertiesFiles) {
-				for (Map.Entry<String,String> property: propertiesFile.entrySet()) {
-					mergedApplicationProperties.put(property.getKey(), property.getValue());
+			// Type systems can be used concurrently, only publish the properties once merged
+			synchronized (TypeSystem.class) {
+				if (mergedApplicationProperties == null) {
+					applicationPropertiesFiles = scanForApplicationProperties();
+					Map<String, String> activeProperties = new HashMap<>();
+					Collection<Map<String, String>> propertiesFiles = applicationPropertiesFiles.values();
+					for (Map<String,String> propertiesFile: propertiesFiles) {
+						for (Map.Entry<String,String> property: propertiesFile.entrySet()) {
+							activeProperties.put(property.getKey(), property.getValue());
+						}
+					}
+					mergedApplicationProperties = activeProperties;
 				}
 			}
 		}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.orm.jpa.persistenceunit;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.squareup.javapoet.CodeBlock;
+
+import org.springframework.aot.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
+import org.springframework.boot.autoconfigure.domain.EntityScanPackages;
+import org.springframework.context.bootstrap.generator.infrastructure.BootstrapWriterContext;
+import org.springframework.context.bootstrap.generator.infrastructure.nativex.NativeConfigurationRegistry;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Scan, at build time, the packages of the default JPA persistence unit the same way
+ * {@code DefaultPersistenceUnitManager} does on startup, and write the code that
+ * installs the {@link PersistenceManagedTypes} that were found.
+ *
+ * <p>The packages to scan are the ones that Spring Boot configures, that is the
+ * {@link EntityScanPackages entity scan packages} or, if none is defined, the
+ * {@link AutoConfigurationPackages auto-configuration packages}. Reflection metadata
+ * is registered for the managed classes that were found.
+ *
+ * @author agent
+ */
+public class PersistenceManagedTypesWriter {
+
+	private static final String ENTITY_MANAGER_FACTORY_BEAN = "org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean";
+
+	private static final String ENTITY_SCAN_PACKAGES = "org.springframework.boot.autoconfigure.domain.EntityScanPackages";
+
+	private static final List<String> ENTITY_TYPE_ANNOTATIONS = List.of("javax.persistence.Entity",
+			"javax.persistence.Embeddable", "javax.persistence.MappedSuperclass", "javax.persistence.Converter",
+			"jakarta.persistence.Entity", "jakarta.persistence.Embeddable", "jakarta.persistence.MappedSuperclass",
+			"jakarta.persistence.Converter");
+
+	private static final String PACKAGE_INFO_SUFFIX = ".package-info";
+
+	private final ConfigurableListableBeanFactory beanFactory;
+
+	public PersistenceManagedTypesWriter(ConfigurableListableBeanFactory beanFactory) {
+		this.beanFactory = beanFactory;
+	}
+
+	/**
+	 * Write the code that installs the managed types of the default persistence unit,
+	 * if the bean factory defines an entity manager factory.
+	 * @param writerContext the writer context
+	 * @param code the code of the main {@code initialize} method
+	 */
+	public void writePersistenceManagedTypes(BootstrapWriterContext writerContext, CodeBlock.Builder code) {
+		List<String> packagesToScan = getPackagesToScan();
+		if (packagesToScan.isEmpty()) {
+			return;
+		}
+		NativeConfigurationRegistry registry = writerContext.getNativeConfigurationRegistry();
+		CodeBlock.Builder builder = CodeBlock.builder();
+		builder.add("$T.builder()", PersistenceManagedTypes.class).indent().indent();
+		scan(packagesToScan).forEach((packageName, scannedPackage) -> {
+			scannedPackage.registerReflection(registry, this.beanFactory.getBeanClassLoader());
+			builder.add("\n.scannedPackage($S, $L, $L)", packageName, writeNames(scannedPackage.managedClassNames),
+					writeNames(scannedPackage.managedPackages));
+		});
+		builder.add("\n.build()").unindent().unindent();
+		code.addStatement("$T.install($L)", PersistenceManagedTypes.class, builder.build());
+	}
+
+	/**
+	 * Return the packages to scan, or an empty list if no entity manager factory is
+	 * defined.
+	 */
+	List<String> getPackagesToScan() {
+		ClassLoader classLoader = this.beanFactory.getBeanClassLoader();
+		if (!ClassUtils.isPresent(ENTITY_MANAGER_FACTORY_BEAN, classLoader)
+				|| !ClassUtils.isPresent(ENTITY_SCAN_PACKAGES, classLoader)) {
+			return List.of();
+		}
+		Class<?> factoryBeanType = ClassUtils.resolveClassName(ENTITY_MANAGER_FACTORY_BEAN, classLoader);
+		if (this.beanFactory.getBeanNamesForType(factoryBeanType, true, false).length == 0) {
+			return List.of();
+		}
+		List<String> packages = EntityScanPackages.get(this.beanFactory).getPackageNames();
+		if (packages.isEmpty() && AutoConfigurationPackages.has(this.beanFactory)) {
+			packages = AutoConfigurationPackages.get(this.beanFactory);
+		}
+		return packages;
+	}
+
+	/**
+	 * Scan the specified packages for managed types.
+	 * @param packagesToScan the packages to scan
+	 * @return the result of the scanning, by package name
+	 */
+	Map<String, ScannedPackage> scan(List<String> packagesToScan) {
+		ResourcePatternResolver resourcePatternResolver = new PathMatchingResourcePatternResolver(
+				this.beanFactory.getBeanClassLoader());
+		MetadataReaderFactory metadataReaderFactory = new CachingMetadataReaderFactory(resourcePatternResolver);
+		Map<String, ScannedPackage> scannedPackages = new LinkedHashMap<>();
+		for (String packageName : packagesToScan) {
+			scannedPackages.put(packageName, scanPackage(resourcePatternResolver, metadataReaderFactory, packageName));
+		}
+		return scannedPackages;
+	}
+
+	private ScannedPackage scanPackage(ResourcePatternResolver resourcePatternResolver,
+			MetadataReaderFactory metadataReaderFactory, String packageName) {
+		ScannedPackage scannedPackage = new ScannedPackage();
+		String pattern = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX
+				+ ClassUtils.convertClassNameToResourcePath(packageName) + "/**/*.class";
+		try {
+			for (Resource resource : resourcePatternResolver.getResources(pattern)) {
+				if (resource.isReadable()) {
+					MetadataReader reader = metadataReaderFactory.getMetadataReader(resource);
+					String className = reader.getClassMetadata().getClassName();
+					if (ENTITY_TYPE_ANNOTATIONS.stream().anyMatch(reader.getAnnotationMetadata()::hasAnnotation)) {
+						scannedPackage.managedClassNames.add(className);
+					}
+					else if (className.endsWith(PACKAGE_INFO_SUFFIX)) {
+						scannedPackage.managedPackages.add(
+								className.substring(0, className.length() - PACKAGE_INFO_SUFFIX.length()));
+					}
+				}
+			}
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Failed to scan classpath for managed types in package " + packageName, ex);
+		}
+		return scannedPackage;
+	}
+
+	private CodeBlock writeNames(Set<String> names) {
+		return CodeBlock.of("$T.of($L)", List.class, names.stream().map((name) -> CodeBlock.of("$S", name))
+				.collect(CodeBlock.joining(", ")));
+	}
+
+	static final class ScannedPackage {
+
+		final Set<String> managedClassNames = new TreeSet<>();
+
+		final Set<String> managedPackages = new TreeSet<>();
+
+		/**
+		 * Register the reflection metadata that the persistence provider requires for
+		 * the managed classes and packages.
+		 */
+		void registerReflection(NativeConfigurationRegistry registry, ClassLoader classLoader) {
+			for (String className : this.managedClassNames) {
+				Class<?> type = ClassUtils.resolveClassName(className, classLoader);
+				Constructor<?>[] constructors = type.getDeclaredConstructors();
+				Field[] fields = Arrays.stream(type.getDeclaredFields())
+						.filter((field) -> !Modifier.isStatic(field.getModifiers())).toArray(Field[]::new);
+				Method[] methods = Arrays.stream(type.getDeclaredMethods())
+						.filter((method) -> !method.isSynthetic() && !Modifier.isStatic(method.getModifiers()))
+						.toArray(Method[]::new);
+				registry.reflection().forType(type).withMethods(constructors).withMethods(methods).withFields(fields);
+			}
+			for (String packageName : this.managedPackages) {
+				registry.reflection().forType(ClassUtils.resolveClassName(packageName + PACKAGE_INFO_SUFFIX, classLoader));
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.nativex.AotOptions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link BootstrapContributorExecutor}.
+ *
+ * @author agent
+ */
+class BootstrapContributorExecutorTests {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void sortKeepsOrderWithoutDependencies() {
+		BootstrapContributor first = new OptionContributor("first");
+		BootstrapContributor second = new OptionContributor("second");
+		assertThat(BootstrapContributorExecutor.sort(Arrays.asList(first, second))).containsExactly(first, second);
+	}
+
+	@Test
+	void sortInvokesDependenciesFirst() {
+		BootstrapContributor dependent = new DependentContributor();
+		BootstrapContributor dependency = new OptionContributor("dependency");
+		BootstrapContributor other = new OtherContributor();
+		assertThat(BootstrapContributorExecutor.sort(Arrays.asList(dependent, other, dependency)))
+				.containsExactly(other, dependency, dependent);
+	}
+
+	@Test
+	void sortIgnoresMissingDependencies() {
+		BootstrapContributor dependent = new DependentContributor();
+		assertThat(BootstrapContributorExecutor.sort(Collections.singletonList(dependent))).containsExactly(dependent);
+	}
+
+	@Test
+	void sortWithCycle() {
+		assertThatIllegalStateException().isThrownBy(() -> BootstrapContributorExecutor.sort(
+				Arrays.asList(new CyclicContributor(), new AnotherCyclicContributor())))
+				.withMessageContaining("Cycle detected");
+	}
+
+	@Test
+	void executeSequentially() throws IOException {
+		DefaultBuildContext buildContext = createBuildContext();
+		new BootstrapContributorExecutor(buildContext, new AotOptions()).execute(Arrays.asList(
+				new OptionContributor("first"), new DependentContributor(), new OptionContributor("second")));
+		assertThat(buildContext.getOptions()).containsExactly("first", "second", "dependent-of-first,second");
+	}
+
+	@Test
+	void executeInParallelCommitsContributionsInOrder() throws IOException {
+		CountDownLatch latch = new CountDownLatch(1);
+		SourceFile slowFile = (rootPath) -> { };
+		SourceFile fastFile = (rootPath) -> { };
+		DefaultBuildContext buildContext = createBuildContext();
+		// The second contributor completes first while the first one waits for it
+		BootstrapContributor slow = (context, aotOptions) -> {
+			awaitLatch(latch);
+			context.addSourceFiles(slowFile);
+			context.describeResources((resources) -> resources.add("slow"));
+			context.getOptions().add("slow");
+		};
+		BootstrapContributor fast = (context, aotOptions) -> {
+			context.addSourceFiles(fastFile);
+			context.describeResources((resources) -> resources.add("fast"));
+			latch.countDown();
+		};
+		new BootstrapContributorExecutor(buildContext, parallelOptions()).execute(Arrays.asList(
+				slow, fast, new DependentContributor()));
+		assertThat(buildContext.getSourceFiles()).containsExactly(slowFile, fastFile);
+		assertThat(buildContext.getResourcesDescriptor().getPatterns()).containsOnly("slow", "fast");
+		assertThat(buildContext.getOptions()).containsExactly("slow", "dependent-of-slow");
+	}
+
+	@Test
+	void executeInParallelReportsFirstFailure() throws IOException {
+		DefaultBuildContext buildContext = createBuildContext();
+		BootstrapContributor failing = (context, aotOptions) -> {
+			throw new IllegalStateException("test failure");
+		};
+		List<String> invocations = Collections.synchronizedList(new ArrayList<>());
+		BootstrapContributor reader = (context, aotOptions) -> {
+			invocations.add("reader");
+			context.getOptions();
+			invocations.add("unexpected");
+		};
+		assertThatIllegalStateException().isThrownBy(() -> new BootstrapContributorExecutor(buildContext,
+				parallelOptions()).execute(Arrays.asList(failing, reader))).withMessage("test failure");
+		assertThat(invocations).doesNotContain("unexpected");
+	}
+
+	private DefaultBuildContext createBuildContext() throws IOException {
+		return new DefaultBuildContext(new ApplicationStructure(this.tempDir, this.tempDir, Collections.emptySet(),
+				Collections.emptyList(), null, Collections.emptyList(), getClass().getClassLoader()));
+	}
+
+	private AotOptions parallelOptions() {
+		AotOptions aotOptions = new AotOptions();
+		aotOptions.setParallelGeneration(true);
+		return aotOptions;
+	}
+
+	private static void awaitLatch(CountDownLatch latch) {
+		try {
+			assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	static class OptionContributor implements BootstrapContributor {
+
+		private final String option;
+
+		OptionContributor(String option) {
+			this.option = option;
+		}
+
+		@Override
+		public void contribute(BuildContext context, AotOptions aotOptions) {
+			context.getOptions().add(this.option);
+		}
+
+	}
+
+	static class DependentContributor implements BootstrapContributor {
+
+		@Override
+		public void contribute(BuildContext context, AotOptions aotOptions) {
+			context.getOptions().add("dependent-of-" + String.join(",", context.getOptions()));
+		}
+
+		@Override
+		public Set<Class<? extends BootstrapContributor>> getDependencies() {
+			return Collections.singleton(OptionContributor.class);
+		}
+
+	}
+
+	static class OtherContributor implements BootstrapContributor {
+
+		@Override
+		public void contribute(BuildContext context, AotOptions aotOptions) {
+		}
+
+	}
+
+	static class CyclicContributor implements BootstrapContributor {
+
+		@Override
+		public void contribute(BuildContext context, AotOptions aotOptions) {
+		}
+
+		@Override
+		public Set<Class<? extends BootstrapContributor>> getDependencies() {
+			return Collections.singleton(AnotherCyclicContributor.class);
+		}
+
+	}
+
+	static class AnotherCyclicContributor implements BootstrapContributor {
+
+		@Override
+		public void contribute(BuildContext context, AotOptions aotOptions) {
+		}
+
+		@Override
+		public Set<Class<? extends BootstrapContributor>> getDependencies() {
+			return Collections.singleton(CyclicContributor.class);
+		}
+
+	}
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.instrument;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.aot.instrument.AotInstrumentation.Phase;
+import org.springframework.aot.instrument.AotInstrumentationReport.PhaseStatistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link AotInstrumentation}.
+ *
+ * @author agent
+ */
+class AotInstrumentationTests {
+
+	@AfterEach
+	void stopRecording() {
+		AotInstrumentation.stopRecording();
+	}
+
+	@Test
+	void phasesAreNotRecordedByDefault() {
+		AotInstrumentationReport report = AotInstrumentation.startRecording();
+		AotInstrumentation.stopRecording();
+		try (Phase phase = AotInstrumentation.start("test", "one")) {
+			sleep(1);
+		}
+		assertThat(report.getPhases()).isEmpty();
+	}
+
+	@Test
+	void phasesAreAggregatedByCategoryAndName() {
+		AotInstrumentationReport report = AotInstrumentation.startRecording();
+		for (int i = 0; i < 3; i++) {
+			try (Phase phase = AotInstrumentation.start("test", "one")) {
+				sleep(1);
+			}
+		}
+		try (Phase phase = AotInstrumentation.start("test", "two")) {
+			sleep(1);
+		}
+		List<PhaseStatistics> phases = report.getPhases();
+		assertThat(phases).extracting(PhaseStatistics::getName).containsExactlyInAnyOrder("one", "two");
+		PhaseStatistics one = find(phases, "one");
+		assertThat(one.getCategory()).isEqualTo("test");
+		assertThat(one.getCount()).isEqualTo(3);
+		assertThat(one.getTotalNanos()).isGreaterThanOrEqualTo(3_000_000);
+		assertThat(one.getSelfNanos()).isEqualTo(one.getTotalNanos());
+		assertThat(one.getMaxNanos()).isLessThanOrEqualTo(one.getTotalNanos());
+	}
+
+	@Test
+	void nestedPhasesAreExcludedFromSelfTime() {
+		AotInstrumentationReport report = AotInstrumentation.startRecording();
+		try (Phase outer = AotInstrumentation.start("test", "outer")) {
+			try (Phase inner = AotInstrumentation.start("test", "inner")) {
+				sleep(20);
+			}
+		}
+		PhaseStatistics outer = find(report.getPhases(), "outer");
+		PhaseStatistics inner = find(report.getPhases(), "inner");
+		assertThat(outer.getTotalNanos()).isGreaterThanOrEqualTo(inner.getTotalNanos());
+		assertThat(outer.getSelfNanos()).isEqualTo(outer.getTotalNanos() - inner.getTotalNanos());
+	}
+
+	@Test
+	void recursivePhasesAreCountedOnceInTotalTime() {
+		AotInstrumentationReport report = AotInstrumentation.startRecording();
+		recurse(3);
+		PhaseStatistics phase = find(report.getPhases(), "recurse");
+		assertThat(phase.getCount()).isEqualTo(4);
+		assertThat(phase.getTotalNanos()).isEqualTo(phase.getMaxNanos());
+		assertThat(phase.getSelfNanos()).isEqualTo(phase.getTotalNanos());
+	}
+
+	@Test
+	void writeReports(@TempDir Path directory) throws IOException {
+		AotInstrumentationReport report = AotInstrumentation.startRecording();
+		try (Phase phase = AotInstrumentation.start("contributor", "com.example.<Sample>Contributor")) {
+			sleep(1);
+		}
+		Path json = directory.resolve("report.json");
+		report.writeJson(json);
+		assertThat(Files.readString(json)).contains("\"category\": \"contributor\"", "\"count\": 1", "\"selfMillis\"");
+		Path html = directory.resolve("report.html");
+		report.writeHtml(html);
+		assertThat(Files.readString(html)).contains("<td>com.example.&lt;Sample&gt;Contributor</td>");
+		assertThat(Files.readAllLines(html)).first().isEqualTo("<!DOCTYPE html>");
+	}
+
+	private void recurse(int depth) {
+		try (Phase phase = AotInstrumentation.start("test", "recurse")) {
+			sleep(1);
+			if (depth > 0) {
+				recurse(depth - 1);
+			}
+		}
+	}
+
+	private PhaseStatistics find(List<PhaseStatistics> phases, String name) {
+		return phases.stream().filter((phase) -> phase.getName().equals(name)).findFirst().get();
+	}
+
+	private void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.logging;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.io.ClassPathResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link LogbackConfigurationGenerator}.
+ *
+ * @author agent
+ */
+class LogbackConfigurationGeneratorTests {
+
+	@Test
+	void generateOnlyAppliesToMatchingLocation() {
+		assertThat(generate("console.xml")).contains(
+				"if (!location.equals(\"logback.xml\") && !location.endsWith(\"/logback.xml\") && !location.endsWith(\":logback.xml\")) {");
+	}
+
+	@Test
+	void generateAppendersAndLoggers() {
+		String code = generate("console.xml");
+		assertThat(code).contains("context.putProperty(\"PATTERN\", \"%d %-5level %logger - %msg%n\");",
+				"ConsoleAppender consoleAppender", ".setContext(context);", ".setName(\"CONSOLE\");",
+				"PatternLayoutEncoder patternLayoutEncoder", ".setPattern(resolve(context, \"${PATTERN}\"));",
+				".setCharset(Charset.forName(\"UTF-8\".trim()));", ".setEncoder(patternLayoutEncoder",
+				"Logger logger", "context.getLogger(\"com.example\");", ".setLevel(toLevel(\"DEBUG\"));",
+				".setAdditive(OptionHelper.toBoolean(\"false\", true));",
+				"context.getLogger(Logger.ROOT_LOGGER_NAME);", ".setLevel(toLevel(\"INFO\"));",
+				".addAppender(consoleAppender");
+		assertThat(code).doesNotContain("Joran", "getMethod");
+	}
+
+	@Test
+	void generateStartsComponentsBeforeAttachingThem() {
+		String code = generate("console.xml");
+		assertThat(code.indexOf("patternLayoutEncoder2.start();")).isPositive()
+				.isLessThan(code.indexOf("consoleAppender1.setEncoder(patternLayoutEncoder2);"));
+		assertThat(code.indexOf("consoleAppender1.start();")).isGreaterThan(
+				code.indexOf("consoleAppender1.setEncoder(patternLayoutEncoder2);"));
+	}
+
+	@Test
+	void generateRegistersConversionRules() {
+		LogbackConfigurationGenerator generator = generator();
+		String code = generator.generate(resource("console.xml"), "logback.xml").toString();
+		assertThat(code).contains(".put(\"clr\", \"ch.qos.logback.classic.pattern.LevelConverter\");");
+		assertThat(generator.getReflectiveTypes()).containsOnly("ch.qos.logback.classic.pattern.LevelConverter");
+	}
+
+	@Test
+	void generateSpringExtensions() {
+		String code = generate("profiles.xml");
+		assertThat(code).contains(
+				"(environment != null) ? environment.getProperty(\"spring.application.name\", \"app\") : \"app\";",
+				"if (isProfileActive(environment, \"dev\", \"staging\")) {",
+				"context.getLogger(\"com.example\");", ".setLevel(toLevel(\"TRACE\"));");
+	}
+
+	@Test
+	void generateWithUnsupportedConstructsReportsThem() {
+		LogbackConfigurationGenerator generator = generator();
+		generator.generate(resource("unsupported.xml"), "logback.xml");
+		assertThat(generator.getProblems()).hasSize(4).anySatisfy((problem) -> assertThat(problem)
+				.startsWith("configuration: scan=\"true\" is not supported")).contains(
+				"configuration/appender[CONSOLE]/unknown: no property 'unknown' on ch.qos.logback.core.ConsoleAppender",
+				"configuration/if: element is not supported",
+				"configuration/root/appender-ref: appender 'MISSING' must be defined before it is referenced");
+	}
+
+	private String generate(String name) {
+		LogbackConfigurationGenerator generator = generator();
+		String code = generator.generate(resource(name), "logback.xml").toString();
+		assertThat(generator.getProblems()).isEmpty();
+		return code;
+	}
+
+	private LogbackConfigurationGenerator generator() {
+		return new LogbackConfigurationGenerator(getClass().getClassLoader());
+	}
+
+	private ClassPathResource resource(String name) {
+		return new ClassPathResource(name, getClass());
+	}
+
+}
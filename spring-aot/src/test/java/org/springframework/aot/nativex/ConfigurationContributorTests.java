@@ -0,0 +1,104 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.nativex.domain.reflect.ClassDescriptor;
+import org.springframework.nativex.domain.reflect.FieldDescriptor;
+import org.springframework.nativex.domain.reflect.MethodDescriptor;
+import org.springframework.nativex.domain.reflect.ReflectionDescriptor;
+import org.springframework.nativex.hint.Flag;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ConfigurationContributor}.
+ *
+ * @author agent
+ */
+class ConfigurationContributorTests {
+
+	@Test
+	void reflectionConfigOverridePrunesDescribedTypes() {
+		ReflectionDescriptor reflectionDescriptor = new ReflectionDescriptor();
+		ClassDescriptor pruned = ClassDescriptor.of("com.example.Pruned");
+		pruned.setFlag(Flag.allDeclaredMethods);
+		pruned.setFlag(Flag.allDeclaredConstructors);
+		reflectionDescriptor.add(pruned);
+		ClassDescriptor added = ClassDescriptor.of("com.example.Added");
+		added.setFlag(Flag.allDeclaredMethods);
+		reflectionDescriptor.add(added);
+		ReflectionDescriptor override = new ReflectionDescriptor();
+		ClassDescriptor prunedOverride = ClassDescriptor.of("com.example.Pruned");
+		prunedOverride.addMethodDescriptor(MethodDescriptor.of("<init>"));
+		prunedOverride.addMethodDescriptor(MethodDescriptor.of("setName", "java.lang.String"));
+		override.add(prunedOverride);
+		override.add(ClassDescriptor.of("com.example.Removed"));
+		ReflectionDescriptor overrideInput = new ReflectionDescriptor();
+		overrideInput.add(pruned.copy());
+		overrideInput.add(ClassDescriptor.of("com.example.Removed"));
+		ConfigurationContributor.applyReflectionConfigOverride(reflectionDescriptor, override, overrideInput);
+		assertThat(reflectionDescriptor.getClassDescriptors()).extracting(ClassDescriptor::getName)
+				.containsExactly("com.example.Pruned", "com.example.Added");
+		ClassDescriptor result = reflectionDescriptor.getClassDescriptor("com.example.Pruned");
+		assertThat(result.getFlags()).isNull();
+		assertThat(result.getMethods()).containsExactly(MethodDescriptor.of("<init>"),
+				MethodDescriptor.of("setName", "java.lang.String"));
+		assertThat(result).isNotSameAs(prunedOverride);
+		assertThat(reflectionDescriptor.getClassDescriptor("com.example.Added").getFlags())
+				.containsExactly(Flag.allDeclaredMethods);
+	}
+
+	@Test
+	void reflectionConfigOverrideKeepsMembersAddedSinceOverrideWasProduced() {
+		ClassDescriptor input = ClassDescriptor.of("com.example.Sample");
+		input.setFlag(Flag.allDeclaredConstructors);
+		input.addMethodDescriptor(MethodDescriptor.of("getName"));
+		input.addMethodDescriptor(MethodDescriptor.of("getLegacyName"));
+		input.addFieldDescriptor(FieldDescriptor.of("legacyName", false, false));
+		ClassDescriptor computed = input.copy();
+		computed.setFlag(Flag.allDeclaredMethods);
+		computed.addMethodDescriptor(MethodDescriptor.of("getDescription"));
+		computed.addFieldDescriptor(FieldDescriptor.of("description", false, false));
+		ReflectionDescriptor reflectionDescriptor = new ReflectionDescriptor();
+		reflectionDescriptor.add(computed);
+		ClassDescriptor overrideEntry = ClassDescriptor.of("com.example.Sample");
+		overrideEntry.addMethodDescriptor(MethodDescriptor.of("<init>"));
+		overrideEntry.addMethodDescriptor(MethodDescriptor.of("getName"));
+		ReflectionDescriptor override = new ReflectionDescriptor();
+		override.add(overrideEntry);
+		ReflectionDescriptor overrideInput = new ReflectionDescriptor();
+		overrideInput.add(input);
+		ConfigurationContributor.applyReflectionConfigOverride(reflectionDescriptor, override, overrideInput);
+		ClassDescriptor result = reflectionDescriptor.getClassDescriptor("com.example.Sample");
+		assertThat(result.getFlags()).containsExactly(Flag.allDeclaredMethods);
+		assertThat(result.getMethods()).containsExactly(MethodDescriptor.of("getName"),
+				MethodDescriptor.of("getDescription"), MethodDescriptor.of("<init>"));
+		assertThat(result.getFields()).extracting(FieldDescriptor::getName).containsExactly("description");
+	}
+
+	@Test
+	void reflectionConfigOverrideInputFileIsNextToOverride() {
+		assertThat(ConfigurationContributor.getReflectionConfigOverrideInputFile(
+				Paths.get("src", "main", "native", "reflect-config-override.json")))
+				.isEqualTo(Paths.get("src", "main", "native", "reflect-config-override-input.json"));
+	}
+
+}
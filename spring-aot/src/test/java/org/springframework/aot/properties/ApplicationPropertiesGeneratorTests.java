@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.properties;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.squareup.javapoet.JavaFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.util.DigestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ApplicationPropertiesGenerator}.
+ *
+ * @author agent
+ */
+class ApplicationPropertiesGeneratorTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void generateWithoutConfigurationFile() throws IOException {
+		assertThat(generate()).isNull();
+	}
+
+	@Test
+	void generateWithPropertiesFile() throws IOException {
+		String content = "server.port=8081\napp.name=test\n";
+		write("application.properties", content);
+		String code = generate().toString();
+		assertThat(code).contains("public class StaticApplicationProperties implements PrecompiledPropertySources",
+				"case \"application.properties\":",
+				"return \"" + DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8)) + "\";",
+				"return loadApplicationProperties(name, resource);",
+				"Map<String, Object> document0 = new LinkedHashMap<>(3);",
+				"document.put(\"server.port\", OriginTrackedValue.of(\"8081\", new TextResourceOrigin(resource, new TextResourceOrigin.Location(0, ",
+				"propertySources.add(new OriginTrackedMapPropertySource(name, Collections.unmodifiableMap(document0), true));");
+	}
+
+	@Test
+	void generateWithYamlFile() throws IOException {
+		write("config/application.yml", "server:\n  port: 8081\n---\nspring:\n  config:\n    activate:\n      on-profile: dev\nserver:\n  port: 8082\n");
+		String code = generate().toString();
+		assertThat(code).contains("case \"config/application.yml\":", "return loadConfigApplicationYml(name, resource);",
+				"OriginTrackedValue.of(8081,", "OriginTrackedValue.of(8082,",
+				"document.put(\"spring.config.activate.on-profile\", OriginTrackedValue.of(\"dev\",",
+				"propertySources.add(new OriginTrackedMapPropertySource(name + \" (document #0)\"",
+				"propertySources.add(new OriginTrackedMapPropertySource(name + \" (document #1)\"");
+	}
+
+	@Test
+	void generateIgnoresProfileSpecificFiles() throws IOException {
+		write("application.properties", "app.name=test\n");
+		write("application-dev.properties", "app.name=dev\n");
+		ApplicationPropertiesGenerator generator = generator();
+		String code = generator.generate().toString();
+		assertThat(generator.getLocations()).containsOnly("application.properties");
+		assertThat(code).doesNotContain("\"dev\"");
+	}
+
+	@Test
+	void generateSplitsLargeFiles() throws IOException {
+		StringBuilder content = new StringBuilder();
+		for (int i = 0; i < 250; i++) {
+			content.append("app.property").append(i).append("=").append(i).append("\n");
+		}
+		write("application.properties", content.toString());
+		String code = generate().toString();
+		assertThat(code).contains("loadApplicationProperties_0_0(document0, resource);",
+				"loadApplicationProperties_0_1(document0, resource);");
+	}
+
+	private void write(String location, String content) throws IOException {
+		Path file = this.directory.resolve(location);
+		Files.createDirectories(file.getParent());
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private JavaFile generate() throws IOException {
+		return generator().generate();
+	}
+
+	private ApplicationPropertiesGenerator generator() throws IOException {
+		URLClassLoader classLoader = new URLClassLoader(new URL[] { this.directory.toUri().toURL() }, null);
+		return new ApplicationPropertiesGenerator(classLoader);
+	}
+
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.annotation.samples.condition.ConditionalConfigurationOne;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ConditionEvaluationCache}.
+ *
+ * @author agent
+ */
+class ConditionEvaluationCacheTests {
+
+	@TempDir
+	Path directory;
+
+	@AfterEach
+	void resetCondition() {
+		FlagCondition.matches = false;
+	}
+
+	@Test
+	void conditionsWithSameInputsAreNotEvaluatedAgain() throws IOException {
+		Path file = this.directory.resolve("cache.json");
+		ConditionEvaluationCache first = ConditionEvaluationCache.load(file, Collections.emptyList(), false);
+		process(first, new MockEnvironment(), ConditionalConfigurationOne.class);
+		assertThat(first.getHitCount()).isZero();
+		assertThat(first.getMissCount()).isGreaterThan(0);
+		first.save(file);
+		ConditionEvaluationCache second = ConditionEvaluationCache.load(file, Collections.emptyList(), false);
+		ConfigurableListableBeanFactory beanFactory = process(second, new MockEnvironment(), ConditionalConfigurationOne.class);
+		assertThat(second.getHitCount()).isEqualTo(first.getMissCount());
+		assertThat(second.getMissCount()).isZero();
+		assertThat(beanFactory.getBeanDefinitionNames()).containsOnly(ConditionalConfigurationOne.class.getName());
+	}
+
+	@Test
+	void conditionsAreEvaluatedAgainWhenPropertyChanges() throws IOException {
+		Path file = this.directory.resolve("cache.json");
+		ConditionEvaluationCache first = ConditionEvaluationCache.load(file, Collections.emptyList(), false);
+		process(first, new MockEnvironment(), ConditionalConfigurationOne.class);
+		first.save(file);
+		ConditionEvaluationCache second = ConditionEvaluationCache.load(file, Collections.emptyList(), false);
+		ConfigurableListableBeanFactory beanFactory = process(second,
+				new MockEnvironment().withProperty("test.one.enabled", "true"), ConditionalConfigurationOne.class);
+		assertThat(second.getHitCount()).isZero();
+		assertThat(beanFactory.getBeanDefinitionNames()).contains("beanOne", "beanTwo");
+	}
+
+	@Test
+	void conditionsAreEvaluatedAgainWhenClasspathChanges() throws IOException {
+		Path file = this.directory.resolve("cache.json");
+		ConditionEvaluationCache first = ConditionEvaluationCache.load(file, Collections.emptyList(), false);
+		process(first, new MockEnvironment(), ConditionalConfigurationOne.class);
+		first.save(file);
+		ConditionEvaluationCache second = ConditionEvaluationCache.load(file,
+				Collections.singletonList(this.directory.toString()), false);
+		process(second, new MockEnvironment(), ConditionalConfigurationOne.class);
+		assertThat(second.getHitCount()).isZero();
+	}
+
+	@Test
+	void conditionsConsultingBeanFactoryAreEvaluatedAgainWhenBeanDefinitionsChange() throws IOException {
+		Path file = this.directory.resolve("cache.json");
+		ConditionEvaluationCache first = ConditionEvaluationCache.load(file, Collections.emptyList(), false);
+		process(first, new MockEnvironment(), BeanCountConfiguration.class);
+		first.save(file);
+		ConditionEvaluationCache second = ConditionEvaluationCache.load(file, Collections.emptyList(), false);
+		process(second, new MockEnvironment(), (context) -> context.registerBeanDefinition("extra",
+				new RootBeanDefinition(String.class)), BeanCountConfiguration.class);
+		assertThat(second.getHitCount()).isZero();
+	}
+
+	@Test
+	void conditionsConsultingBeanFactoryAreEvaluatedAgainWhenBeanTypeChanges() throws IOException {
+		Path file = this.directory.resolve("cache.json");
+		ConditionEvaluationCache first = ConditionEvaluationCache.load(file, Collections.emptyList(), false);
+		ConfigurableListableBeanFactory beanFactory = process(first, new MockEnvironment(),
+				(context) -> context.registerBeanDefinition("sample", createSampleBeanDefinition(String.class)),
+				MissingIntegerConfiguration.class);
+		assertThat(beanFactory.getBeanDefinitionNames()).contains("fallbackInteger");
+		first.save(file);
+		ConditionEvaluationCache second = ConditionEvaluationCache.load(file, Collections.emptyList(), false);
+		beanFactory = process(second, new MockEnvironment(),
+				(context) -> context.registerBeanDefinition("sample", createSampleBeanDefinition(Integer.class)),
+				MissingIntegerConfiguration.class);
+		assertThat(second.getHitCount()).isZero();
+		assertThat(beanFactory.getBeanDefinitionNames()).doesNotContain("fallbackInteger");
+	}
+
+	// Same definition, only the return type of the factory method differs
+	private RootBeanDefinition createSampleBeanDefinition(Class<?> returnType) {
+		RootBeanDefinition beanDefinition = new RootBeanDefinition();
+		beanDefinition.setBeanClassName(SampleFactory.class.getName());
+		beanDefinition.setFactoryMethodName("create");
+		beanDefinition.setTargetType(returnType);
+		return beanDefinition;
+	}
+
+	@Test
+	void verifyEvaluatesCachedConditionsAndReportsMismatches() throws IOException {
+		Path file = this.directory.resolve("cache.json");
+		ConditionEvaluationCache first = ConditionEvaluationCache.load(file, Collections.emptyList(), false);
+		process(first, new MockEnvironment(), FlagConfiguration.class);
+		first.save(file);
+		FlagCondition.matches = true;
+		ConditionEvaluationCache second = ConditionEvaluationCache.load(file, Collections.emptyList(), true);
+		ConfigurableListableBeanFactory beanFactory = process(second, new MockEnvironment(), FlagConfiguration.class);
+		assertThat(second.getMismatches()).singleElement().asString()
+				.startsWith(FlagConfiguration.class.getName()).contains("cached skip", "evaluated match");
+		assertThat(beanFactory.getBeanDefinitionNames()).contains("flagBean");
+	}
+
+	@Test
+	void verifyWithSameOutcomeReportsNoMismatch() throws IOException {
+		Path file = this.directory.resolve("cache.json");
+		ConditionEvaluationCache first = ConditionEvaluationCache.load(file, Collections.emptyList(), false);
+		process(first, new MockEnvironment(), FlagConfiguration.class);
+		first.save(file);
+		ConditionEvaluationCache second = ConditionEvaluationCache.load(file, Collections.emptyList(), true);
+		process(second, new MockEnvironment(), FlagConfiguration.class);
+		assertThat(second.getHitCount()).isEqualTo(first.getMissCount());
+		assertThat(second.getMismatches()).isEmpty();
+	}
+
+	@Test
+	void cacheIsDetachedAfterProcessing() {
+		ConditionEvaluationCache cache = ConditionEvaluationCache.create(Collections.emptyList(), false);
+		MockEnvironment environment = new MockEnvironment();
+		ConfigurableListableBeanFactory beanFactory = process(cache, environment, ConditionalConfigurationOne.class);
+		assertThat(beanFactory.containsSingleton(ConditionEvaluationCache.BEAN_NAME)).isFalse();
+		assertThat(environment.getPropertySources().contains(ConditionEvaluationCache.BEAN_NAME)).isFalse();
+	}
+
+	private ConfigurableListableBeanFactory process(ConditionEvaluationCache cache, MockEnvironment environment,
+			Class<?>... componentClasses) {
+		return process(cache, environment, (context) -> { }, componentClasses);
+	}
+
+	private ConfigurableListableBeanFactory process(ConditionEvaluationCache cache, MockEnvironment environment,
+			Consumer<GenericApplicationContext> customizer, Class<?>... componentClasses) {
+		GenericApplicationContext context = new GenericApplicationContext();
+		context.setEnvironment(environment);
+		customizer.accept(context);
+		for (Class<?> componentClass : componentClasses) {
+			context.registerBean(componentClass);
+		}
+		return new BuildTimeBeanDefinitionsRegistrar(cache).processBeanDefinitions(context);
+	}
+
+
+	@Configuration(proxyBeanMethods = false)
+	@Conditional(FlagCondition.class)
+	static class FlagConfiguration {
+
+		@Bean
+		String flagBean() {
+			return "test";
+		}
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@Conditional(BeanCountCondition.class)
+	static class BeanCountConfiguration {
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@Conditional(MissingIntegerCondition.class)
+	static class MissingIntegerConfiguration {
+
+		@Bean
+		Integer fallbackInteger() {
+			return 42;
+		}
+
+	}
+
+	static class SampleFactory {
+
+		static Object create() {
+			return "test";
+		}
+
+	}
+
+	static class FlagCondition implements Condition {
+
+		// Not tracked by the cache
+		static boolean matches;
+
+		@Override
+		public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+			return matches;
+		}
+
+	}
+
+	static class BeanCountCondition implements Condition {
+
+		@Override
+		public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+			return context.getBeanFactory().getBeanDefinitionCount() > 1;
+		}
+
+	}
+
+	static class MissingIntegerCondition implements Condition {
+
+		@Override
+		public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+			return context.getBeanFactory().getBeanNamesForType(Integer.class, true, false).length == 0;
+		}
+
+	}
+
+}
@@ -1,5 +1,6 @@
 package org.springframework.context.bootstrap.generator;
 
+import com.squareup.javapoet.MethodSpec;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.context.bootstrap.generator.infrastructure.BootstrapClass;
@@ -48,6 +49,37 @@ class BootstrapWriterContextTests {
 		assertThat(writerContext.getNativeConfigurationRegistry().reflection().getEntries()).isEmpty();
 	}
 
+	@Test
+	void forkIsIsolatedUntilMerged() {
+		BootstrapWriterContext writerContext = new BootstrapWriterContext(BootstrapClass.of("com.acme"));
+		BootstrapWriterContext fork = writerContext.fork();
+		assertThat(fork.getPackageName()).isEqualTo("com.acme");
+		assertThat(fork.getProtectedAccessAnalyzer()).isSameAs(writerContext.getProtectedAccessAnalyzer());
+		fork.getBootstrapClass("com.example");
+		fork.getNativeConfigurationRegistry().reflection().forType(String.class);
+		assertThat(writerContext.hasBootstrapClass("com.example")).isFalse();
+		assertThat(writerContext.getNativeConfigurationRegistry().reflection().getEntries()).isEmpty();
+	}
+
+	@Test
+	void mergeAddsMethodsAndNativeConfigurationOfFork() {
+		BootstrapClass defaultBootstrapClass = BootstrapClass.of("com.acme");
+		BootstrapWriterContext writerContext = new BootstrapWriterContext(defaultBootstrapClass);
+		writerContext.getMainBootstrapClass().addMethod(MethodSpec.methodBuilder("first").build());
+		BootstrapWriterContext fork = writerContext.fork();
+		fork.getMainBootstrapClass().addMethod(MethodSpec.methodBuilder("second").build());
+		fork.getBootstrapClass("com.example").addMethod(MethodSpec.methodBuilder("third").build());
+		fork.getNativeConfigurationRegistry().reflection().forType(String.class);
+		writerContext.merge(fork);
+		assertThat(writerContext.getMainBootstrapClass()).isSameAs(defaultBootstrapClass);
+		assertThat(defaultBootstrapClass.toJavaFile().typeSpec.methodSpecs).extracting("name")
+				.containsExactly("first", "second");
+		assertThat(writerContext.getBootstrapClass("com.example").toJavaFile().typeSpec.methodSpecs)
+				.extracting("name").containsExactly("third");
+		assertThat(writerContext.getNativeConfigurationRegistry().reflection().getEntries()).singleElement()
+				.satisfies((entry) -> assertThat(entry.getType()).isEqualTo(String.class));
+	}
+
 	@Test
 	void toJavaFilesWithDefaultClass() {
 		BootstrapClass defaultBootstrapClass = BootstrapClass.of("com.acme");
@@ -16,8 +16,13 @@
 
 package org.springframework.context.bootstrap.generator;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Collectors;
 
+import com.squareup.javapoet.JavaFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
@@ -41,6 +46,7 @@ import org.springframework.context.bootstrap.generator.sample.visibility.PublicO
 import org.springframework.context.bootstrap.generator.test.ContextBootstrapGeneratorTester;
 import org.springframework.context.bootstrap.generator.test.ContextBootstrapStructure;
 import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.nativex.domain.reflect.JsonMarshaller;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -85,9 +91,9 @@ class ContextBootstrapGeneratorTests {
 		assertThat(structure).contextBootstrapInitializer().removeIndent(2).lines().contains(
 				"BeanDefinitionRegistrar.of(\"simpleConfiguration\", SimpleConfiguration.class)",
 				"    .instanceSupplier(() -> new SimpleConfiguration()).register(context);",
-				"BeanDefinitionRegistrar.of(\"stringBean\", String.class).withFactoryMethod(SimpleConfiguration.class, \"stringBean\")",
+				"BeanDefinitionRegistrar.of(\"stringBean\", String.class)",
 				"    .instanceSupplier(() -> context.getBean(SimpleConfiguration.class).stringBean()).register(context);",
-				"BeanDefinitionRegistrar.of(\"integerBean\", Integer.class).withFactoryMethod(SimpleConfiguration.class, \"integerBean\")",
+				"BeanDefinitionRegistrar.of(\"integerBean\", Integer.class)",
 				"    .instanceSupplier(() -> context.getBean(SimpleConfiguration.class).integerBean()).register(context);");
 	}
 
@@ -97,7 +103,7 @@ class ContextBootstrapGeneratorTests {
 		// NOTE: application context runner does not register auto-config as FQNs
 		assertThat(structure).contextBootstrapInitializer().contains(
 				"BeanDefinitionRegistrar.of(\"projectInfoAutoConfiguration\", ProjectInfoAutoConfiguration.class).withConstructor(ProjectInfoProperties.class)",
-				".instanceSupplier((instanceContext) -> instanceContext.create(context, (attributes) -> new ProjectInfoAutoConfiguration(attributes.get(0)))).register(context);",
+				".instanceSupplier((instanceContext) -> new ProjectInfoAutoConfiguration(context.getBean(\"spring.info-org.springframework.boot.autoconfigure.info.ProjectInfoProperties\", ProjectInfoProperties.class))).register(context);",
 				"BeanDefinitionRegistrar.of(\"spring.info-org.springframework.boot.autoconfigure.info.ProjectInfoProperties\", ProjectInfoProperties.class)",
 				".instanceSupplier(() -> new ProjectInfoProperties()).register(context);");
 	}
@@ -125,7 +131,7 @@ class ContextBootstrapGeneratorTests {
 	void bootstrapClassWithPrimaryBean() {
 		ContextBootstrapStructure structure = this.generatorTester.generate(MetadataConfiguration.class);
 		assertThat(structure).contextBootstrapInitializer().contains(
-				"BeanDefinitionRegistrar.of(\"primaryBean\", String.class).withFactoryMethod(MetadataConfiguration.class, \"primaryBean\")",
+				"BeanDefinitionRegistrar.of(\"primaryBean\", String.class)",
 				"    .instanceSupplier(() -> context.getBean(MetadataConfiguration.class).primaryBean())"
 						+ ".customize((bd) -> bd.setPrimary(true)).register(context);");
 	}
@@ -134,7 +140,7 @@ class ContextBootstrapGeneratorTests {
 	void bootstrapClassWithRoleInfrastructureBean() {
 		ContextBootstrapStructure structure = this.generatorTester.generate(MetadataConfiguration.class);
 		assertThat(structure).contextBootstrapInitializer().contains(
-				"BeanDefinitionRegistrar.of(\"infrastructureBean\", String.class).withFactoryMethod(MetadataConfiguration.class, \"infrastructureBean\")",
+				"BeanDefinitionRegistrar.of(\"infrastructureBean\", String.class)",
 				"    .instanceSupplier(() -> context.getBean(MetadataConfiguration.class).infrastructureBean()).customize((bd) -> bd.setRole(2)).register(context);");
 	}
 
@@ -146,7 +152,7 @@ class ContextBootstrapGeneratorTests {
 				.removeIndent(1).lines().containsSequence(
 				"public static void registerProtectedConfiguration_anotherStringBean(",
 				"    GenericApplicationContext context) {",
-				"  BeanDefinitionRegistrar.of(\"anotherStringBean\", String.class).withFactoryMethod(ProtectedConfiguration.class, \"anotherStringBean\")",
+				"  BeanDefinitionRegistrar.of(\"anotherStringBean\", String.class)",
 				"      .instanceSupplier(() -> context.getBean(ProtectedConfiguration.class).anotherStringBean()).register(context);",
 				"}");
 		assertThat(structure).contextBootstrapInitializer().contains(
@@ -179,7 +185,7 @@ class ContextBootstrapGeneratorTests {
 				.removeIndent(1).lines().containsSequence(
 				"public static void registerProtectedInnerConfiguration_anotherInnerBean(",
 				"    GenericApplicationContext context) {",
-				"  BeanDefinitionRegistrar.of(\"anotherInnerBean\", String.class).withFactoryMethod(PublicOuterClassConfiguration.ProtectedInnerConfiguration.class, \"anotherInnerBean\")",
+				"  BeanDefinitionRegistrar.of(\"anotherInnerBean\", String.class)",
 				"      .instanceSupplier(() -> context.getBean(PublicOuterClassConfiguration.ProtectedInnerConfiguration.class).anotherInnerBean()).register(context);",
 				"}");
 		assertThat(structure).contextBootstrapInitializer().contains(
@@ -214,7 +220,7 @@ class ContextBootstrapGeneratorTests {
 				"public static void registerProtectedMethodParameterConfiguration_protectedParameter(",
 				"    GenericApplicationContext context) {",
 				"  BeanDefinitionRegistrar.of(\"protectedParameter\", ProtectedParameter.class).withFactoryMethod(ProtectedMethodParameterConfiguration.class, \"protectedParameter\", ProtectedType.class)",
-				"      .instanceSupplier((instanceContext) -> instanceContext.create(context, (attributes) -> context.getBean(ProtectedMethodParameterConfiguration.class).protectedParameter(attributes.get(0)))).register(context);",
+				"      .instanceSupplier((instanceContext) -> context.getBean(ProtectedMethodParameterConfiguration.class).protectedParameter(context.getBean(\"protectedType\", ProtectedType.class))).register(context);",
 				"}");
 		assertThat(structure).contextBootstrapInitializer().contains(
 				"BeanDefinitionRegistrar.of(\"protectedMethodParameterConfiguration\", ProtectedMethodParameterConfiguration.class)",
@@ -243,7 +249,7 @@ class ContextBootstrapGeneratorTests {
 	void bootstrapClassWithSimpleGeneric() {
 		ContextBootstrapStructure structure = this.generatorTester.generate(GenericConfiguration.class);
 		assertThat(structure).contextBootstrapInitializer().contains(
-				"BeanDefinitionRegistrar.of(\"stringRepository\", ResolvableType.forClassWithGenerics(Repository.class, String.class)).withFactoryMethod(GenericConfiguration.class, \"stringRepository\")",
+				"BeanDefinitionRegistrar.of(\"stringRepository\", ResolvableType.forClassWithGenerics(Repository.class, String.class))",
 				"    .instanceSupplier(() -> context.getBean(GenericConfiguration.class).stringRepository()).register(context);");
 	}
 
@@ -264,6 +270,83 @@ class ContextBootstrapGeneratorTests {
 				"BeanDefinitionRegistrar.of(\"argumentValueString\", String.class, () -> new String(new char[] { 'a', ' ', 't', 'e', 's', 't' }, 2, 4));");
 	}
 
+	@Test
+	void bootstrapClassWithMoreBeansThanAllowedPerMethodSplitsRegistrations() {
+		ContextBootstrapStructure structure = this.generatorTester
+				.withOptions(ContextBootstrapGeneratorOptions.builder().withBeansPerMethod(2).build())
+				.generate(SimpleConfiguration.class);
+		assertThat(structure).contextBootstrapInitializer().contains(
+				"initializeBeanDefinitions0(context);", "initializeBeanDefinitions1(context);",
+				"private void initializeBeanDefinitions0(GenericApplicationContext context) {",
+				"private void initializeBeanDefinitions1(GenericApplicationContext context) {");
+		assertThat(structure).contextBootstrapInitializer().removeIndent(2).lines().containsSubsequence(
+				"BeanDefinitionRegistrar.of(\"simpleConfiguration\", SimpleConfiguration.class)",
+				"BeanDefinitionRegistrar.of(\"stringBean\", String.class)",
+				"BeanDefinitionRegistrar.of(\"integerBean\", Integer.class)");
+	}
+
+	@Test
+	void bootstrapClassWithParallelismKeepsRegistrationOrder() {
+		ContextBootstrapStructure structure = this.generatorTester
+				.withOptions(ContextBootstrapGeneratorOptions.builder().withParallelism(4).build())
+				.generate(SimpleConfiguration.class, ProtectedConfigurationImport.class);
+		assertThat(structure).contextBootstrapInitializer().removeIndent(2).lines().containsSubsequence(
+				"BeanDefinitionRegistrar.of(\"simpleConfiguration\", SimpleConfiguration.class)",
+				"BeanDefinitionRegistrar.of(\"stringBean\", String.class)",
+				"BeanDefinitionRegistrar.of(\"integerBean\", Integer.class)",
+				"ContextBootstrapInitializer.registerProtectedConfiguration(context);",
+				"ContextBootstrapInitializer.registerProtectedConfiguration_anotherStringBean(context);");
+		assertThat(structure)
+				.contextBootstrapInitializer("org.springframework.context.bootstrap.generator.sample.visibility")
+				.removeIndent(1).lines().containsSubsequence(
+				"public static void registerProtectedConfiguration(GenericApplicationContext context) {",
+				"public static void registerProtectedConfiguration_anotherStringBean(");
+		assertThat(structure).hasClassDescriptor(SimpleConfiguration.class);
+	}
+
+	@Test
+	void bootstrapClassWithMoreBeansThanAllowedPerClassSplitsRegistrationsInNestedClasses() {
+		ContextBootstrapStructure structure = this.generatorTester
+				.withOptions(ContextBootstrapGeneratorOptions.builder().withBeansPerMethod(1).withBeansPerClass(2).build())
+				.generate(SimpleConfiguration.class);
+		assertThat(structure).contextBootstrapInitializer().contains(
+				"BeanDefinitions0.registerBeanDefinitions(context);", "BeanDefinitions1.registerBeanDefinitions(context);",
+				"private static final class BeanDefinitions0 {", "private static final class BeanDefinitions1 {",
+				"static void registerBeanDefinitions(GenericApplicationContext context) {",
+				"private static void initializeBeanDefinitions0(GenericApplicationContext context) {",
+				"private static void initializeBeanDefinitions1(GenericApplicationContext context) {");
+		assertThat(structure).contextBootstrapInitializer().removeIndent(3).lines().containsSubsequence(
+				"BeanDefinitionRegistrar.of(\"simpleConfiguration\", SimpleConfiguration.class)",
+				"BeanDefinitionRegistrar.of(\"stringBean\", String.class).withFactoryMethod(SimpleConfiguration.class, \"stringBean\")",
+				"BeanDefinitionRegistrar.of(\"integerBean\", Integer.class).withFactoryMethod(SimpleConfiguration.class, \"integerBean\")");
+	}
+
+	@Test
+	void bootstrapClassWithParallelismProducesSameOutputAsSequential() throws IOException {
+		Class<?>[] candidates = { SimpleConfiguration.class, ProtectedConfigurationImport.class,
+				ProjectInfoAutoConfiguration.class, MetadataConfiguration.class, GenericConfiguration.class,
+				ArgumentValueRegistrarConfiguration.class };
+		BootstrapGenerationResult sequential = this.generatorTester.generateResult(candidates);
+		BootstrapGenerationResult parallel = this.generatorTester
+				.withOptions(ContextBootstrapGeneratorOptions.builder().withParallelism(4).build())
+				.generateResult(candidates);
+		assertThat(toSources(parallel)).isEqualTo(toSources(sequential));
+		assertThat(toReflectConfig(parallel)).isEqualTo(toReflectConfig(sequential));
+		assertThat(parallel.getResourcesDescriptor()).hasToString(sequential.getResourcesDescriptor().toString());
+		assertThat(parallel.getProxiesDescriptor()).hasToString(sequential.getProxiesDescriptor().toString());
+		assertThat(parallel.getInitializationDescriptor())
+				.hasToString(sequential.getInitializationDescriptor().toString());
+		assertThat(parallel.getSerializationDescriptor())
+				.hasToString(sequential.getSerializationDescriptor().toString());
+		assertThat(parallel.getOptions()).containsExactlyElementsOf(sequential.getOptions());
+	}
+
+	@Test
+	void bootstrapClassWithLessBeansThanAllowedPerMethodDoesNotSplitRegistrations() {
+		ContextBootstrapStructure structure = this.generatorTester.generate(SimpleConfiguration.class);
+		assertThat(structure).contextBootstrapInitializer().doesNotContain("initializeBeanDefinitions");
+	}
+
 	@Test
 	void bootstrapClassWithExcludeDoesNotRegisterExcludedType() {
 		ContextBootstrapStructure structure = this.generatorTester.withExcludeTypes(RepositoryHolder.class)
@@ -273,4 +356,15 @@ class ContextBootstrapGeneratorTests {
 				.doesNotContain("RepositoryHolder");
 	}
 
+	private static Map<String, String> toSources(BootstrapGenerationResult result) {
+		return result.getSourceFiles().stream().collect(Collectors.toMap(
+				(javaFile) -> javaFile.packageName + "." + javaFile.typeSpec.name, JavaFile::toString));
+	}
+
+	private static String toReflectConfig(BootstrapGenerationResult result) throws IOException {
+		StringWriter out = new StringWriter();
+		JsonMarshaller.write(result.getClassDescriptors(), out);
+		return out.toString();
+	}
+
 }
@@ -26,6 +26,7 @@ import com.squareup.javapoet.CodeBlock.Builder;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.ConstructorArgumentValues;
 import org.springframework.beans.factory.config.RuntimeBeanReference;
@@ -39,6 +40,7 @@ import org.springframework.context.bootstrap.generator.infrastructure.BootstrapW
 import org.springframework.context.bootstrap.generator.sample.InnerComponentConfiguration.EnvironmentAwareComponent;
 import org.springframework.context.bootstrap.generator.sample.InnerComponentConfiguration.NoDependencyComponent;
 import org.springframework.context.bootstrap.generator.sample.SimpleConfiguration;
+import org.springframework.context.bootstrap.generator.sample.factory.OrderedFactory;
 import org.springframework.context.bootstrap.generator.sample.factory.SampleFactory;
 import org.springframework.context.bootstrap.generator.sample.injection.InjectionComponent;
 import org.springframework.context.bootstrap.generator.sample.injection.InjectionConfiguration;
@@ -109,6 +111,27 @@ class DefaultBeanRegistrationWriterTests {
 				"    .instanceSupplier(() -> test).register(context);");
 	}
 
+	@Test
+	void writeWithFactoryMethodCreatorWithoutArgumentDoesNotDeclareCreator() {
+		RootBeanDefinition beanDefinition = (RootBeanDefinition) BeanDefinitionBuilder.rootBeanDefinition(Integer.class).getBeanDefinition();
+		BeanInstanceDescriptor descriptor = BeanInstanceDescriptor.of(Integer.class)
+				.withInstanceCreator(ReflectionUtils.findMethod(SampleFactory.class, "integerBean")).build();
+		assertThat(beanRegistration(beanDefinition, descriptor, (code) -> code.add("() -> test"))).lines().containsOnly(
+				"BeanDefinitionRegistrar.of(\"test\", Integer.class)",
+				"    .instanceSupplier(() -> test).register(context);");
+	}
+
+	@Test
+	void writeWithFactoryMethodCreatorWithRuntimeMetadata() {
+		RootBeanDefinition beanDefinition = (RootBeanDefinition) BeanDefinitionBuilder.rootBeanDefinition(String.class).getBeanDefinition();
+		BeanInstanceDescriptor descriptor = BeanInstanceDescriptor.of(String.class)
+				.withInstanceCreator(ReflectionUtils.findMethod(OrderedFactory.class, "orderedBean")).build();
+		assertThat(beanRegistration(beanDefinition, descriptor, (code) -> code.add("() -> test")))
+				.hasImport(OrderedFactory.class).lines().containsOnly(
+				"BeanDefinitionRegistrar.of(\"test\", String.class).withFactoryMethod(OrderedFactory.class, \"orderedBean\")",
+				"    .instanceSupplier(() -> test).register(context);");
+	}
+
 	@Test
 	void writeWithProtectedConstructorWriteToBlessedPackage() {
 		BootstrapWriterContext context = createBootstrapContext();
@@ -257,7 +280,7 @@ class DefaultBeanRegistrationWriterTests {
 		CodeSnippet generatedCode = beanRegistration(beanDefinition, (code) -> code.add("() -> InjectionConfiguration::new"));
 		assertThat(generatedCode).lines().containsOnly(
 				"BeanDefinitionRegistrar.of(\"test\", InjectionConfiguration.class)",
-				"    .instanceSupplier(() -> InjectionConfiguration::new).customize((bd) -> bd.getPropertyValues().addPropertyValue(\"name\", BeanDefinitionRegistrar.inner(SimpleConfiguration.class).withFactoryMethod(SimpleConfiguration.class, \"stringBean\")",
+				"    .instanceSupplier(() -> InjectionConfiguration::new).customize((bd) -> bd.getPropertyValues().addPropertyValue(\"name\", BeanDefinitionRegistrar.inner(SimpleConfiguration.class)",
 				"    .instanceSupplier(() -> context.getBean(SimpleConfiguration.class).stringBean()).toBeanDefinition())).register(context);");
 		assertThat(generatedCode).hasImport(SimpleConfiguration.class);
 	}
@@ -319,7 +342,7 @@ class DefaultBeanRegistrationWriterTests {
 		CodeSnippet generatedCode = beanRegistration(beanDefinition, (code) -> code.add("() -> InjectionConfiguration::new"));
 		assertThat(generatedCode).lines().contains(
 				"BeanDefinitionRegistrar.of(\"test\", InjectionConfiguration.class)",
-				"    .instanceSupplier(() -> InjectionConfiguration::new).customize((bd) -> bd.getPropertyValues().addPropertyValue(\"name\", BeanDefinitionRegistrar.inner(SimpleConfiguration.class).withFactoryMethod(SimpleConfiguration.class, \"stringBean\")",
+				"    .instanceSupplier(() -> InjectionConfiguration::new).customize((bd) -> bd.getPropertyValues().addPropertyValue(\"name\", BeanDefinitionRegistrar.inner(SimpleConfiguration.class)",
 				"    .instanceSupplier(() -> context.getBean(SimpleConfiguration.class).stringBean()).customize((bd_) -> bd_.setRole(2)).toBeanDefinition())).register(context);");
 	}
 
@@ -332,6 +355,32 @@ class DefaultBeanRegistrationWriterTests {
 				"    .instanceSupplier(() -> new SimpleComponent()).toBeanDefinition()");
 	}
 
+	@Test
+	void writeWithResolvedFieldInjectionDoesNotRegisterReflection() {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerBeanDefinition("simpleComponent", new RootBeanDefinition(SimpleComponent.class));
+		RootBeanDefinition beanDefinition = new RootBeanDefinition(FieldInjectionComponent.class);
+		beanFactory.registerBeanDefinition("test", beanDefinition);
+		BootstrapWriterContext context = new BootstrapWriterContext(BootstrapClass.of(getClass().getPackageName()));
+		assertThat(CodeSnippet.of((code) -> createInstanceFor(beanFactory, beanDefinition).writeBeanRegistration(context, code)))
+				.contains("bean.component = context.getBean(\"simpleComponent\", SimpleComponent.class);");
+		assertThat(context.getNativeConfigurationRegistry().reflection().getEntries()).isEmpty();
+	}
+
+	@Test
+	void writeWithUnresolvedFieldInjectionRegistersReflection() {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		RootBeanDefinition beanDefinition = new RootBeanDefinition(FieldInjectionComponent.class);
+		beanFactory.registerBeanDefinition("test", beanDefinition);
+		BootstrapWriterContext context = new BootstrapWriterContext(BootstrapClass.of(getClass().getPackageName()));
+		assertThat(CodeSnippet.of((code) -> createInstanceFor(beanFactory, beanDefinition).writeBeanRegistration(context, code)))
+				.contains("instanceContext.field(\"component\", SimpleComponent.class)");
+		assertThat(context.getNativeConfigurationRegistry().reflection().getEntries()).singleElement().satisfies((entry) -> {
+			assertThat(entry.getType()).isEqualTo(FieldInjectionComponent.class);
+			assertThat(entry.getFields()).containsOnly(ReflectionUtils.findField(FieldInjectionComponent.class, "component"));
+		});
+	}
+
 
 	private static BootstrapWriterContext createBootstrapContext() {
 		return new BootstrapWriterContext(BootstrapClass.of("com.example"));
@@ -365,6 +414,13 @@ class DefaultBeanRegistrationWriterTests {
 		return (DefaultBeanRegistrationWriter) supplier.get(beanName, beanDefinition);
 	}
 
+	private DefaultBeanRegistrationWriter createInstanceFor(DefaultListableBeanFactory beanFactory,
+			BeanDefinition beanDefinition) {
+		DefaultBeanRegistrationWriterSupplier supplier = new DefaultBeanRegistrationWriterSupplier();
+		supplier.setBeanFactory(beanFactory);
+		return (DefaultBeanRegistrationWriter) supplier.get("test", beanDefinition);
+	}
+
 	private DefaultBeanRegistrationWriter createInstance(BeanDefinition beanDefinition) {
 		return createInstance("test", beanDefinition);
 	}
@@ -388,4 +444,12 @@ class DefaultBeanRegistrationWriterTests {
 		}
 	}
 
+
+	static class FieldInjectionComponent {
+
+		@Autowired
+		SimpleComponent component;
+
+	}
+
 }
@@ -5,6 +5,9 @@ import java.lang.reflect.Executable;
 import java.lang.reflect.Field;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
@@ -56,6 +59,13 @@ class InjectionPointWriterTests {
 		assertThat(writeInstantiation(constructor)).lines().containsExactly("instanceContext.create(context, (attributes) -> new InjectionPointWriterTests.AmbiguousConstructorBean(attributes.get(0, String.class), attributes.get(1, Number.class)))");
 	}
 
+	@Test
+	void writeInstantiationForConstructorWithResolvedDependencies() {
+		Constructor<?> constructor = SimpleConstructorBean.class.getDeclaredConstructors()[0];
+		assertThat(writeInstantiation(constructor, Arrays.asList("source", "counter"))).lines().containsExactly(
+				"new InjectionPointWriterTests.SimpleConstructorBean(context.getBean(\"source\", String.class), context.getBean(\"counter\", Integer.class))");
+	}
+
 	@Test
 	void writeInstantiationForConstructorInInnerClass() {
 		Constructor<?> constructor = InnerClass.class.getDeclaredConstructors()[0];
@@ -68,6 +78,13 @@ class InjectionPointWriterTests {
 		assertThat(writeInstantiation(method)).lines().containsExactly("context.getBean(SimpleConfiguration.class).stringBean()");
 	}
 
+	@Test
+	void writeInstantiationForStaticMethodWithResolvedDependencies() {
+		Method method = ReflectionUtils.findMethod(SampleFactory.class, "create", Number.class, String.class);
+		assertThat(writeInstantiation(method, Arrays.asList("number", "test"))).lines().containsExactly(
+				"SampleFactory.create(context.getBean(\"number\", Number.class), context.getBean(\"test\", String.class))");
+	}
+
 	@Test
 	void writeInstantiationForStaticMethodWithNoArgUseShortcut() {
 		Method method = ReflectionUtils.findMethod(SampleFactory.class, "integerBean");
@@ -152,15 +169,67 @@ class InjectionPointWriterTests {
 				"    })");
 	}
 
+	@Test
+	void writeInjectionForResolvedFieldAssignsBean() {
+		Field field = ReflectionUtils.findField(SampleBean.class, "counter", Integer.class);
+		assertThat(writeInjection(field, true, Collections.singletonList("counter"))).lines().containsExactly(
+				"bean.counter = context.getBean(\"counter\", Integer.class)");
+	}
+
+	@Test
+	void writeInjectionForResolvedPrivateFieldUsesReflection() {
+		Field field = ReflectionUtils.findField(SampleBean.class, "source", String.class);
+		assertThat(writeInjection(field, true, Collections.singletonList("source"))).lines().contains(
+				"      ReflectionUtils.setField(sourceField, bean, attributes.get(0));");
+	}
+
+	@Test
+	void writeInjectionForResolvedMethodInvokesMethod() {
+		Method method = ReflectionUtils.findMethod(SampleBean.class, "sourceAndCounter", String.class, Integer.class);
+		assertThat(writeInjection(method, false, Arrays.asList("source", "counter"))).lines().containsExactly(
+				"bean.sourceAndCounter(context.getBean(\"source\", String.class), context.getBean(\"counter\", Integer.class))");
+	}
+
+	@Test
+	void requiresReflectionWithResolvedFieldDoesNotRequireReflection() {
+		Field field = ReflectionUtils.findField(SampleBean.class, "counter", Integer.class);
+		assertThat(InjectionPointWriter.requiresReflection(field, Collections.singletonList("counter"))).isFalse();
+	}
+
+	@Test
+	void requiresReflectionWithUnresolvedField() {
+		Field field = ReflectionUtils.findField(SampleBean.class, "counter", Integer.class);
+		assertThat(InjectionPointWriter.requiresReflection(field, null)).isTrue();
+	}
+
+	@Test
+	void requiresReflectionWithPrivateField() {
+		Field field = ReflectionUtils.findField(SampleBean.class, "source", String.class);
+		assertThat(InjectionPointWriter.requiresReflection(field, Collections.singletonList("source"))).isTrue();
+	}
+
+	@Test
+	void requiresReflectionWithTypeVariableField() {
+		Field field = ReflectionUtils.findField(GenericFieldBean.class, "target");
+		assertThat(InjectionPointWriter.requiresReflection(field, Collections.singletonList("target"))).isTrue();
+	}
 
 	private CodeSnippet writeInstantiation(Executable creator) {
 		return CodeSnippet.of((code) -> code.add(new InjectionPointWriter().writeInstantiation(creator)));
 	}
 
+	private CodeSnippet writeInstantiation(Executable creator, List<String> dependencies) {
+		return CodeSnippet.of((code) -> code.add(new InjectionPointWriter().writeInstantiation(creator, dependencies)));
+	}
+
 	private CodeSnippet writeInjection(Member member, boolean required) {
 		return CodeSnippet.of((code) -> code.add(new InjectionPointWriter().writeInjection(member, required)));
 	}
 
+	private CodeSnippet writeInjection(Member member, boolean required, List<String> dependencies) {
+		return CodeSnippet.of((code) -> code.add(new InjectionPointWriter().writeInjection(member, required, dependencies)));
+	}
+
 	@SuppressWarnings("unused")
 	static class SampleBean {
 
@@ -232,4 +301,11 @@ class InjectionPointWriterTests {
 
 	}
 
+	@SuppressWarnings("unused")
+	static class GenericFieldBean<T> {
+
+		T target;
+
+	}
+
 }
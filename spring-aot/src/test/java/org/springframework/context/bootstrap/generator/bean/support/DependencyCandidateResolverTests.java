@@ -0,0 +1,349 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.bootstrap.generator.bean.support;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigUtils;
+import org.springframework.context.annotation.ConfigurationClassPostProcessor;
+import org.springframework.context.bootstrap.generator.DefaultBeanDefinitionSelector;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.util.ReflectionUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DependencyCandidateResolver}.
+ *
+ * @author agent
+ */
+class DependencyCandidateResolverTests {
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+	@Test
+	void resolveWithUniqueCandidate() {
+		this.beanFactory.registerBeanDefinition("service", new RootBeanDefinition(Service.class));
+		assertThat(resolve(Client.class)).containsExactly("service");
+	}
+
+	@Test
+	void resolveWithSeveralCandidatesFallsBackToRuntime() {
+		this.beanFactory.registerBeanDefinition("one", new RootBeanDefinition(Service.class));
+		RootBeanDefinition primary = new RootBeanDefinition(Service.class);
+		primary.setPrimary(true);
+		this.beanFactory.registerBeanDefinition("two", primary);
+		DependencyCandidateResolver resolver = new DependencyCandidateResolver(this.beanFactory);
+		assertThat(resolve(resolver, Client.class)).isNull();
+		assertThat(resolver.getFallbacks()).containsOnlyKeys("test");
+		assertThat(resolver.getFallbacks().get("test")).contains("2 candidates [one, two]");
+	}
+
+	@Test
+	void resolveWithQualifierMatchesQualifiedCandidate() {
+		this.beanFactory.registerBeanDefinition("one", new RootBeanDefinition(Service.class));
+		this.beanFactory.registerBeanDefinition("two", new RootBeanDefinition(Service.class));
+		assertThat(resolve(QualifiedClient.class)).containsExactly("two");
+	}
+
+	@Test
+	void resolveWithNonAutowireCandidateIgnoresIt() {
+		RootBeanDefinition excluded = new RootBeanDefinition(Service.class);
+		excluded.setAutowireCandidate(false);
+		this.beanFactory.registerBeanDefinition("one", excluded);
+		this.beanFactory.registerBeanDefinition("two", new RootBeanDefinition(Service.class));
+		assertThat(resolve(Client.class)).containsExactly("two");
+	}
+
+	@Test
+	void resolveWithNoCandidateFallsBackToRuntime() {
+		assertThat(resolve(Client.class)).isNull();
+	}
+
+	@Test
+	void resolveWithCollectionFallsBackToRuntime() {
+		this.beanFactory.registerBeanDefinition("service", new RootBeanDefinition(Service.class));
+		assertThat(resolve(CollectionClient.class)).isNull();
+	}
+
+	@Test
+	void resolveWithApplicationContextFallsBackToRuntime() {
+		assertThat(resolve(ContextClient.class)).isNull();
+	}
+
+	@Test
+	void resolveWithSingletonFallsBackToRuntime() {
+		this.beanFactory.registerSingleton("service", new Service());
+		assertThat(resolve(Client.class)).isNull();
+	}
+
+	@Test
+	void resolveWithArgumentValuesFallsBackToRuntime() {
+		this.beanFactory.registerBeanDefinition("service", new RootBeanDefinition(Service.class));
+		RootBeanDefinition beanDefinition = new RootBeanDefinition(Client.class);
+		beanDefinition.getConstructorArgumentValues().addIndexedArgumentValue(0, new Service());
+		DependencyCandidateResolver resolver = new DependencyCandidateResolver(this.beanFactory);
+		assertThat(resolver.resolve("test", beanDefinition, Client.class.getDeclaredConstructors()[0],
+				Client.class)).isNull();
+	}
+
+	@Test
+	void resolveWithFactoryBeanOfUnknownTypeFallsBackToRuntime() {
+		this.beanFactory.registerBeanDefinition("service", new RootBeanDefinition(Service.class));
+		this.beanFactory.registerBeanDefinition("factory", new RootBeanDefinition(UntypedFactoryBean.class));
+		DependencyCandidateResolver resolver = new DependencyCandidateResolver(this.beanFactory);
+		assertThat(resolve(resolver, Client.class)).isNull();
+		assertThat(resolver.getFallbacks().get("test")).contains("[factory]");
+	}
+
+	@Test
+	void resolveWithBeanDefinitionRegistryPostProcessorFallsBackToRuntime() {
+		this.beanFactory.registerBeanDefinition("service", new RootBeanDefinition(Service.class));
+		this.beanFactory.registerBeanDefinition("registryPostProcessor",
+				new RootBeanDefinition(TestBeanDefinitionRegistryPostProcessor.class));
+		DependencyCandidateResolver resolver = new DependencyCandidateResolver(this.beanFactory);
+		assertThat(resolve(resolver, Client.class)).isNull();
+		assertThat(resolver.getFallbacks().get("test")).contains("[registryPostProcessor]");
+	}
+
+	@Test
+	void resolveWithBeanFactoryPostProcessorFallsBackToRuntime() {
+		this.beanFactory.registerBeanDefinition("service", new RootBeanDefinition(Service.class));
+		this.beanFactory.registerBeanDefinition("postProcessor",
+				new RootBeanDefinition(TestBeanFactoryPostProcessor.class));
+		DependencyCandidateResolver resolver = new DependencyCandidateResolver(this.beanFactory);
+		assertThat(resolve(resolver, Client.class)).isNull();
+		assertThat(resolver.getFallbacks().get("test")).contains("[postProcessor]");
+	}
+
+	@Test
+	void resolveWithPostProcessorExcludedFromGeneratedContext() {
+		this.beanFactory.registerBeanDefinition("service", new RootBeanDefinition(Service.class));
+		this.beanFactory.registerBeanDefinition(AnnotationConfigUtils.CONFIGURATION_ANNOTATION_PROCESSOR_BEAN_NAME,
+				new RootBeanDefinition(ConfigurationClassPostProcessor.class));
+		assertThat(resolve(Client.class)).containsExactly("service");
+	}
+
+	@Test
+	void resolveWithCandidateExcludedFromGeneratedContextFallsBackToRuntime() {
+		this.beanFactory.registerBeanDefinition("service", new RootBeanDefinition(Service.class));
+		DependencyCandidateResolver resolver = new DependencyCandidateResolver(this.beanFactory,
+				new DefaultBeanDefinitionSelector(Collections.singletonList(Service.class.getName())));
+		assertThat(resolve(resolver, Client.class)).isNull();
+		assertThat(resolver.getFallbacks().get("test")).contains("candidate 'service' is registered at runtime");
+	}
+
+	@Test
+	void resolveWithPlaceholderConfigurer() {
+		this.beanFactory.registerBeanDefinition("service", new RootBeanDefinition(Service.class));
+		this.beanFactory.registerBeanDefinition("placeholderConfigurer",
+				new RootBeanDefinition(PropertySourcesPlaceholderConfigurer.class));
+		assertThat(resolve(Client.class)).containsExactly("service");
+	}
+
+	@Test
+	void resolveWithPlaceholderConfigurerAndPlaceholderInBeanTypeFallsBackToRuntime() {
+		this.beanFactory.registerBeanDefinition("service", new RootBeanDefinition(Service.class));
+		RootBeanDefinition placeholder = new RootBeanDefinition();
+		placeholder.setBeanClassName("${service.type}");
+		placeholder.setFactoryMethodName("create");
+		this.beanFactory.registerBeanDefinition("other", placeholder);
+		this.beanFactory.registerBeanDefinition("placeholderConfigurer",
+				new RootBeanDefinition(PropertySourcesPlaceholderConfigurer.class));
+		DependencyCandidateResolver resolver = new DependencyCandidateResolver(this.beanFactory);
+		assertThat(resolve(resolver, Client.class)).isNull();
+		assertThat(resolver.getFallbacks().get("test")).contains("[placeholderConfigurer]");
+	}
+
+	@Test
+	void resolveFieldWithBeanFactoryPostProcessorFallsBackToRuntime() {
+		this.beanFactory.registerBeanDefinition("service", new RootBeanDefinition(Service.class));
+		this.beanFactory.registerBeanDefinition("postProcessor",
+				new RootBeanDefinition(TestBeanFactoryPostProcessor.class));
+		Field field = ReflectionUtils.findField(FieldClient.class, "service");
+		DependencyCandidateResolver resolver = new DependencyCandidateResolver(this.beanFactory);
+		assertThat(resolve(resolver, field, true)).isNull();
+		assertThat(resolver.getFallbacks().get("test")).contains("[postProcessor]");
+	}
+
+	@Test
+	void resolveFieldWithUniqueCandidate() {
+		this.beanFactory.registerBeanDefinition("service", new RootBeanDefinition(Service.class));
+		Field field = ReflectionUtils.findField(FieldClient.class, "service");
+		assertThat(resolve(field)).containsExactly("service");
+	}
+
+	@Test
+	void resolveFieldWithQualifierMatchesQualifiedCandidate() {
+		this.beanFactory.registerBeanDefinition("one", new RootBeanDefinition(Service.class));
+		this.beanFactory.registerBeanDefinition("two", new RootBeanDefinition(Service.class));
+		Field field = ReflectionUtils.findField(FieldClient.class, "qualifiedService");
+		assertThat(resolve(field)).containsExactly("two");
+	}
+
+	@Test
+	void resolveFieldWithNoCandidateFallsBackToRuntime() {
+		Field field = ReflectionUtils.findField(FieldClient.class, "service");
+		DependencyCandidateResolver resolver = new DependencyCandidateResolver(this.beanFactory);
+		assertThat(resolve(resolver, field, false)).isNull();
+		assertThat(resolver.getFallbacks().get("test")).contains("no candidate");
+	}
+
+	@Test
+	void resolveInnerBeansWithNoCandidateReportsEachInnerBean() {
+		Constructor<?> constructor = Client.class.getDeclaredConstructors()[0];
+		DependencyCandidateResolver resolver = new DependencyCandidateResolver(this.beanFactory);
+		assertThat(resolver.resolve(null, new RootBeanDefinition(Client.class), constructor, Client.class)).isNull();
+		assertThat(resolver.resolve(null, new RootBeanDefinition(Client.class), constructor, Client.class)).isNull();
+		assertThat(resolver.getFallbacks()).hasSize(2);
+		assertThat(resolver.getFallbacks().keySet()).allMatch((name) ->
+				name.startsWith("(inner bean) " + Client.class.getName() + "#"));
+	}
+
+	@Test
+	void resolveMethodWithUniqueCandidates() {
+		this.beanFactory.registerBeanDefinition("service", new RootBeanDefinition(Service.class));
+		this.beanFactory.registerBeanDefinition("client", new RootBeanDefinition(Client.class));
+		Method method = ReflectionUtils.findMethod(FieldClient.class, "configure", Service.class, Client.class);
+		assertThat(resolve(method)).containsExactly("service", "client");
+	}
+
+	@Test
+	void resolveMethodWithNoArgument() {
+		Method method = ReflectionUtils.findMethod(FieldClient.class, "initialize");
+		assertThat(resolve(method)).isEmpty();
+	}
+
+	private List<String> resolve(Member injectionPoint) {
+		return resolve(new DependencyCandidateResolver(this.beanFactory), injectionPoint, true);
+	}
+
+	private List<String> resolve(DependencyCandidateResolver resolver, Member injectionPoint, boolean required) {
+		return resolver.resolve("test", new RootBeanDefinition(FieldClient.class), injectionPoint, required,
+				FieldClient.class);
+	}
+
+	private List<String> resolve(Class<?> type) {
+		return resolve(new DependencyCandidateResolver(this.beanFactory), type);
+	}
+
+	private List<String> resolve(DependencyCandidateResolver resolver, Class<?> type) {
+		Constructor<?> constructor = type.getDeclaredConstructors()[0];
+		return resolver.resolve("test", new RootBeanDefinition(type), constructor, type);
+	}
+
+
+	static class Service {
+
+	}
+
+	static class Client {
+
+		Client(Service service) {
+		}
+
+	}
+
+	@SuppressWarnings("unused")
+	static class FieldClient {
+
+		Service service;
+
+		@Qualifier("two")
+		Service qualifiedService;
+
+		void configure(Service service, Client client) {
+		}
+
+		void initialize() {
+		}
+
+	}
+
+	static class QualifiedClient {
+
+		QualifiedClient(@Qualifier("two") Service service) {
+		}
+
+	}
+
+	static class CollectionClient {
+
+		CollectionClient(List<Service> services) {
+		}
+
+	}
+
+	static class ContextClient {
+
+		ContextClient(ApplicationContext context) {
+		}
+
+	}
+
+	static class TestBeanDefinitionRegistryPostProcessor implements BeanDefinitionRegistryPostProcessor {
+
+		@Override
+		public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+		}
+
+		@Override
+		public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+		}
+
+	}
+
+	static class TestBeanFactoryPostProcessor implements BeanFactoryPostProcessor {
+
+		@Override
+		public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+		}
+
+	}
+
+	@SuppressWarnings("rawtypes")
+	static class UntypedFactoryBean implements FactoryBean {
+
+		@Override
+		public Object getObject() {
+			return new Service();
+		}
+
+		@Override
+		public Class<?> getObjectType() {
+			return null;
+		}
+
+	}
+
+}
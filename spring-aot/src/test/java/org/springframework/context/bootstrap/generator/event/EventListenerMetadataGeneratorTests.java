@@ -7,7 +7,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.boot.context.event.ApplicationStartedEvent;
 import org.springframework.context.bootstrap.generator.infrastructure.nativex.NativeConfigurationRegistry;
 import org.springframework.context.bootstrap.generator.sample.event.AnotherEventListener;
+import org.springframework.context.bootstrap.generator.sample.event.ConditionalEventListener;
+import org.springframework.context.bootstrap.generator.sample.event.OrderedEventListener;
 import org.springframework.context.bootstrap.generator.sample.event.SingleEventListener;
+import org.springframework.context.bootstrap.generator.sample.scope.SimpleServiceImpl;
 import org.springframework.context.bootstrap.generator.test.CodeSnippet;
 import org.springframework.util.ReflectionUtils;
 
@@ -24,28 +27,69 @@ class EventListenerMetadataGeneratorTests {
 	void writeEventListenerMetadataWithDefaultFactoryAndNoParameter() {
 		Method method = ReflectionUtils.findMethod(AnotherEventListener.class, "onRefresh");
 		assertThat(generateCode(new EventListenerMetadataGenerator("test", AnotherEventListener.class, method, null))).isEqualTo(
-				"EventListenerMetadata.forBean(\"test\", AnotherEventListener.class).annotatedMethod(\"onRefresh\")");
+				"EventListenerMetadata.forBean(\"test\", AnotherEventListener.class).directMethod(\"" + AnotherEventListener.class.getName()
+						+ ".onRefresh()\", ContextRefreshedEvent.class, (bean, event) -> ((AnotherEventListener) bean).onRefresh())");
 	}
 
 	@Test
 	void writeEventListenerMetadataWithDefaultFactoryAndParameter() {
 		Method method = ReflectionUtils.findMethod(SingleEventListener.class, "onStartup", ApplicationStartedEvent.class);
 		assertThat(generateCode(new EventListenerMetadataGenerator("test", SingleEventListener.class, method, null))).isEqualTo(
-				"EventListenerMetadata.forBean(\"test\", SingleEventListener.class).annotatedMethod(\"onStartup\", ApplicationStartedEvent.class)");
+				"EventListenerMetadata.forBean(\"test\", SingleEventListener.class).directMethod(\"" + SingleEventListener.class.getName()
+						+ ".onStartup(" + ApplicationStartedEvent.class.getName() + ")\", ApplicationStartedEvent.class, "
+						+ "(bean, event) -> ((SingleEventListener) bean).onStartup(event))");
+	}
+
+	@Test
+	void writeEventListenerMetadataWithIdAndOrder() {
+		Method method = ReflectionUtils.findMethod(OrderedEventListener.class, "onPayload", String.class);
+		assertThat(generateCode(new EventListenerMetadataGenerator("test", OrderedEventListener.class, method, null))).isEqualTo(
+				"EventListenerMetadata.forBean(\"test\", OrderedEventListener.class).order(42).directMethod(\"custom\", String.class, "
+						+ "(bean, event) -> ((OrderedEventListener) bean).onPayload(event))");
+	}
+
+	@Test
+	void writeEventListenerMetadataWithCondition() {
+		Method method = ReflectionUtils.findMethod(ConditionalEventListener.class, "onStartup", ApplicationStartedEvent.class);
+		assertThat(generateCode(new EventListenerMetadataGenerator("test", ConditionalEventListener.class, method, null))).isEqualTo(
+				"EventListenerMetadata.forBean(\"test\", ConditionalEventListener.class).annotatedMethod(\"onStartup\", ApplicationStartedEvent.class)");
+	}
+
+	@Test
+	void writeEventListenerMetadataWithCustomFactory() {
+		Method method = ReflectionUtils.findMethod(SingleEventListener.class, "onStartup", ApplicationStartedEvent.class);
+		assertThat(generateCode(new EventListenerMetadataGenerator("test", SingleEventListener.class, method, "customFactory"))).isEqualTo(
+				"EventListenerMetadata.forBean(\"test\", SingleEventListener.class).eventListenerFactoryBeanName(\"customFactory\")"
+						+ ".annotatedMethod(\"onStartup\", ApplicationStartedEvent.class)");
+	}
+
+	@Test
+	void writeEventListenerMetadataWithBeanExposingInterface() {
+		Method method = ReflectionUtils.findMethod(SimpleServiceImpl.class, "onContextRefresh");
+		assertThat(generateCode(new EventListenerMetadataGenerator("test", SimpleServiceImpl.class, method, null))).isEqualTo(
+				"EventListenerMetadata.forBean(\"test\", SimpleServiceImpl.class).annotatedMethod(\"onContextRefresh\")");
 	}
 
 	@Test
 	void registerEventListenerMetadataUsesMethod() {
 		NativeConfigurationRegistry registry = new NativeConfigurationRegistry();
-		Method method = ReflectionUtils.findMethod(AnotherEventListener.class, "onRefresh");
-		new EventListenerMetadataGenerator("test", AnotherEventListener.class, method, null).registerReflectionMetadata(registry);
+		Method method = ReflectionUtils.findMethod(ConditionalEventListener.class, "onStartup", ApplicationStartedEvent.class);
+		new EventListenerMetadataGenerator("test", ConditionalEventListener.class, method, null).registerReflectionMetadata(registry);
 		assertThat(registry.reflection().getEntries()).singleElement().satisfies((entry) -> {
-			assertThat(entry.getType()).isEqualTo(AnotherEventListener.class);
+			assertThat(entry.getType()).isEqualTo(ConditionalEventListener.class);
 			assertThat(entry.getMethods()).containsOnly(method);
 			assertThat(entry.getFields()).isEmpty();
 		});
 	}
 
+	@Test
+	void registerEventListenerMetadataWithDirectMethodDoesNotRequireReflection() {
+		NativeConfigurationRegistry registry = new NativeConfigurationRegistry();
+		Method method = ReflectionUtils.findMethod(AnotherEventListener.class, "onRefresh");
+		new EventListenerMetadataGenerator("test", AnotherEventListener.class, method, null).registerReflectionMetadata(registry);
+		assertThat(registry.reflection().getEntries()).isEmpty();
+	}
+
 	private CodeSnippet generateCode(EventListenerMetadataGenerator generator) {
 		return CodeSnippet.of(generator::writeEventListenerMetadata);
 	}
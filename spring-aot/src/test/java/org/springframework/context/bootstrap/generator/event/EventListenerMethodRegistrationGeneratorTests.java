@@ -22,6 +22,7 @@ import org.springframework.context.bootstrap.generator.infrastructure.BootstrapW
 import org.springframework.context.bootstrap.generator.infrastructure.nativex.NativeReflectionEntry;
 import org.springframework.context.bootstrap.generator.sample.SimpleConfiguration;
 import org.springframework.context.bootstrap.generator.sample.event.AnotherEventListener;
+import org.springframework.context.bootstrap.generator.sample.event.ConditionalEventListener;
 import org.springframework.context.bootstrap.generator.sample.event.SingleEventListener;
 import org.springframework.context.bootstrap.generator.sample.event.SingleTransactionalEventListener;
 import org.springframework.context.bootstrap.generator.sample.scope.SimpleServiceImpl;
@@ -41,6 +42,11 @@ import static org.assertj.core.api.Assertions.assertThat;
  */
 class EventListenerMethodRegistrationGeneratorTests {
 
+	private static final String SINGLE_ID = SingleEventListener.class.getName() + ".onStartup("
+			+ ApplicationStartedEvent.class.getName() + ")";
+
+	private static final String ANOTHER_ID = AnotherEventListener.class.getName() + ".onRefresh()";
+
 	@Test
 	void writeEventListenersRegistrationWithNoEventListener() {
 		DefaultListableBeanFactory beanFactory = prepareBeanFactory();
@@ -60,7 +66,7 @@ class EventListenerMethodRegistrationGeneratorTests {
 			assertGeneratedCode(writerContext.getMainBootstrapClass()).removeIndent(1).lines().containsSequence(
 					"public static List<EventListenerMetadata> getEventListenersMetadata() {",
 					"  return List.of(",
-					"    EventListenerMetadata.forBean(\"single\", SingleEventListener.class).annotatedMethod(\"onStartup\", ApplicationStartedEvent.class)",
+					"    EventListenerMetadata.forBean(\"single\", SingleEventListener.class).directMethod(\"" + SINGLE_ID + "\", ApplicationStartedEvent.class, (bean, event) -> ((SingleEventListener) bean).onStartup(event))",
 					"  );",
 					"}");
 		});
@@ -77,8 +83,8 @@ class EventListenerMethodRegistrationGeneratorTests {
 				.removeIndent(1).lines().containsSequence(
 						"public static List<EventListenerMetadata> getEventListenersMetadata() {",
 						"  return List.of(",
-						"    EventListenerMetadata.forBean(\"test\", SingleEventListener.class).annotatedMethod(\"onStartup\", ApplicationStartedEvent.class),",
-						"    EventListenerMetadata.forBean(\"another\", AnotherEventListener.class).annotatedMethod(\"onRefresh\")",
+						"    EventListenerMetadata.forBean(\"test\", SingleEventListener.class).directMethod(\"" + SINGLE_ID + "\", ApplicationStartedEvent.class, (bean, event) -> ((SingleEventListener) bean).onStartup(event)),",
+						"    EventListenerMetadata.forBean(\"another\", AnotherEventListener.class).directMethod(\"" + ANOTHER_ID + "\", ContextRefreshedEvent.class, (bean, event) -> ((AnotherEventListener) bean).onRefresh())",
 						"  );",
 						"}"));
 	}
@@ -97,7 +103,8 @@ class EventListenerMethodRegistrationGeneratorTests {
 			assertGeneratedCode(bootstrapClass).removeIndent(1).lines().containsSequence(
 					"public static List<EventListenerMetadata> getEventListenersMetadata() {",
 					"  return List.of(",
-					"    EventListenerMetadata.forBean(\"protectedEventListener\", ProtectedEventListener.class).annotatedMethod(\"onStartup\", ApplicationStartedEvent.class)",
+					"    EventListenerMetadata.forBean(\"protectedEventListener\", ProtectedEventListener.class).directMethod(\"" + ProtectedEventListenerConfiguration.class.getPackageName()
+							+ ".ProtectedEventListener.onStartup(" + ApplicationStartedEvent.class.getName() + ")\", ApplicationStartedEvent.class, (bean, event) -> ((ProtectedEventListener) bean).onStartup(event))",
 					"  );",
 					"}"
 			);
@@ -117,7 +124,7 @@ class EventListenerMethodRegistrationGeneratorTests {
 			assertGeneratedCode(writerContext.getMainBootstrapClass()).removeIndent(1).lines().containsSequence(
 					"public static List<EventListenerMetadata> getEventListenersMetadata() {",
 					"  return List.of(",
-					"    EventListenerMetadata.forBean(\"simple\", SingleEventListener.class).annotatedMethod(\"onStartup\", ApplicationStartedEvent.class),",
+					"    EventListenerMetadata.forBean(\"simple\", SingleEventListener.class).directMethod(\"" + SINGLE_ID + "\", ApplicationStartedEvent.class, (bean, event) -> ((SingleEventListener) bean).onStartup(event)),",
 					"    EventListenerMetadata.forBean(\"transactional\", SingleTransactionalEventListener.class).eventListenerFactoryBeanName(\"internalTxEventListenerFactory\").annotatedMethod(\"onEvent\", ApplicationEvent.class)",
 					"  );",
 					"}");
@@ -145,21 +152,14 @@ class EventListenerMethodRegistrationGeneratorTests {
 		DefaultListableBeanFactory beanFactory = prepareBeanFactory();
 		beanFactory.registerBeanDefinition("test", BeanDefinitionBuilder.rootBeanDefinition(SingleEventListener.class)
 				.getBeanDefinition());
-		beanFactory.registerBeanDefinition("another", BeanDefinitionBuilder.rootBeanDefinition(AnotherEventListener.class)
+		beanFactory.registerBeanDefinition("conditional", BeanDefinitionBuilder.rootBeanDefinition(ConditionalEventListener.class)
 				.getBeanDefinition());
 		assertGeneratedCode(beanFactory, (code, writerContext) -> {
 			List<NativeReflectionEntry> entries = writerContext.getNativeConfigurationRegistry().reflection().getEntries();
-			assertThat(entries).hasSize(2);
-			assertThat(entries).anySatisfy((entry) -> {
-				assertThat(entry.getType()).isEqualTo(SingleEventListener.class);
-				assertThat(entry.getMethods()).containsOnly(
-						ReflectionUtils.findMethod(SingleEventListener.class, "onStartup", ApplicationStartedEvent.class));
-				assertThat(entry.getFields()).isEmpty();
-			});
-			assertThat(entries).anySatisfy((entry) -> {
-				assertThat(entry.getType()).isEqualTo(AnotherEventListener.class);
+			assertThat(entries).singleElement().satisfies((entry) -> {
+				assertThat(entry.getType()).isEqualTo(ConditionalEventListener.class);
 				assertThat(entry.getMethods()).containsOnly(
-						ReflectionUtils.findMethod(AnotherEventListener.class, "onRefresh"));
+						ReflectionUtils.findMethod(ConditionalEventListener.class, "onStartup", ApplicationStartedEvent.class));
 				assertThat(entry.getFields()).isEmpty();
 			});
 		});
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.bootstrap.generator.infrastructure;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.aot.beans.factory.BeanDependencyGraph;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.bootstrap.generator.bean.descriptor.BeanInstanceDescriptor;
+import org.springframework.context.bootstrap.generator.test.CodeSnippet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link BeanDependencyGraphWriter}.
+ *
+ * @author agent
+ */
+class BeanDependencyGraphWriterTests {
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+	private final Map<String, BeanInstanceDescriptor> registeredBeans = new LinkedHashMap<>();
+
+	@Test
+	void createBeanDependencyGraphWithConstructorDependencies() {
+		registerBean("service", Service.class);
+		registerBean("client", Client.class);
+		BeanDependencyGraph graph = createBeanDependencyGraph();
+		assertThat(graph.getBeanNames()).containsExactly("service", "client");
+		assertThat(graph.getDependencies("service")).isEmpty();
+		assertThat(graph.getDependencies("client")).containsExactly("service");
+	}
+
+	@Test
+	void createBeanDependencyGraphWithDependsOn() {
+		registerBean("service", Service.class);
+		RootBeanDefinition beanDefinition = new RootBeanDefinition(AnotherService.class);
+		beanDefinition.setDependsOn("service");
+		this.beanFactory.registerBeanDefinition("another", beanDefinition);
+		this.registeredBeans.put("another", descriptor(AnotherService.class));
+		assertThat(createBeanDependencyGraph().getDependencies("another")).containsExactly("service");
+	}
+
+	@Test
+	void createBeanDependencyGraphWithInitializingBeanExcludesItAndItsDependents() {
+		registerBean("service", InitializingService.class);
+		registerBean("client", Client.class);
+		registerBean("another", AnotherService.class);
+		assertThat(createBeanDependencyGraph().getBeanNames()).containsExactly("another");
+	}
+
+	@Test
+	void createBeanDependencyGraphWithInitMethodExcludesIt() {
+		RootBeanDefinition beanDefinition = new RootBeanDefinition(Service.class);
+		beanDefinition.setInitMethodName("toString");
+		this.beanFactory.registerBeanDefinition("service", beanDefinition);
+		this.registeredBeans.put("service", descriptor(Service.class));
+		assertThat(createBeanDependencyGraph().getBeanNames()).isEmpty();
+	}
+
+	@Test
+	void createBeanDependencyGraphWithAmbiguousDependencyExcludesIt() {
+		registerBean("service", Service.class);
+		registerBean("specificService", SpecificService.class);
+		registerBean("client", Client.class);
+		assertThat(createBeanDependencyGraph().getBeanNames()).containsExactly("service", "specificService");
+	}
+
+	@Test
+	void createBeanDependencyGraphWithPrototypeExcludesIt() {
+		RootBeanDefinition beanDefinition = new RootBeanDefinition(Service.class);
+		beanDefinition.setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
+		this.beanFactory.registerBeanDefinition("service", beanDefinition);
+		this.registeredBeans.put("service", descriptor(Service.class));
+		assertThat(createBeanDependencyGraph().getBeanNames()).isEmpty();
+	}
+
+	@Test
+	void createBeanDependencyGraphWithInjectionPointExcludesIt() throws NoSuchFieldException {
+		registerBean("service", Service.class);
+		this.beanFactory.registerBeanDefinition("client", new RootBeanDefinition(FieldClient.class));
+		this.registeredBeans.put("client", BeanInstanceDescriptor.of(FieldClient.class)
+				.withInstanceCreator(FieldClient.class.getDeclaredConstructors()[0])
+				.withInjectionPoint(FieldClient.class.getDeclaredField("service"), true).build());
+		assertThat(createBeanDependencyGraph().getBeanNames()).containsExactly("service");
+	}
+
+	@Test
+	void writeBeanDependencyGraphInstallsGraph() {
+		registerBean("service", Service.class);
+		registerBean("client", Client.class);
+		BootstrapWriterContext writerContext = new BootstrapWriterContext(BootstrapClass.of("com.example"));
+		BeanDependencyGraphWriter writer = new BeanDependencyGraphWriter(this.beanFactory);
+		assertThat(CodeSnippet.of((code) -> writer.writeBeanDependencyGraph(writerContext, this.registeredBeans, code)))
+				.contains("BeanDependencyGraph.install(context, this::createBeanDependencyGraph);");
+		assertThat(generateCode(writerContext.getMainBootstrapClass()).lines()).contains(
+				"  private BeanDependencyGraph createBeanDependencyGraph() {",
+				"    BeanDependencyGraph.Builder graph = BeanDependencyGraph.builder();",
+				"    graph.bean(\"service\");",
+				"    graph.bean(\"client\", \"service\");",
+				"    return graph.build();");
+	}
+
+	@Test
+	void writeBeanDependencyGraphWithNoCandidateDoesNotWriteGraph() {
+		registerBean("service", InitializingService.class);
+		BootstrapWriterContext writerContext = new BootstrapWriterContext(BootstrapClass.of("com.example"));
+		BeanDependencyGraphWriter writer = new BeanDependencyGraphWriter(this.beanFactory);
+		assertThat(CodeSnippet.of((code) -> writer.writeBeanDependencyGraph(writerContext, this.registeredBeans, code)))
+				.doesNotContain("BeanDependencyGraph");
+	}
+
+	private BeanDependencyGraph createBeanDependencyGraph() {
+		return new BeanDependencyGraphWriter(this.beanFactory).createBeanDependencyGraph(this.registeredBeans);
+	}
+
+	private void registerBean(String beanName, Class<?> beanType) {
+		this.beanFactory.registerBeanDefinition(beanName, new RootBeanDefinition(beanType));
+		this.registeredBeans.put(beanName, descriptor(beanType));
+	}
+
+	private static BeanInstanceDescriptor descriptor(Class<?> beanType) {
+		return BeanInstanceDescriptor.of(beanType).withInstanceCreator(beanType.getDeclaredConstructors()[0]).build();
+	}
+
+	private String generateCode(BootstrapClass bootstrapClass) {
+		try {
+			StringWriter out = new StringWriter();
+			bootstrapClass.toJavaFile().writeTo(out);
+			return out.toString();
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+
+	static class Service {
+
+	}
+
+	static class SpecificService extends Service {
+
+	}
+
+	static class AnotherService {
+
+	}
+
+	static class InitializingService extends Service implements InitializingBean {
+
+		@Override
+		public void afterPropertiesSet() {
+		}
+
+	}
+
+	static class Client {
+
+		Client(Service service) {
+		}
+
+	}
+
+	static class FieldClient {
+
+		@SuppressWarnings("unused")
+		private Service service;
+
+	}
+
+}
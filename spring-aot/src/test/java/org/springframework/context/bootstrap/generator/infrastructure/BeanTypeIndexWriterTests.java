@@ -0,0 +1,181 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.bootstrap.generator.infrastructure;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.aot.beans.factory.BeanTypeIndex;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.bootstrap.generator.test.CodeSnippet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link BeanTypeIndexWriter}.
+ *
+ * @author agent
+ */
+class BeanTypeIndexWriterTests {
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+	@Test
+	void createBeanTypeIndexIndexesTypeHierarchy() {
+		registerBean("one", Service.class);
+		registerBean("two", SpecificService.class);
+		BeanTypeIndex index = createBeanTypeIndex("one", "two");
+		assertThat(index.getBeanType("one")).isEqualTo(Service.class.getName());
+		assertThat(index.getBeanType("two")).isEqualTo(SpecificService.class.getName());
+		assertThat(index.getBeanNames(Service.class.getName())).containsExactly("one", "two");
+		assertThat(index.getBeanNames(SpecificService.class.getName())).containsExactly("two");
+		assertThat(index.getBeanNames(Runnable.class.getName())).containsExactly("two");
+		assertThat(index.getBeanNames(Object.class.getName())).containsExactly("one", "two");
+	}
+
+	@Test
+	void createBeanTypeIndexOnlyIndexesSpecifiedBeans() {
+		registerBean("one", Service.class);
+		registerBean("two", SpecificService.class);
+		BeanTypeIndex index = createBeanTypeIndex("two");
+		assertThat(index.getBeanType("one")).isNull();
+		assertThat(index.getBeanNames(Service.class.getName())).containsExactly("two");
+	}
+
+	@Test
+	void createBeanTypeIndexWithPrototypeDoesNotIndexItsTypes() {
+		registerBean("one", Service.class);
+		RootBeanDefinition prototype = new RootBeanDefinition(SpecificService.class);
+		prototype.setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
+		this.beanFactory.registerBeanDefinition("two", prototype);
+		BeanTypeIndex index = createBeanTypeIndex("one", "two");
+		assertThat(index.getBeanType("two")).isNull();
+		assertThat(index.getBeanNames(Service.class.getName())).isNull();
+		assertThat(index.getBeanNames(Runnable.class.getName())).isNull();
+		assertThat(index.getTypes()).isEmpty();
+	}
+
+	@Test
+	void createBeanTypeIndexWithFactoryBeanDoesNotIndexItsTypes() {
+		registerBean("one", Service.class);
+		registerBean("two", String.class);
+		registerBean("factory", ServiceFactoryBean.class);
+		BeanTypeIndex index = createBeanTypeIndex("one", "two", "factory");
+		assertThat(index.getBeanType("factory")).isNull();
+		assertThat(index.getBeanNames(Service.class.getName())).isNull();
+		assertThat(index.getBeanNames(FactoryBean.class.getName())).isNull();
+		assertThat(index.getBeanNames(String.class.getName())).containsExactly("two");
+	}
+
+	@Test
+	void createBeanTypeIndexWithFactoryBeanOfUnknownTypeSkipsIndex() {
+		registerBean("one", Service.class);
+		registerBean("factory", UntypedFactoryBean.class);
+		assertThat(createBeanTypeIndex("one", "factory")).isNull();
+	}
+
+	@Test
+	void writeBeanTypeIndexInstallsIndex() {
+		registerBean("one", Service.class);
+		BootstrapWriterContext writerContext = new BootstrapWriterContext(BootstrapClass.of("com.example"));
+		BeanTypeIndexWriter writer = new BeanTypeIndexWriter(this.beanFactory);
+		assertThat(CodeSnippet.of((code) -> writer.writeBeanTypeIndex(writerContext, Arrays.asList("one"), code)))
+				.contains("BeanTypeIndex.install(context, this::createBeanTypeIndex);");
+		assertThat(generateCode(writerContext.getMainBootstrapClass()).lines()).contains(
+				"  private BeanTypeIndex createBeanTypeIndex() {",
+				"    BeanTypeIndex.Builder index = BeanTypeIndex.builder();",
+				"    index.bean(\"one\", \"" + Service.class.getName() + "\");",
+				"    index.type(\"" + Service.class.getName() + "\", \"one\");",
+				"    return index.build();");
+	}
+
+	@Test
+	void writeBeanTypeIndexWithFactoryBeanOfUnknownTypeDoesNotWriteIndex() {
+		registerBean("factory", UntypedFactoryBean.class);
+		BootstrapWriterContext writerContext = new BootstrapWriterContext(BootstrapClass.of("com.example"));
+		BeanTypeIndexWriter writer = new BeanTypeIndexWriter(this.beanFactory);
+		assertThat(CodeSnippet.of((code) -> writer.writeBeanTypeIndex(writerContext, Arrays.asList("factory"), code)))
+				.doesNotContain("BeanTypeIndex");
+	}
+
+	private BeanTypeIndex createBeanTypeIndex(String... beanNames) {
+		return new BeanTypeIndexWriter(this.beanFactory).createBeanTypeIndex(Arrays.asList(beanNames));
+	}
+
+	private void registerBean(String beanName, Class<?> beanType) {
+		this.beanFactory.registerBeanDefinition(beanName, new RootBeanDefinition(beanType));
+	}
+
+	private String generateCode(BootstrapClass bootstrapClass) {
+		try {
+			StringWriter out = new StringWriter();
+			bootstrapClass.toJavaFile().writeTo(out);
+			return out.toString();
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+
+	static class Service {
+
+	}
+
+	static class SpecificService extends Service implements Runnable {
+
+		@Override
+		public void run() {
+		}
+
+	}
+
+	static class ServiceFactoryBean implements FactoryBean<Service> {
+
+		@Override
+		public Service getObject() {
+			return new Service();
+		}
+
+		@Override
+		public Class<?> getObjectType() {
+			return Service.class;
+		}
+
+	}
+
+	@SuppressWarnings("rawtypes")
+	static class UntypedFactoryBean implements FactoryBean {
+
+		@Override
+		public Object getObject() {
+			return new Service();
+		}
+
+		@Override
+		public Class<?> getObjectType() {
+			return null;
+		}
+
+	}
+
+}
@@ -18,6 +18,7 @@ package org.springframework.context.bootstrap.generator.infrastructure.nativex;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -166,6 +167,50 @@ class NativeConfigurationRegistryTests {
 		assertThat(registry.options()).containsExactly("-H:+PrintAnalysisCallTree", "-H:Log=registerResource:3");
 	}
 
+	@Test
+	void mergeAddsEntriesOfOtherRegistry() {
+		Method method = ReflectionUtils.findMethod(TestClass.class, "setName", String.class);
+		Field field = ReflectionUtils.findField(TestClass.class, "field");
+		registry.reflection().addExecutable(method);
+		registry.options().add("-H:+PrintAnalysisCallTree");
+		NativeConfigurationRegistry other = new NativeConfigurationRegistry();
+		other.reflection().addField(field);
+		other.reflection().forType(String.class);
+		other.serialization().add(NativeSerializationEntry.ofType(Long.class));
+		other.options().add("-H:Log=registerResource:3");
+		registry.merge(other);
+		List<NativeReflectionEntry> entries = registry.reflection().getEntries();
+		assertThat(entries).hasSize(2);
+		assertThat(entries.get(0).getType()).isEqualTo(TestClass.class);
+		assertThat(entries.get(0).getMethods()).containsOnly(method);
+		assertThat(entries.get(0).getFields()).containsOnly(field);
+		assertThat(entries.get(1).getType()).isEqualTo(String.class);
+		assertThat(registry.serialization().toSerializationDescriptor().getSerializableTypes())
+				.containsOnly(Long.class.getName());
+		assertThat(registry.options()).containsExactly("-H:+PrintAnalysisCallTree", "-H:Log=registerResource:3");
+	}
+
+	@Test
+	void concurrentContributionsAreAllRegistered() throws InterruptedException {
+		Method method = ReflectionUtils.findMethod(TestClass.class, "setName", String.class);
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			threads.add(new Thread(() -> {
+				for (int j = 0; j < 500; j++) {
+					registry.reflection().addExecutable(method);
+					registry.resources().add(NativeResourcesEntry.of("resource-" + j));
+				}
+			}));
+		}
+		threads.forEach(Thread::start);
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertThat(registry.reflection().getEntries()).singleElement().satisfies((entry) ->
+				assertThat(entry.getMethods()).containsOnly(method));
+		assertThat(registry.resources().toResourcesDescriptor().getPatterns()).hasSize(500);
+	}
+
 
 	@SuppressWarnings("unused")
 	private static class TestClass {
@@ -27,10 +27,13 @@ import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.support.BeanDefinitionBuilder;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.bootstrap.generator.bean.descriptor.BeanInstanceDescriptor;
 import org.springframework.context.bootstrap.generator.infrastructure.nativex.NativeConfigurationRegistry;
 import org.springframework.context.bootstrap.generator.sample.injection.InjectionComponent;
 import org.springframework.context.bootstrap.generator.sample.injection.InjectionConfiguration;
+import org.springframework.core.annotation.Order;
 import org.springframework.core.env.Environment;
 import org.springframework.util.ReflectionUtils;
 
@@ -58,71 +61,46 @@ class DefaultBeanNativeConfigurationProcessorTests {
 	}
 
 	@Test
-	void registerReflectionEntriesForMethodInjectionPoint() {
-		Constructor<?> instanceCreator = InjectionComponent.class.getDeclaredConstructors()[0];
-		Method injectionPoint = ReflectionUtils.findMethod(InjectionComponent.class, "setCounter", Integer.class);
-		NativeConfigurationRegistry registry = register(BeanInstanceDescriptor.of(InjectionComponent.class)
-				.withInstanceCreator(instanceCreator).withInjectionPoint(injectionPoint, false).build());
-		assertThat(registry.reflection().getEntries()).singleElement().satisfies((entry) -> {
-			assertThat(entry.getType()).isEqualTo(InjectionComponent.class);
-			assertThat(entry.getConstructors()).contains(instanceCreator);
-			assertThat(entry.getMethods()).containsOnly(injectionPoint);
-			assertThat(entry.getFields()).isEmpty();
-		});
+	void registerReflectionEntriesForInstanceCreatorWithoutArgumentIsNotNecessary() {
+		Constructor<?> instanceCreator = InjectionConfiguration.class.getDeclaredConstructors()[0];
+		NativeConfigurationRegistry registry = register(BeanInstanceDescriptor.of(InjectionConfiguration.class)
+				.withInstanceCreator(instanceCreator).build());
+		assertThat(registry.reflection().getEntries()).isEmpty();
 	}
 
 	@Test
-	void registerReflectionEntriesForMethodInjectionPointUseDeclaringClass() {
-		Constructor<?> instanceCreator = IntegerFactoryBean.class.getDeclaredConstructors()[0];
-		Method injectionPoint = ReflectionUtils.findMethod(IntegerFactoryBean.class, "setNamingStrategy", String.class);
-		NativeConfigurationRegistry registry = register(BeanInstanceDescriptor.of(IntegerFactoryBean.class)
-				.withInstanceCreator(instanceCreator).withInjectionPoint(injectionPoint, false).build());
-		assertThat(registry.reflection().getEntries()).anySatisfy((entry) -> {
-			assertThat(entry.getType()).isEqualTo(BaseFactoryBean.class);
-			assertThat(entry.getConstructors()).isEmpty();
-			assertThat(entry.getMethods()).containsOnly(injectionPoint);
-			assertThat(entry.getFields()).isEmpty();
-		}).anySatisfy((entry) -> {
-			assertThat(entry.getType()).isEqualTo(IntegerFactoryBean.class);
-			assertThat(entry.getConstructors()).containsOnly(instanceCreator);
-			assertThat(entry.getMethods()).isEmpty();
-			assertThat(entry.getFields()).isEmpty();
+	void registerReflectionEntriesForFactoryMethodWithoutArgumentIsNotNecessary() {
+		Method instanceCreator = ReflectionUtils.findMethod(SampleFactoryConfiguration.class, "simpleBean");
+		NativeConfigurationRegistry registry = register(BeanInstanceDescriptor.of(String.class)
+				.withInstanceCreator(instanceCreator).build());
+		assertThat(registry.reflection().getEntries()).isEmpty();
+	}
+
+	@Test
+	void registerReflectionEntriesForFactoryMethodWithRuntimeMetadata() {
+		Method instanceCreator = ReflectionUtils.findMethod(SampleFactoryConfiguration.class, "orderedBean");
+		NativeConfigurationRegistry registry = register(BeanInstanceDescriptor.of(String.class)
+				.withInstanceCreator(instanceCreator).build());
+		assertThat(registry.reflection().getEntries()).singleElement().satisfies((entry) -> {
+			assertThat(entry.getType()).isEqualTo(SampleFactoryConfiguration.class);
+			assertThat(entry.getMethods()).containsOnly(instanceCreator);
 		});
-		assertThat(registry.reflection().getEntries()).hasSize(2);
 	}
 
 	@Test
-	void registerReflectionEntriesForFieldInjectionPoint() {
+	void registerReflectionEntriesForInjectionPointsIsLeftToTheWriter() {
 		Constructor<?> instanceCreator = InjectionComponent.class.getDeclaredConstructors()[0];
-		Field injectionPoint = ReflectionUtils.findField(InjectionComponent.class, "counter");
+		Method methodInjectionPoint = ReflectionUtils.findMethod(InjectionComponent.class, "setCounter", Integer.class);
+		Field fieldInjectionPoint = ReflectionUtils.findField(InjectionComponent.class, "counter");
 		NativeConfigurationRegistry registry = register(BeanInstanceDescriptor.of(InjectionComponent.class)
-				.withInstanceCreator(instanceCreator).withInjectionPoint(injectionPoint, false).build());
+				.withInstanceCreator(instanceCreator).withInjectionPoint(methodInjectionPoint, false)
+				.withInjectionPoint(fieldInjectionPoint, false).build());
 		assertThat(registry.reflection().getEntries()).singleElement().satisfies((entry) -> {
 			assertThat(entry.getType()).isEqualTo(InjectionComponent.class);
 			assertThat(entry.getConstructors()).containsOnly(instanceCreator);
 			assertThat(entry.getMethods()).isEmpty();
-			assertThat(entry.getFields()).containsOnly(injectionPoint);
-		});
-	}
-
-	@Test
-	void registerReflectionEntriesForFieldInjectionPointUseDeclaringClass() {
-		Constructor<?> instanceCreator = IntegerFactoryBean.class.getDeclaredConstructors()[0];
-		Field injectionPoint = ReflectionUtils.findField(IntegerFactoryBean.class, "strategy");
-		NativeConfigurationRegistry registry = register(BeanInstanceDescriptor.of(IntegerFactoryBean.class)
-				.withInstanceCreator(instanceCreator).withInjectionPoint(injectionPoint, false).build());
-		assertThat(registry.reflection().getEntries()).anySatisfy((entry) -> {
-			assertThat(entry.getType()).isEqualTo(BaseFactoryBean.class);
-			assertThat(entry.getConstructors()).isEmpty();
-			assertThat(entry.getMethods()).isEmpty();
-			assertThat(entry.getFields()).containsOnly(injectionPoint);
-		}).anySatisfy((entry) -> {
-			assertThat(entry.getType()).isEqualTo(IntegerFactoryBean.class);
-			assertThat(entry.getMethods()).isEmpty();
-			assertThat(entry.getConstructors()).containsOnly(instanceCreator);
 			assertThat(entry.getFields()).isEmpty();
 		});
-		assertThat(registry.reflection().getEntries()).hasSize(2);
 	}
 
 	@Test
@@ -156,7 +134,7 @@ class DefaultBeanNativeConfigurationProcessorTests {
 				.withProperty(counterWriteMethod, new PropertyValue("counter", 42)).build());
 		assertThat(registry.reflection().getEntries()).singleElement().satisfies((entry) -> {
 			assertThat(entry.getType()).isEqualTo(InjectionConfiguration.class);
-			assertThat(entry.getConstructors()).contains(instanceCreator);
+			assertThat(entry.getConstructors()).isEmpty();
 			assertThat(entry.getMethods()).containsOnly(nameWriteMethod, counterWriteMethod);
 			assertThat(entry.getFields()).isEmpty();
 		});
@@ -171,17 +149,16 @@ class DefaultBeanNativeConfigurationProcessorTests {
 						BeanDefinitionBuilder.rootBeanDefinition(IntegerFactoryBean.class).getBeanDefinition())).build());
 		assertThat(registry.reflection().getEntries()).anySatisfy((entry) -> {
 			assertThat(entry.getType()).isEqualTo(InjectionConfiguration.class);
-			assertThat(entry.getConstructors()).contains(instanceCreator);
+			assertThat(entry.getConstructors()).isEmpty();
 			assertThat(entry.getMethods()).containsOnly(counterWriteMethod);
 			assertThat(entry.getFields()).isEmpty();
 		});
 		assertThat(registry.reflection().getEntries()).anySatisfy((entry) -> {
-			assertThat(entry.getType()).isEqualTo(BaseFactoryBean.class);
-			assertThat(entry.getMethods()).containsOnly(ReflectionUtils.findMethod(
-					BaseFactoryBean.class, "setNamingStrategy", String.class));
-			assertThat(entry.getFields()).isEmpty();
+			assertThat(entry.getType()).isEqualTo(IntegerFactoryBean.class);
+			assertThat(entry.getConstructors()).containsOnly(IntegerFactoryBean.class.getDeclaredConstructors()[0]);
+			assertThat(entry.getMethods()).isEmpty();
 		});
-		assertThat(registry.reflection().getEntries()).hasSize(3);
+		assertThat(registry.reflection().getEntries()).hasSize(2);
 	}
 
 	private NativeConfigurationRegistry register(BeanInstanceDescriptor descriptor) {
@@ -192,6 +169,22 @@ class DefaultBeanNativeConfigurationProcessorTests {
 		return registry;
 	}
 
+	static class SampleFactoryConfiguration {
+
+		@Bean
+		@Primary
+		String simpleBean() {
+			return "test";
+		}
+
+		@Bean
+		@Order(42)
+		String orderedBean() {
+			return "test";
+		}
+
+	}
+
 	static abstract class BaseFactoryBean {
 
 		private String strategy;
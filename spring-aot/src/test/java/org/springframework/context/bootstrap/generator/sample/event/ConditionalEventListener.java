@@ -0,0 +1,13 @@
+package org.springframework.context.bootstrap.generator.sample.event;
+
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+
+public class ConditionalEventListener {
+
+	@EventListener(condition = "#event.timeTaken != null")
+	public void onStartup(ApplicationStartedEvent event) {
+
+	}
+
+}
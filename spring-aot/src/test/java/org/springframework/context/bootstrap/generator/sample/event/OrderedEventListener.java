@@ -0,0 +1,14 @@
+package org.springframework.context.bootstrap.generator.sample.event;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+
+public class OrderedEventListener {
+
+	@EventListener(id = "custom")
+	@Order(42)
+	public void onPayload(String payload) {
+
+	}
+
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.bootstrap.generator.sample.jpa;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+@Converter
+public class YesNoConverter implements AttributeConverter<Boolean, String> {
+
+	@Override
+	public String convertToDatabaseColumn(Boolean attribute) {
+		return (attribute != null && attribute) ? "Y" : "N";
+	}
+
+	@Override
+	public Boolean convertToEntityAttribute(String dbData) {
+		return "Y".equals(dbData);
+	}
+
+}
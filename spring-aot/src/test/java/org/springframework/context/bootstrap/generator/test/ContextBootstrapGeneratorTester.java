@@ -30,6 +30,7 @@ import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.context.annotation.BuildTimeBeanDefinitionsRegistrar;
 import org.springframework.context.bootstrap.generator.BootstrapGenerationResult;
 import org.springframework.context.bootstrap.generator.ContextBootstrapGenerator;
+import org.springframework.context.bootstrap.generator.ContextBootstrapGeneratorOptions;
 import org.springframework.context.support.GenericApplicationContext;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ObjectUtils;
@@ -47,10 +48,18 @@ public class ContextBootstrapGeneratorTester {
 
 	private final List<Class<?>> excludeTypes;
 
-	public ContextBootstrapGeneratorTester(Path directory, String packageName, List<Class<?>> excludeTypes) {
+	private final ContextBootstrapGeneratorOptions options;
+
+	public ContextBootstrapGeneratorTester(Path directory, String packageName, List<Class<?>> excludeTypes,
+			ContextBootstrapGeneratorOptions options) {
 		this.directory = directory;
 		this.packageName = packageName;
 		this.excludeTypes = (!ObjectUtils.isEmpty(excludeTypes)) ? new ArrayList<>(excludeTypes) : new ArrayList<>();
+		this.options = options;
+	}
+
+	public ContextBootstrapGeneratorTester(Path directory, String packageName, List<Class<?>> excludeTypes) {
+		this(directory, packageName, excludeTypes, ContextBootstrapGeneratorOptions.DEFAULTS);
 	}
 
 	public ContextBootstrapGeneratorTester(Path directory) {
@@ -58,30 +67,38 @@ public class ContextBootstrapGeneratorTester {
 	}
 
 	public ContextBootstrapGeneratorTester withDirectory(Path directory) {
-		return new ContextBootstrapGeneratorTester(directory, this.packageName, this.excludeTypes);
+		return new ContextBootstrapGeneratorTester(directory, this.packageName, this.excludeTypes, this.options);
 	}
 
 	public ContextBootstrapGeneratorTester withPackage(String packageName) {
-		return new ContextBootstrapGeneratorTester(this.directory, packageName, this.excludeTypes);
+		return new ContextBootstrapGeneratorTester(this.directory, packageName, this.excludeTypes, this.options);
 	}
 
 	public ContextBootstrapGeneratorTester withExcludeTypes(Class<?>... excludeTypes) {
-		return new ContextBootstrapGeneratorTester(this.directory, this.packageName, Arrays.asList(excludeTypes));
+		return new ContextBootstrapGeneratorTester(this.directory, this.packageName, Arrays.asList(excludeTypes), this.options);
+	}
+
+	public ContextBootstrapGeneratorTester withOptions(ContextBootstrapGeneratorOptions options) {
+		return new ContextBootstrapGeneratorTester(this.directory, this.packageName, this.excludeTypes, options);
 	}
 
 	public ContextBootstrapStructure generate(Class<?>... candidates) {
+		Path srcDirectory = generateSrcDirectory();
+		BootstrapGenerationResult result = generateResult(candidates);
+		writeSources(srcDirectory, result.getSourceFiles());
+		return new ContextBootstrapStructure(srcDirectory, this.packageName, result.getClassDescriptors());
+	}
+
+	public BootstrapGenerationResult generateResult(Class<?>... candidates) {
 		GenericApplicationContext context = new GenericApplicationContext();
 		for (Class<?> candidate : candidates) {
 			context.registerBean(generateShortName(candidate), candidate);
 		}
 		BuildTimeBeanDefinitionsRegistrar registrar = new BuildTimeBeanDefinitionsRegistrar();
 		ConfigurableListableBeanFactory beanFactory = registrar.processBeanDefinitions(context);
-		Path srcDirectory = generateSrcDirectory();
-		BootstrapGenerationResult result = new ContextBootstrapGenerator(context.getClassLoader()).generateBootstrapClass(
+		return new ContextBootstrapGenerator(context.getClassLoader(), this.options).generateBootstrapClass(
 				beanFactory, this.packageName,
 				this.excludeTypes.toArray(new Class<?>[0]));
-		writeSources(srcDirectory, result.getSourceFiles());
-		return new ContextBootstrapStructure(srcDirectory, this.packageName, result.getClassDescriptors());
 	}
 
 	private String generateShortName(Class<?> target) {
@@ -0,0 +1,178 @@
+package org.springframework.data;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+import com.squareup.javapoet.CodeBlock;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.bootstrap.generator.infrastructure.BootstrapClass;
+import org.springframework.context.bootstrap.generator.infrastructure.BootstrapWriterContext;
+import org.springframework.context.bootstrap.generator.test.CodeSnippet;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactoryBean;
+import org.springframework.data.repository.CrudRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link EntityMetadataWriter}.
+ *
+ * @author agent
+ */
+class EntityMetadataWriterTests {
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+	private final BootstrapWriterContext writerContext = new BootstrapWriterContext(BootstrapClass.of("com.example"));
+
+	@Test
+	void writeEntityMetadataRegistersBeanPostProcessor() {
+		registerRepository(PersonRepository.class, Person.class);
+		assertThat(CodeSnippet.of((code) -> writeEntityMetadata(code))).contains(
+				"context.getBeanFactory().addBeanPostProcessor(new GeneratedEntityMetadataBeanPostProcessor(context, List.of(",
+				"ContextBootstrapInitializer.createEntityMetadataWriterTestsPersonEntityMetadata(),",
+				"ContextBootstrapInitializer.createEntityMetadataWriterTestsAddressEntityMetadata(),",
+				"ContextBootstrapInitializer.createEntityMetadataWriterTestsTagEntityMetadata()");
+	}
+
+	@Test
+	void writeEntityMetadataWithFieldAccess() {
+		registerRepository(PersonRepository.class, Person.class);
+		writeEntityMetadata();
+		assertThat(generateCode(this.writerContext.getBootstrapClass("org.springframework.data"))).contains(
+				"public static GeneratedEntityMetadata createEntityMetadataWriterTestsPersonEntityMetadata() {",
+				"return GeneratedEntityMetadata.builder(EntityMetadataWriterTests.Person.class)",
+				".instantiator(0, (args) -> new EntityMetadataWriterTests.Person())",
+				".property(\"id\", (bean) -> ((EntityMetadataWriterTests.Person) bean).id, "
+						+ "(bean, value) -> ((EntityMetadataWriterTests.Person) bean).id = (Long) value)",
+				".property(\"tags\", (bean) -> ((EntityMetadataWriterTests.Person) bean).tags, "
+						+ "(bean, value) -> ((EntityMetadataWriterTests.Person) bean).tags = (List) value)")
+				.doesNotContain("\"ignored\"", "\"cache\"");
+	}
+
+	@Test
+	void writeEntityMetadataWithAccessorsAndPersistenceConstructor() {
+		registerRepository(PersonRepository.class, Person.class);
+		writeEntityMetadata();
+		assertThat(generateCode(this.writerContext.getBootstrapClass("org.springframework.data"))).contains(
+				".instantiator(2, (args) -> new EntityMetadataWriterTests.Address((String) args[0], "
+						+ "(args[1] != null) ? (int) args[1] : 0))",
+				".property(\"city\", (bean) -> ((EntityMetadataWriterTests.Address) bean).getCity(), "
+						+ "(bean, value) -> ((EntityMetadataWriterTests.Address) bean).setCity((String) value))",
+				".property(\"number\", (bean) -> ((EntityMetadataWriterTests.Address) bean).getNumber(), null)");
+	}
+
+	@Test
+	void writeEntityMetadataWithPrivateEntityDoesNotWriteMetadata() {
+		registerRepository(PrivateEntityRepository.class, PrivateEntity.class);
+		assertThat(CodeSnippet.of((code) -> writeEntityMetadata(code)))
+				.doesNotContain("GeneratedEntityMetadataBeanPostProcessor");
+	}
+
+	@Test
+	void writeEntityMetadataWithoutRepositoryDoesNotWriteMetadata() {
+		this.beanFactory.registerBeanDefinition("noise", new RootBeanDefinition(String.class));
+		assertThat(CodeSnippet.of((code) -> writeEntityMetadata(code)))
+				.doesNotContain("GeneratedEntityMetadataBeanPostProcessor");
+	}
+
+	private void registerRepository(Class<?> repositoryType, Class<?> domainType) {
+		RootBeanDefinition beanDefinition = new RootBeanDefinition(JpaRepositoryFactoryBean.class);
+		beanDefinition.getConstructorArgumentValues().addIndexedArgumentValue(0, repositoryType);
+		beanDefinition.setTargetType(ResolvableType.forClassWithGenerics(JpaRepositoryFactoryBean.class,
+				repositoryType, domainType, Long.class));
+		this.beanFactory.registerBeanDefinition("repository", beanDefinition);
+	}
+
+	private void writeEntityMetadata() {
+		writeEntityMetadata(CodeBlock.builder());
+	}
+
+	private void writeEntityMetadata(CodeBlock.Builder code) {
+		new EntityMetadataWriter(this.beanFactory).writeEntityMetadata(this.writerContext, code);
+	}
+
+	private String generateCode(BootstrapClass bootstrapClass) {
+		try {
+			StringWriter out = new StringWriter();
+			bootstrapClass.toJavaFile().writeTo(out);
+			return out.toString();
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+
+	@SuppressWarnings("unused")
+	static class Person {
+
+		@Id
+		Long id;
+
+		String name;
+
+		Address address;
+
+		List<Tag> tags;
+
+		@Transient
+		String ignored;
+
+		transient String cache;
+
+	}
+
+	static class Address {
+
+		private String city;
+
+		private final int number;
+
+		Address(String city, int number) {
+			this.city = city;
+			this.number = number;
+		}
+
+		public String getCity() {
+			return this.city;
+		}
+
+		public void setCity(String city) {
+			this.city = city;
+		}
+
+		public int getNumber() {
+			return this.number;
+		}
+
+	}
+
+	static class Tag {
+
+		String name;
+
+	}
+
+	private static class PrivateEntity {
+
+		@Id
+		Long id;
+
+	}
+
+	interface PersonRepository extends CrudRepository<Person, Long> {
+
+	}
+
+	interface PrivateEntityRepository extends CrudRepository<PrivateEntity, Long> {
+
+	}
+
+}
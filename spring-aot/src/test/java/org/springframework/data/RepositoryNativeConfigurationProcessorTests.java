@@ -0,0 +1,215 @@
+package org.springframework.data;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import javax.persistence.Entity;
+import javax.persistence.NamedQuery;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.bootstrap.generator.infrastructure.nativex.NativeConfigurationRegistry;
+import org.springframework.context.bootstrap.generator.infrastructure.nativex.NativeReflectionEntry;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactoryBean;
+import org.springframework.data.repository.CrudRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link RepositoryNativeConfigurationProcessor}.
+ *
+ * @author agent
+ */
+class RepositoryNativeConfigurationProcessorTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void registerDerivedQueryMethods() {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerBeanDefinition("noise", BeanDefinitionBuilder.rootBeanDefinition(String.class).getBeanDefinition());
+		registerRepository(beanFactory, PersonRepository.class);
+		List<NativeReflectionEntry> entries = process(beanFactory).reflection().getEntries();
+		assertThat(entries).anySatisfy((entry) -> {
+			assertThat(entry.getType()).isEqualTo(PersonRepository.class);
+			assertThat(entry.getMethods().stream().map(Method::getName))
+					.containsOnly("findByNameOrderByAgeDesc", "findByAddressCity");
+		});
+		assertThat(entries).anySatisfy((entry) -> {
+			assertThat(entry.getType()).isEqualTo(Person.class);
+			assertThat(entry.getFields().stream().map(Field::getName)).containsOnly("name", "age", "address");
+			assertThat(entry.getMethods().stream().map(Method::getName)).containsOnly("getName", "getAge", "getAddress");
+		});
+		assertThat(entries).anySatisfy((entry) -> {
+			assertThat(entry.getType()).isEqualTo(Address.class);
+			assertThat(entry.getFields().stream().map(Field::getName)).containsOnly("city");
+			assertThat(entry.getMethods().stream().map(Method::getName)).containsOnly("getCity");
+		});
+		assertThat(entries).hasSize(3);
+	}
+
+	@Test
+	void registerDerivedQueryMethodsWithRepositoryTypeAsString() {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerBeanDefinition("repository", BeanDefinitionBuilder.rootBeanDefinition(JpaRepositoryFactoryBean.class)
+				.addConstructorArgValue(PersonRepository.class.getName()).getBeanDefinition());
+		List<NativeReflectionEntry> entries = process(beanFactory).reflection().getEntries();
+		assertThat(entries).anySatisfy((entry) -> assertThat(entry.getType()).isEqualTo(PersonRepository.class));
+	}
+
+	@Test
+	void processRepositoryWithInvalidDerivedQueryFails() {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		registerRepository(beanFactory, InvalidPersonRepository.class);
+		assertThatIllegalStateException().isThrownBy(() -> process(beanFactory))
+				.withMessageContaining("findByUnknown").withMessageContaining("'repository'");
+	}
+
+	@Test
+	void processRepositoryWithDeclaredQueriesOnlyDoesNotDeriveQueries() {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerBeanDefinition("repository", BeanDefinitionBuilder.rootBeanDefinition(JpaRepositoryFactoryBean.class)
+				.addConstructorArgValue(InvalidPersonRepository.class)
+				.addPropertyValue("queryLookupStrategyKey", "USE_DECLARED_QUERY").getBeanDefinition());
+		assertThat(process(beanFactory).reflection().getEntries()).isEmpty();
+	}
+
+	@Test
+	void registerDerivedQueryMethodsIgnoresQueriesOfDefaultMappingFile() throws IOException {
+		write("META-INF/orm.xml", "<entity-mappings xmlns=\"http://xmlns.jcp.org/xml/ns/persistence/orm\">"
+				+ "<named-query name=\"Person.findByAddressCity\"><query>select p from Person p</query></named-query>"
+				+ "</entity-mappings>");
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.setBeanClassLoader(createClassLoader());
+		registerRepository(beanFactory, PersonRepository.class);
+		List<NativeReflectionEntry> entries = process(beanFactory).reflection().getEntries();
+		assertThat(entries).anySatisfy((entry) -> {
+			assertThat(entry.getType()).isEqualTo(PersonRepository.class);
+			assertThat(entry.getMethods().stream().map(Method::getName)).containsOnly("findByNameOrderByAgeDesc");
+		});
+	}
+
+	@Test
+	void registerDerivedQueryMethodsIgnoresQueriesOfPersistenceUnitMappingFile() throws IOException {
+		write("META-INF/persistence.xml", "<persistence><persistence-unit name=\"test\">"
+				+ "<mapping-file>META-INF/person-queries.xml</mapping-file></persistence-unit></persistence>");
+		write("META-INF/person-queries.xml", "<entity-mappings><entity class=\"com.example.Person\">"
+				+ "<named-native-query name=\"Person.findByNameOrderByAgeDesc\"><query>select * from person</query>"
+				+ "</named-native-query></entity></entity-mappings>");
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.setBeanClassLoader(createClassLoader());
+		registerRepository(beanFactory, PersonRepository.class);
+		List<NativeReflectionEntry> entries = process(beanFactory).reflection().getEntries();
+		assertThat(entries).anySatisfy((entry) -> {
+			assertThat(entry.getType()).isEqualTo(PersonRepository.class);
+			assertThat(entry.getMethods().stream().map(Method::getName)).containsOnly("findByAddressCity");
+		});
+	}
+
+	@Test
+	void processWithoutRepositoryDoesNotRegisterEntries() {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerBeanDefinition("noise", BeanDefinitionBuilder.rootBeanDefinition(String.class).getBeanDefinition());
+		assertThat(process(beanFactory).reflection().getEntries()).isEmpty();
+	}
+
+	private void registerRepository(DefaultListableBeanFactory beanFactory, Class<?> repositoryInterface) {
+		beanFactory.registerBeanDefinition("repository", BeanDefinitionBuilder.rootBeanDefinition(JpaRepositoryFactoryBean.class)
+				.addConstructorArgValue(repositoryInterface).getBeanDefinition());
+	}
+
+	private void write(String location, String content) throws IOException {
+		Path file = this.directory.resolve(location);
+		Files.createDirectories(file.getParent());
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private ClassLoader createClassLoader() throws IOException {
+		return new URLClassLoader(new URL[] { this.directory.toUri().toURL() }, getClass().getClassLoader());
+	}
+
+	private NativeConfigurationRegistry process(DefaultListableBeanFactory beanFactory) {
+		NativeConfigurationRegistry registry = new NativeConfigurationRegistry();
+		new RepositoryNativeConfigurationProcessor().process(beanFactory, registry);
+		return registry;
+	}
+
+	@Entity
+	@NamedQuery(name = "Person.findByNickname", query = "select p from Person p where p.name = ?1")
+	@SuppressWarnings("unused")
+	static class Person {
+
+		private Long id;
+
+		private String name;
+
+		private int age;
+
+		private Address address;
+
+		public Long getId() {
+			return this.id;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public Address getAddress() {
+			return this.address;
+		}
+
+	}
+
+	@SuppressWarnings("unused")
+	static class Address {
+
+		private String city;
+
+		public String getCity() {
+			return this.city;
+		}
+
+	}
+
+	interface PersonRepository extends CrudRepository<Person, Long> {
+
+		List<Person> findByNameOrderByAgeDesc(String name);
+
+		List<Person> findByAddressCity(String city);
+
+		List<Person> findByNickname(String nickname);
+
+		@Query("select p from Person p where p.age > ?1")
+		List<Person> olderThan(int age);
+
+		default List<Person> findAdults() {
+			return olderThan(17);
+		}
+
+	}
+
+	interface InvalidPersonRepository extends CrudRepository<Person, Long> {
+
+		List<Person> findByUnknown(String value);
+
+	}
+
+}
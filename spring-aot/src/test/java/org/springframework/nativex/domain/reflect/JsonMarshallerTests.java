@@ -0,0 +1,187 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.domain.reflect;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.nativex.hint.Flag;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for the streaming methods of {@link JsonMarshaller}.
+ *
+ * @author agent
+ */
+class JsonMarshallerTests {
+
+	@Test
+	void writeAndReadRoundTrip() throws IOException {
+		List<ClassDescriptor> descriptors = List.of(createDescriptor("com.example.Two", 2),
+				createDescriptor("com.example.One", 3), ClassDescriptor.of("com.example.Empty"));
+		assertThat(readAll(write(descriptors))).containsExactlyElementsOf(descriptors);
+	}
+
+	@Test
+	void writeKeepsIterationOrder() throws IOException {
+		String json = write(List.of(ClassDescriptor.of("b.Second"), ClassDescriptor.of("a.First")));
+		assertThat(json.indexOf("b.Second")).isLessThan(json.indexOf("a.First"));
+	}
+
+	@Test
+	void writeWithNoDescriptorWritesEmptyArray() throws IOException {
+		String json = write(List.of());
+		assertThat(json.trim()).isEqualTo("[\n]");
+		assertThat(readAll(json)).isEmpty();
+	}
+
+	@Test
+	void writeIsReadableByDocumentReader() throws Exception {
+		List<ClassDescriptor> descriptors = List.of(createDescriptor("com.example.One", 2),
+				createDescriptor("com.example.Two", 1));
+		assertThat(JsonMarshaller.read(write(descriptors)).getClassDescriptors())
+				.containsExactlyElementsOf(descriptors);
+	}
+
+	@Test
+	void readDocumentWrittenByDocumentWriter() throws IOException {
+		ReflectionDescriptor reflectionDescriptor = new ReflectionDescriptor();
+		reflectionDescriptor.add(createDescriptor("com.example.One", 2));
+		reflectionDescriptor.add(createDescriptor("com.example.Two", 1));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		JsonMarshaller.write(reflectionDescriptor, out);
+		assertThat(readAll(out.toString(StandardCharsets.UTF_8)))
+				.containsExactlyElementsOf(reflectionDescriptor.getClassDescriptors());
+	}
+
+	@Test
+	void readWithDuplicateTypeProvidesEachOccurrence() throws IOException {
+		String json = "[ { \"name\": \"com.example.One\", \"allDeclaredFields\": true },"
+				+ "{ \"name\": \"com.example.One\", \"allDeclaredMethods\": true } ]";
+		List<ClassDescriptor> descriptors = readAll(json);
+		assertThat(descriptors).hasSize(2);
+		assertThat(descriptors.get(0).getFlags()).containsOnly(Flag.allDeclaredFields);
+		assertThat(descriptors.get(1).getFlags()).containsOnly(Flag.allDeclaredMethods);
+	}
+
+	@Test
+	void readWithBracesAndQuotesInStrings() throws IOException {
+		String json = "[{\"name\":\"com.example.{Odd}\\\"Name\\\\\",\"fields\":[{\"name\":\"}\"}]}]";
+		List<ClassDescriptor> descriptors = readAll(json);
+		assertThat(descriptors).singleElement().satisfies((descriptor) -> {
+			assertThat(descriptor.getName()).isEqualTo("com.example.{Odd}\"Name\\");
+			assertThat(descriptor.getFields()).singleElement()
+					.satisfies((field) -> assertThat(field.getName()).isEqualTo("}"));
+		});
+	}
+
+	@Test
+	void readWithEmptyInputDoesNotProvideDescriptor() throws IOException {
+		assertThat(readAll("  \n")).isEmpty();
+	}
+
+	@Test
+	void readWithInvalidInputFails() {
+		assertThatIllegalStateException().isThrownBy(() -> readAll("{ \"name\": \"com.example.One\" }"))
+				.withMessageContaining("Expected a JSON array");
+		assertThatIllegalStateException().isThrownBy(() -> readAll("[ \"com.example.One\" ]"))
+				.withMessageContaining("Expected a JSON object");
+		assertThatIllegalStateException().isThrownBy(() -> readAll("[ { \"name\": \"com.example.One\" "))
+				.withMessageContaining("Unexpected end of input");
+	}
+
+	@Test
+	void writeAndReadLargeInput(@TempDir Path directory) throws IOException {
+		int count = 50_000;
+		Path file = directory.resolve("reflect-config.json");
+		try (Writer writer = Files.newBufferedWriter(file)) {
+			JsonMarshaller.write(() -> new SyntheticDescriptors(count), writer);
+		}
+		AtomicInteger index = new AtomicInteger();
+		try (Reader reader = Files.newBufferedReader(file)) {
+			JsonMarshaller.read(reader, (descriptor) ->
+					assertThat(descriptor).isEqualTo(createDescriptor("com.example.Type" + index.getAndIncrement(), 5)));
+		}
+		assertThat(index).hasValue(count);
+	}
+
+	private static ClassDescriptor createDescriptor(String name, int memberCount) {
+		ClassDescriptor descriptor = ClassDescriptor.of(name);
+		descriptor.setFlag(Flag.allDeclaredConstructors);
+		descriptor.setFlag(Flag.allPublicMethods);
+		for (int i = 0; i < memberCount; i++) {
+			descriptor.addFieldDescriptor(FieldDescriptor.of("field" + i, i % 2 == 0, false));
+			descriptor.addMethodDescriptor(MethodDescriptor.of("method" + i, "java.lang.String", "int[]"));
+		}
+		descriptor.addMethodDescriptor(MethodDescriptor.of("<init>"));
+		return descriptor;
+	}
+
+	private static String write(Iterable<ClassDescriptor> descriptors) throws IOException {
+		StringWriter out = new StringWriter();
+		JsonMarshaller.write(descriptors, out);
+		return out.toString();
+	}
+
+	private static List<ClassDescriptor> readAll(String json) throws IOException {
+		List<ClassDescriptor> descriptors = new ArrayList<>();
+		JsonMarshaller.read(new StringReader(json), descriptors::add);
+		return descriptors;
+	}
+
+	/**
+	 * Create descriptors on demand so that the input is never held in memory.
+	 */
+	private static class SyntheticDescriptors implements Iterator<ClassDescriptor> {
+
+		private final int count;
+
+		private int index;
+
+		SyntheticDescriptors(int count) {
+			this.count = count;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.index < this.count;
+		}
+
+		@Override
+		public ClassDescriptor next() {
+			return createDescriptor("com.example.Type" + this.index++, 5);
+		}
+
+	}
+
+}
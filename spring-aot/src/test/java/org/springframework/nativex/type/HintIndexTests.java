@@ -0,0 +1,113 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.type;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link HintIndex}.
+ *
+ * @author agent
+ */
+class HintIndexTests {
+
+	@Test
+	void addStaticProviderIsDeferred() {
+		HintIndex index = new HintIndex();
+		index.addProvider("com.example.FirstHints", false, List.of("com.example.A", "com.example.B"));
+		assertThat(index.isDeferred("com.example.FirstHints")).isTrue();
+		assertThat(index.getTriggerTypenames()).containsOnly("com.example.A", "com.example.B");
+		assertThat(index.getProviders("com.example.A")).containsOnly("com.example.FirstHints");
+	}
+
+	@Test
+	void addDynamicProviderIsNotDeferred() {
+		HintIndex index = new HintIndex();
+		index.addProvider("com.example.DynamicHints", true, List.of("com.example.A"));
+		assertThat(index.isEmpty()).isFalse();
+		assertThat(index.isDeferred("com.example.DynamicHints")).isFalse();
+		assertThat(index.getTriggerTypenames()).isEmpty();
+	}
+
+	@Test
+	void getProvidersWithUnknownTrigger() {
+		assertThat(new HintIndex().getProviders("com.example.A")).isEmpty();
+	}
+
+	@Test
+	void writeAndRead() throws IOException {
+		HintIndex index = new HintIndex();
+		index.addProvider("com.example.FirstHints", false, List.of("com.example.A", "java.lang.Object"));
+		index.addProvider("com.example.SecondHints", false, List.of("com.example.A"));
+		index.addProvider("com.example.DynamicHints", true, List.of());
+		HintIndex read = readIndex(writeIndex(index));
+		assertThat(read.getDeferredProviders()).containsExactly("com.example.FirstHints", "com.example.SecondHints");
+		assertThat(read.isDeferred("com.example.DynamicHints")).isFalse();
+		assertThat(read.getTriggerTypenames()).containsExactly("com.example.A", "java.lang.Object");
+		assertThat(read.getProviders("com.example.A")).containsExactly("com.example.FirstHints", "com.example.SecondHints");
+		assertThat(read.getProviders("java.lang.Object")).containsExactly("com.example.FirstHints");
+	}
+
+	@Test
+	void readSeveralIndexesMergesThem() throws IOException {
+		HintIndex first = new HintIndex();
+		first.addProvider("com.example.FirstHints", false, List.of("com.example.A"));
+		HintIndex second = new HintIndex();
+		second.addProvider("com.example.SecondHints", false, List.of("com.example.A", "com.example.B"));
+		HintIndex index = new HintIndex();
+		index.read(new ByteArrayInputStream(writeIndex(first)));
+		index.read(new ByteArrayInputStream(writeIndex(second)));
+		assertThat(index.getProviders("com.example.A")).containsExactly("com.example.FirstHints", "com.example.SecondHints");
+		assertThat(index.getProviders("com.example.B")).containsExactly("com.example.SecondHints");
+	}
+
+	@Test
+	void readInvalidContent() {
+		assertThatIllegalStateException().isThrownBy(() -> readIndex(new byte[] { 1, 2, 3, 4 }))
+				.withMessage("Not a hint index");
+	}
+
+	@Test
+	void getTriggerTypenamesUsesObjectForUnconditionalHints() {
+		HintDeclaration conditional = new HintDeclaration();
+		conditional.setTriggerTypename("com.example.A");
+		HintDeclaration unconditional = new HintDeclaration();
+		assertThat(HintIndex.getTriggerTypenames(List.of(conditional, unconditional)))
+				.containsExactly("com.example.A", "java.lang.Object");
+	}
+
+	private static byte[] writeIndex(HintIndex index) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		index.write(out);
+		return out.toByteArray();
+	}
+
+	private static HintIndex readIndex(byte[] content) throws IOException {
+		HintIndex index = new HintIndex();
+		index.read(new ByteArrayInputStream(content));
+		return index;
+	}
+
+}
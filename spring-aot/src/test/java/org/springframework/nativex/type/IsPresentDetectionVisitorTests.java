@@ -0,0 +1,123 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.type;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.util.ClassUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link IsPresentDetectionVisitor}.
+ *
+ * @author agent
+ */
+class IsPresentDetectionVisitorTests {
+
+	@Test
+	void analyzeClassWithOnlyIsPresentChecks() throws IOException {
+		IsPresentChecks checks = IsPresentDetectionVisitor.analyze(classBytes(OnlyChecks.class));
+		assertThat(checks).isNotNull();
+		assertThat(checks.getTypename()).isEqualTo(OnlyChecks.class.getName());
+		assertThat(checks.getCheckedTypes()).containsExactly("com.example.First", "com.example.Second", "com.example.Third");
+		assertThat(checks.isFoldable()).isTrue();
+	}
+
+	@Test
+	void analyzeClassWithOtherStaticInitialization() throws IOException {
+		IsPresentChecks checks = IsPresentDetectionVisitor.analyze(classBytes(ChecksAndLogger.class));
+		assertThat(checks).isNotNull();
+		assertThat(checks.getCheckedTypes()).containsExactly("com.example.First");
+		assertThat(checks.isFoldable()).isFalse();
+	}
+
+	@Test
+	void analyzeClassWithComputedCheck() throws IOException {
+		IsPresentChecks checks = IsPresentDetectionVisitor.analyze(classBytes(ComputedCheck.class));
+		assertThat(checks).isNotNull();
+		assertThat(checks.getCheckedTypes()).isEmpty();
+		assertThat(checks.isFoldable()).isFalse();
+	}
+
+	@Test
+	void analyzeClassWithoutChecks() throws IOException {
+		assertThat(IsPresentDetectionVisitor.analyze(classBytes(NoChecks.class))).isNull();
+	}
+
+	@Test
+	void referencesMethodWithChecks() throws IOException {
+		assertThat(ConstantPoolScanner.referencesMethod(classBytes(OnlyChecks.class),
+				"org/springframework/util/ClassUtils", "isPresent")).isTrue();
+	}
+
+	@Test
+	void referencesMethodWithoutChecks() throws IOException {
+		assertThat(ConstantPoolScanner.referencesMethod(classBytes(NoChecks.class),
+				"org/springframework/util/ClassUtils", "isPresent")).isFalse();
+	}
+
+	private static byte[] classBytes(Class<?> type) throws IOException {
+		String location = "/" + type.getName().replace('.', '/') + ".class";
+		try (InputStream in = IsPresentDetectionVisitorTests.class.getResourceAsStream(location)) {
+			return in.readAllBytes();
+		}
+	}
+
+	static class OnlyChecks {
+
+		private static final boolean firstPresent;
+
+		private static final boolean secondAndThirdPresent;
+
+		static {
+			ClassLoader classLoader = OnlyChecks.class.getClassLoader();
+			firstPresent = ClassUtils.isPresent("com.example.First", classLoader);
+			secondAndThirdPresent = ClassUtils.isPresent("com.example.Second", classLoader)
+					&& ClassUtils.isPresent("com.example.Third", classLoader);
+		}
+
+	}
+
+	static class ChecksAndLogger {
+
+		private static final Log logger = LogFactory.getLog(ChecksAndLogger.class);
+
+		private static final boolean firstPresent = ClassUtils.isPresent("com.example.First",
+				ChecksAndLogger.class.getClassLoader());
+
+	}
+
+	static class ComputedCheck {
+
+		private static final boolean present = ClassUtils.isPresent(String.join(".", "com", "example", "First"),
+				ComputedCheck.class.getClassLoader());
+
+	}
+
+	static class NoChecks {
+
+		private static final Log logger = LogFactory.getLog(NoChecks.class);
+
+	}
+
+}
@@ -0,0 +1,541 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.type;
+
+import java.io.File;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.util.ClassUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link StaticInitializerAnalyzer}.
+ *
+ * @author agent
+ */
+class StaticInitializerAnalyzerTests {
+
+	private static StaticInitializerAnalyzer analyzer;
+
+	@BeforeAll
+	static void setup() {
+		File file = new File("./target/test-classes");
+		analyzer = new StaticInitializerAnalyzer(new TypeSystem(Collections.singletonList(file.toString())));
+	}
+
+	@Test
+	void analyzeTypeWithoutStaticInitializer() {
+		InitializationDecision decision = analyzer.analyze(NoInitializer.class.getName());
+		assertThat(decision.isBuildTime()).isTrue();
+		assertThat(decision.getReason()).isEqualTo("has no static initializer");
+	}
+
+	@Test
+	void analyzeTypeWithConstants() {
+		InitializationDecision decision = analyzer.analyze(Constants.class.getName());
+		assertThat(decision.getTypename()).isEqualTo(Constants.class.getName());
+		assertThat(decision.isBuildTime()).isTrue();
+		assertThat(decision.getReason()).isEqualTo("has a static initializer without side effects");
+	}
+
+	@Test
+	void analyzeTypeReadingSystemProperty() {
+		InitializationDecision decision = analyzer.analyze(ReadsSystemProperty.class.getName());
+		assertThat(decision.isBuildTime()).isFalse();
+		assertThat(decision.getReason()).startsWith("reads system properties via java.lang.System.getProperty()");
+	}
+
+	@Test
+	void analyzeTypeUsingRandomnessInHelperMethod() {
+		InitializationDecision decision = analyzer.analyze(UsesRandomIndirectly.class.getName());
+		assertThat(decision.isBuildTime()).isFalse();
+		assertThat(decision.getReason()).startsWith("uses randomness via java.util.Random.<init>()")
+				.contains(".createSeed()").endsWith(".<clinit>()");
+	}
+
+	@Test
+	void analyzeTypeCreatingLogger() {
+		InitializationDecision decision = analyzer.analyze(CreatesLogger.class.getName());
+		assertThat(decision.isBuildTime()).isFalse();
+		assertThat(decision.getReason()).startsWith("creates a logger that is configured at runtime");
+	}
+
+	@Test
+	void analyzeTypeInvokingLambda() {
+		InitializationDecision decision = analyzer.analyze(InvokesLambda.class.getName());
+		assertThat(decision.isBuildTime()).isFalse();
+		assertThat(decision.getReason()).startsWith("reads environment variables via java.lang.System.getenv()");
+	}
+
+	@Test
+	void analyzeTypeInvokingOverridableMethod() {
+		InitializationDecision decision = analyzer.analyze(InvokesOverridableMethod.class.getName());
+		assertThat(decision.isBuildTime()).isFalse();
+		assertThat(decision.getReason()).contains("Overridable.name() which may be overridden");
+	}
+
+	@Test
+	void analyzeTypeUsingUnsafeType() {
+		InitializationDecision decision = analyzer.analyze(UsesUnsafeType.class.getName());
+		assertThat(decision.isBuildTime()).isFalse();
+		assertThat(decision.getReason()).startsWith("initializes " + ReadsSystemProperty.class.getName() + " which");
+	}
+
+	@Test
+	void analyzeTypeExtendingUnsafeType() {
+		InitializationDecision decision = analyzer.analyze(ExtendsUnsafeType.class.getName());
+		assertThat(decision.isBuildTime()).isFalse();
+		assertThat(decision.getReason()).startsWith("extends " + ReadsSystemProperty.class.getName() + " which");
+	}
+
+	@Test
+	void analyzeTypesUsingEachOther() {
+		assertThat(analyzer.analyze(First.class.getName()).isBuildTime()).isTrue();
+		assertThat(analyzer.analyze(Second.class.getName()).isBuildTime()).isTrue();
+	}
+
+	@Test
+	void analyzeEnum() {
+		InitializationDecision decision = analyzer.analyze(Color.class.getName());
+		assertThat(decision.isBuildTime()).isTrue();
+	}
+
+	@Test
+	void analyzeTypeInvokingMethodReflectively() {
+		InitializationDecision decision = analyzer.analyze(InvokesMethodReflectively.class.getName());
+		assertThat(decision.isBuildTime()).isFalse();
+		assertThat(decision.getReason()).startsWith("uses reflection via java.lang.reflect.Method.invoke()");
+	}
+
+	@Test
+	void analyzeTypeInvokingConstructorReflectively() {
+		InitializationDecision decision = analyzer.analyze(InvokesConstructorReflectively.class.getName());
+		assertThat(decision.isBuildTime()).isFalse();
+		assertThat(decision.getReason()).startsWith("uses reflection via java.lang.reflect.Constructor.newInstance()");
+	}
+
+	@Test
+	void analyzeTypeInstantiatingClassReflectively() {
+		InitializationDecision decision = analyzer.analyze(InstantiatesClassReflectively.class.getName());
+		assertThat(decision.isBuildTime()).isFalse();
+		assertThat(decision.getReason()).startsWith("uses reflection via java.lang.Class.newInstance()");
+	}
+
+	@Test
+	void analyzeTypeInvokingMethodHandle() {
+		InitializationDecision decision = analyzer.analyze(InvokesMethodHandle.class.getName());
+		assertThat(decision.isBuildTime()).isFalse();
+		assertThat(decision.getReason()).startsWith("uses method handles via java.lang.invoke.MethodHandle.invoke()");
+	}
+
+	@Test
+	void analyzeTypeLoadingClass() {
+		InitializationDecision decision = analyzer.analyze(LoadsClass.class.getName());
+		assertThat(decision.isBuildTime()).isFalse();
+		assertThat(decision.getReason()).startsWith("uses a class loader via java.lang.ClassLoader.loadClass()");
+	}
+
+	@Test
+	void analyzeTypeRunningCodeAsynchronously() {
+		InitializationDecision decision = analyzer.analyze(RunsAsynchronously.class.getName());
+		assertThat(decision.isBuildTime()).isFalse();
+		assertThat(decision.getReason())
+				.startsWith("runs code asynchronously via java.util.concurrent.CompletableFuture.runAsync()");
+	}
+
+	@Test
+	void analyzeTypeIteratingWithCallback() {
+		InitializationDecision decision = analyzer.analyze(IteratesWithCallback.class.getName());
+		assertThat(decision.isBuildTime()).isFalse();
+		assertThat(decision.getReason()).startsWith("invokes a callback via java.lang.Iterable.forEach()");
+	}
+
+	@Test
+	void analyzeTypeInvokingSupplier() {
+		InitializationDecision decision = analyzer.analyze(InvokesSupplier.class.getName());
+		assertThat(decision.isBuildTime()).isFalse();
+		assertThat(decision.getReason()).startsWith("invokes a callback via java.util.function.Supplier.get()");
+	}
+
+	@Test
+	void analyzeTypeSortingWithComparator() {
+		InitializationDecision decision = analyzer.analyze(SortsWithComparator.class.getName());
+		assertThat(decision.isBuildTime()).isFalse();
+		assertThat(decision.getReason()).startsWith("invokes a callback via java.util.Collections.sort()");
+	}
+
+	@Test
+	void analyzeTypeCapturingContextClassLoader() {
+		InitializationDecision decision = analyzer.analyze(CapturesContextClassLoader.class.getName());
+		assertThat(decision.isBuildTime()).isFalse();
+		assertThat(decision.getReason())
+				.startsWith("captures the class loader via java.lang.Thread.getContextClassLoader()");
+	}
+
+	@Test
+	void analyzeTypeStoringCurrentThread() {
+		InitializationDecision decision = analyzer.analyze(StoresCurrentThread.class.getName());
+		assertThat(decision.isBuildTime()).isFalse();
+		assertThat(decision.getReason()).startsWith("uses threads via java.lang.Thread.currentThread()");
+	}
+
+	@Test
+	void analyzeTypeAppendingUserObject() {
+		InitializationDecision decision = analyzer.analyze(AppendsUserObject.class.getName());
+		assertThat(decision.isBuildTime()).isFalse();
+		assertThat(decision.getReason()).startsWith("invokes a callback via java.lang.StringBuilder.append()");
+	}
+
+	@Test
+	void analyzeTypeConvertingUserObjectToString() {
+		InitializationDecision decision = analyzer.analyze(ConvertsUserObjectToString.class.getName());
+		assertThat(decision.isBuildTime()).isFalse();
+		assertThat(decision.getReason()).startsWith("invokes a callback via java.lang.String.valueOf()");
+	}
+
+	@Test
+	void analyzeTypeConcatenatingUserObject() {
+		InitializationDecision decision = analyzer.analyze(ConcatenatesUserObject.class.getName());
+		assertThat(decision.isBuildTime()).isFalse();
+		assertThat(decision.getReason()).startsWith("invokes a callback via the toString() method of "
+				+ Describable.class.getName() + " in a string concatenation");
+	}
+
+	@Test
+	void analyzeTypeConcatenatingStrings() {
+		InitializationDecision decision = analyzer.analyze(ConcatenatesStrings.class.getName());
+		assertThat(decision.isBuildTime()).isTrue();
+	}
+
+	@Test
+	void analyzeTypeCapturingDefaultClassLoader() {
+		InitializationDecision decision = analyzer.analyze(CapturesDefaultClassLoader.class.getName());
+		assertThat(decision.isBuildTime()).isFalse();
+		assertThat(decision.getReason()).startsWith(
+				"captures the class loader via org.springframework.util.ClassUtils.getDefaultClassLoader()");
+	}
+
+	@Test
+	void analyzeTypeInvokingUnknownJdkMethod() {
+		InitializationDecision decision = analyzer.analyze(InvokesUnknownJdkMethod.class.getName());
+		assertThat(decision.isBuildTime()).isFalse();
+		assertThat(decision.getReason()).startsWith(
+				"invokes a JDK method that is not known to be free of side effects via java.util.stream.Stream.of()");
+	}
+
+	@Test
+	void analyzeMissingType() {
+		InitializationDecision decision = analyzer.analyze("com.example.DoesNotExist");
+		assertThat(decision.isBuildTime()).isFalse();
+		assertThat(decision.getReason()).isEqualTo("cannot be resolved on the classpath");
+	}
+
+	static class NoInitializer {
+
+		static final String NAME = "test";
+
+	}
+
+	static class Constants {
+
+		static final List<String> NAMES = new ArrayList<>();
+
+		static final Map<String, Integer> VALUES = new HashMap<>();
+
+		static {
+			NAMES.add("one");
+			VALUES.put("one", Integer.valueOf(1));
+		}
+
+	}
+
+	static class ReadsSystemProperty {
+
+		static final String VALUE = System.getProperty("test.value");
+
+	}
+
+	static class UsesRandomIndirectly {
+
+		static final long SEED = createSeed();
+
+		private static long createSeed() {
+			return new Random().nextLong();
+		}
+
+	}
+
+	static class CreatesLogger {
+
+		private static final Log logger = LogFactory.getLog(CreatesLogger.class);
+
+	}
+
+	static class InvokesLambda {
+
+		static final String VALUE;
+
+		static {
+			Supplier<String> supplier = () -> System.getenv("TEST");
+			VALUE = supplier.get();
+		}
+
+	}
+
+	static class Overridable {
+
+		String name() {
+			return "test";
+		}
+
+	}
+
+	static class InvokesOverridableMethod {
+
+		static final String NAME = new Overridable().name();
+
+	}
+
+	static class UsesUnsafeType {
+
+		static final String VALUE = ReadsSystemProperty.VALUE + "-suffix";
+
+	}
+
+	static class ExtendsUnsafeType extends ReadsSystemProperty {
+
+	}
+
+	static class First {
+
+		static final List<String> NAMES = Collections.unmodifiableList(Second.NAMES);
+
+	}
+
+	static class Second {
+
+		static final List<String> NAMES = new ArrayList<>();
+
+		static final int SIZE = First.NAMES.size();
+
+	}
+
+	enum Color {
+
+		RED, GREEN
+
+	}
+
+	static class InvokesMethodReflectively {
+
+		static final Object VALUE = invoke(null);
+
+		private static Object invoke(Method method) {
+			try {
+				return method.invoke(null);
+			}
+			catch (ReflectiveOperationException ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+
+	}
+
+	static class InvokesConstructorReflectively {
+
+		static final Object VALUE = instantiate(null);
+
+		private static Object instantiate(Constructor<?> constructor) {
+			try {
+				return constructor.newInstance();
+			}
+			catch (ReflectiveOperationException ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+
+	}
+
+	static class InstantiatesClassReflectively {
+
+		static final Object VALUE = instantiate(StringBuilder.class);
+
+		@SuppressWarnings("deprecation")
+		private static Object instantiate(Class<?> type) {
+			try {
+				return type.newInstance();
+			}
+			catch (ReflectiveOperationException ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+
+	}
+
+	static class InvokesMethodHandle {
+
+		static final Object VALUE = invoke(null);
+
+		private static Object invoke(MethodHandle handle) {
+			try {
+				return handle.invoke();
+			}
+			catch (Throwable ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+
+	}
+
+	static class LoadsClass {
+
+		static final Class<?> TYPE = load(null);
+
+		private static Class<?> load(ClassLoader classLoader) {
+			try {
+				return classLoader.loadClass("com.example.Test");
+			}
+			catch (ClassNotFoundException ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+
+	}
+
+	static class RunsAsynchronously {
+
+		static final CompletableFuture<Void> FUTURE = CompletableFuture.runAsync(() -> {
+		});
+
+	}
+
+	static class IteratesWithCallback {
+
+		static final List<String> NAMES = new ArrayList<>();
+
+		static {
+			Iterable<String> names = Arrays.asList("one", "two");
+			names.forEach(NAMES::add);
+		}
+
+	}
+
+	static class InvokesSupplier {
+
+		static final String VALUE = get(null);
+
+		private static String get(Supplier<String> supplier) {
+			return supplier.get();
+		}
+
+	}
+
+	static class SortsWithComparator {
+
+		static final List<String> NAMES = new ArrayList<>();
+
+		static {
+			sort(NAMES, null);
+		}
+
+		private static void sort(List<String> names, Comparator<String> comparator) {
+			Collections.sort(names, comparator);
+		}
+
+	}
+
+	static class CapturesContextClassLoader {
+
+		static Thread thread;
+
+		static final ClassLoader CLASS_LOADER = thread.getContextClassLoader();
+
+	}
+
+	static class StoresCurrentThread {
+
+		static final Thread THREAD = Thread.currentThread();
+
+	}
+
+	static class Describable {
+
+		@Override
+		public String toString() {
+			return System.getProperty("test.description");
+		}
+
+	}
+
+	static class AppendsUserObject {
+
+		static final String DESCRIPTION = new StringBuilder("test: ").append(new Describable()).toString();
+
+	}
+
+	static class ConvertsUserObjectToString {
+
+		static final String DESCRIPTION = String.valueOf(new Describable());
+
+	}
+
+	static class ConcatenatesUserObject {
+
+		static final String DESCRIPTION = "test: " + new Describable();
+
+	}
+
+	static class ConcatenatesStrings {
+
+		static final String PREFIX = "test";
+
+		static final String NAME = PREFIX + ": " + Integer.valueOf(42);
+
+	}
+
+	static class CapturesDefaultClassLoader {
+
+		static final ClassLoader CLASS_LOADER = ClassUtils.getDefaultClassLoader();
+
+	}
+
+	static class InvokesUnknownJdkMethod {
+
+		static final long COUNT = Stream.of("one", "two").count();
+
+	}
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.orm.jpa.persistenceunit;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import com.squareup.javapoet.CodeBlock;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
+import org.springframework.boot.autoconfigure.domain.EntityScanPackages;
+import org.springframework.context.bootstrap.generator.infrastructure.BootstrapClass;
+import org.springframework.context.bootstrap.generator.infrastructure.BootstrapWriterContext;
+import org.springframework.context.bootstrap.generator.infrastructure.nativex.NativeReflectionEntry;
+import org.springframework.context.bootstrap.generator.sample.jpa.AbstractEntity;
+import org.springframework.context.bootstrap.generator.sample.jpa.Address;
+import org.springframework.context.bootstrap.generator.sample.jpa.Customer;
+import org.springframework.context.bootstrap.generator.sample.jpa.CustomerDto;
+import org.springframework.context.bootstrap.generator.sample.jpa.YesNoConverter;
+import org.springframework.context.bootstrap.generator.test.CodeSnippet;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link PersistenceManagedTypesWriter}.
+ *
+ * @author agent
+ */
+class PersistenceManagedTypesWriterTests {
+
+	private static final String SAMPLE_PACKAGE = "org.springframework.context.bootstrap.generator.sample.jpa";
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+	private final BootstrapWriterContext writerContext = new BootstrapWriterContext(BootstrapClass.of("com.example"));
+
+	@Test
+	void getPackagesToScanUsesAutoConfigurationPackages() {
+		registerEntityManagerFactory();
+		AutoConfigurationPackages.register(this.beanFactory, SAMPLE_PACKAGE);
+		assertThat(createWriter().getPackagesToScan()).containsExactly(SAMPLE_PACKAGE);
+	}
+
+	@Test
+	void getPackagesToScanFavorsEntityScanPackages() {
+		registerEntityManagerFactory();
+		AutoConfigurationPackages.register(this.beanFactory, "com.example");
+		EntityScanPackages.register(this.beanFactory, SAMPLE_PACKAGE);
+		assertThat(createWriter().getPackagesToScan()).containsExactly(SAMPLE_PACKAGE);
+	}
+
+	@Test
+	void getPackagesToScanWithoutEntityManagerFactoryIsEmpty() {
+		AutoConfigurationPackages.register(this.beanFactory, SAMPLE_PACKAGE);
+		assertThat(createWriter().getPackagesToScan()).isEmpty();
+	}
+
+	@Test
+	void scanDetectsManagedTypes() {
+		assertThat(createWriter().scan(List.of(SAMPLE_PACKAGE)).get(SAMPLE_PACKAGE).managedClassNames).containsExactly(
+				AbstractEntity.class.getName(), Address.class.getName(), Customer.class.getName(),
+				YesNoConverter.class.getName());
+	}
+
+	@Test
+	void writePersistenceManagedTypesInstallsScannedPackages() {
+		registerEntityManagerFactory();
+		AutoConfigurationPackages.register(this.beanFactory, SAMPLE_PACKAGE);
+		assertThat(CodeSnippet.of(this::writePersistenceManagedTypes)).contains(
+				"PersistenceManagedTypes.install(PersistenceManagedTypes.builder()",
+				".scannedPackage(\"" + SAMPLE_PACKAGE + "\", List.of(\"" + AbstractEntity.class.getName() + "\", \""
+						+ Address.class.getName() + "\", \"" + Customer.class.getName() + "\", \""
+						+ YesNoConverter.class.getName() + "\"), List.of())",
+				".build());").doesNotContain(CustomerDto.class.getName());
+	}
+
+	@Test
+	void writePersistenceManagedTypesRegistersReflectionForManagedTypesOnly() throws NoSuchFieldException {
+		registerEntityManagerFactory();
+		AutoConfigurationPackages.register(this.beanFactory, SAMPLE_PACKAGE);
+		CodeSnippet.of(this::writePersistenceManagedTypes);
+		List<NativeReflectionEntry> entries = this.writerContext.getNativeConfigurationRegistry().reflection()
+				.getEntries();
+		assertThat(entries).extracting(NativeReflectionEntry::getType).containsOnly(Address.class,
+				AbstractEntity.class, Customer.class, YesNoConverter.class);
+		NativeReflectionEntry customer = entries.stream().filter((entry) -> entry.getType().equals(Customer.class))
+				.findFirst().get();
+		assertThat(customer.getConstructors()).containsExactly(Customer.class.getDeclaredConstructors());
+		assertThat(customer.getFields()).containsOnly(Customer.class.getDeclaredField("name"),
+				Customer.class.getDeclaredField("address"), Customer.class.getDeclaredField("active"));
+		assertThat(customer.getMethods()).extracting(Method::getName).containsOnly("getName", "setName");
+	}
+
+	@Test
+	void writePersistenceManagedTypesWithoutEntityManagerFactoryDoesNotWriteCode() {
+		AutoConfigurationPackages.register(this.beanFactory, SAMPLE_PACKAGE);
+		assertThat(CodeSnippet.of(this::writePersistenceManagedTypes)).doesNotContain("PersistenceManagedTypes");
+		assertThat(this.writerContext.getNativeConfigurationRegistry().reflection().getEntries()).isEmpty();
+	}
+
+	private void writePersistenceManagedTypes(CodeBlock.Builder code) {
+		createWriter().writePersistenceManagedTypes(this.writerContext, code);
+	}
+
+	private PersistenceManagedTypesWriter createWriter() {
+		return new PersistenceManagedTypesWriter(this.beanFactory);
+	}
+
+	private void registerEntityManagerFactory() {
+		this.beanFactory.registerBeanDefinition("entityManagerFactory",
+				new RootBeanDefinition(LocalContainerEntityManagerFactoryBean.class));
+	}
+
+}
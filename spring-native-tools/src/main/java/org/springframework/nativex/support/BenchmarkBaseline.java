@@ -0,0 +1,109 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.support;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The median of each metric measured by {@link SampleBenchmark}, by sample and mode.
+ * Stored as a CSV file so that later runs can be compared with it. Lower values are
+ * better for all metrics.
+ *
+ * @author agent
+ */
+public class BenchmarkBaseline {
+
+	private static final String HEADER = "sample,mode,metric,median";
+
+	private final Map<String, Double> medians = new TreeMap<>();
+
+	public static BenchmarkBaseline load(Path file) throws IOException {
+		BenchmarkBaseline baseline = new BenchmarkBaseline();
+		if (Files.exists(file)) {
+			for (String line : Files.readAllLines(file)) {
+				if (line.isEmpty() || line.equals(HEADER)) {
+					continue;
+				}
+				int lastComma = line.lastIndexOf(',');
+				baseline.medians.put(line.substring(0, lastComma), Double.parseDouble(line.substring(lastComma + 1)));
+			}
+		}
+		return baseline;
+	}
+
+	public void put(String sample, BenchmarkSample.Mode mode, String metric, double median) {
+		if (!Double.isNaN(median)) {
+			medians.put(key(sample, mode, metric), median);
+		}
+	}
+
+	public Double get(String sample, BenchmarkSample.Mode mode, String metric) {
+		return medians.get(key(sample, mode, metric));
+	}
+
+	/**
+	 * Add the medians of another baseline, replacing existing ones.
+	 */
+	public void merge(BenchmarkBaseline other) {
+		medians.putAll(other.medians);
+	}
+
+	public void save(Path file) throws IOException {
+		List<String> lines = new ArrayList<>();
+		lines.add(HEADER);
+		for (Map.Entry<String, Double> entry : medians.entrySet()) {
+			lines.add(entry.getKey() + "," + entry.getValue());
+		}
+		if (file.getParent() != null) {
+			Files.createDirectories(file.getParent());
+		}
+		Files.write(file, lines);
+	}
+
+	/**
+	 * Compare the medians of the specified results with this baseline.
+	 * @param results the measured results
+	 * @param thresholdPercent the increase over the baseline that is tolerated
+	 * @return a description of each metric that regressed
+	 */
+	public List<String> findRegressions(BenchmarkBaseline results, double thresholdPercent) {
+		List<String> regressions = new ArrayList<>();
+		for (Map.Entry<String, Double> entry : results.medians.entrySet()) {
+			Double expected = medians.get(entry.getKey());
+			if (expected == null || expected == 0) {
+				continue;
+			}
+			double change = (entry.getValue() - expected) * 100 / expected;
+			if (change > thresholdPercent) {
+				regressions.add(String.format("%s: %.1f vs %.1f in baseline (%+.1f%%)", entry.getKey(),
+						entry.getValue(), expected, change));
+			}
+		}
+		return regressions;
+	}
+
+	private static String key(String sample, BenchmarkSample.Mode mode, String metric) {
+		return sample + "," + mode.getId() + "," + metric;
+	}
+
+}
@@ -0,0 +1,421 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Stream;
+
+/**
+ * A sample that can be launched in the different {@link Mode modes} to measure how long it
+ * takes to be ready, with its resident memory and CPU time at that point. The sample is
+ * ready when the readiness marker its {@code verify.sh} script waits for, either a log
+ * entry or an HTTP response, is observed. Samples whose script waits for something else
+ * are ready when the script completes successfully, which is much less precise.
+ *
+ * @author agent
+ */
+public class BenchmarkSample {
+
+	private static final long POLL_MILLIS = 2;
+
+	private static final Pattern WAIT_LOG = Pattern.compile("^wait_log\\s+(\\S+)\\s+(?:\"((?:[^\"\\\\]|\\\\.)*)\"|'([^']*)')");
+
+	private static final Pattern WAIT_HTTP = Pattern.compile("^wait_http\\s+(\\S+)\\s+(?:\"((?:[^\"\\\\]|\\\\.)*)\"|'([^']*)')");
+
+	public enum Mode {
+
+		/**
+		 * The application jar on a regular JVM.
+		 */
+		JVM("jvm"),
+
+		/**
+		 * The application jar on a regular JVM, using the AOT generated code.
+		 */
+		AOT("aot"),
+
+		/**
+		 * The native executable.
+		 */
+		NATIVE("native");
+
+		private final String id;
+
+		Mode(String id) {
+			this.id = id;
+		}
+
+		public String getId() {
+			return id;
+		}
+
+		public static Mode from(String id) {
+			for (Mode mode : values()) {
+				if (mode.id.equals(id)) {
+					return mode;
+				}
+			}
+			throw new IllegalArgumentException("Unknown mode '" + id + "', expected one of jvm, aot or native");
+		}
+
+	}
+
+	private final Path directory;
+
+	private final String name;
+
+	private final Path reportDirectory;
+
+	private final Path jar;
+
+	private final Path executable;
+
+	private final String readinessLocation;
+
+	private final String readinessTerm;
+
+	private final boolean logReadiness;
+
+	private BenchmarkSample(Path directory, String name, Path reportDirectory, Path jar, Path executable,
+			String readinessLocation, String readinessTerm, boolean logReadiness) {
+		this.directory = directory;
+		this.name = name;
+		this.reportDirectory = reportDirectory;
+		this.jar = jar;
+		this.executable = executable;
+		this.readinessLocation = readinessLocation;
+		this.readinessTerm = readinessTerm;
+		this.logReadiness = logReadiness;
+	}
+
+	/**
+	 * Load the sample in the specified directory, built either with Maven or Gradle.
+	 */
+	public static BenchmarkSample load(Path directory) throws IOException {
+		directory = directory.toAbsolutePath().normalize();
+		boolean maven = Files.exists(directory.resolve("pom.xml"));
+		String name = directory.getFileName().toString();
+		Path reportDirectory = directory.resolve(maven ? "target/native" : "build/native");
+		Path jar = findJar(directory.resolve(maven ? "target" : "build/libs"));
+		Path executable = directory.resolve(maven ? "target" : "build/native/nativeBuild").resolve(name);
+		String location = null;
+		String term = null;
+		boolean log = false;
+		Path verifyScript = directory.resolve("verify.sh");
+		if (Files.exists(verifyScript)) {
+			// The first wait that is not an error handler is the readiness marker
+			for (String line : Files.readAllLines(verifyScript)) {
+				line = line.trim();
+				Matcher matcher = WAIT_LOG.matcher(line);
+				log = matcher.find();
+				if (!log) {
+					matcher = WAIT_HTTP.matcher(line);
+					if (!matcher.find()) {
+						continue;
+					}
+				}
+				location = matcher.group(1);
+				term = (matcher.group(2) != null) ? matcher.group(2).replace("\\\"", "\"") : matcher.group(3);
+				break;
+			}
+		}
+		return new BenchmarkSample(directory, name, reportDirectory, jar, executable, location, term, log);
+	}
+
+	private static Path findJar(Path directory) throws IOException {
+		if (!Files.isDirectory(directory)) {
+			return null;
+		}
+		try (Stream<Path> files = Files.list(directory)) {
+			// Prefer the repackaged jar, which is the largest one
+			Optional<Path> jar = files.filter((file) -> {
+				String filename = file.getFileName().toString();
+				return filename.endsWith(".jar") && !filename.endsWith("-sources.jar")
+						&& !filename.endsWith("-javadoc.jar") && !filename.endsWith("-plain.jar");
+			}).max(Comparator.comparingLong((file) -> file.toFile().length()));
+			return jar.orElse(null);
+		}
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Path getReportDirectory() {
+		return reportDirectory;
+	}
+
+	/**
+	 * Specify if the artifact required by the specified mode has been built.
+	 */
+	public boolean supports(Mode mode) {
+		Path artifact = getArtifact(mode);
+		return artifact != null && Files.isRegularFile(artifact);
+	}
+
+	/**
+	 * Specify if readiness is determined by running {@code verify.sh} rather than by
+	 * observing its readiness marker.
+	 */
+	public boolean isScriptReadiness() {
+		return readinessTerm == null;
+	}
+
+	/**
+	 * Return the size of the artifact launched in the specified mode, in megabytes.
+	 */
+	public double getSize(Mode mode) {
+		return getArtifact(mode).toFile().length() / (1024d * 1024d);
+	}
+
+	private Path getArtifact(Mode mode) {
+		return (mode == Mode.NATIVE) ? executable : jar;
+	}
+
+	List<String> getCommand(Mode mode) {
+		String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+		switch (mode) {
+		case JVM:
+			return Arrays.asList(java, "-jar", jar.toString());
+		case AOT:
+			return Arrays.asList(java, "-DspringAot=true", "-jar", jar.toString());
+		default:
+			return Arrays.asList(executable.toString());
+		}
+	}
+
+	/**
+	 * Launch the sample in the specified mode, wait until it is ready and stop it.
+	 */
+	public Measurement run(Mode mode, Duration timeout) throws IOException, InterruptedException {
+		Path output = (logReadiness) ? directory.resolve(readinessLocation) : reportDirectory.resolve("test-output.txt");
+		Files.createDirectories(output.getParent());
+		Files.deleteIfExists(output);
+		ProcessBuilder builder = new ProcessBuilder(getCommand(mode)).directory(directory.toFile())
+				.redirectErrorStream(true).redirectOutput(output.toFile());
+		long start = System.nanoTime();
+		Process process = builder.start();
+		ProcessSampler sampler = new ProcessSampler(process);
+		try {
+			if (isScriptReadiness()) {
+				runVerifyScript(timeout);
+			}
+			else {
+				waitForMarker(process, output, sampler, start + timeout.toNanos());
+			}
+			long ready = System.nanoTime();
+			sampler.sample();
+			return new Measurement((ready - start) / 1_000_000d, sampler.rss, sampler.cpu);
+		}
+		finally {
+			stop(process);
+		}
+	}
+
+	private void waitForMarker(Process process, Path output, ProcessSampler sampler, long deadline)
+			throws IOException, InterruptedException {
+		LogReader logReader = (logReadiness) ? new LogReader(output, readinessTerm) : null;
+		while (!isReady(logReader)) {
+			sampler.sample();
+			if (!process.isAlive()) {
+				// The marker may have been written just before exiting
+				if (isReady(logReader)) {
+					return;
+				}
+				throw new IllegalStateException("Process exited with code " + process.exitValue()
+						+ " before being ready, see " + output);
+			}
+			if (System.nanoTime() > deadline) {
+				throw new IllegalStateException("Timeout waiting for '" + readinessTerm + "', see " + output);
+			}
+			Thread.sleep(POLL_MILLIS);
+		}
+	}
+
+	private boolean isReady(LogReader logReader) throws IOException {
+		return (logReader != null) ? logReader.contains() : httpResponseContains(readinessLocation, readinessTerm);
+	}
+
+	private void runVerifyScript(Duration timeout) throws IOException, InterruptedException {
+		Process verify = new ProcessBuilder("bash", "verify.sh").directory(directory.toFile())
+				.redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+		if (!verify.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+			verify.destroyForcibly();
+			throw new IllegalStateException("Timeout running verify.sh for " + name);
+		}
+		if (verify.exitValue() != 0) {
+			throw new IllegalStateException("verify.sh failed for " + name + " with code " + verify.exitValue());
+		}
+	}
+
+	private static boolean httpResponseContains(String location, String term) {
+		try {
+			URL url = new URL(location.contains("://") ? location : "http://" + location);
+			HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+			connection.setConnectTimeout(100);
+			connection.setReadTimeout(1000);
+			if (url.getUserInfo() != null) {
+				connection.setRequestProperty("Authorization", "Basic " + Base64.getEncoder()
+						.encodeToString(url.getUserInfo().getBytes(StandardCharsets.UTF_8)));
+			}
+			int status = connection.getResponseCode();
+			try (InputStream body = (status < 400) ? connection.getInputStream() : connection.getErrorStream()) {
+				return body != null && new String(body.readAllBytes(), StandardCharsets.UTF_8).contains(term);
+			}
+		}
+		catch (IOException ex) {
+			// Not listening yet
+			return false;
+		}
+	}
+
+	private static void stop(Process process) throws InterruptedException {
+		List<ProcessHandle> descendants = new ArrayList<>();
+		process.descendants().forEach(descendants::add);
+		process.destroy();
+		if (!process.waitFor(10, TimeUnit.SECONDS)) {
+			process.destroyForcibly().waitFor();
+		}
+		descendants.forEach(ProcessHandle::destroyForcibly);
+	}
+
+	/**
+	 * Incrementally read the output of the sample, looking for the readiness marker. As
+	 * with {@code grep}, the marker is a regular expression.
+	 */
+	private static class LogReader {
+
+		private final Path output;
+
+		private final Pattern pattern;
+
+		private final StringBuilder content = new StringBuilder();
+
+		private long position;
+
+		LogReader(Path output, String term) {
+			this.output = output;
+			Pattern pattern;
+			try {
+				pattern = Pattern.compile(term);
+			}
+			catch (PatternSyntaxException ex) {
+				pattern = Pattern.compile(Pattern.quote(term));
+			}
+			this.pattern = pattern;
+		}
+
+		boolean contains() throws IOException {
+			if (!Files.exists(output) || Files.size(output) == position) {
+				return false;
+			}
+			try (RandomAccessFile file = new RandomAccessFile(output.toFile(), "r")) {
+				file.seek(position);
+				byte[] bytes = new byte[(int) (file.length() - position)];
+				file.readFully(bytes);
+				position += bytes.length;
+				content.append(new String(bytes, StandardCharsets.UTF_8));
+			}
+			return pattern.matcher(content).find();
+		}
+
+	}
+
+	/**
+	 * Keep track of the last known resident memory and CPU time of a process, as these
+	 * are no longer available once it has exited.
+	 */
+	private static class ProcessSampler {
+
+		private final Process process;
+
+		private double rss = Double.NaN;
+
+		private double cpu = Double.NaN;
+
+		ProcessSampler(Process process) {
+			this.process = process;
+		}
+
+		void sample() {
+			Path status = Paths.get("/proc", Long.toString(process.pid()), "status");
+			try {
+				for (String line : Files.readAllLines(status)) {
+					if (line.startsWith("VmRSS:")) {
+						rss = Long.parseLong(line.replaceAll("[^0-9]", "")) / 1024d;
+					}
+				}
+			}
+			catch (IOException | RuntimeException ex) {
+				// Exited or not on Linux
+			}
+			process.info().totalCpuDuration().ifPresent((duration) -> cpu = duration.toNanos() / 1_000_000d);
+		}
+
+	}
+
+	/**
+	 * The values measured when a sample is ready.
+	 */
+	public static class Measurement {
+
+		private final double readyMillis;
+
+		private final double rssMegabytes;
+
+		private final double cpuMillis;
+
+		Measurement(double readyMillis, double rssMegabytes, double cpuMillis) {
+			this.readyMillis = readyMillis;
+			this.rssMegabytes = rssMegabytes;
+			this.cpuMillis = cpuMillis;
+		}
+
+		public double getReadyMillis() {
+			return readyMillis;
+		}
+
+		public double getRssMegabytes() {
+			return rssMegabytes;
+		}
+
+		public double getCpuMillis() {
+			return cpuMillis;
+		}
+
+	}
+
+}
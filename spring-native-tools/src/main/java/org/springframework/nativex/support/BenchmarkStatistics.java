@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Summary statistics of the values measured for a metric. Missing values (NaN) are
+ * ignored.
+ *
+ * @author agent
+ */
+public class BenchmarkStatistics {
+
+	private final List<Double> values;
+
+	private BenchmarkStatistics(List<Double> values) {
+		this.values = values;
+	}
+
+	public static BenchmarkStatistics of(List<Double> measured) {
+		List<Double> values = new ArrayList<>();
+		for (Double value : measured) {
+			if (value != null && !value.isNaN()) {
+				values.add(value);
+			}
+		}
+		Collections.sort(values);
+		return new BenchmarkStatistics(values);
+	}
+
+	public int getCount() {
+		return values.size();
+	}
+
+	public double getMin() {
+		return values.isEmpty() ? Double.NaN : values.get(0);
+	}
+
+	public double getMax() {
+		return values.isEmpty() ? Double.NaN : values.get(values.size() - 1);
+	}
+
+	public double getMean() {
+		if (values.isEmpty()) {
+			return Double.NaN;
+		}
+		double sum = 0;
+		for (double value : values) {
+			sum += value;
+		}
+		return sum / values.size();
+	}
+
+	public double getMedian() {
+		return getPercentile(50);
+	}
+
+	/**
+	 * Return the specified percentile, interpolating between the closest ranks.
+	 */
+	public double getPercentile(double percentile) {
+		if (values.isEmpty()) {
+			return Double.NaN;
+		}
+		double rank = (percentile / 100) * (values.size() - 1);
+		int lower = (int) Math.floor(rank);
+		int upper = (int) Math.ceil(rank);
+		return values.get(lower) + (rank - lower) * (values.get(upper) - values.get(lower));
+	}
+
+	/**
+	 * Return the sample standard deviation.
+	 */
+	public double getStandardDeviation() {
+		if (values.size() < 2) {
+			return values.isEmpty() ? Double.NaN : 0;
+		}
+		double mean = getMean();
+		double sum = 0;
+		for (double value : values) {
+			sum += (value - mean) * (value - mean);
+		}
+		return Math.sqrt(sum / (values.size() - 1));
+	}
+
+	@Override
+	public String toString() {
+		if (values.isEmpty()) {
+			return "-";
+		}
+		return String.format("%.1f [%.1f-%.1f] sd=%.1f", getMedian(), getMin(), getMax(), getStandardDeviation());
+	}
+
+}
@@ -0,0 +1,615 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.support;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+
+/**
+ * A compact, indexed view of the output of a native-image run with
+ * {@code -H:+PrintAnalysisCallTree}. Contrary to {@link CallTree}, the file is streamed
+ * line by line and no tree of objects is created: each distinct method is interned once
+ * and calls between methods are stored as edges in primitive arrays, using a compressed
+ * sparse row layout for both directions. Memory usage is therefore bounded by the
+ * number of distinct methods and calls rather than by the size of the report, which
+ * repeats the same methods many times.
+ * <p>
+ * Nodes referenced with {@code id-ref} are not expanded by native-image as their
+ * callees are listed where the method first occurs with {@code id}. Interning methods by
+ * signature links both occurrences to the same index so that the resulting graph is
+ * complete.
+ * <p>
+ * An index can be {@link #save(Path) saved} in a binary form and {@link #load(Path)
+ * reloaded} to avoid parsing the same report several times.
+ *
+ * @author agent
+ */
+public class CallTreeIndex {
+
+	/**
+	 * A direct call from a method to another.
+	 */
+	public static final int DIRECT = 0;
+
+	/**
+	 * A virtual call from a method to another.
+	 */
+	public static final int VIRTUAL = 1;
+
+	/**
+	 * A virtual call target that is overridden by another method.
+	 */
+	public static final int OVERRIDDEN = 2;
+
+	private static final int MAGIC = 0x43544958; // CTIX
+
+	private static final int VERSION = 1;
+
+	private static final String[] KIND_NAMES = { "directly calls", "virtually calls", "is overridden by" };
+
+	private final String[] methods;
+
+	private final int[] entryPoints;
+
+	private final int[] callees;
+
+	private final int[] calleeEdges;
+
+	private final int[] callers;
+
+	private final int[] callerEdges;
+
+	private CallTreeIndex(String[] methods, int[] entryPoints, int[] callees, int[] calleeEdges) {
+		this.methods = methods;
+		this.entryPoints = entryPoints;
+		this.callees = callees;
+		this.calleeEdges = calleeEdges;
+		this.callers = new int[methods.length + 1];
+		this.callerEdges = new int[calleeEdges.length];
+		for (int edge : calleeEdges) {
+			this.callers[target(edge) + 1]++;
+		}
+		for (int i = 0; i < methods.length; i++) {
+			this.callers[i + 1] += this.callers[i];
+		}
+		int[] positions = Arrays.copyOf(this.callers, methods.length);
+		for (int source = 0; source < methods.length; source++) {
+			for (int i = callees[source]; i < callees[source + 1]; i++) {
+				int edge = calleeEdges[i];
+				this.callerEdges[positions[target(edge)]++] = pack(source, kind(edge));
+			}
+		}
+	}
+
+	/**
+	 * Open the specified file, either a previously {@link #save(Path) saved} index or
+	 * the raw output of native-image.
+	 * @param file the file to open
+	 * @return the index
+	 */
+	public static CallTreeIndex open(Path file) {
+		try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+			if (in.readInt() == MAGIC) {
+				return load(file);
+			}
+		}
+		catch (IOException ex) {
+			// Too short to be an index
+		}
+		return parse(file);
+	}
+
+	/**
+	 * Parse the specified file containing output from native-image.
+	 * @param file the file to parse
+	 * @return the index
+	 */
+	public static CallTreeIndex parse(Path file) {
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			return new Parser().parse(reader);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Problem loading file: " + file, ex);
+		}
+	}
+
+	/**
+	 * Load an index previously written by {@link #save(Path)}.
+	 * @param file the index file
+	 * @return the index
+	 */
+	public static CallTreeIndex load(Path file) {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				throw new IllegalStateException("Not a call tree index: " + file);
+			}
+			String[] methods = new String[in.readInt()];
+			for (int i = 0; i < methods.length; i++) {
+				methods[i] = in.readUTF();
+			}
+			int[] entryPoints = readInts(in);
+			int[] callees = readInts(in);
+			int[] calleeEdges = readInts(in);
+			return new CallTreeIndex(methods, entryPoints, callees, calleeEdges);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Problem loading index: " + file, ex);
+		}
+	}
+
+	/**
+	 * Save this index in a binary form that can be {@link #load(Path) loaded} later.
+	 * @param file the file to write
+	 */
+	public void save(Path file) {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(this.methods.length);
+			for (String method : this.methods) {
+				out.writeUTF(method);
+			}
+			writeInts(out, this.entryPoints);
+			writeInts(out, this.callees);
+			writeInts(out, this.calleeEdges);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Problem writing index: " + file, ex);
+		}
+	}
+
+	/**
+	 * Return the number of distinct methods.
+	 * @return the number of methods
+	 */
+	public int getMethodCount() {
+		return this.methods.length;
+	}
+
+	/**
+	 * Return the number of distinct calls between methods.
+	 * @return the number of edges
+	 */
+	public int getEdgeCount() {
+		return this.calleeEdges.length;
+	}
+
+	/**
+	 * Return the signature of the method with the specified index.
+	 * @param method the index of a method
+	 * @return its signature
+	 */
+	public String getMethod(int method) {
+		return this.methods[method];
+	}
+
+	/**
+	 * Return the indices of the methods whose signature contains the specified text.
+	 * @param text the text to find
+	 * @return the matching methods
+	 */
+	public int[] findMethods(String text) {
+		IntArray result = new IntArray();
+		for (int i = 0; i < this.methods.length; i++) {
+			if (this.methods[i].contains(text)) {
+				result.add(i);
+			}
+		}
+		return result.toArray();
+	}
+
+	/**
+	 * Return the callers of the methods whose signature contains the specified text.
+	 * @param text the text to find
+	 * @return a mapping from each matching method to the description of its callers
+	 */
+	public Map<String, List<String>> callersOf(String text) {
+		Map<String, List<String>> result = new TreeMap<>();
+		for (int method : findMethods(text)) {
+			List<String> descriptions = new ArrayList<>();
+			for (int i = this.callers[method]; i < this.callers[method + 1]; i++) {
+				int edge = this.callerEdges[i];
+				descriptions.add(this.methods[target(edge)] + " " + KIND_NAMES[kind(edge)]);
+			}
+			Collections.sort(descriptions);
+			result.put(this.methods[method], descriptions);
+		}
+		return result;
+	}
+
+	/**
+	 * Return the shortest path from an entry point to a method whose signature contains
+	 * the specified text.
+	 * @param text the text to find
+	 * @param ignoreOverridden whether paths through overridden methods should be ignored
+	 * @return the path, starting from the entry point, or an empty list if no matching
+	 * method is reachable
+	 */
+	public List<String> pathTo(String text, boolean ignoreOverridden) {
+		BitSet targets = new BitSet(this.methods.length);
+		for (int method : findMethods(text)) {
+			targets.set(method);
+		}
+		int[] predecessors = new int[this.methods.length];
+		Arrays.fill(predecessors, -1);
+		BitSet visited = new BitSet(this.methods.length);
+		int[] queue = new int[this.methods.length];
+		int head = 0;
+		int tail = 0;
+		for (int entryPoint : this.entryPoints) {
+			if (!visited.get(entryPoint)) {
+				visited.set(entryPoint);
+				queue[tail++] = entryPoint;
+			}
+		}
+		while (head < tail) {
+			int method = queue[head++];
+			if (targets.get(method)) {
+				return describePath(method, predecessors);
+			}
+			for (int i = this.callees[method]; i < this.callees[method + 1]; i++) {
+				int edge = this.calleeEdges[i];
+				int callee = target(edge);
+				if (!visited.get(callee) && !(ignoreOverridden && kind(edge) == OVERRIDDEN)) {
+					visited.set(callee);
+					predecessors[callee] = pack(method, kind(edge));
+					queue[tail++] = callee;
+				}
+			}
+		}
+		return Collections.emptyList();
+	}
+
+	private List<String> describePath(int method, int[] predecessors) {
+		List<String> path = new ArrayList<>();
+		int current = method;
+		while (predecessors[current] != -1) {
+			int edge = predecessors[current];
+			path.add(KIND_NAMES[kind(edge)] + " " + this.methods[current]);
+			current = target(edge);
+		}
+		path.add("entry " + this.methods[current]);
+		Collections.reverse(path);
+		return path;
+	}
+
+	/**
+	 * Return the signatures of the methods that are called by at least one other method.
+	 * Contrary to methods that are only entry points, for instance because they are
+	 * registered for reflection, these methods are reached from code that the analysis
+	 * has seen.
+	 * @return the signatures of the called methods
+	 */
+	public List<String> getCalledMethods() {
+		List<String> result = new ArrayList<>();
+		for (int method = 0; method < this.methods.length; method++) {
+			if (this.callers[method + 1] > this.callers[method]) {
+				result.add(this.methods[method]);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Return the number of methods that are reachable from the entry points.
+	 * @return the number of reachable methods
+	 */
+	public int reachableCount() {
+		return reachable((method) -> true).cardinality();
+	}
+
+	/**
+	 * Return the number of methods that are attributable to the specified package, that
+	 * is the methods of the package itself and the methods that are only reachable
+	 * through them. This is the number of methods that would no longer be reachable if
+	 * the package was removed.
+	 * @param packageName the name of a package, also matching its sub-packages
+	 * @return the size of the subtree attributable to the package
+	 */
+	public int packageSubtreeSize(String packageName) {
+		String prefix = (packageName.endsWith(".") ? packageName : packageName + ".");
+		BitSet all = reachable((method) -> true);
+		BitSet withoutPackage = reachable((method) -> !this.methods[method].startsWith(prefix));
+		all.andNot(withoutPackage);
+		return all.cardinality();
+	}
+
+	private BitSet reachable(IntPredicate filter) {
+		BitSet visited = new BitSet(this.methods.length);
+		int[] queue = new int[this.methods.length];
+		int tail = 0;
+		for (int entryPoint : this.entryPoints) {
+			if (filter.test(entryPoint) && !visited.get(entryPoint)) {
+				visited.set(entryPoint);
+				queue[tail++] = entryPoint;
+			}
+		}
+		for (int head = 0; head < tail; head++) {
+			int method = queue[head];
+			for (int i = this.callees[method]; i < this.callees[method + 1]; i++) {
+				int callee = target(this.calleeEdges[i]);
+				if (filter.test(callee) && !visited.get(callee)) {
+					visited.set(callee);
+					queue[tail++] = callee;
+				}
+			}
+		}
+		return visited;
+	}
+
+	private static int pack(int method, int kind) {
+		return (method << 2) | kind;
+	}
+
+	private static int target(int edge) {
+		return edge >>> 2;
+	}
+
+	private static int kind(int edge) {
+		return edge & 3;
+	}
+
+	private static int[] readInts(DataInputStream in) throws IOException {
+		int[] values = new int[in.readInt()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = in.readInt();
+		}
+		return values;
+	}
+
+	private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+		out.writeInt(values.length);
+		for (int value : values) {
+			out.writeInt(value);
+		}
+	}
+
+	/**
+	 * Streaming parser that only keeps the current branch of the tree.
+	 */
+	private static class Parser {
+
+		private static final String ENTRY = "─ entry ";
+
+		private static final String[] KIND_MARKERS = { "─ directly calls ", "─ virtually calls ", "─ is overridden by " };
+
+		private final Map<String, Integer> methodIds = new HashMap<>();
+
+		private final List<String> methods = new ArrayList<>();
+
+		private final IntArray entryPoints = new IntArray();
+
+		private final BitSet seenEntryPoints = new BitSet();
+
+		// The same call is listed at every call site, only keep distinct edges
+		private final LongHashSet seenEdges = new LongHashSet();
+
+		private final IntArray sources = new IntArray();
+
+		private final IntArray edges = new IntArray();
+
+		// Indent and method of each node of the current branch
+		private final IntArray indents = new IntArray();
+
+		private final IntArray branch = new IntArray();
+
+		CallTreeIndex parse(BufferedReader reader) throws IOException {
+			boolean valid = false;
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (valid) {
+					processLine(line);
+				}
+				else if (line.equals("VM Entry Points")) {
+					valid = true;
+				}
+			}
+			return build();
+		}
+
+		private void processLine(String line) {
+			if (line.trim().isEmpty()) {
+				return;
+			}
+			int indent = line.lastIndexOf('─');
+			while (this.indents.size() > 0 && this.indents.last() >= indent) {
+				this.indents.removeLast();
+				this.branch.removeLast();
+			}
+			int start = line.indexOf(ENTRY);
+			if (start != -1) {
+				int method = intern(line, start + ENTRY.length());
+				if (!this.seenEntryPoints.get(method)) {
+					this.seenEntryPoints.set(method);
+					this.entryPoints.add(method);
+				}
+				push(indent, method);
+				return;
+			}
+			for (int kind = 0; kind < KIND_MARKERS.length; kind++) {
+				start = line.indexOf(KIND_MARKERS[kind]);
+				if (start != -1) {
+					int method = intern(line, start + KIND_MARKERS[kind].length());
+					if (this.branch.size() > 0) {
+						addEdge(this.branch.last(), pack(method, kind));
+					}
+					push(indent, method);
+					return;
+				}
+			}
+			throw new IllegalStateException("What is this? " + line);
+		}
+
+		private void addEdge(int source, int edge) {
+			if (this.seenEdges.add(((long) source << 32) | (edge & 0xFFFFFFFFL))) {
+				this.sources.add(source);
+				this.edges.add(edge);
+			}
+		}
+
+		private void push(int indent, int method) {
+			this.indents.add(indent);
+			this.branch.add(method);
+		}
+
+		private int intern(String line, int start) {
+			// The signature ends with the return type, after the first ':'
+			int colon = line.indexOf(':', start);
+			int end = (colon != -1) ? line.indexOf(' ', colon) : -1;
+			String signature = line.substring(start, (end != -1) ? end : line.length()).trim();
+			Integer id = this.methodIds.get(signature);
+			if (id == null) {
+				id = this.methods.size();
+				this.methodIds.put(signature, id);
+				this.methods.add(signature);
+			}
+			return id;
+		}
+
+		private CallTreeIndex build() {
+			int methodCount = this.methods.size();
+			int[] offsets = new int[methodCount + 1];
+			for (int i = 0; i < this.sources.size(); i++) {
+				offsets[this.sources.get(i) + 1]++;
+			}
+			for (int i = 0; i < methodCount; i++) {
+				offsets[i + 1] += offsets[i];
+			}
+			int[] sorted = new int[this.edges.size()];
+			int[] positions = Arrays.copyOf(offsets, methodCount);
+			for (int i = 0; i < this.sources.size(); i++) {
+				sorted[positions[this.sources.get(i)]++] = this.edges.get(i);
+			}
+			// Edges are distinct already, only sort the callees of each method
+			for (int method = 0; method < methodCount; method++) {
+				Arrays.sort(sorted, offsets[method], offsets[method + 1]);
+			}
+			return new CallTreeIndex(this.methods.toArray(new String[0]), this.entryPoints.toArray(), offsets, sorted);
+		}
+
+	}
+
+	/**
+	 * A set of {@code long} values using open addressing, without boxing. Negative values
+	 * are not supported.
+	 */
+	private static class LongHashSet {
+
+		private static final long EMPTY = -1L;
+
+		private long[] values = newTable(1 << 16);
+
+		private int size;
+
+		/**
+		 * Add the specified value.
+		 * @param value the value to add, must be positive
+		 * @return {@code true} if the value was added, {@code false} if it was already
+		 * present
+		 */
+		boolean add(long value) {
+			if (!insert(this.values, value)) {
+				return false;
+			}
+			if (++this.size * 2 > this.values.length) {
+				long[] table = newTable(this.values.length * 2);
+				for (long existing : this.values) {
+					if (existing != EMPTY) {
+						insert(table, existing);
+					}
+				}
+				this.values = table;
+			}
+			return true;
+		}
+
+		private static boolean insert(long[] table, long value) {
+			int mask = table.length - 1;
+			int index = (int) ((value * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+			while (table[index] != EMPTY) {
+				if (table[index] == value) {
+					return false;
+				}
+				index = (index + 1) & mask;
+			}
+			table[index] = value;
+			return true;
+		}
+
+		private static long[] newTable(int capacity) {
+			long[] table = new long[capacity];
+			Arrays.fill(table, EMPTY);
+			return table;
+		}
+
+	}
+
+	/**
+	 * A growable array of {@code int} values.
+	 */
+	private static class IntArray {
+
+		private int[] values = new int[1024];
+
+		private int size;
+
+		void add(int value) {
+			if (this.size == this.values.length) {
+				this.values = Arrays.copyOf(this.values, this.values.length * 2);
+			}
+			this.values[this.size++] = value;
+		}
+
+		int get(int index) {
+			return this.values[index];
+		}
+
+		int last() {
+			return this.values[this.size - 1];
+		}
+
+		void removeLast() {
+			this.size--;
+		}
+
+		int size() {
+			return this.size;
+		}
+
+		int[] toArray() {
+			return Arrays.copyOf(this.values, this.size);
+		}
+
+	}
+
+}
@@ -18,8 +18,10 @@ package org.springframework.nativex.support;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /*
  * 
@@ -33,6 +35,13 @@ public class CallTreeQuery {
 					"Usage: CallTreeQuery <fileLocation> [options] command parameter");
 			System.out.println(
 					"e.g. CallTreeQuery /path/to/output.txt --ignore-overridden routes Foo.toString");
+			System.out.println("Commands:");
+			System.out.println("  routes <text>          print all routes to methods containing text (loads the full tree)");
+			System.out.println("  callers <text>         print the direct callers of methods containing text");
+			System.out.println("  path <text>            print the shortest path from an entry point to a method containing text");
+			System.out.println("  package-size <package> print the number of methods only reachable through a package");
+			System.out.println("  index <indexFile>      write a binary index that can be used in place of the original file");
+			System.out.println("All commands but 'routes' use a compact index and can process very large files.");
 			System.exit(0);
 		}
 		String file, command, parameter;
@@ -45,7 +54,6 @@ public class CallTreeQuery {
 		command = args[commandIndex];
 		parameter = args[commandIndex+1];
 		
-		CallTree a = CallTree.load("", file);
 		int flags = 0;
 		if (options.contains("--ignore-overridden")) {
 			flags|=CallTree.IGNORE_OVERRIDDEN;
@@ -53,11 +61,46 @@ public class CallTreeQuery {
 
 		switch (command) {
 		case "routes": 
+			CallTree a = CallTree.load("", file);
 			System.out.println("Printing routes to "+parameter);
 			a.printRoutes(parameter, flags);
 			break;
+		case "callers":
+			for (Map.Entry<String, List<String>> entry : openIndex(file).callersOf(parameter).entrySet()) {
+				System.out.println(entry.getKey() + " (" + entry.getValue().size() + " callers)");
+				for (String caller : entry.getValue()) {
+					System.out.println("  " + caller);
+				}
+			}
+			break;
+		case "path":
+			List<String> path = openIndex(file).pathTo(parameter, (flags & CallTree.IGNORE_OVERRIDDEN) != 0);
+			if (path.isEmpty()) {
+				System.out.println("No path found to "+parameter);
+			}
+			for (int i = 0; i < path.size(); i++) {
+				System.out.println(" ".repeat(i * 2) + path.get(i));
+			}
+			break;
+		case "package-size":
+			CallTreeIndex index = openIndex(file);
+			System.out.println(index.packageSubtreeSize(parameter) + " of " + index.reachableCount()
+					+ " reachable methods are attributable to " + parameter);
+			break;
+		case "index":
+			openIndex(file).save(Paths.get(parameter));
+			System.out.println("Index written to "+parameter);
+			break;
 			default:
-				throw new IllegalStateException("Don't understand command: "+args[1]);
+				throw new IllegalStateException("Don't understand command: "+command);
 		}
 	}
+
+	private static CallTreeIndex openIndex(String file) {
+		long start = System.currentTimeMillis();
+		CallTreeIndex index = CallTreeIndex.open(Paths.get(file));
+		System.out.println("Indexed " + index.getMethodCount() + " methods and " + index.getEdgeCount() + " calls in "
+				+ (System.currentTimeMillis() - start) + "ms");
+		return index;
+	}
 }
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.support;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.nativex.support.CompilationSummary.Compiled;
+
+/**
+ * The footprint of a native-image build, by type, read from its output. The files are
+ * streamed line by line and only the following sections are retained, in any order and
+ * from any number of files:
+ * <ul>
+ * <li>the {@code === Total ===} section of {@code -H:+PrintHeapHistogram}, for the
+ * bytes of the image heap</li>
+ * <li>the table of {@code -H:+PrintMethodHistogram}, for the code size</li>
+ * <li>the {@code Compiling ...} lines of {@code -H:+PrintAOTCompilation}, for the number
+ * of compiled methods</li>
+ * </ul>
+ * Memory usage is bounded by the number of distinct types rather than by the size of the
+ * output.
+ *
+ * @author agent
+ */
+public class Footprint {
+
+	private static final String HEAP_HISTOGRAM_HEADER = ".*Count.*Size.*Size%.*Cum%.*Class.*$";
+
+	private final String id;
+
+	private final Map<String, Long> heapBytes = new HashMap<>();
+
+	private final Map<String, Long> codeBytes = new HashMap<>();
+
+	private final Map<String, Long> compiledMethods = new HashMap<>();
+
+	private long imageBytes = -1;
+
+	private Footprint(String id) {
+		this.id = id;
+	}
+
+	/**
+	 * Load the footprint of a build from the specified native-image output files.
+	 * @param id an arbitrary string used to identify the build
+	 * @param files the files containing the output of native-image
+	 * @param image the native executable, or {@code null}
+	 * @return the footprint
+	 */
+	public static Footprint load(String id, Iterable<Path> files, Path image) {
+		Footprint footprint = new Footprint(id);
+		for (Path file : files) {
+			footprint.read(file);
+		}
+		if (image != null) {
+			try {
+				footprint.imageBytes = Files.size(image);
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Problem reading size of " + image, ex);
+			}
+		}
+		return footprint;
+	}
+
+	private void read(Path file) {
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			Section section = Section.NONE;
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.startsWith("Compiling ")) {
+					Compiled compiled = Compiled.from(line);
+					this.compiledMethods.merge(compiled.getType(), 1L, Long::sum);
+					continue;
+				}
+				boolean blank = line.trim().isEmpty();
+				switch (section) {
+				case HEAP_TOTAL:
+					if (blank) {
+						section = Section.NONE;
+					}
+					else if (line.matches(HEAP_HISTOGRAM_HEADER)) {
+						section = Section.HEAP_ROWS;
+					}
+					break;
+				case HEAP_ROWS:
+					if (blank) {
+						section = Section.NONE;
+					}
+					else {
+						Histogram.Datum datum = Histogram.Datum.from(line);
+						this.heapBytes.merge(datum.getClassname(), (long) datum.getSize(), Long::sum);
+					}
+					break;
+				case METHOD_ROWS:
+					if (blank) {
+						section = Section.NONE;
+					}
+					else {
+						addMethod(line);
+					}
+					break;
+				default:
+					if (line.trim().equals("=== Total ===")) {
+						section = Section.HEAP_TOTAL;
+					}
+					else if (line.startsWith("Code Size;")) {
+						section = Section.METHOD_ROWS;
+					}
+				}
+			}
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Problem loading file: " + file, ex);
+		}
+	}
+
+	private void addMethod(String line) {
+		// 610; 54; 203; ; ; 0; 0; 0; 0; 0; 0; 0; 162; app.main.Foo.toString() String
+		int firstSeparator = line.indexOf(';');
+		int lastSeparator = line.lastIndexOf(';');
+		if (firstSeparator == -1) {
+			throw new IllegalStateException("Unable to match '" + line + "'");
+		}
+		long codeSize = Long.parseLong(line.substring(0, firstSeparator).trim());
+		String method = line.substring(lastSeparator + 1).trim();
+		int parameters = method.indexOf('(');
+		String qualifiedName = (parameters != -1) ? method.substring(0, parameters) : method;
+		int dot = qualifiedName.lastIndexOf('.');
+		String type = (dot != -1) ? qualifiedName.substring(0, dot) : qualifiedName;
+		this.codeBytes.merge(type, codeSize, Long::sum);
+	}
+
+	public String getId() {
+		return this.id;
+	}
+
+	/**
+	 * Return the size of the native executable.
+	 * @return the size in bytes or {@code -1} if the executable was not specified
+	 */
+	public long getImageBytes() {
+		return this.imageBytes;
+	}
+
+	public long getHeapBytes() {
+		return sum(this.heapBytes);
+	}
+
+	public long getCodeBytes() {
+		return sum(this.codeBytes);
+	}
+
+	public long getCompiledMethods() {
+		return sum(this.compiledMethods);
+	}
+
+	public long getHeapBytes(String type) {
+		return this.heapBytes.getOrDefault(type, 0L);
+	}
+
+	public long getCodeBytes(String type) {
+		return this.codeBytes.getOrDefault(type, 0L);
+	}
+
+	public long getCompiledMethods(String type) {
+		return this.compiledMethods.getOrDefault(type, 0L);
+	}
+
+	/**
+	 * Return whether a heap histogram was found in the output.
+	 * @return {@code true} if heap data is available
+	 */
+	public boolean hasHeapHistogram() {
+		return !this.heapBytes.isEmpty();
+	}
+
+	/**
+	 * Return whether a method histogram was found in the output.
+	 * @return {@code true} if code size data is available
+	 */
+	public boolean hasMethodHistogram() {
+		return !this.codeBytes.isEmpty();
+	}
+
+	/**
+	 * Return whether compilation messages were found in the output.
+	 * @return {@code true} if compiled methods data is available
+	 */
+	public boolean hasCompilationSummary() {
+		return !this.compiledMethods.isEmpty();
+	}
+
+	/**
+	 * Return the types that this footprint has data for.
+	 * @return the names of the types
+	 */
+	public Set<String> getTypes() {
+		Set<String> types = new HashSet<>(this.heapBytes.keySet());
+		types.addAll(this.codeBytes.keySet());
+		types.addAll(this.compiledMethods.keySet());
+		return types;
+	}
+
+	private static long sum(Map<String, Long> values) {
+		long total = 0;
+		for (long value : values.values()) {
+			total += value;
+		}
+		return total;
+	}
+
+	private enum Section {
+
+		NONE, HEAP_TOTAL, HEAP_ROWS, METHOD_ROWS
+
+	}
+
+}
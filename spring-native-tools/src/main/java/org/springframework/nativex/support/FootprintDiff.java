@@ -0,0 +1,473 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.support;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.nativex.type.HintDeclaration;
+import org.springframework.nativex.type.SpringConfiguration;
+import org.springframework.nativex.type.TypeSystem;
+
+/**
+ * Compare the footprint of two native-image builds and fail if it grew more than
+ * configured, so that a CI build can block changes that grow the image or its heap. The
+ * output of each build is {@link Footprint streamed}, and the difference in image heap
+ * bytes, code size and compiled methods is attributed to each package and, if the
+ * classpath of the application is specified, to each hint, using the types the hint
+ * registers. As several hints can register the same type, the deltas of hints overlap.
+ * <p>
+ * The process exits with {@code 1} if a threshold is exceeded. A threshold is either a
+ * percentage of the baseline, e.g. {@code 5%}, or an absolute increase, e.g.
+ * {@code 512KB}, {@code 2MB} or a number of bytes or methods.
+ *
+ * @author agent
+ */
+public class FootprintDiff {
+
+	public static void main(String[] args) throws IOException {
+		Path baselineImage = null;
+		Path image = null;
+		String hintsClasspath = null;
+		Path html = null;
+		int top = 20;
+		Map<Metric, Threshold> thresholds = new TreeMap<>();
+		Threshold packageThreshold = null;
+		List<String> builds = new ArrayList<>();
+		for (String arg : args) {
+			if (arg.equals("--help")) {
+				printUsage();
+				System.exit(0);
+			}
+			else if (arg.startsWith("--baseline-image=")) {
+				baselineImage = Paths.get(value(arg));
+			}
+			else if (arg.startsWith("--image=")) {
+				image = Paths.get(value(arg));
+			}
+			else if (arg.startsWith("--hints=")) {
+				hintsClasspath = value(arg);
+			}
+			else if (arg.startsWith("--html=")) {
+				html = Paths.get(value(arg));
+			}
+			else if (arg.startsWith("--top=")) {
+				top = Integer.parseInt(value(arg));
+			}
+			else if (arg.startsWith("--max-image-growth=")) {
+				thresholds.put(Metric.IMAGE, Threshold.parse(value(arg)));
+			}
+			else if (arg.startsWith("--max-heap-growth=")) {
+				thresholds.put(Metric.HEAP, Threshold.parse(value(arg)));
+			}
+			else if (arg.startsWith("--max-code-growth=")) {
+				thresholds.put(Metric.CODE, Threshold.parse(value(arg)));
+			}
+			else if (arg.startsWith("--max-compiled-growth=")) {
+				thresholds.put(Metric.COMPILED, Threshold.parse(value(arg)));
+			}
+			else if (arg.startsWith("--max-package-growth=")) {
+				packageThreshold = Threshold.parse(value(arg));
+			}
+			else if (arg.startsWith("--")) {
+				System.out.println("Unknown option: " + arg);
+				printUsage();
+				System.exit(1);
+			}
+			else {
+				builds.add(arg);
+			}
+		}
+		if (builds.size() != 2) {
+			printUsage();
+			System.exit(1);
+		}
+		Footprint baseline = Footprint.load("baseline", files(builds.get(0)), baselineImage);
+		Footprint candidate = Footprint.load("candidate", files(builds.get(1)), image);
+		List<Delta> packages = attributeToPackages(baseline, candidate);
+		List<Delta> hints = (hintsClasspath != null) ? attributeToHints(baseline, candidate, loadHints(hintsClasspath))
+				: new ArrayList<>();
+
+		Delta total = total(baseline, candidate);
+		System.out.println(String.format("%-16s %14s %14s %14s", "", "baseline", "candidate", "delta"));
+		for (Metric metric : Metric.values()) {
+			if (total.isAvailable(metric)) {
+				System.out.println(String.format("%-16s %14d %14d %+14d %s", metric.getLabel(), total.getBaseline(metric),
+						total.getCandidate(metric), total.getDelta(metric), percent(total, metric)));
+			}
+		}
+		print("Packages", packages, top);
+		if (hintsClasspath != null) {
+			print("Hints (by trigger type)", hints, top);
+		}
+		if (html != null) {
+			writeHtml(html, total, packages, hints, top);
+			System.out.println("\nReport written to " + html);
+		}
+
+		List<String> violations = new ArrayList<>();
+		for (Map.Entry<Metric, Threshold> entry : thresholds.entrySet()) {
+			Metric metric = entry.getKey();
+			if (!total.isAvailable(metric)) {
+				violations.add(metric.getLabel() + ": no data, a threshold is configured but the build output does not include it");
+			}
+			else if (entry.getValue().isExceeded(total.getBaseline(metric), total.getCandidate(metric))) {
+				violations.add(String.format("%s grew by %+d %s (limit %s)", metric.getLabel(), total.getDelta(metric),
+						percent(total, metric), entry.getValue()));
+			}
+		}
+		if (packageThreshold != null) {
+			for (Delta delta : packages) {
+				if (packageThreshold.isExceeded(delta.getBytesBaseline(), delta.getBytesCandidate())) {
+					violations.add(String.format("%s grew by %+d bytes (limit %s)", delta.getName(), delta.getBytesDelta(),
+							packageThreshold));
+				}
+			}
+		}
+		if (!violations.isEmpty()) {
+			System.out.println("\nFootprint thresholds exceeded:");
+			violations.forEach((violation) -> System.out.println("  " + violation));
+			System.exit(1);
+		}
+		if (!thresholds.isEmpty() || packageThreshold != null) {
+			System.out.println("\nNo footprint threshold exceeded");
+		}
+	}
+
+	private static List<Path> files(String build) {
+		List<Path> files = new ArrayList<>();
+		for (String file : build.split(",")) {
+			files.add(Paths.get(file));
+		}
+		return files;
+	}
+
+	private static Delta total(Footprint baseline, Footprint candidate) {
+		Delta total = new Delta("total");
+		total.add(Metric.HEAP, baseline.hasHeapHistogram() && candidate.hasHeapHistogram(), baseline.getHeapBytes(),
+				candidate.getHeapBytes());
+		total.add(Metric.CODE, baseline.hasMethodHistogram() && candidate.hasMethodHistogram(), baseline.getCodeBytes(),
+				candidate.getCodeBytes());
+		total.add(Metric.COMPILED, baseline.hasCompilationSummary() && candidate.hasCompilationSummary(),
+				baseline.getCompiledMethods(), candidate.getCompiledMethods());
+		total.add(Metric.IMAGE, baseline.getImageBytes() != -1 && candidate.getImageBytes() != -1,
+				baseline.getImageBytes(), candidate.getImageBytes());
+		return total;
+	}
+
+	private static List<Delta> attributeToPackages(Footprint baseline, Footprint candidate) {
+		Map<String, Delta> deltas = new TreeMap<>();
+		Set<String> types = baseline.getTypes();
+		types.addAll(candidate.getTypes());
+		for (String type : types) {
+			int dot = type.lastIndexOf('.');
+			String packageName = (dot != -1) ? type.substring(0, dot) : "(default)";
+			deltas.computeIfAbsent(packageName, Delta::new).add(baseline, candidate, type);
+		}
+		return sorted(deltas);
+	}
+
+	private static List<Delta> attributeToHints(Footprint baseline, Footprint candidate, Map<String, Set<String>> hints) {
+		Map<String, Delta> deltas = new TreeMap<>();
+		for (Map.Entry<String, Set<String>> hint : hints.entrySet()) {
+			Delta delta = new Delta(hint.getKey());
+			for (String type : hint.getValue()) {
+				delta.add(baseline, candidate, type);
+			}
+			deltas.put(hint.getKey(), delta);
+		}
+		return sorted(deltas);
+	}
+
+	private static List<Delta> sorted(Map<String, Delta> deltas) {
+		List<Delta> result = new ArrayList<>();
+		for (Delta delta : deltas.values()) {
+			if (delta.getBytesDelta() != 0 || delta.getDelta(Metric.COMPILED) != 0) {
+				result.add(delta);
+			}
+		}
+		result.sort(Comparator.comparingLong((Delta delta) -> Math.abs(delta.getBytesDelta())).reversed()
+				.thenComparing(Delta::getName));
+		return result;
+	}
+
+	/**
+	 * Return the types registered by each hint available on the specified classpath,
+	 * keyed by trigger type.
+	 */
+	private static Map<String, Set<String>> loadHints(String classpath) throws IOException {
+		List<String> entries = Arrays.asList(classpath.split(File.pathSeparator));
+		List<URL> urls = new ArrayList<>();
+		for (String entry : entries) {
+			try {
+				urls.add(new File(entry).toURI().toURL());
+			}
+			catch (MalformedURLException ex) {
+				throw new IllegalStateException("Invalid classpath entry: " + entry, ex);
+			}
+		}
+		Map<String, Set<String>> hints = new TreeMap<>();
+		Thread thread = Thread.currentThread();
+		ClassLoader previous = thread.getContextClassLoader();
+		// Hint providers are discovered using the context class loader
+		try (URLClassLoader classLoader = new URLClassLoader(urls.toArray(new URL[0]), FootprintDiff.class.getClassLoader())) {
+			thread.setContextClassLoader(classLoader);
+			SpringConfiguration springConfiguration = new SpringConfiguration(new TypeSystem(entries));
+			for (Map.Entry<String, List<HintDeclaration>> entry : springConfiguration.getProposedhints().entrySet()) {
+				Set<String> types = hints.computeIfAbsent(entry.getKey(), (trigger) -> new HashSet<>());
+				for (HintDeclaration hint : entry.getValue()) {
+					types.addAll(hint.getDependantTypes().keySet());
+				}
+			}
+		}
+		finally {
+			thread.setContextClassLoader(previous);
+		}
+		return hints;
+	}
+
+	private static void print(String title, List<Delta> deltas, int top) {
+		System.out.println();
+		System.out.println(String.format("%s, top %d of %d changed:", title, Math.min(top, deltas.size()), deltas.size()));
+		System.out.println(String.format("  %14s %14s %10s  %s", "heap delta", "code delta", "methods", "name"));
+		for (Delta delta : deltas.subList(0, Math.min(top, deltas.size()))) {
+			System.out.println(String.format("  %+14d %+14d %+10d  %s", delta.getDelta(Metric.HEAP),
+					delta.getDelta(Metric.CODE), delta.getDelta(Metric.COMPILED), delta.getName()));
+		}
+	}
+
+	private static void writeHtml(Path file, Delta total, List<Delta> packages, List<Delta> hints, int top)
+			throws IOException {
+		StringBuilder html = new StringBuilder();
+		html.append("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"UTF-8\">\n<title>Footprint diff</title>\n");
+		html.append("<style>body{font-family:sans-serif}table{border-collapse:collapse}")
+				.append("th,td{border:1px solid #ccc;padding:2px 6px}td.n{text-align:right}</style>\n");
+		html.append("</head>\n<body>\n<h1>Footprint diff</h1>\n");
+		html.append("<table>\n<tr><th>Metric</th><th>Baseline</th><th>Candidate</th><th>Delta</th></tr>\n");
+		for (Metric metric : Metric.values()) {
+			if (total.isAvailable(metric)) {
+				html.append(String.format("<tr><td>%s</td><td class=\"n\">%d</td><td class=\"n\">%d</td>"
+						+ "<td class=\"n\">%+d %s</td></tr>\n", metric.getLabel(), total.getBaseline(metric),
+						total.getCandidate(metric), total.getDelta(metric), percent(total, metric)));
+			}
+		}
+		html.append("</table>\n");
+		appendHtml(html, "Packages", packages, top);
+		if (!hints.isEmpty()) {
+			appendHtml(html, "Hints (by trigger type)", hints, top);
+		}
+		html.append("</body>\n</html>\n");
+		if (file.getParent() != null) {
+			Files.createDirectories(file.getParent());
+		}
+		Files.write(file, html.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void appendHtml(StringBuilder html, String title, List<Delta> deltas, int top) {
+		html.append("<h2>").append(title).append("</h2>\n");
+		html.append("<table>\n<tr><th>Name</th><th>Heap delta (bytes)</th><th>Code delta (bytes)</th>")
+				.append("<th>Compiled methods delta</th></tr>\n");
+		for (Delta delta : deltas.subList(0, Math.min(top, deltas.size()))) {
+			html.append(String.format("<tr><td>%s</td><td class=\"n\">%+d</td><td class=\"n\">%+d</td>"
+					+ "<td class=\"n\">%+d</td></tr>\n", escape(delta.getName()), delta.getDelta(Metric.HEAP),
+					delta.getDelta(Metric.CODE), delta.getDelta(Metric.COMPILED)));
+		}
+		html.append("</table>\n");
+	}
+
+	private static String escape(String value) {
+		return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+	}
+
+	private static String percent(Delta delta, Metric metric) {
+		long baseline = delta.getBaseline(metric);
+		return (baseline != 0) ? String.format("(%+.1f%%)", delta.getDelta(metric) * 100d / baseline) : "";
+	}
+
+	private static String value(String option) {
+		return option.substring(option.indexOf('=') + 1);
+	}
+
+	private static void printUsage() {
+		System.out.println("Usage: FootprintDiff [options] <baseline-output>[,<file>...] <candidate-output>[,<file>...]");
+		System.out.println("e.g. FootprintDiff --max-heap-growth=5% --max-image-growth=1MB main/output.txt pr/output.txt");
+		System.out.println("The output of each build must include the output of -H:+PrintHeapHistogram, -H:+PrintMethodHistogram");
+		System.out.println("and/or -H:+PrintAOTCompilation, possibly split in several files.");
+		System.out.println("Options:");
+		System.out.println("  --baseline-image=<file>        native executable of the baseline build");
+		System.out.println("  --image=<file>                 native executable of the candidate build");
+		System.out.println("  --hints=<classpath>            application classpath, to attribute deltas to the hints found on it");
+		System.out.println("  --top=<n>                      number of packages and hints to report (default: 20)");
+		System.out.println("  --html=<file>                  also write the report as HTML");
+		System.out.println("  --max-image-growth=<limit>     tolerated growth of the native executable");
+		System.out.println("  --max-heap-growth=<limit>      tolerated growth of the image heap");
+		System.out.println("  --max-code-growth=<limit>      tolerated growth of the compiled code");
+		System.out.println("  --max-compiled-growth=<limit>  tolerated growth of the number of compiled methods");
+		System.out.println("  --max-package-growth=<limit>   tolerated growth of the heap and code bytes of any package");
+		System.out.println("A limit is a percentage of the baseline (5%) or an absolute increase (512KB, 2MB, 1000).");
+	}
+
+	enum Metric {
+
+		IMAGE("image bytes"), HEAP("heap bytes"), CODE("code bytes"), COMPILED("compiled methods");
+
+		private final String label;
+
+		Metric(String label) {
+			this.label = label;
+		}
+
+		String getLabel() {
+			return this.label;
+		}
+
+	}
+
+	/**
+	 * The values of each {@link Metric} in both builds, for the whole image or for the
+	 * types of a package or hint.
+	 */
+	static class Delta {
+
+		private final String name;
+
+		private final long[] baseline = new long[Metric.values().length];
+
+		private final long[] candidate = new long[Metric.values().length];
+
+		private final boolean[] available = new boolean[Metric.values().length];
+
+		Delta(String name) {
+			this.name = name;
+		}
+
+		void add(Footprint baseline, Footprint candidate, String type) {
+			add(Metric.HEAP, true, baseline.getHeapBytes(type), candidate.getHeapBytes(type));
+			add(Metric.CODE, true, baseline.getCodeBytes(type), candidate.getCodeBytes(type));
+			add(Metric.COMPILED, true, baseline.getCompiledMethods(type), candidate.getCompiledMethods(type));
+		}
+
+		void add(Metric metric, boolean available, long baseline, long candidate) {
+			this.available[metric.ordinal()] = available;
+			this.baseline[metric.ordinal()] += baseline;
+			this.candidate[metric.ordinal()] += candidate;
+		}
+
+		String getName() {
+			return this.name;
+		}
+
+		boolean isAvailable(Metric metric) {
+			return this.available[metric.ordinal()];
+		}
+
+		long getBaseline(Metric metric) {
+			return this.baseline[metric.ordinal()];
+		}
+
+		long getCandidate(Metric metric) {
+			return this.candidate[metric.ordinal()];
+		}
+
+		long getDelta(Metric metric) {
+			return getCandidate(metric) - getBaseline(metric);
+		}
+
+		long getBytesBaseline() {
+			return getBaseline(Metric.HEAP) + getBaseline(Metric.CODE);
+		}
+
+		long getBytesCandidate() {
+			return getCandidate(Metric.HEAP) + getCandidate(Metric.CODE);
+		}
+
+		long getBytesDelta() {
+			return getBytesCandidate() - getBytesBaseline();
+		}
+
+	}
+
+	/**
+	 * A tolerated growth, either relative to the baseline or absolute.
+	 */
+	static class Threshold {
+
+		private final String description;
+
+		private final double percent;
+
+		private final long absolute;
+
+		private Threshold(String description, double percent, long absolute) {
+			this.description = description;
+			this.percent = percent;
+			this.absolute = absolute;
+		}
+
+		static Threshold parse(String value) {
+			String limit = value.trim().toUpperCase();
+			if (limit.endsWith("%")) {
+				return new Threshold(value, Double.parseDouble(limit.substring(0, limit.length() - 1)), -1);
+			}
+			long multiplier = 1;
+			if (limit.endsWith("KB")) {
+				multiplier = 1024;
+			}
+			else if (limit.endsWith("MB")) {
+				multiplier = 1024 * 1024;
+			}
+			else if (limit.endsWith("GB")) {
+				multiplier = 1024 * 1024 * 1024;
+			}
+			String number = (multiplier != 1) ? limit.substring(0, limit.length() - 2) : limit;
+			return new Threshold(value, -1, (long) (Double.parseDouble(number.trim()) * multiplier));
+		}
+
+		boolean isExceeded(long baseline, long candidate) {
+			long growth = candidate - baseline;
+			if (this.absolute != -1) {
+				return growth > this.absolute;
+			}
+			if (baseline == 0) {
+				return growth > 0;
+			}
+			return growth * 100d / baseline > this.percent;
+		}
+
+		@Override
+		public String toString() {
+			return this.description;
+		}
+
+	}
+
+}
@@ -16,13 +16,7 @@
 
 package org.springframework.nativex.support;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.util.List;
-
 import org.springframework.nativex.domain.reflect.ClassDescriptor;
-import org.springframework.nativex.domain.reflect.JsonMarshaller;
-import org.springframework.nativex.domain.reflect.ReflectionDescriptor;
 
 public class ReflectionJsonComparator {
 
@@ -31,44 +25,32 @@ public class ReflectionJsonComparator {
 			System.out.println("Usage: ReflectionJsonComparator <reflect-config1.json> <reflect-config2.json>");
 			System.exit(1);
 		}
-		ReflectionDescriptor rd1 = null;
-		try (FileInputStream fis = new FileInputStream(new File(args[0]))) {
-			rd1 = JsonMarshaller.read(fis);
-	 	} catch (Exception e) {
-	 		throw new IllegalStateException("Problem loading file 1", e);
-	 	}
-		ReflectionDescriptor rd2 = null;
-		try (FileInputStream fis = new FileInputStream(new File(args[1]))) {
-			rd2 = JsonMarshaller.read(fis);
-	 	} catch (Exception e) {
-	 		throw new IllegalStateException("Problem loading file 2", e);
-	 	}
-		List<ClassDescriptor> cds1 = rd1.getClassDescriptors();
-		List<ClassDescriptor> cds2 = rd2.getClassDescriptors();
+		ReflectionJsonIndex index1 = ReflectionJsonIndex.read(args[0]);
+		ReflectionJsonIndex index2 = ReflectionJsonIndex.read(args[1]);
 		
 		int firstNotInSecond = 0;
 		int secondNotInFirst = 0;
 		int sameInBoth = 0;
 		int differentInBoth = 0;
 		System.out.println("These are in the first reflection file but not in the second:");
-		for (ClassDescriptor cd1: cds1) {
-			if (getClassDescriptor(cds2, cd1.getName())==null) {
+		for (ClassDescriptor cd1: index1) {
+			if (index2.get(cd1.getName())==null) {
 				System.out.println("< "+cd1.toString());
 			firstNotInSecond++;
 			}
 		}
 		
 		System.out.println("These are in the second reflection file but not in the first:");
-		for (ClassDescriptor cd2: cds2) {
-			if (getClassDescriptor(cds1, cd2.getName())==null) {
+		for (ClassDescriptor cd2: index2) {
+			if (index1.get(cd2.getName())==null) {
 				System.out.println("> "+cd2.toString());
 			secondNotInFirst++;
 			}
 		}
 		
 		System.out.println("These are in both files and configured the same:");
-		for (ClassDescriptor cd1: cds1) {
-			ClassDescriptor cd2 = getClassDescriptor(cds2,cd1.getName());
+		for (ClassDescriptor cd1: index1) {
+			ClassDescriptor cd2 = index2.get(cd1.getName());
 			if (cd2 != null) {
 				if (cd1.equals(cd2)) {
 					System.out.println("= "+cd1);	
@@ -77,8 +59,8 @@ public class ReflectionJsonComparator {
 			}
 		}
 		System.out.println("These are in both files but configured differently in each:");
-		for (ClassDescriptor cd1: cds1) {
-			ClassDescriptor cd2 = getClassDescriptor(cds2,cd1.getName());
+		for (ClassDescriptor cd1: index1) {
+			ClassDescriptor cd2 = index2.get(cd1.getName());
 			if (cd2 != null) {
 				if (!cd1.equals(cd2)) {
 					System.out.println("1?"+cd1);
@@ -93,13 +75,4 @@ public class ReflectionJsonComparator {
 		System.out.println("In both files but configured differently: "+differentInBoth);
 		System.out.println("In both files and configured the same: "+sameInBoth);
 	}
-
-	private static ClassDescriptor getClassDescriptor(List<ClassDescriptor> cds, String name) {
-		for (ClassDescriptor cd: cds) {
-			if (cd.getName().equals(name)) {
-				return cd;
-			}
-		}
-		return null;
-	}
 }
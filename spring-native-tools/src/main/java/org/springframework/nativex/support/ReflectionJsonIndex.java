@@ -0,0 +1,248 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.support;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.nativex.domain.reflect.ClassDescriptor;
+import org.springframework.nativex.domain.reflect.FieldDescriptor;
+import org.springframework.nativex.domain.reflect.JsonMarshaller;
+import org.springframework.nativex.domain.reflect.MethodDescriptor;
+import org.springframework.nativex.hint.Flag;
+
+/**
+ * A set of {@link ClassDescriptor class descriptors} indexed by type name, read from one
+ * or more {@code reflect-config.json} files. Files are streamed one descriptor at a time
+ * and entries that describe the same type are merged, so that lookups and set
+ * operations run in linear time regardless of the number of entries.
+ *
+ * @author agent
+ */
+public class ReflectionJsonIndex implements Iterable<ClassDescriptor> {
+
+	private final Map<String, ClassDescriptor> classDescriptors = new LinkedHashMap<>();
+
+	private int duplicates;
+
+	/**
+	 * Read the specified locations. A location is either a {@code reflect-config.json}
+	 * file or a directory that is searched for such files.
+	 * @param locations the locations to read
+	 * @return an index of the merged content of all the files
+	 */
+	public static ReflectionJsonIndex read(String... locations) {
+		ReflectionJsonIndex index = new ReflectionJsonIndex();
+		for (String location : locations) {
+			for (Path file : resolve(Paths.get(location))) {
+				try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+					JsonMarshaller.read(reader, index::add);
+				}
+				catch (Exception ex) {
+					throw new IllegalStateException("Problem loading file " + file, ex);
+				}
+			}
+		}
+		return index;
+	}
+
+	private static List<Path> resolve(Path location) {
+		if (!Files.isDirectory(location)) {
+			return List.of(location);
+		}
+		try (Stream<Path> files = Files.walk(location)) {
+			return files.filter((file) -> file.getFileName().toString().equals("reflect-config.json"))
+					.sorted().collect(Collectors.toList());
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Problem searching " + location, ex);
+		}
+	}
+
+	/**
+	 * Add the specified descriptor, merging it with the existing descriptor of the same
+	 * type, if any.
+	 * @param classDescriptor the descriptor to add
+	 */
+	public void add(ClassDescriptor classDescriptor) {
+		ClassDescriptor existing = this.classDescriptors.putIfAbsent(classDescriptor.getName(), classDescriptor);
+		if (existing != null) {
+			existing.merge(classDescriptor);
+			this.duplicates++;
+		}
+	}
+
+	/**
+	 * Return the descriptor of the specified type.
+	 * @param name the name of the type
+	 * @return the descriptor or {@code null} if the type is not present
+	 */
+	public ClassDescriptor get(String name) {
+		return this.classDescriptors.get(name);
+	}
+
+	/**
+	 * Return the number of types in this index.
+	 * @return the number of types
+	 */
+	public int size() {
+		return this.classDescriptors.size();
+	}
+
+	/**
+	 * Return the number of entries that described a type that was already present and
+	 * were merged.
+	 * @return the number of merged duplicate entries
+	 */
+	public int getDuplicates() {
+		return this.duplicates;
+	}
+
+	@Override
+	public Iterator<ClassDescriptor> iterator() {
+		return this.classDescriptors.values().iterator();
+	}
+
+	/**
+	 * Return a new index with the types of this index and the specified one.
+	 * @param other the other index
+	 * @return the union of both indexes
+	 */
+	public ReflectionJsonIndex union(ReflectionJsonIndex other) {
+		ReflectionJsonIndex result = new ReflectionJsonIndex();
+		for (ClassDescriptor cd : this) {
+			result.add(cd.copy());
+		}
+		for (ClassDescriptor cd : other) {
+			result.add(cd.copy());
+		}
+		return result;
+	}
+
+	/**
+	 * Return a new index with only the configuration that is present in both this index
+	 * and the specified one.
+	 * @param other the other index
+	 * @return the intersection of both indexes
+	 */
+	public ReflectionJsonIndex intersect(ReflectionJsonIndex other) {
+		ReflectionJsonIndex result = new ReflectionJsonIndex();
+		for (ClassDescriptor cd : this) {
+			ClassDescriptor otherCd = other.get(cd.getName());
+			if (otherCd != null) {
+				result.add(intersect(cd, otherCd));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Return a new index with the configuration of this index that is not present in the
+	 * specified one. A type that is present in both is only kept if it has flags or
+	 * members that the other index does not have.
+	 * @param other the other index
+	 * @return this index minus the other one
+	 */
+	public ReflectionJsonIndex subtract(ReflectionJsonIndex other) {
+		ReflectionJsonIndex result = new ReflectionJsonIndex();
+		for (ClassDescriptor cd : this) {
+			ClassDescriptor otherCd = other.get(cd.getName());
+			if (otherCd == null) {
+				result.add(cd.copy());
+			}
+			else if (!cd.equals(otherCd)) {
+				ClassDescriptor difference = cd.subtract(otherCd);
+				if (difference.getFlags() != null || difference.getMethods() != null || difference.getFields() != null) {
+					result.add(difference);
+				}
+			}
+		}
+		return result;
+	}
+
+	private static ClassDescriptor intersect(ClassDescriptor cd, ClassDescriptor otherCd) {
+		ClassDescriptor result = ClassDescriptor.of(cd.getName());
+		if (cd.getFlags() != null && otherCd.getFlags() != null) {
+			for (Flag flag : cd.getFlags()) {
+				if (otherCd.getFlags().contains(flag)) {
+					result.setFlag(flag);
+				}
+			}
+		}
+		for (MethodDescriptor md : retain(cd.getMethods(), otherCd.getMethods())) {
+			result.addMethodDescriptor(md);
+		}
+		for (FieldDescriptor fd : retain(cd.getFields(), otherCd.getFields())) {
+			result.addFieldDescriptor(fd);
+		}
+		return result;
+	}
+
+	private static <T> List<T> retain(Collection<T> members, Collection<T> otherMembers) {
+		List<T> result = new ArrayList<>();
+		if (members != null && otherMembers != null) {
+			Set<T> lookup = new HashSet<>(otherMembers);
+			for (T member : members) {
+				if (lookup.contains(member)) {
+					result.add(member);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Write this index as a {@code reflect-config.json} document, sorted by type name.
+	 * @param location the file to write, or {@code -} for the standard output
+	 */
+	public void write(String location) {
+		List<ClassDescriptor> sorted = new ArrayList<>(this.classDescriptors.values());
+		sorted.sort((a, b) -> a.getName().compareTo(b.getName()));
+		try {
+			if (location.equals("-")) {
+				Writer writer = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+				JsonMarshaller.write(sorted, writer);
+			}
+			else {
+				try (Writer writer = Files.newBufferedWriter(Paths.get(location), StandardCharsets.UTF_8)) {
+					JsonMarshaller.write(sorted, writer);
+				}
+			}
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Problem writing " + location, ex);
+		}
+	}
+
+}
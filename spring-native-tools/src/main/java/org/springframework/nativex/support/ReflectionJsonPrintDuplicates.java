@@ -16,34 +16,25 @@
 
 package org.springframework.nativex.support;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.util.List;
 
 import org.springframework.nativex.domain.reflect.ClassDescriptor;
 import org.springframework.nativex.hint.Flag;
-import org.springframework.nativex.domain.reflect.JsonMarshaller;
 import org.springframework.nativex.domain.reflect.MethodDescriptor;
-import org.springframework.nativex.domain.reflect.ReflectionDescriptor;
 
 public class ReflectionJsonPrintDuplicates {
 
 	public static void main(String[] args) {
 		if (args == null || args.length != 1) {
-			System.out.println("Usage: ReflectionJsonComparator <reflect-config.json>");
+			System.out.println("Usage: ReflectionJsonPrintDuplicates <reflect-config.json>");
 			System.exit(1);
 		}
-		ReflectionDescriptor rd1 = null;
-		try (FileInputStream fis = new FileInputStream(new File(args[0]))) {
-			rd1 = JsonMarshaller.read(fis);
-		} catch (Exception e) {
-			throw new IllegalStateException("Problem loading file 1", e);
+		ReflectionJsonIndex index = ReflectionJsonIndex.read(args[0]);
+		if (index.getDuplicates() > 0) {
+			System.out.println("Merged " + index.getDuplicates() + " duplicate entries");
 		}
 
-		List<ClassDescriptor> cds = rd1.getClassDescriptors();
-
-		for (ClassDescriptor cd : cds) {
+		for (ClassDescriptor cd : index) {
 			if (cd.getFlags()!=null && cd.getFlags().contains(Flag.allDeclaredMethods)) {
 				// Does it specify them more precisely?
 				List<MethodDescriptor> methods = cd.getMethods();
@@ -79,11 +70,7 @@ public class ReflectionJsonPrintDuplicates {
 		}
 		
 
-		try (FileOutputStream fos = new FileOutputStream(new File(args[0]+".2"))) {
-			JsonMarshaller.write(rd1,fos);
-		} catch (Exception e) {
-			throw new IllegalStateException("Problem writing file", e);
-		}
+		index.write(args[0]+".2");
 
 		/*
 		 * List<ClassDescriptor> cds2 = rd2.getClassDescriptors();
@@ -119,13 +106,4 @@ public class ReflectionJsonPrintDuplicates {
 		 * System.out.println("In both files and configured the same: "+sameInBoth);
 		 */
 	}
-
-	private static ClassDescriptor getClassDescriptor(List<ClassDescriptor> cds, String name) {
-		for (ClassDescriptor cd : cds) {
-			if (cd.getName().equals(name)) {
-				return cd;
-			}
-		}
-		return null;
-	}
 }
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.support;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.nativex.domain.reflect.ClassDescriptor;
+import org.springframework.nativex.domain.reflect.FieldDescriptor;
+import org.springframework.nativex.domain.reflect.MethodDescriptor;
+import org.springframework.nativex.hint.Flag;
+
+/**
+ * Minimize a reflect-config.json file using what a previous build or run of the
+ * application has shown to be needed. The {@code allDeclaredMethods},
+ * {@code allPublicMethods}, {@code allDeclaredConstructors} and
+ * {@code allPublicConstructors} flags, as well as explicit methods and constructors, are
+ * replaced with the members of the type that are:
+ * <ul>
+ * <li>called by another method in the {@code -H:+PrintAnalysisCallTree} output of a
+ * previous native-image build, and/or</li>
+ * <li>accessed reflectively according to the reflect-config.json produced by the
+ * native-image agent while running the application or its tests.</li>
+ * </ul>
+ * Methods that are only invoked reflectively have no caller in the call tree as the
+ * analysis treats them as entry points, so a call tree can only be used along with the
+ * output of the agent. Fields are only pruned when the output of the agent is provided.
+ * Types are never removed and members are never added: a member is only kept if the
+ * input configuration already covered it. The result can be used as the
+ * {@code reflectionConfigOverride} of the next build, along with the copy of the input
+ * that is written next to it with an {@code -input.json} suffix: the next build only
+ * prunes the flags and members that this input covered.
+ *
+ * @author agent
+ */
+public class ReflectionJsonPrune {
+
+	private static final Set<Flag> METHOD_FLAGS = EnumSet.of(Flag.allDeclaredMethods, Flag.allPublicMethods);
+
+	private static final Set<Flag> CONSTRUCTOR_FLAGS = EnumSet.of(Flag.allDeclaredConstructors, Flag.allPublicConstructors);
+
+	private static final Set<Flag> FIELD_FLAGS = EnumSet.of(Flag.allDeclaredFields, Flag.allPublicFields);
+
+	private static final String CALL_TREE_WITHOUT_AGENT = "A call tree does not show the members that are only "
+			+ "used reflectively, the output of the agent must be provided as well";
+
+	private final Map<String, Set<MethodDescriptor>> calledMethods = new HashMap<>();
+
+	private final ReflectionJsonIndex agentConfiguration;
+
+	private int removedFlags;
+
+	private int removedMembers;
+
+	ReflectionJsonPrune(CallTreeIndex callTree, ReflectionJsonIndex agentConfiguration) {
+		if (callTree != null && agentConfiguration == null) {
+			throw new IllegalArgumentException(CALL_TREE_WITHOUT_AGENT);
+		}
+		if (callTree != null) {
+			for (String signature : callTree.getCalledMethods()) {
+				addCalledMethod(signature);
+			}
+		}
+		this.agentConfiguration = agentConfiguration;
+	}
+
+	public static void main(String[] args) {
+		if (args == null || args.length < 3) {
+			printUsage();
+			System.exit(1);
+		}
+		String callTreeLocation = null;
+		List<String> agentLocations = new ArrayList<>();
+		for (int i = 2; i < args.length; i++) {
+			if (args[i].startsWith("--call-tree=")) {
+				callTreeLocation = args[i].substring("--call-tree=".length());
+			}
+			else if (args[i].startsWith("--agent=")) {
+				agentLocations.add(args[i].substring("--agent=".length()));
+			}
+			else {
+				printUsage();
+				System.exit(1);
+			}
+		}
+		if (callTreeLocation != null && agentLocations.isEmpty()) {
+			System.out.println(CALL_TREE_WITHOUT_AGENT);
+			printUsage();
+			System.exit(1);
+		}
+		CallTreeIndex callTree = (callTreeLocation != null) ? CallTreeIndex.open(Paths.get(callTreeLocation)) : null;
+		ReflectionJsonIndex agentConfiguration = agentLocations.isEmpty() ? null
+				: ReflectionJsonIndex.read(agentLocations.toArray(new String[0]));
+		ReflectionJsonPrune prune = new ReflectionJsonPrune(callTree, agentConfiguration);
+		ReflectionJsonIndex input = ReflectionJsonIndex.read(args[0]);
+		ReflectionJsonIndex result = prune.prune(input);
+		result.write(args[1]);
+		if (!args[1].equals("-")) {
+			// The next build only prunes what this input covered
+			input.write(getInputLocation(args[1]));
+		}
+		System.err.println("Pruned " + prune.removedFlags + " member flags and " + prune.removedMembers
+				+ " explicit members, " + result.size() + " types written to " + args[1]);
+	}
+
+	private static String getInputLocation(String output) {
+		String baseName = output.endsWith(".json") ? output.substring(0, output.length() - ".json".length()) : output;
+		return baseName + "-input.json";
+	}
+
+	private static void printUsage() {
+		System.out.println("Usage: ReflectionJsonPrune <input-reflect-config.json> <output-reflect-config.json|-> [--call-tree=<file>] [--agent=<location>]...");
+		System.out.println("--call-tree requires at least one --agent");
+		System.out.println("e.g. ReflectionJsonPrune target/classes/META-INF/native-image/reflect-config.json pruned.json --call-tree=output.txt --agent=graal/META-INF/native-image");
+	}
+
+	private void addCalledMethod(String signature) {
+		// e.g. com.example.Foo.bar(java.lang.String, int):void
+		int open = signature.indexOf('(');
+		int close = signature.indexOf(')', open);
+		if (open == -1 || close == -1) {
+			return;
+		}
+		String qualifiedName = signature.substring(0, open);
+		int dot = qualifiedName.lastIndexOf('.');
+		String name = qualifiedName.substring(dot + 1);
+		if (name.equals("<clinit>")) {
+			return;
+		}
+		String parameters = signature.substring(open + 1, close).trim();
+		String[] parameterTypes = parameters.isEmpty() ? new String[0] : parameters.split("\\s*,\\s*");
+		this.calledMethods.computeIfAbsent(qualifiedName.substring(0, dot), (type) -> new LinkedHashSet<>())
+				.add(MethodDescriptor.of(name, parameterTypes));
+	}
+
+	ReflectionJsonIndex prune(ReflectionJsonIndex input) {
+		ReflectionJsonIndex result = new ReflectionJsonIndex();
+		for (ClassDescriptor cd : input) {
+			result.add(prune(cd));
+		}
+		return result;
+	}
+
+	private ClassDescriptor prune(ClassDescriptor cd) {
+		ClassDescriptor agentCd = (this.agentConfiguration != null) ? this.agentConfiguration.get(cd.getName()) : null;
+		Set<Flag> flags = (cd.getFlags() != null) ? cd.getFlags() : Collections.emptySet();
+		Set<Flag> agentFlags = (agentCd != null && agentCd.getFlags() != null) ? agentCd.getFlags() : Collections.emptySet();
+		// Members are kept as they are when the agent saw all of them being queried
+		boolean keepMethods = containsAny(agentFlags, METHOD_FLAGS);
+		boolean keepConstructors = containsAny(agentFlags, CONSTRUCTOR_FLAGS);
+		boolean keepFields = this.agentConfiguration == null || containsAny(agentFlags, FIELD_FLAGS);
+		ClassDescriptor result = ClassDescriptor.of(cd.getName());
+		for (Flag flag : flags) {
+			if (METHOD_FLAGS.contains(flag) && !keepMethods || CONSTRUCTOR_FLAGS.contains(flag) && !keepConstructors
+					|| FIELD_FLAGS.contains(flag) && !keepFields) {
+				this.removedFlags++;
+			}
+			else {
+				result.setFlag(flag);
+			}
+		}
+		Set<MethodDescriptor> candidates = new LinkedHashSet<>(this.calledMethods.getOrDefault(cd.getName(), Collections.emptySet()));
+		if (agentCd != null && agentCd.getMethods() != null) {
+			candidates.addAll(agentCd.getMethods());
+		}
+		if (cd.getMethods() != null) {
+			for (MethodDescriptor md : cd.getMethods()) {
+				boolean keep = isConstructor(md) ? keepConstructors : keepMethods;
+				if (keep || candidates.contains(md)) {
+					result.addMethodDescriptor(md);
+				}
+				else {
+					this.removedMembers++;
+				}
+			}
+		}
+		// Members that were covered by a removed flag
+		for (MethodDescriptor md : candidates) {
+			Set<Flag> memberFlags = isConstructor(md) ? CONSTRUCTOR_FLAGS : METHOD_FLAGS;
+			if (containsAny(flags, memberFlags) && !containsAny(result.getFlags(), memberFlags) && !result.contains(md)) {
+				result.addMethodDescriptor(md);
+			}
+		}
+		if (cd.getFields() != null) {
+			for (FieldDescriptor fd : cd.getFields()) {
+				if (keepFields || (agentCd != null && agentCd.getFieldDescriptorNamed(fd.getName()) != null)) {
+					result.addFieldDescriptor(fd);
+				}
+				else {
+					this.removedMembers++;
+				}
+			}
+		}
+		if (!keepFields && containsAny(flags, FIELD_FLAGS) && agentCd != null && agentCd.getFields() != null) {
+			for (FieldDescriptor fd : agentCd.getFields()) {
+				if (result.getFieldDescriptorNamed(fd.getName()) == null) {
+					result.addFieldDescriptor(fd);
+				}
+			}
+		}
+		return result;
+	}
+
+	private static boolean isConstructor(MethodDescriptor md) {
+		return md.getName().equals(MethodDescriptor.CONSTRUCTOR_NAME);
+	}
+
+	private static boolean containsAny(Set<Flag> flags, Set<Flag> candidates) {
+		if (flags != null) {
+			for (Flag candidate : candidates) {
+				if (flags.contains(candidate)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+}
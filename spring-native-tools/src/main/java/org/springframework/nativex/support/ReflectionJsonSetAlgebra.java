@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.support;
+
+import java.util.Arrays;
+
+/**
+ * Set operations on reflect-config.json files. Each input is either a file or a
+ * directory that is searched for reflect-config.json files, whose content is merged.
+ * All operations run in linear time in the number of entries.
+ * <ul>
+ * <li>{@code union}: the configuration of all inputs</li>
+ * <li>{@code intersect}: the configuration that is present in every input</li>
+ * <li>{@code subtract}: the configuration of the first input that is not present in
+ * any of the other inputs</li>
+ * <li>{@code dedupe}: the configuration of all inputs, with each type listed once</li>
+ * </ul>
+ *
+ * @author agent
+ */
+public class ReflectionJsonSetAlgebra {
+
+	public static void main(String[] args) {
+		if (args == null || args.length < 3) {
+			System.out.println("Usage: ReflectionJsonSetAlgebra <union|intersect|subtract|dedupe> <output-reflect-config.json|-> <input>...");
+			System.out.println("e.g. ReflectionJsonSetAlgebra subtract stripped.json agent/reflect-config.json target/classes/META-INF/native-image");
+			System.exit(1);
+		}
+		String operation = args[0];
+		String output = args[1];
+		String[] inputs = Arrays.copyOfRange(args, 2, args.length);
+		ReflectionJsonIndex result;
+		switch (operation) {
+		case "union":
+			result = ReflectionJsonIndex.read(inputs[0]);
+			for (int i = 1; i < inputs.length; i++) {
+				result = result.union(ReflectionJsonIndex.read(inputs[i]));
+			}
+			break;
+		case "intersect":
+			result = ReflectionJsonIndex.read(inputs[0]);
+			for (int i = 1; i < inputs.length; i++) {
+				result = result.intersect(ReflectionJsonIndex.read(inputs[i]));
+			}
+			break;
+		case "subtract":
+			result = ReflectionJsonIndex.read(inputs[0]);
+			if (inputs.length > 1) {
+				result = result.subtract(ReflectionJsonIndex.read(Arrays.copyOfRange(inputs, 1, inputs.length)));
+			}
+			break;
+		case "dedupe":
+			result = ReflectionJsonIndex.read(inputs);
+			System.err.println("Merged " + result.getDuplicates() + " duplicate entries");
+			break;
+		default:
+			throw new IllegalStateException("Don't understand operation: " + operation);
+		}
+		result.write(output);
+		System.err.println(operation + ": " + result.size() + " types written to " + output);
+	}
+
+}
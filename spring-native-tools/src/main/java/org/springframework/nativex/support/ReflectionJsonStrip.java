@@ -16,15 +16,9 @@
 
 package org.springframework.nativex.support;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.util.List;
 
 import org.springframework.nativex.domain.reflect.ClassDescriptor;
 import org.springframework.nativex.domain.reflect.JsonConverter;
-import org.springframework.nativex.domain.reflect.JsonMarshaller;
-import org.springframework.nativex.domain.reflect.ReflectionDescriptor;
 
 /**
  * This will take an input reflect-config.json and a target reflect-config.json.
@@ -41,32 +35,18 @@ public class ReflectionJsonStrip {
 			System.out.println("Usage: ReflectionJsonStrip <input-reflect-config.json> <target-reflect-config.json>");
 			System.exit(1);
 		}
-		ReflectionDescriptor rd1 = null;
-		try (FileInputStream fis = new FileInputStream(new File(args[0]))) {
-			rd1 = JsonMarshaller.read(fis);
-		} catch (Exception e) {
-			throw new IllegalStateException("Problem loading file 1", e);
-		}
-		ReflectionDescriptor rd2 = null;
-		try (FileInputStream fis = new FileInputStream(new File(args[1]))) {
-			rd2 = JsonMarshaller.read(fis);
-		} catch (Exception e) {
-			throw new IllegalStateException("Problem loading file 2", e);
-		}
-		List<ClassDescriptor> cds1 = rd1.getClassDescriptors();
-		List<ClassDescriptor> cds2 = rd2.getClassDescriptors();
+		ReflectionJsonIndex index1 = ReflectionJsonIndex.read(args[0]);
+		ReflectionJsonIndex index2 = ReflectionJsonIndex.read(args[1]);
 
-		File newStrippedFile = new File(args[1] + ".stripped");
-		StringBuilder json = new StringBuilder();
-		json.append("[\n");
-		for (ClassDescriptor cd2 : cds2) {
-			if (getClassDescriptor(cds1, cd2.getName()) == null) {
+		ReflectionJsonIndex stripped = new ReflectionJsonIndex();
+		for (ClassDescriptor cd2 : index2) {
+			ClassDescriptor cd1 = index1.get(cd2.getName());
+			if (cd1 == null) {
 				System.out.println("Did not find "+cd2.getName()+" in the first file, including it in output");
 				// This one is not mentioned in the source, so we must include it in output
-				json.append(new JsonConverter().toJsonObject(cd2).toString() + ",\n");
+				stripped.add(cd2);
 			} else {
 				// In both, but are they different?
-				ClassDescriptor cd1 = getClassDescriptor(cds1, cd2.getName());
 				if (!cd1.equals(cd2)) {
 					// These differ, go with the agent one for now
 					
@@ -75,25 +55,12 @@ public class ReflectionJsonStrip {
 					System.out.println("These differ: "+cd1.getName());
 					System.out.println(cd1.toString());
 					System.out.println(cd2.toString());
-					System.out.println("Difference is "+cd3.toJsonString());
-					json.append(new JsonConverter().toJsonObject(cd3) + ",\n");
+					System.out.println("Difference is "+new JsonConverter().toJsonObject(cd3));
+					stripped.add(cd3);
 				}
 			}
 		}
-		json.setCharAt(json.length() - 2, ' '); // splat over last ,
-		json.append("\n]");
-		String output = json.toString();
-		try (FileOutputStream fos = new FileOutputStream(newStrippedFile)) {
-			fos.write(output.getBytes());
-		}
+		stripped.write(args[1] + ".stripped");
 	}
 
-	private static ClassDescriptor getClassDescriptor(List<ClassDescriptor> cds, String name) {
-		for (ClassDescriptor cd : cds) {
-			if (cd.getName().equals(name)) {
-				return cd;
-			}
-		}
-		return null;
-	}
 }
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.support;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.nativex.support.BenchmarkSample.Measurement;
+import org.springframework.nativex.support.BenchmarkSample.Mode;
+
+/**
+ * Measure the startup of samples on a regular JVM, on a JVM using the AOT generated code
+ * and as a native executable. Each mode is launched repeatedly and the time to be ready,
+ * the resident memory and the CPU time at that point, and the size of the artifact are
+ * summarized. Results can be stored as a baseline that later runs are compared with.
+ *
+ * @author agent
+ */
+public class SampleBenchmark {
+
+	static final String READY = "ready-ms";
+
+	static final String RSS = "rss-mb";
+
+	static final String CPU = "cpu-ms";
+
+	static final String SIZE = "size-mb";
+
+	public static void main(String[] args) throws Exception {
+		List<Mode> modes = Arrays.asList(Mode.values());
+		int iterations = 10;
+		int warmup = 1;
+		Duration timeout = Duration.ofSeconds(60);
+		Path baselineFile = null;
+		Path saveBaselineFile = null;
+		double threshold = 10;
+		List<Path> directories = new ArrayList<>();
+		for (String arg : args) {
+			if (arg.equals("--help")) {
+				printUsage();
+				System.exit(0);
+			}
+			else if (arg.startsWith("--modes=")) {
+				modes = new ArrayList<>();
+				for (String mode : value(arg).split(",")) {
+					modes.add(Mode.from(mode.trim()));
+				}
+			}
+			else if (arg.startsWith("--iterations=")) {
+				iterations = Integer.parseInt(value(arg));
+			}
+			else if (arg.startsWith("--warmup=")) {
+				warmup = Integer.parseInt(value(arg));
+			}
+			else if (arg.startsWith("--timeout=")) {
+				timeout = Duration.ofSeconds(Long.parseLong(value(arg)));
+			}
+			else if (arg.startsWith("--baseline=")) {
+				baselineFile = Paths.get(value(arg));
+			}
+			else if (arg.startsWith("--save-baseline=")) {
+				saveBaselineFile = Paths.get(value(arg));
+			}
+			else if (arg.startsWith("--threshold=")) {
+				threshold = Double.parseDouble(value(arg));
+			}
+			else if (arg.startsWith("--")) {
+				System.out.println("Unknown option: " + arg);
+				printUsage();
+				System.exit(1);
+			}
+			else {
+				directories.add(Paths.get(arg));
+			}
+		}
+		if (directories.isEmpty()) {
+			directories.add(Paths.get("."));
+		}
+		BenchmarkBaseline results = new BenchmarkBaseline();
+		for (Path directory : directories) {
+			benchmark(BenchmarkSample.load(directory), modes, warmup, iterations, timeout, results);
+		}
+		if (saveBaselineFile != null) {
+			BenchmarkBaseline baseline = BenchmarkBaseline.load(saveBaselineFile);
+			baseline.merge(results);
+			baseline.save(saveBaselineFile);
+			System.out.println("Baseline written to " + saveBaselineFile);
+		}
+		if (baselineFile != null) {
+			List<String> regressions = BenchmarkBaseline.load(baselineFile).findRegressions(results, threshold);
+			if (!regressions.isEmpty()) {
+				System.out.println("Regressions over " + threshold + "% compared to " + baselineFile + ":");
+				regressions.forEach((regression) -> System.out.println("  " + regression));
+				System.exit(1);
+			}
+			System.out.println("No regression over " + threshold + "% compared to " + baselineFile);
+		}
+	}
+
+	private static void benchmark(BenchmarkSample sample, List<Mode> modes, int warmup, int iterations,
+			Duration timeout, BenchmarkBaseline results) throws IOException, InterruptedException {
+		System.out.println("Benchmarking " + sample.getName());
+		if (sample.isScriptReadiness()) {
+			System.out.println("  No log or HTTP readiness marker in verify.sh, time to ready is measured by running it");
+		}
+		List<String> runs = new ArrayList<>();
+		runs.add("mode,iteration," + READY + "," + RSS + "," + CPU);
+		List<String> summary = new ArrayList<>();
+		summary.add("mode,metric,count,min,median,mean,p90,max,stddev");
+		for (Mode mode : modes) {
+			if (!sample.supports(mode)) {
+				System.out.println("  " + mode.getId() + ": skipped, artifact not built");
+				continue;
+			}
+			for (int i = 0; i < warmup; i++) {
+				sample.run(mode, timeout);
+			}
+			List<Double> ready = new ArrayList<>();
+			List<Double> rss = new ArrayList<>();
+			List<Double> cpu = new ArrayList<>();
+			for (int i = 0; i < iterations; i++) {
+				Measurement measurement = sample.run(mode, timeout);
+				ready.add(measurement.getReadyMillis());
+				rss.add(measurement.getRssMegabytes());
+				cpu.add(measurement.getCpuMillis());
+				runs.add(mode.getId() + "," + (i + 1) + "," + measurement.getReadyMillis() + ","
+						+ measurement.getRssMegabytes() + "," + measurement.getCpuMillis());
+			}
+			System.out.println("  " + mode.getId() + ":");
+			summarize(sample, mode, READY, BenchmarkStatistics.of(ready), summary, results);
+			summarize(sample, mode, RSS, BenchmarkStatistics.of(rss), summary, results);
+			summarize(sample, mode, CPU, BenchmarkStatistics.of(cpu), summary, results);
+			summarize(sample, mode, SIZE, BenchmarkStatistics.of(Collections.singletonList(sample.getSize(mode))),
+					summary, results);
+		}
+		Files.createDirectories(sample.getReportDirectory());
+		Files.write(sample.getReportDirectory().resolve("benchmark-runs.csv"), runs);
+		Files.write(sample.getReportDirectory().resolve("benchmark-summary.csv"), summary);
+	}
+
+	private static void summarize(BenchmarkSample sample, Mode mode, String metric, BenchmarkStatistics statistics,
+			List<String> summary, BenchmarkBaseline results) {
+		System.out.println(String.format("    %-8s %s", metric, statistics));
+		summary.add(String.format("%s,%s,%d,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f", mode.getId(), metric,
+				statistics.getCount(), statistics.getMin(), statistics.getMedian(), statistics.getMean(),
+				statistics.getPercentile(90), statistics.getMax(), statistics.getStandardDeviation()));
+		results.put(sample.getName(), mode, metric, statistics.getMedian());
+	}
+
+	private static String value(String option) {
+		return option.substring(option.indexOf('=') + 1);
+	}
+
+	private static void printUsage() {
+		System.out.println("Usage: SampleBenchmark [options] [sampleDirectory...]");
+		System.out.println("e.g. SampleBenchmark --iterations=20 --baseline=baseline.csv samples/commandlinerunner");
+		System.out.println("Options:");
+		System.out.println("  --modes=jvm,aot,native   modes to launch, those without a built artifact are skipped (default: all)");
+		System.out.println("  --iterations=<n>         measured launches per mode (default: 10)");
+		System.out.println("  --warmup=<n>             launches per mode that are not measured (default: 1)");
+		System.out.println("  --timeout=<seconds>      time to wait for a sample to be ready (default: 60)");
+		System.out.println("  --save-baseline=<file>   store the median of each metric in a baseline file");
+		System.out.println("  --baseline=<file>        compare with a baseline file and fail if a metric regressed");
+		System.out.println("  --threshold=<percent>    increase over the baseline that is tolerated (default: 10)");
+		System.out.println("The sample directory defaults to the current directory.");
+	}
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.support;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.nativex.domain.reflect.ClassDescriptor;
+import org.springframework.nativex.domain.reflect.MethodDescriptor;
+import org.springframework.nativex.hint.Flag;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link ReflectionJsonPrune}.
+ *
+ * @author agent
+ */
+public class ReflectionJsonPruneTests {
+
+	@Rule
+	public TemporaryFolder temp = new TemporaryFolder();
+
+	@Test
+	public void pruneWithCallTreeOnlyIsRejected() throws IOException {
+		CallTreeIndex callTree = createCallTree("com.example.Foo.bar():void");
+		try {
+			new ReflectionJsonPrune(callTree, null);
+			fail("A call tree without the output of the agent should be rejected");
+		}
+		catch (IllegalArgumentException ex) {
+			assertTrue(ex.getMessage().contains("agent"));
+		}
+	}
+
+	@Test
+	public void pruneWithCallTreeAndAgentKeepsReflectivelyUsedMethods() throws IOException {
+		CallTreeIndex callTree = createCallTree("com.example.Foo.bar():void");
+		ReflectionJsonIndex agentConfiguration = new ReflectionJsonIndex();
+		ClassDescriptor agentCd = ClassDescriptor.of("com.example.Foo");
+		agentCd.addMethodDescriptor(MethodDescriptor.of("reflective"));
+		agentConfiguration.add(agentCd);
+		ReflectionJsonIndex input = new ReflectionJsonIndex();
+		ClassDescriptor cd = ClassDescriptor.of("com.example.Foo");
+		cd.setFlag(Flag.allDeclaredMethods);
+		input.add(cd);
+		ClassDescriptor result = new ReflectionJsonPrune(callTree, agentConfiguration).prune(input).get("com.example.Foo");
+		assertNull(result.getFlags());
+		assertEquals(2, result.getMethods().size());
+		assertTrue(result.contains(MethodDescriptor.of("bar")));
+		assertTrue(result.contains(MethodDescriptor.of("reflective")));
+	}
+
+	private CallTreeIndex createCallTree(String calledMethod) throws IOException {
+		File file = this.temp.newFile("call-tree.txt");
+		String content = "VM Entry Points\n"
+				+ "├── entry com.example.Main.main(java.lang.String[]):void id=1\n"
+				+ "│   └── directly calls " + calledMethod + " id=2\n";
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return CallTreeIndex.parse(file.toPath());
+	}
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.beans.factory;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.support.GenericApplicationContext;
+
+/**
+ * The dependency graph of the singletons registered by the generated bootstrap code
+ * that can be instantiated on any thread. Each bean of the graph is created using
+ * the listed beans only, and does not declare lifecycle callbacks that must run on
+ * the main thread.
+ *
+ * @author agent
+ * @see IndexedListableBeanFactory#setInstantiationParallelism(int)
+ */
+public final class BeanDependencyGraph {
+
+	private final Map<String, List<String>> dependencies;
+
+	private BeanDependencyGraph(Map<String, List<String>> dependencies) {
+		this.dependencies = dependencies;
+	}
+
+	/**
+	 * Create a new {@link Builder}.
+	 * @return a builder for an empty graph
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Install the specified graph if the bean factory of the specified context
+	 * instantiates singletons in parallel.
+	 * @param context the context to handle
+	 * @param graph a supplier for the graph, only invoked if it can be installed
+	 */
+	public static void install(GenericApplicationContext context, Supplier<BeanDependencyGraph> graph) {
+		DefaultListableBeanFactory beanFactory = context.getDefaultListableBeanFactory();
+		if (beanFactory instanceof IndexedListableBeanFactory
+				&& ((IndexedListableBeanFactory) beanFactory).getInstantiationParallelism() > 1) {
+			((IndexedListableBeanFactory) beanFactory).setBeanDependencyGraph(graph.get());
+		}
+	}
+
+	/**
+	 * Return the names of the beans of the graph, in registration order.
+	 * @return the bean names
+	 */
+	public Iterable<String> getBeanNames() {
+		return this.dependencies.keySet();
+	}
+
+	/**
+	 * Return the names of the beans that the specified bean depends on.
+	 * @param beanName the name of a bean
+	 * @return the dependencies of the bean, or {@code null} if it is not part of the
+	 * graph
+	 */
+	public List<String> getDependencies(String beanName) {
+		return this.dependencies.get(beanName);
+	}
+
+	public static final class Builder {
+
+		private final Map<String, List<String>> dependencies = new LinkedHashMap<>();
+
+		private Builder() {
+		}
+
+		/**
+		 * Register a bean, in registration order.
+		 * @param beanName the name of the bean
+		 * @param dependencies the names of the beans it depends on
+		 * @return this for method chaining
+		 */
+		public Builder bean(String beanName, String... dependencies) {
+			this.dependencies.put(beanName, Collections.unmodifiableList(Arrays.asList(dependencies)));
+			return this;
+		}
+
+		public BeanDependencyGraph build() {
+			return new BeanDependencyGraph(Collections.unmodifiableMap(new LinkedHashMap<>(this.dependencies)));
+		}
+
+	}
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.beans.factory;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.support.GenericApplicationContext;
+
+/**
+ * An index of the beans registered by the generated bootstrap code, by type. Each
+ * indexed bean is a singleton whose type is known at build time. A type is only
+ * indexed if the index holds the complete list of beans that match it, in
+ * registration order.
+ *
+ * @author agent
+ * @see IndexedListableBeanFactory
+ */
+public final class BeanTypeIndex {
+
+	private final Map<String, String> beanTypes;
+
+	private final Map<String, List<String>> beanNamesByType;
+
+	private BeanTypeIndex(Map<String, String> beanTypes, Map<String, List<String>> beanNamesByType) {
+		this.beanTypes = beanTypes;
+		this.beanNamesByType = beanNamesByType;
+	}
+
+	/**
+	 * Create a new {@link Builder}.
+	 * @return a builder for an empty index
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Install the specified index if the bean factory of the specified context
+	 * supports it.
+	 * @param context the context to handle
+	 * @param index a supplier for the index, only invoked if it can be installed
+	 */
+	public static void install(GenericApplicationContext context, Supplier<BeanTypeIndex> index) {
+		DefaultListableBeanFactory beanFactory = context.getDefaultListableBeanFactory();
+		if (beanFactory instanceof IndexedListableBeanFactory) {
+			((IndexedListableBeanFactory) beanFactory).setBeanTypeIndex(index.get());
+		}
+	}
+
+	/**
+	 * Return the names of the indexed beans, in registration order.
+	 * @return the bean names
+	 */
+	public Iterable<String> getBeanNames() {
+		return this.beanTypes.keySet();
+	}
+
+	/**
+	 * Return the name of the type of the specified bean.
+	 * @param beanName the name of a bean
+	 * @return the type name of the bean, or {@code null} if it is not indexed
+	 */
+	public String getBeanType(String beanName) {
+		return this.beanTypes.get(beanName);
+	}
+
+	/**
+	 * Return the indexed types.
+	 * @return the type names
+	 */
+	public Iterable<String> getTypes() {
+		return this.beanNamesByType.keySet();
+	}
+
+	/**
+	 * Return the names of the beans that match the specified type.
+	 * @param typeName the name of a type
+	 * @return the matching bean names, in registration order, or {@code null} if
+	 * the type is not indexed
+	 */
+	public List<String> getBeanNames(String typeName) {
+		return this.beanNamesByType.get(typeName);
+	}
+
+	public static final class Builder {
+
+		private final Map<String, String> beanTypes = new LinkedHashMap<>();
+
+		private final Map<String, List<String>> beanNamesByType = new LinkedHashMap<>();
+
+		private Builder() {
+		}
+
+		/**
+		 * Register a bean, in registration order.
+		 * @param beanName the name of the bean
+		 * @param typeName the name of the type of the bean
+		 * @return this for method chaining
+		 */
+		public Builder bean(String beanName, String typeName) {
+			this.beanTypes.put(beanName, typeName);
+			return this;
+		}
+
+		/**
+		 * Register the complete list of beans matching the specified type.
+		 * @param typeName the name of the type
+		 * @param beanNames the names of the matching beans, in registration order
+		 * @return this for method chaining
+		 */
+		public Builder type(String typeName, String... beanNames) {
+			this.beanNamesByType.put(typeName, Collections.unmodifiableList(Arrays.asList(beanNames)));
+			return this;
+		}
+
+		public BeanTypeIndex build() {
+			return new BeanTypeIndex(Collections.unmodifiableMap(new LinkedHashMap<>(this.beanTypes)),
+					Collections.unmodifiableMap(new LinkedHashMap<>(this.beanNamesByType)));
+		}
+
+	}
+
+}
@@ -0,0 +1,464 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.beans.factory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.beans.factory.BeanFactoryUtils;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.BeanCreationNotAllowedException;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.ResolvableType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * A {@link DefaultListableBeanFactory} that uses a {@link BeanTypeIndex} generated at
+ * build time to look up beans by type. For an indexed type, the names of the matching
+ * beans are known upfront so that the type of every bean does not have to be
+ * predicted on each lookup.
+ *
+ * <p>Beans that are not part of the index, such as beans that are registered once
+ * the index has been installed, as well as indexed beans whose instance is not of the
+ * indexed type, are checked on each lookup. The index is discarded if a bean
+ * definition is removed or overridden, or if a bean whose type cannot be matched
+ * reliably without the regular algorithm is registered. Bean definitions changed in
+ * place by a bean factory post-processor are detected when the
+ * {@linkplain #clearMetadataCache() metadata cache is cleared}.
+ *
+ * <p>If an {@linkplain #setInstantiationParallelism(int) instantiation parallelism}
+ * is set, the instance suppliers of the singletons of the {@link BeanDependencyGraph}
+ * are invoked on a bounded pool of threads. Bean post-processors and initialization
+ * callbacks are still invoked on the main thread, before the regular pre-instantiation
+ * of the remaining singletons. A worker thread can only retrieve completed singletons
+ * by name, so that it never acquires the singleton lock.
+ *
+ * @author agent
+ */
+public class IndexedListableBeanFactory extends DefaultListableBeanFactory {
+
+	private final AtomicReference<IndexState> indexState = new AtomicReference<>();
+
+	private int instantiationParallelism = 1;
+
+	private BeanDependencyGraph beanDependencyGraph;
+
+	private volatile ParallelSingletonInstantiator singletonInstantiator;
+
+	/**
+	 * Install the specified {@link BeanTypeIndex}. The index must describe the bean
+	 * definitions that are currently registered.
+	 * @param beanTypeIndex the index to use
+	 */
+	public void setBeanTypeIndex(BeanTypeIndex beanTypeIndex) {
+		this.indexState.set(createIndexState(beanTypeIndex));
+	}
+
+	/**
+	 * Specify if an index is used to look up beans by type.
+	 * @return {@code true} if an index is available
+	 */
+	public boolean hasBeanTypeIndex() {
+		return this.indexState.get() != null;
+	}
+
+	/**
+	 * Set the number of threads to use to instantiate the singletons of the
+	 * {@linkplain #setBeanDependencyGraph(BeanDependencyGraph) dependency graph}.
+	 * @param instantiationParallelism the number of threads, {@code 1} to instantiate
+	 * all singletons on the main thread
+	 */
+	public void setInstantiationParallelism(int instantiationParallelism) {
+		Assert.isTrue(instantiationParallelism > 0, "InstantiationParallelism must be strictly positive");
+		this.instantiationParallelism = instantiationParallelism;
+	}
+
+	/**
+	 * Return the number of threads to use to instantiate singletons.
+	 * @return the instantiation parallelism
+	 */
+	public int getInstantiationParallelism() {
+		return this.instantiationParallelism;
+	}
+
+	/**
+	 * Set the {@link BeanDependencyGraph} of the singletons that can be instantiated
+	 * on any thread.
+	 * @param beanDependencyGraph the graph to use
+	 */
+	public void setBeanDependencyGraph(BeanDependencyGraph beanDependencyGraph) {
+		this.beanDependencyGraph = beanDependencyGraph;
+	}
+
+	@Override
+	public void preInstantiateSingletons() throws BeansException {
+		if (this.beanDependencyGraph != null && this.instantiationParallelism > 1) {
+			ParallelSingletonInstantiator instantiator = new ParallelSingletonInstantiator(this,
+					this.beanDependencyGraph, this.instantiationParallelism);
+			this.singletonInstantiator = instantiator;
+			try {
+				instantiator.instantiate();
+			}
+			finally {
+				this.singletonInstantiator = null;
+			}
+		}
+		super.preInstantiateSingletons();
+	}
+
+	@Override
+	protected <T> T doGetBean(String name, @Nullable Class<T> requiredType, @Nullable Object[] args,
+			boolean typeCheckOnly) throws BeansException {
+		ParallelSingletonInstantiator instantiator = this.singletonInstantiator;
+		if (instantiator != null && instantiator.isWorkerThread()) {
+			String beanName = transformedBeanName(name);
+			if (args != null || BeanFactoryUtils.isFactoryDereference(name) || !containsSingleton(beanName)
+					|| getSingleton(beanName) instanceof FactoryBean) {
+				throw new BeanCreationNotAllowedException(beanName,
+						"Only singletons completed by the main thread can be retrieved on a worker thread");
+			}
+		}
+		return super.doGetBean(name, requiredType, args, typeCheckOnly);
+	}
+
+	@Override
+	public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
+		ParallelSingletonInstantiator instantiator = this.singletonInstantiator;
+		if (instantiator != null) {
+			if (instantiator.isWorkerThread()) {
+				throw new BeanCreationNotAllowedException(beanName,
+						"Singletons cannot be created on a worker thread");
+			}
+			instantiator.awaitRawInstance(beanName);
+		}
+		return super.getSingleton(beanName, singletonFactory);
+	}
+
+	/**
+	 * Only return fully initialized singletons on a worker thread, so that the singleton
+	 * lock is not acquired to look up an early reference.
+	 */
+	@Override
+	protected Object getSingleton(String beanName, boolean allowEarlyReference) {
+		ParallelSingletonInstantiator instantiator = this.singletonInstantiator;
+		boolean worker = (instantiator != null && instantiator.isWorkerThread());
+		return super.getSingleton(beanName, allowEarlyReference && !worker);
+	}
+
+	@Override
+	protected BeanWrapper createBeanInstance(String beanName, RootBeanDefinition mbd, @Nullable Object[] args) {
+		ParallelSingletonInstantiator instantiator = this.singletonInstantiator;
+		if (instantiator != null && args == null) {
+			BeanWrapper instance = instantiator.claimRawInstance(beanName);
+			if (instance != null) {
+				return instance;
+			}
+		}
+		return super.createBeanInstance(beanName, mbd, args);
+	}
+
+	/**
+	 * Reject lookups by type on a worker thread, as matching a {@link FactoryBean} may
+	 * acquire the singleton lock that another thread holds while waiting for that worker.
+	 */
+	@Override
+	public String[] getBeanNamesForType(ResolvableType type, boolean includeNonSingletons, boolean allowEagerInit) {
+		assertNotWorkerThread("look up beans by type");
+		return super.getBeanNamesForType(type, includeNonSingletons, allowEagerInit);
+	}
+
+	@Override
+	public String[] getBeanNamesForType(@Nullable Class<?> type, boolean includeNonSingletons, boolean allowEagerInit) {
+		assertNotWorkerThread("look up beans by type");
+		IndexState state = this.indexState.get();
+		int[] positions = (state != null && type != null) ? state.positionsByType.get(type.getName()) : null;
+		if (positions == null) {
+			return super.getBeanNamesForType(type, includeNonSingletons, allowEagerInit);
+		}
+		BitSet matches = new BitSet(state.beanNames.size());
+		for (int position : positions) {
+			if (!state.checkedPositions.get(position)) {
+				matches.set(position);
+			}
+		}
+		BitSet checkedPositions = state.checkedPositions;
+		for (int i = checkedPositions.nextSetBit(0); i >= 0; i = checkedPositions.nextSetBit(i + 1)) {
+			if (isTypeMatch(state.beanNames.get(i), type)) {
+				matches.set(i);
+			}
+		}
+		List<String> result = new ArrayList<>(matches.cardinality());
+		for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+			result.add(state.beanNames.get(i));
+		}
+		addManualSingletonNamesForType(type, includeNonSingletons, result);
+		return StringUtils.toStringArray(result);
+	}
+
+	@Override
+	public void registerBeanDefinition(String beanName, BeanDefinition beanDefinition)
+			throws BeanDefinitionStoreException {
+		super.registerBeanDefinition(beanName, beanDefinition);
+		IndexState state = this.indexState.get();
+		if (state != null) {
+			boolean indexable = !state.positions.containsKey(beanName) && isIndexable(beanName);
+			if (indexable) {
+				this.indexState.updateAndGet((current) -> (current != null) ? current.withCheckedBean(beanName) : null);
+			}
+			else {
+				discardIndex("bean definition '" + beanName + "' cannot be indexed");
+			}
+		}
+	}
+
+	@Override
+	public void removeBeanDefinition(String beanName) throws NoSuchBeanDefinitionException {
+		super.removeBeanDefinition(beanName);
+		discardIndex("bean definition '" + beanName + "' has been removed");
+	}
+
+	/**
+	 * Revalidate the index as bean definitions may have been changed in place. Beans
+	 * whose type has changed are checked on each lookup, and the index is discarded if
+	 * a bean cannot be indexed anymore.
+	 */
+	@Override
+	public void clearMetadataCache() {
+		super.clearMetadataCache();
+		IndexState state = this.indexState.get();
+		if (state == null) {
+			return;
+		}
+		List<String> changedBeanNames = new ArrayList<>();
+		for (String beanName : state.beanNames) {
+			if (!isIndexable(beanName)) {
+				discardIndex("bean definition '" + beanName + "' cannot be indexed anymore");
+				return;
+			}
+			String beanType = state.beanTypes.get(beanName);
+			if (beanType != null && !beanType.equals(getMergedLocalBeanDefinition(beanName).getBeanClass().getName())) {
+				changedBeanNames.add(beanName);
+			}
+		}
+		for (String beanName : changedBeanNames) {
+			this.indexState.updateAndGet((current) -> (current != null) ? current.withCheckedBean(beanName) : null);
+		}
+	}
+
+	@Override
+	protected void addSingleton(String beanName, Object singletonObject) {
+		super.addSingleton(beanName, singletonObject);
+		IndexState state = this.indexState.get();
+		if (state != null && isDifferentType(state, beanName, singletonObject)) {
+			this.indexState.updateAndGet((current) -> (current != null) ? current.withCheckedBean(beanName) : null);
+		}
+	}
+
+	/**
+	 * Invoke the instance supplier of the specified singleton, without applying any
+	 * post-processor nor exposing an early reference to it.
+	 * @see #createBeanInstance(String, RootBeanDefinition, Object[])
+	 */
+	BeanWrapper instantiateSingleton(String beanName) {
+		RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
+		return obtainFromSupplier(mbd.getInstanceSupplier(), beanName);
+	}
+
+	/**
+	 * Specify if the specified bean can be instantiated on a worker thread, that is a
+	 * non-lazy singleton with an instance supplier that is not a {@link FactoryBean}
+	 * and that does not depend on the initialization of other beans.
+	 */
+	boolean isParallelInstantiationCandidate(String beanName) {
+		if (!containsBeanDefinition(beanName) || containsSingleton(beanName)) {
+			return false;
+		}
+		try {
+			RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
+			return mbd.isSingleton() && !mbd.isAbstract() && !mbd.isLazyInit() && mbd.hasBeanClass()
+					&& mbd.getInstanceSupplier() != null && mbd.getDependsOn() == null
+					&& !isFactoryBean(beanName, mbd);
+		}
+		catch (BeansException ex) {
+			return false;
+		}
+	}
+
+	private void assertNotWorkerThread(String operation) {
+		ParallelSingletonInstantiator instantiator = this.singletonInstantiator;
+		if (instantiator != null && instantiator.isWorkerThread()) {
+			throw new IllegalStateException("Cannot " + operation + " on a worker thread");
+		}
+	}
+
+	/**
+	 * Add the names of the singletons that were registered without a bean definition
+	 * that match the specified type, as {@link DefaultListableBeanFactory} does.
+	 */
+	private void addManualSingletonNamesForType(Class<?> type, boolean includeNonSingletons, List<String> result) {
+		for (String beanName : getSingletonNames()) {
+			if (containsBeanDefinition(beanName)) {
+				continue;
+			}
+			try {
+				if (isFactoryBean(beanName)) {
+					if ((includeNonSingletons || isSingleton(beanName)) && isTypeMatch(beanName, type)) {
+						result.add(beanName);
+						continue;
+					}
+					beanName = FACTORY_BEAN_PREFIX + beanName;
+				}
+				if (isTypeMatch(beanName, type)) {
+					result.add(beanName);
+				}
+			}
+			catch (NoSuchBeanDefinitionException ex) {
+				// Singleton destroyed in the meantime
+			}
+		}
+	}
+
+	private IndexState createIndexState(BeanTypeIndex beanTypeIndex) {
+		List<String> beanNames = Arrays.asList(getBeanDefinitionNames());
+		Map<String, Integer> positions = new HashMap<>();
+		Map<String, String> beanTypes = new HashMap<>();
+		BitSet checkedPositions = new BitSet();
+		for (int i = 0; i < beanNames.size(); i++) {
+			String beanName = beanNames.get(i);
+			positions.put(beanName, i);
+			if (!isIndexable(beanName)) {
+				return skipIndex("bean definition '" + beanName + "' cannot be indexed");
+			}
+			String beanType = beanTypeIndex.getBeanType(beanName);
+			if (beanType == null) {
+				checkedPositions.set(i);
+				continue;
+			}
+			if (!beanType.equals(getMergedLocalBeanDefinition(beanName).getBeanClass().getName())) {
+				return skipIndex("type of bean '" + beanName + "' does not match " + beanType);
+			}
+			beanTypes.put(beanName, beanType);
+			Object singleton = getSingleton(beanName, false);
+			if (singleton != null && !beanType.equals(singleton.getClass().getName())) {
+				checkedPositions.set(i);
+			}
+		}
+		for (String beanName : beanTypeIndex.getBeanNames()) {
+			if (!positions.containsKey(beanName)) {
+				return skipIndex("bean '" + beanName + "' is not registered");
+			}
+		}
+		Map<String, int[]> positionsByType = new HashMap<>();
+		for (String type : beanTypeIndex.getTypes()) {
+			int[] typePositions = beanTypeIndex.getBeanNames(type).stream().mapToInt(positions::get).sorted().toArray();
+			positionsByType.put(type, typePositions);
+		}
+		return new IndexState(beanNames, positions, beanTypes, positionsByType, checkedPositions);
+	}
+
+	/**
+	 * Specify if the specified bean is matched against a type the same way the regular
+	 * algorithm would, that is a singleton whose type is its bean class. Lazy singletons
+	 * qualify as their type is predicted without instantiating them.
+	 */
+	private boolean isIndexable(String beanName) {
+		try {
+			RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
+			return mbd.isSingleton() && !mbd.isAbstract() && mbd.hasBeanClass() && mbd.getFactoryBeanName() == null
+					&& mbd.getDecoratedDefinition() == null && !isFactoryBean(beanName, mbd);
+		}
+		catch (BeansException ex) {
+			return false;
+		}
+	}
+
+	private boolean isDifferentType(IndexState state, String beanName, Object singletonObject) {
+		String beanType = state.beanTypes.get(beanName);
+		return (beanType != null && !beanType.equals(singletonObject.getClass().getName()));
+	}
+
+	private void discardIndex(String reason) {
+		if (this.indexState.getAndSet(null) != null && logger.isDebugEnabled()) {
+			logger.debug("Bean type index discarded: " + reason);
+		}
+	}
+
+	private IndexState skipIndex(String reason) {
+		if (logger.isDebugEnabled()) {
+			logger.debug("Bean type index not used: " + reason);
+		}
+		return null;
+	}
+
+
+	private static final class IndexState {
+
+		private final List<String> beanNames;
+
+		private final Map<String, Integer> positions;
+
+		private final Map<String, String> beanTypes;
+
+		private final Map<String, int[]> positionsByType;
+
+		/**
+		 * Beans whose type is matched on each lookup.
+		 */
+		private final BitSet checkedPositions;
+
+		IndexState(List<String> beanNames, Map<String, Integer> positions, Map<String, String> beanTypes,
+				Map<String, int[]> positionsByType, BitSet checkedPositions) {
+			this.beanNames = beanNames;
+			this.positions = positions;
+			this.beanTypes = beanTypes;
+			this.positionsByType = positionsByType;
+			this.checkedPositions = checkedPositions;
+		}
+
+		IndexState withCheckedBean(String beanName) {
+			List<String> beanNames = this.beanNames;
+			Map<String, Integer> positions = this.positions;
+			Integer position = positions.get(beanName);
+			if (position == null) {
+				beanNames = new ArrayList<>(this.beanNames);
+				beanNames.add(beanName);
+				positions = new HashMap<>(this.positions);
+				position = beanNames.size() - 1;
+				positions.put(beanName, position);
+			}
+			BitSet checkedPositions = (BitSet) this.checkedPositions.clone();
+			checkedPositions.set(position);
+			return new IndexState(beanNames, positions, this.beanTypes, this.positionsByType, checkedPositions);
+		}
+
+	}
+
+}
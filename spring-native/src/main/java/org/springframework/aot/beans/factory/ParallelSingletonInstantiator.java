@@ -0,0 +1,326 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.beans.factory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.BeanWrapper;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Instantiate the singletons of a {@link BeanDependencyGraph} using a bounded pool of
+ * worker threads. A worker only invokes the instance supplier of a bean: the raw
+ * instance is then handed over to the main thread that completes it through the
+ * regular singleton creation, so that bean post-processors, aware callbacks and init
+ * methods are invoked on the main thread, and so that no early reference is exposed
+ * by a worker. A bean is scheduled once the main thread has completed all its
+ * dependencies, so that independent subtrees are instantiated concurrently.
+ *
+ * <p>A worker can only retrieve singletons that the main thread has completed: if the
+ * instance supplier of a bean requires any other bean, it is abandoned and left to the
+ * regular, sequential, pre-instantiation on the main thread, together with the beans
+ * that depend on it. Another thread that requires a bean while a worker is invoking its
+ * instance supplier always waits for the raw instance rather than creating a second one:
+ * as a worker never acquires the singleton lock, this is safe even if that thread holds
+ * it.
+ *
+ * @author agent
+ */
+class ParallelSingletonInstantiator {
+
+	private static final Log logger = LogFactory.getLog(ParallelSingletonInstantiator.class);
+
+	private final IndexedListableBeanFactory beanFactory;
+
+	private final int parallelism;
+
+	private final Map<String, List<String>> dependencies;
+
+	private final Map<String, List<String>> dependents = new HashMap<>();
+
+	private final Map<String, Integer> pendingDependencies = new HashMap<>();
+
+	private final Set<String> abandonedBeanNames = new LinkedHashSet<>();
+
+	private final Map<String, RawInstance> rawInstances = new HashMap<>();
+
+	private final BlockingQueue<String> instantiatedBeanNames = new LinkedBlockingQueue<>();
+
+	private final ThreadLocal<Boolean> worker = new ThreadLocal<>();
+
+	ParallelSingletonInstantiator(IndexedListableBeanFactory beanFactory, BeanDependencyGraph graph, int parallelism) {
+		this.beanFactory = beanFactory;
+		this.parallelism = parallelism;
+		this.dependencies = sortTopologically(graph, beanFactory);
+		this.dependencies.forEach((beanName, beanDependencies) -> {
+			this.pendingDependencies.put(beanName, beanDependencies.size());
+			this.rawInstances.put(beanName, new RawInstance());
+			beanDependencies.forEach((dependency) ->
+					this.dependents.computeIfAbsent(dependency, (key) -> new ArrayList<>()).add(beanName));
+		});
+	}
+
+	/**
+	 * Return the names of the beans that are instantiated by worker threads, in an
+	 * order where each bean comes after its dependencies.
+	 * @return the bean names
+	 */
+	List<String> getBeanNames() {
+		return new ArrayList<>(this.dependencies.keySet());
+	}
+
+	/**
+	 * Specify if the current thread is a worker thread.
+	 * @return {@code true} if the current thread instantiates beans of the graph
+	 */
+	boolean isWorkerThread() {
+		return Boolean.TRUE.equals(this.worker.get());
+	}
+
+	/**
+	 * Instantiate the beans of the graph, completing them on the calling thread as the
+	 * workers provide their raw instance, and return once all of them are processed.
+	 */
+	void instantiate() {
+		if (this.dependencies.isEmpty()) {
+			return;
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(this.parallelism,
+				new CustomizableThreadFactory("singleton-instantiation-"));
+		try {
+			this.pendingDependencies.forEach((beanName, pending) -> {
+				if (pending == 0) {
+					schedule(executor, beanName);
+				}
+			});
+			for (int remaining = this.dependencies.size(); remaining > 0; remaining--) {
+				String beanName = this.instantiatedBeanNames.take();
+				complete(beanName);
+				for (String dependent : this.dependents.getOrDefault(beanName, Collections.emptyList())) {
+					if (this.pendingDependencies.merge(dependent, -1, Integer::sum) == 0) {
+						schedule(executor, dependent);
+					}
+				}
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		if (!this.abandonedBeanNames.isEmpty() && logger.isDebugEnabled()) {
+			logger.debug("Singletons left to the main thread: " + this.abandonedBeanNames);
+		}
+	}
+
+	/**
+	 * Wait for the worker that is invoking the instance supplier of the specified bean,
+	 * if any, so that the singleton lock is not held while waiting.
+	 * @see IndexedListableBeanFactory#getSingleton(String, org.springframework.beans.factory.ObjectFactory)
+	 */
+	void awaitRawInstance(String beanName) {
+		RawInstance rawInstance = this.rawInstances.get(beanName);
+		if (rawInstance != null) {
+			rawInstance.await();
+		}
+	}
+
+	/**
+	 * Claim the raw instance of the specified bean, so that it is completed by the
+	 * current thread, waiting for the worker that is invoking its instance supplier, if
+	 * any. A worker that has not started its instantiation yet leaves the bean to the
+	 * current thread.
+	 * @return the raw instance, or {@code null} if the bean has to be instantiated
+	 * @see IndexedListableBeanFactory#createBeanInstance
+	 */
+	BeanWrapper claimRawInstance(String beanName) {
+		RawInstance rawInstance = this.rawInstances.get(beanName);
+		return (rawInstance != null) ? rawInstance.claim() : null;
+	}
+
+	private void schedule(ExecutorService executor, String beanName) {
+		for (String dependency : this.dependencies.get(beanName)) {
+			if (this.abandonedBeanNames.contains(dependency)) {
+				this.rawInstances.get(beanName).abandon();
+				this.instantiatedBeanNames.add(beanName);
+				return;
+			}
+		}
+		executor.execute(() -> {
+			try {
+				instantiate(beanName);
+			}
+			finally {
+				this.instantiatedBeanNames.add(beanName);
+			}
+		});
+	}
+
+	private void instantiate(String beanName) {
+		RawInstance rawInstance = this.rawInstances.get(beanName);
+		if (!rawInstance.start()) {
+			return;
+		}
+		BeanWrapper instance = null;
+		this.worker.set(Boolean.TRUE);
+		try {
+			instance = this.beanFactory.instantiateSingleton(beanName);
+		}
+		catch (Throwable ex) {
+			if (logger.isTraceEnabled()) {
+				logger.trace("Failed to instantiate singleton '" + beanName + "' on a worker thread", ex);
+			}
+		}
+		finally {
+			this.worker.remove();
+			rawInstance.complete(instance);
+		}
+	}
+
+	/**
+	 * Complete the specified bean on the main thread, unless its instantiation has been
+	 * abandoned.
+	 */
+	private void complete(String beanName) {
+		if (this.rawInstances.get(beanName).isAbandoned()) {
+			this.abandonedBeanNames.add(beanName);
+			return;
+		}
+		this.beanFactory.getBean(beanName);
+		if (this.rawInstances.get(beanName).claim() != null && logger.isDebugEnabled()) {
+			logger.debug("Instance of singleton '" + beanName + "' discarded as it was provided by a post-processor");
+		}
+	}
+
+	/**
+	 * Return the beans of the graph that can be instantiated on a worker thread, sorted
+	 * so that each bean comes after its dependencies. Beans that are part of a cycle or
+	 * that depend on a bean that cannot be instantiated on a worker thread are excluded.
+	 */
+	private static Map<String, List<String>> sortTopologically(BeanDependencyGraph graph,
+			IndexedListableBeanFactory beanFactory) {
+		Set<String> candidates = new LinkedHashSet<>();
+		for (String beanName : graph.getBeanNames()) {
+			if (beanFactory.isParallelInstantiationCandidate(beanName)) {
+				candidates.add(beanName);
+			}
+		}
+		Map<String, Integer> pending = new HashMap<>();
+		Map<String, List<String>> dependents = new HashMap<>();
+		Deque<String> ready = new ArrayDeque<>();
+		for (String beanName : candidates) {
+			List<String> beanDependencies = graph.getDependencies(beanName);
+			pending.put(beanName, beanDependencies.size());
+			beanDependencies.forEach((dependency) ->
+					dependents.computeIfAbsent(dependency, (key) -> new ArrayList<>()).add(beanName));
+			if (beanDependencies.isEmpty()) {
+				ready.add(beanName);
+			}
+		}
+		Map<String, List<String>> sorted = new LinkedHashMap<>();
+		while (!ready.isEmpty()) {
+			String beanName = ready.poll();
+			sorted.put(beanName, graph.getDependencies(beanName));
+			for (String dependent : dependents.getOrDefault(beanName, Collections.emptyList())) {
+				if (pending.merge(dependent, -1, Integer::sum) == 0) {
+					ready.add(dependent);
+				}
+			}
+		}
+		return sorted;
+	}
+
+
+	/**
+	 * The raw instance of a bean, as provided by a worker thread.
+	 */
+	private static final class RawInstance {
+
+		private State state = State.SCHEDULED;
+
+		private BeanWrapper instance;
+
+		synchronized boolean start() {
+			if (this.state != State.SCHEDULED) {
+				return false;
+			}
+			this.state = State.RUNNING;
+			return true;
+		}
+
+		synchronized void complete(BeanWrapper instance) {
+			this.state = (instance != null) ? State.INSTANTIATED : State.ABANDONED;
+			this.instance = instance;
+			notifyAll();
+		}
+
+		synchronized void abandon() {
+			this.state = State.ABANDONED;
+		}
+
+		synchronized boolean isAbandoned() {
+			return this.state == State.ABANDONED;
+		}
+
+		synchronized void await() {
+			while (this.state == State.RUNNING) {
+				try {
+					wait();
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+
+		synchronized BeanWrapper claim() {
+			await();
+			BeanWrapper claimed = (this.state == State.INSTANTIATED) ? this.instance : null;
+			if (this.state != State.ABANDONED) {
+				this.state = State.CLAIMED;
+			}
+			this.instance = null;
+			return claimed;
+		}
+
+		private enum State {
+
+			SCHEDULED, RUNNING, INSTANTIATED, ABANDONED, CLAIMED
+
+		}
+
+	}
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.data.mapping;
+
+import org.springframework.data.mapping.PersistentEntity;
+import org.springframework.data.mapping.PersistentProperty;
+import org.springframework.data.mapping.PreferredConstructor;
+import org.springframework.data.mapping.PreferredConstructor.Parameter;
+import org.springframework.data.mapping.model.EntityInstantiator;
+import org.springframework.data.mapping.model.EntityInstantiators;
+import org.springframework.data.mapping.model.ParameterValueProvider;
+
+/**
+ * An {@link EntityInstantiator} that uses the instantiator of a
+ * {@link GeneratedEntityMetadata}. Falls back to the default instantiation strategy if
+ * the persistence constructor detected at runtime does not match the one that was
+ * detected at build time.
+ *
+ * @author agent
+ */
+class GeneratedEntityInstantiator implements EntityInstantiator {
+
+	private final GeneratedEntityMetadata metadata;
+
+	private final EntityInstantiators fallback;
+
+	GeneratedEntityInstantiator(GeneratedEntityMetadata metadata, EntityInstantiators fallback) {
+		this.metadata = metadata;
+		this.fallback = fallback;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T, E extends PersistentEntity<? extends T, P>, P extends PersistentProperty<P>> T createInstance(E entity,
+			ParameterValueProvider<P> provider) {
+		PreferredConstructor<? extends T, P> constructor = entity.getPersistenceConstructor();
+		int parameterCount = this.metadata.getConstructorParameterCount();
+		if (constructor == null || constructor.getConstructor().getParameterCount() != parameterCount) {
+			return this.fallback.getInstantiatorFor(entity).createInstance(entity, provider);
+		}
+		Object[] args = new Object[parameterCount];
+		int index = 0;
+		for (Parameter<Object, P> parameter : constructor.getParameters()) {
+			args[index++] = provider.getParameterValue(parameter);
+		}
+		return (T) this.metadata.getInstantiator().apply(args);
+	}
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.data.mapping;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Metadata of a Spring Data entity computed at build time: how to instantiate it using
+ * its persistence constructor and how to read and write its properties, without using
+ * reflection.
+ *
+ * @author agent
+ * @see GeneratedEntityMetadataBeanPostProcessor
+ */
+public final class GeneratedEntityMetadata {
+
+	private final Class<?> type;
+
+	private final int constructorParameterCount;
+
+	private final Function<Object[], Object> instantiator;
+
+	private final Map<String, Function<Object, Object>> getters;
+
+	private final Map<String, BiConsumer<Object, Object>> setters;
+
+	private GeneratedEntityMetadata(Builder builder) {
+		this.type = builder.type;
+		this.constructorParameterCount = builder.constructorParameterCount;
+		this.instantiator = builder.instantiator;
+		this.getters = Collections.unmodifiableMap(new LinkedHashMap<>(builder.getters));
+		this.setters = Collections.unmodifiableMap(new LinkedHashMap<>(builder.setters));
+	}
+
+	/**
+	 * Create a new {@link Builder} for the specified entity type.
+	 * @param type the type of the entity
+	 * @return a builder for the metadata of the entity
+	 */
+	public static Builder builder(Class<?> type) {
+		return new Builder(type);
+	}
+
+	/**
+	 * Return the type of the entity.
+	 * @return the entity type
+	 */
+	public Class<?> getType() {
+		return this.type;
+	}
+
+	/**
+	 * Return the number of parameters of the persistence constructor that the
+	 * {@linkplain #getInstantiator() instantiator} invokes.
+	 * @return the number of arguments the instantiator expects
+	 */
+	public int getConstructorParameterCount() {
+		return this.constructorParameterCount;
+	}
+
+	/**
+	 * Return the function that creates an instance of the entity using the arguments
+	 * of its persistence constructor.
+	 * @return the instantiator, or {@code null} if the persistence constructor is not
+	 * accessible from generated code
+	 */
+	public Function<Object[], Object> getInstantiator() {
+		return this.instantiator;
+	}
+
+	/**
+	 * Specify if the specified property can be read and written without reflection.
+	 * @param propertyName the name of a property
+	 * @return {@code true} if both a getter and a setter are available
+	 */
+	public boolean hasProperty(String propertyName) {
+		return this.getters.containsKey(propertyName) && this.setters.containsKey(propertyName);
+	}
+
+	/**
+	 * Return the function that reads the specified property.
+	 * @param propertyName the name of a property
+	 * @return the getter, or {@code null} if the property is not readable
+	 */
+	public Function<Object, Object> getGetter(String propertyName) {
+		return this.getters.get(propertyName);
+	}
+
+	/**
+	 * Return the function that writes the specified property.
+	 * @param propertyName the name of a property
+	 * @return the setter, or {@code null} if the property is not writable
+	 */
+	public BiConsumer<Object, Object> getSetter(String propertyName) {
+		return this.setters.get(propertyName);
+	}
+
+	public static final class Builder {
+
+		private final Class<?> type;
+
+		private int constructorParameterCount = -1;
+
+		private Function<Object[], Object> instantiator;
+
+		private final Map<String, Function<Object, Object>> getters = new LinkedHashMap<>();
+
+		private final Map<String, BiConsumer<Object, Object>> setters = new LinkedHashMap<>();
+
+		private Builder(Class<?> type) {
+			this.type = type;
+		}
+
+		/**
+		 * Register the instantiator of the entity.
+		 * @param parameterCount the number of parameters of the persistence constructor
+		 * @param instantiator a function invoking the persistence constructor with the
+		 * specified arguments
+		 * @return this for method chaining
+		 */
+		public Builder instantiator(int parameterCount, Function<Object[], Object> instantiator) {
+			this.constructorParameterCount = parameterCount;
+			this.instantiator = instantiator;
+			return this;
+		}
+
+		/**
+		 * Register a property of the entity.
+		 * @param propertyName the name of the property
+		 * @param getter a function reading the property, or {@code null}
+		 * @param setter a function writing the property, or {@code null}
+		 * @return this for method chaining
+		 */
+		public Builder property(String propertyName, Function<Object, Object> getter,
+				BiConsumer<Object, Object> setter) {
+			if (getter != null) {
+				this.getters.put(propertyName, getter);
+			}
+			if (setter != null) {
+				this.setters.put(propertyName, setter);
+			}
+			return this;
+		}
+
+		public GeneratedEntityMetadata build() {
+			return new GeneratedEntityMetadata(this);
+		}
+
+	}
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.data.mapping;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mapping.PersistentEntity;
+import org.springframework.data.mapping.context.AbstractMappingContext;
+import org.springframework.data.mapping.context.MappingContextEvent;
+import org.springframework.data.mapping.model.BasicPersistentEntity;
+import org.springframework.data.mapping.model.EntityInstantiator;
+import org.springframework.data.mapping.model.EntityInstantiators;
+import org.springframework.data.mongodb.core.convert.AbstractMongoConverter;
+import org.springframework.util.ClassUtils;
+
+/**
+ * A {@link BeanPostProcessor} that configures Spring Data components to use the
+ * {@link GeneratedEntityMetadata} computed at build time rather than reflection or
+ * class generation, which is not available in a native image.
+ *
+ * <p>Once a mapping context has been initialized, the entities it has discovered use
+ * a generated property accessor if all their persistent properties can be read and
+ * written by generated code. Entities that the mapping context discovers later on are
+ * configured the same way when it publishes the {@link MappingContextEvent} for them,
+ * that is before they are returned to the caller that triggered their discovery.
+ * MongoDB converters use the generated instantiators.
+ *
+ * @author agent
+ */
+public class GeneratedEntityMetadataBeanPostProcessor implements BeanPostProcessor {
+
+	private static final boolean mongoPresent = ClassUtils.isPresent(
+			"org.springframework.data.mongodb.core.convert.AbstractMongoConverter",
+			GeneratedEntityMetadataBeanPostProcessor.class.getClassLoader());
+
+	private final ApplicationEventPublisher eventPublisher;
+
+	private final Map<Class<?>, GeneratedEntityMetadata> metadata;
+
+	/**
+	 * Create an instance for the specified metadata.
+	 * @param eventPublisher the publisher that mapping contexts use to publish their
+	 * events, typically the application context
+	 * @param metadata the metadata of the entities
+	 */
+	public GeneratedEntityMetadataBeanPostProcessor(ApplicationEventPublisher eventPublisher,
+			List<GeneratedEntityMetadata> metadata) {
+		this.eventPublisher = eventPublisher;
+		this.metadata = new LinkedHashMap<>();
+		metadata.forEach((entityMetadata) -> this.metadata.put(entityMetadata.getType(), entityMetadata));
+	}
+
+	@Override
+	public Object postProcessBeforeInitialization(Object bean, String beanName) {
+		if (mongoPresent) {
+			MongoConverterConfigurer.configure(bean, this::createEntityInstantiators);
+		}
+		return bean;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (bean instanceof AbstractMappingContext) {
+			configurePropertyAccessors((AbstractMappingContext<?, ?>) bean);
+		}
+		return bean;
+	}
+
+	private void configurePropertyAccessors(AbstractMappingContext<?, ?> mappingContext) {
+		mappingContext.setApplicationEventPublisher((event) -> {
+			if (event instanceof MappingContextEvent) {
+				configurePropertyAccessor(((MappingContextEvent<?, ?>) event).getPersistentEntity());
+			}
+			this.eventPublisher.publishEvent(event);
+		});
+		for (PersistentEntity<?, ?> entity : mappingContext.getPersistentEntities()) {
+			configurePropertyAccessor(entity);
+		}
+	}
+
+	private void configurePropertyAccessor(PersistentEntity<?, ?> entity) {
+		GeneratedEntityMetadata entityMetadata = this.metadata.get(entity.getType());
+		if (entityMetadata != null && entity instanceof BasicPersistentEntity) {
+			GeneratedPropertyAccessorFactory factory = new GeneratedPropertyAccessorFactory(entityMetadata);
+			if (factory.isSupported(entity)) {
+				((BasicPersistentEntity<?, ?>) entity).setPersistentPropertyAccessorFactory(factory);
+			}
+		}
+	}
+
+	EntityInstantiators createEntityInstantiators() {
+		EntityInstantiators fallback = new EntityInstantiators();
+		Map<Class<?>, EntityInstantiator> instantiators = new LinkedHashMap<>();
+		this.metadata.forEach((type, entityMetadata) -> {
+			if (entityMetadata.getInstantiator() != null) {
+				instantiators.put(type, new GeneratedEntityInstantiator(entityMetadata, fallback));
+			}
+		});
+		return new EntityInstantiators(instantiators);
+	}
+
+	private static final class MongoConverterConfigurer {
+
+		static void configure(Object bean, Supplier<EntityInstantiators> instantiators) {
+			if (bean instanceof AbstractMongoConverter) {
+				((AbstractMongoConverter) bean).setInstantiators(instantiators.get());
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.data.mapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.springframework.data.mapping.PersistentEntity;
+import org.springframework.data.mapping.PersistentProperty;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mapping.SimpleAssociationHandler;
+import org.springframework.data.mapping.SimplePropertyHandler;
+import org.springframework.data.mapping.model.PersistentPropertyAccessorFactory;
+
+/**
+ * A {@link PersistentPropertyAccessorFactory} that uses the getters and setters of a
+ * {@link GeneratedEntityMetadata}. Only supports entities whose persistent properties
+ * can all be read and written that way.
+ *
+ * @author agent
+ */
+class GeneratedPropertyAccessorFactory implements PersistentPropertyAccessorFactory {
+
+	private final GeneratedEntityMetadata metadata;
+
+	GeneratedPropertyAccessorFactory(GeneratedEntityMetadata metadata) {
+		this.metadata = metadata;
+	}
+
+	@Override
+	public <T> PersistentPropertyAccessor<T> getPropertyAccessor(PersistentEntity<?, ?> entity, T bean) {
+		return new GeneratedPropertyAccessor<>(this.metadata, bean);
+	}
+
+	@Override
+	public boolean isSupported(PersistentEntity<?, ?> entity) {
+		if (!this.metadata.getType().equals(entity.getType())) {
+			return false;
+		}
+		List<String> propertyNames = new ArrayList<>();
+		entity.doWithProperties((SimplePropertyHandler) (property) -> propertyNames.add(property.getName()));
+		entity.doWithAssociations((SimpleAssociationHandler) (association) ->
+				propertyNames.add(association.getInverse().getName()));
+		return propertyNames.stream().allMatch(this.metadata::hasProperty);
+	}
+
+	private static class GeneratedPropertyAccessor<T> implements PersistentPropertyAccessor<T> {
+
+		private final GeneratedEntityMetadata metadata;
+
+		private final T bean;
+
+		GeneratedPropertyAccessor(GeneratedEntityMetadata metadata, T bean) {
+			this.metadata = metadata;
+			this.bean = bean;
+		}
+
+		@Override
+		public void setProperty(PersistentProperty<?> property, Object value) {
+			BiConsumer<Object, Object> setter = this.metadata.getSetter(property.getName());
+			if (setter == null) {
+				throw new IllegalArgumentException(String.format("Property '%s' of %s is not writable",
+						property.getName(), this.metadata.getType().getName()));
+			}
+			setter.accept(this.bean, value);
+		}
+
+		@Override
+		public Object getProperty(PersistentProperty<?> property) {
+			Function<Object, Object> getter = this.metadata.getGetter(property.getName());
+			if (getter == null) {
+				throw new IllegalArgumentException(String.format("Property '%s' of %s is not readable",
+						property.getName(), this.metadata.getType().getName()));
+			}
+			return getter.apply(this.bean);
+		}
+
+		@Override
+		public T getBean() {
+			return this.bean;
+		}
+
+	}
+
+}
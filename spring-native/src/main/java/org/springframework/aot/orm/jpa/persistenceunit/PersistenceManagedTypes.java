@@ -0,0 +1,124 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.orm.jpa.persistenceunit;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The JPA managed types found at build time by scanning the packages of the default
+ * persistence unit. Used in place of scanning the classpath, or of the components
+ * index, when the persistence unit manager scans a package that was scanned at build
+ * time.
+ *
+ * @author agent
+ */
+public final class PersistenceManagedTypes {
+
+	private static volatile PersistenceManagedTypes installed;
+
+	private final Map<String, List<String>> managedClassNames;
+
+	private final Map<String, List<String>> managedPackages;
+
+	private PersistenceManagedTypes(Map<String, List<String>> managedClassNames,
+			Map<String, List<String>> managedPackages) {
+		this.managedClassNames = managedClassNames;
+		this.managedPackages = managedPackages;
+	}
+
+	/**
+	 * Create a new {@link Builder}.
+	 * @return a builder with no scanned package
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Install the specified managed types so that the persistence unit manager uses them.
+	 * @param managedTypes the managed types to use
+	 */
+	public static void install(PersistenceManagedTypes managedTypes) {
+		installed = managedTypes;
+	}
+
+	/**
+	 * Return the managed types that have been {@linkplain #install(PersistenceManagedTypes)
+	 * installed}, if any.
+	 * @return the managed types, or {@code null}
+	 */
+	public static PersistenceManagedTypes get() {
+		return installed;
+	}
+
+	/**
+	 * Return the names of the managed classes of the specified package, including its
+	 * sub-packages.
+	 * @param packageName the name of a package to scan
+	 * @return the class names, or {@code null} if the package was not scanned at build
+	 * time
+	 */
+	public List<String> getManagedClassNames(String packageName) {
+		return this.managedClassNames.get(packageName);
+	}
+
+	/**
+	 * Return the names of the packages with a {@code package-info} of the specified
+	 * package, including its sub-packages.
+	 * @param packageName the name of a package to scan
+	 * @return the package names, or {@code null} if the package was not scanned at
+	 * build time
+	 */
+	public List<String> getManagedPackages(String packageName) {
+		return this.managedPackages.get(packageName);
+	}
+
+	public static final class Builder {
+
+		private final Map<String, List<String>> managedClassNames = new LinkedHashMap<>();
+
+		private final Map<String, List<String>> managedPackages = new LinkedHashMap<>();
+
+		private Builder() {
+		}
+
+		/**
+		 * Register the result of the scanning of the specified package.
+		 * @param packageName the name of the scanned package
+		 * @param managedClassNames the names of the managed classes that were found
+		 * @param managedPackages the names of the packages with a {@code package-info}
+		 * that were found
+		 * @return this for method chaining
+		 */
+		public Builder scannedPackage(String packageName, List<String> managedClassNames,
+				List<String> managedPackages) {
+			this.managedClassNames.put(packageName, Collections.unmodifiableList(managedClassNames));
+			this.managedPackages.put(packageName, Collections.unmodifiableList(managedPackages));
+			return this;
+		}
+
+		public PersistenceManagedTypes build() {
+			return new PersistenceManagedTypes(Collections.unmodifiableMap(new LinkedHashMap<>(this.managedClassNames)),
+					Collections.unmodifiableMap(new LinkedHashMap<>(this.managedPackages)));
+		}
+
+	}
+
+}
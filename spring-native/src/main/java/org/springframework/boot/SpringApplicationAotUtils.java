@@ -2,6 +2,7 @@ package org.springframework.boot;
 
 import java.lang.reflect.InvocationTargetException;
 
+import org.springframework.aot.beans.factory.IndexedListableBeanFactory;
 import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
 import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
 import org.springframework.context.ApplicationContextInitializer;
@@ -18,11 +19,11 @@ class SpringApplicationAotUtils {
 		try {
 			switch (webApplicationType) {
 				case SERVLET:
-					return new ServletWebServerApplicationContext();
+					return new ServletWebServerApplicationContext(createBeanFactory());
 				case REACTIVE:
-					return new ReactiveWebServerApplicationContext();
+					return new ReactiveWebServerApplicationContext(createBeanFactory());
 				default:
-					return new GenericApplicationContext();
+					return new GenericApplicationContext(createBeanFactory());
 			}
 		}
 		catch (Exception ex) {
@@ -31,6 +32,19 @@ class SpringApplicationAotUtils {
 		}
 	};
 
+	private static final String PARALLEL_INSTANTIATION_PROPERTY = "spring.native.parallel-instantiation";
+
+	private static final String PARALLEL_INSTANTIATION_THREADS_PROPERTY = "spring.native.parallel-instantiation.threads";
+
+	private static IndexedListableBeanFactory createBeanFactory() {
+		IndexedListableBeanFactory beanFactory = new IndexedListableBeanFactory();
+		if (Boolean.getBoolean(PARALLEL_INSTANTIATION_PROPERTY)) {
+			beanFactory.setInstantiationParallelism(Integer.getInteger(PARALLEL_INSTANTIATION_THREADS_PROPERTY,
+					Runtime.getRuntime().availableProcessors()));
+		}
+		return beanFactory;
+	}
+
 	public static ApplicationContextInitializer<?> getBootstrapInitializer() {
 		try {
 			return (ApplicationContextInitializer<?>) Class.forName("org.springframework.aot.ContextBootstrapInitializer").getDeclaredConstructor().newInstance();
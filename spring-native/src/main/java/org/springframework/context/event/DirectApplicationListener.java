@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.core.ResolvableType;
+
+/**
+ * A {@link GenericApplicationListener} that invokes an {@link EventListener}-annotated
+ * method through an invoker generated at build time. Contrary to
+ * {@link ApplicationListenerMethodAdapter}, the event type is known upfront and the
+ * method is invoked directly.
+ *
+ * @author agent
+ * @see EventListenerMetadata#getInvoker()
+ */
+class DirectApplicationListener implements GenericApplicationListener {
+
+	private final ApplicationContext context;
+
+	private final EventListenerMetadata metadata;
+
+	private final Class<?> eventType;
+
+	DirectApplicationListener(ApplicationContext context, EventListenerMetadata metadata) {
+		this.context = context;
+		this.metadata = metadata;
+		this.eventType = metadata.getEventType();
+	}
+
+	@Override
+	public boolean supportsEventType(ResolvableType eventType) {
+		if (this.eventType.isAssignableFrom(eventType.toClass())) {
+			return true;
+		}
+		if (PayloadApplicationEvent.class.isAssignableFrom(eventType.toClass())) {
+			ResolvableType payloadType = eventType.as(PayloadApplicationEvent.class).getGeneric();
+			if (this.eventType.isAssignableFrom(payloadType.toClass())) {
+				return true;
+			}
+		}
+		return eventType.hasUnresolvableGenerics();
+	}
+
+	@Override
+	public void onApplicationEvent(ApplicationEvent event) {
+		Object argument = resolveArgument(event);
+		if (argument != null) {
+			Object bean = this.context.getBean(this.metadata.getBeanName());
+			this.metadata.getInvoker().accept(bean, argument);
+		}
+	}
+
+	private Object resolveArgument(ApplicationEvent event) {
+		if (this.eventType.isInstance(event)) {
+			return event;
+		}
+		if (event instanceof PayloadApplicationEvent) {
+			Object payload = ((PayloadApplicationEvent<?>) event).getPayload();
+			if (this.eventType.isInstance(payload)) {
+				return payload;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public int getOrder() {
+		return this.metadata.getOrder();
+	}
+
+	@Override
+	public String getListenerId() {
+		return this.metadata.getListenerId();
+	}
+
+	@Override
+	public String toString() {
+		return "Direct listener '" + this.metadata.getListenerId() + "' on bean '" + this.metadata.getBeanName() + "'";
+	}
+
+}
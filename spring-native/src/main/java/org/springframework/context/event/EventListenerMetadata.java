@@ -17,14 +17,20 @@
 package org.springframework.context.event;
 
 import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
 
 import org.springframework.aop.support.AopUtils;
 import org.springframework.context.ApplicationListener;
+import org.springframework.core.Ordered;
 import org.springframework.util.ReflectionUtils;
 
 /**
  * Captures the necessary metadata to build an {@link ApplicationListener} based on a
  * method annotated with {@link EventListener}.
+ * <p>
+ * A listener is either described by its {@linkplain #getMethod() method}, that is
+ * invoked reflectively by an {@link EventListenerFactory}, or by an
+ * {@linkplain #getInvoker() invoker} that calls the method directly.
  *
  * @author Stephane Nicoll
  */
@@ -38,11 +44,23 @@ public final class EventListenerMetadata {
 
 	private final Method method;
 
+	private final String listenerId;
+
+	private final int order;
+
+	private final Class<?> eventType;
+
+	private final BiConsumer<Object, Object> invoker;
+
 	EventListenerMetadata(Builder builder) {
 		this.beanName = builder.beanName;
 		this.beanType = builder.beanType;
 		this.eventListenerFactoryBeanName = builder.eventListenerFactoryBeanName;
 		this.method = builder.method;
+		this.listenerId = builder.listenerId;
+		this.order = builder.order;
+		this.eventType = builder.eventType;
+		this.invoker = builder.invoker;
 	}
 
 	public String getBeanName() {
@@ -57,10 +75,51 @@ public final class EventListenerMetadata {
 		return this.eventListenerFactoryBeanName;
 	}
 
+	/**
+	 * Return the {@link Method} to invoke reflectively, or {@code null} if this
+	 * listener uses an {@linkplain #getInvoker() invoker}.
+	 * @return the method to invoke
+	 */
 	public Method getMethod() {
 		return this.method;
 	}
 
+	/**
+	 * Return the identifier of a listener that uses an {@linkplain #getInvoker()
+	 * invoker}.
+	 * @return the listener id
+	 * @see SmartApplicationListener#getListenerId()
+	 */
+	public String getListenerId() {
+		return this.listenerId;
+	}
+
+	/**
+	 * Return the order of a listener that uses an {@linkplain #getInvoker() invoker}.
+	 * @return the order of the listener
+	 */
+	public int getOrder() {
+		return this.order;
+	}
+
+	/**
+	 * Return the type of the event or payload handled by a listener that uses an
+	 * {@linkplain #getInvoker() invoker}.
+	 * @return the event type
+	 */
+	public Class<?> getEventType() {
+		return this.eventType;
+	}
+
+	/**
+	 * Return the callback that invokes the annotated method with the bean instance
+	 * and the event, or {@code null} if the method is invoked reflectively.
+	 * @return the invoker, or {@code null}
+	 */
+	public BiConsumer<Object, Object> getInvoker() {
+		return this.invoker;
+	}
+
 	public static Builder forBean(String beanName, Class<?> beanType) {
 		return new Builder(beanName, beanType);
 	}
@@ -75,6 +134,14 @@ public final class EventListenerMetadata {
 
 		private Method method;
 
+		private String listenerId;
+
+		private int order = Ordered.LOWEST_PRECEDENCE;
+
+		private Class<?> eventType;
+
+		private BiConsumer<Object, Object> invoker;
+
 		private Builder(String beanName, Class<?> beanType) {
 			this.beanName = beanName;
 			this.beanType = beanType;
@@ -85,11 +152,35 @@ public final class EventListenerMetadata {
 			return this;
 		}
 
+		public Builder order(int order) {
+			this.order = order;
+			return this;
+		}
+
 		public EventListenerMetadata annotatedMethod(String methodName, Class<?>... parameterTypes) {
 			this.method = findMethod(methodName, parameterTypes);
 			return new EventListenerMetadata(this);
 		}
 
+		/**
+		 * Describe a listener that invokes the annotated method directly, without
+		 * relying on reflection.
+		 * @param listenerId the id of the listener
+		 * @param eventType the type of the event, or of the payload, that the
+		 * listener handles
+		 * @param invoker the callback to invoke the method on the bean instance
+		 * @param <E> the type of the event
+		 * @return the metadata
+		 */
+		@SuppressWarnings("unchecked")
+		public <E> EventListenerMetadata directMethod(String listenerId, Class<E> eventType,
+				BiConsumer<Object, E> invoker) {
+			this.listenerId = listenerId;
+			this.eventType = eventType;
+			this.invoker = (BiConsumer<Object, Object>) invoker;
+			return new EventListenerMetadata(this);
+		}
+
 		private Method findMethod(String methodName, Class<?>... parameterTypes) {
 			Method method = ReflectionUtils.findMethod(this.beanType, methodName, parameterTypes);
 			if (method == null) {
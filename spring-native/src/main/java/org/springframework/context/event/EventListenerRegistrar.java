@@ -54,6 +54,10 @@ public class EventListenerRegistrar implements SmartInitializingSingleton {
 	}
 
 	void register(EventListenerMetadata metadata) {
+		if (metadata.getInvoker() != null) {
+			this.context.addApplicationListener(new DirectApplicationListener(this.context, metadata));
+			return;
+		}
 		EventListenerFactory factory = determineEventListenerFactory(this.context,
 				metadata.getEventListenerFactoryBeanName());
 		ApplicationListener<?> applicationListener = factory.createApplicationListener(metadata.getBeanName(),
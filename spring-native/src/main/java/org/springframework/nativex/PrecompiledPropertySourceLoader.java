@@ -0,0 +1,142 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.boot.env.PropertySourceLoader;
+import org.springframework.core.NativeDetector;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.SpringFactoriesLoader;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * A {@link PropertySourceLoader} that serves the configuration files of the application
+ * from the {@link PrecompiledPropertySources} generated at build time, rather than
+ * parsing them. Files that were not parsed at build time, or that changed since, are
+ * delegated to the other loaders.
+ * <p>Only used in AOT mode: the loader does not claim any file extension otherwise.
+ * The property sources are identical to the ones the regular loaders create, so that
+ * their precedence is not affected.
+ *
+ * @author agent
+ */
+public class PrecompiledPropertySourceLoader implements PropertySourceLoader, Ordered {
+
+	private static final Log logger = LogFactory.getLog(PrecompiledPropertySourceLoader.class);
+
+	private static final String GENERATED_CLASS = "org.springframework.aot.StaticApplicationProperties";
+
+	// Same order as the default loaders, which matters for precedence
+	private static final String[] FILE_EXTENSIONS = { "properties", "xml", "yml", "yaml" };
+
+	private final PrecompiledPropertySources propertySources;
+
+	private volatile List<PropertySourceLoader> delegates;
+
+	public PrecompiledPropertySourceLoader() {
+		this(loadPropertySources());
+	}
+
+	PrecompiledPropertySourceLoader(PrecompiledPropertySources propertySources) {
+		this.propertySources = propertySources;
+	}
+
+	@Override
+	public int getOrder() {
+		return Ordered.HIGHEST_PRECEDENCE;
+	}
+
+	@Override
+	public String[] getFileExtensions() {
+		return (this.propertySources != null) ? FILE_EXTENSIONS : new String[0];
+	}
+
+	@Override
+	public List<PropertySource<?>> load(String name, Resource resource) throws IOException {
+		List<PropertySource<?>> precompiled = loadPrecompiled(name, resource);
+		if (precompiled != null) {
+			return precompiled;
+		}
+		String extension = StringUtils.getFilenameExtension(resource.getFilename());
+		for (PropertySourceLoader delegate : getDelegates()) {
+			if (ObjectUtils.containsElement(delegate.getFileExtensions(), extension)) {
+				return delegate.load(name, resource);
+			}
+		}
+		logger.debug("No loader available for " + resource + ", ignoring it");
+		return Collections.emptyList();
+	}
+
+	private List<PropertySource<?>> loadPrecompiled(String name, Resource resource) throws IOException {
+		if (!(resource instanceof ClassPathResource)) {
+			return null;
+		}
+		String location = ((ClassPathResource) resource).getPath();
+		String digest = this.propertySources.getDigest(location);
+		if (digest == null) {
+			return null;
+		}
+		// Resources cannot change once they are part of the native image
+		if (!NativeDetector.inNativeImage()) {
+			try (InputStream in = resource.getInputStream()) {
+				if (!digest.equals(DigestUtils.md5DigestAsHex(in))) {
+					logger.debug(resource + " changed since it was parsed at build time");
+					return null;
+				}
+			}
+		}
+		return this.propertySources.load(location, name, resource);
+	}
+
+	private List<PropertySourceLoader> getDelegates() {
+		List<PropertySourceLoader> delegates = this.delegates;
+		if (delegates == null) {
+			delegates = SpringFactoriesLoader.loadFactories(PropertySourceLoader.class, getClass().getClassLoader())
+					.stream().filter((loader) -> !(loader instanceof PrecompiledPropertySourceLoader))
+					.collect(Collectors.toList());
+			this.delegates = delegates;
+		}
+		return delegates;
+	}
+
+	private static PrecompiledPropertySources loadPropertySources() {
+		if (!AotModeDetector.isAotModeEnabled() || !ClassUtils.isPresent(GENERATED_CLASS, null)) {
+			return null;
+		}
+		try {
+			return (PrecompiledPropertySources) ClassUtils.forName(GENERATED_CLASS, null).getDeclaredConstructor().newInstance();
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException("Unable to instantiate " + GENERATED_CLASS, ex);
+		}
+	}
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex;
+
+import java.util.List;
+
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.Resource;
+
+/**
+ * Property sources of the application configuration files, parsed at build time.
+ * Implemented by the {@code org.springframework.aot.StaticApplicationProperties}
+ * generated class.
+ *
+ * @author agent
+ * @see PrecompiledPropertySourceLoader
+ */
+public interface PrecompiledPropertySources {
+
+	/**
+	 * Return the MD5 digest of the content of the configuration file that was parsed at
+	 * build time.
+	 * @param location the classpath location of the file, such as
+	 * {@code config/application.yml}
+	 * @return the digest in hexadecimal or {@code null} if the file was not parsed
+	 */
+	String getDigest(String location);
+
+	/**
+	 * Return the property sources of the configuration file at the specified location.
+	 * @param location the classpath location of the file
+	 * @param name the root name of the property sources
+	 * @param resource the resource of the file, used as the origin of the properties
+	 * @return the property sources, as {@code PropertySourceLoader#load} would create
+	 * them, or {@code null} if the file was not parsed
+	 */
+	List<PropertySource<?>> load(String location, String name, Resource resource);
+
+}
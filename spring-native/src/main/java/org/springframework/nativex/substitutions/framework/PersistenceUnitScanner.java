@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.substitutions.framework;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.persistence.PersistenceException;
+
+import org.springframework.context.index.CandidateComponentsIndex;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.orm.jpa.persistenceunit.MutablePersistenceUnitInfo;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ResourceUtils;
+
+/**
+ * Scan a package for the managed types of a persistence unit the same way
+ * {@code DefaultPersistenceUnitManager} does, using either the components index or
+ * the class path. Types annotated with either the {@code javax.persistence} or the
+ * {@code jakarta.persistence} annotations are detected.
+ *
+ * @author agent
+ * @see Target_DefaultPersistenceUnitManager
+ */
+final class PersistenceUnitScanner {
+
+	private static final List<String> ENTITY_TYPE_ANNOTATIONS = List.of("javax.persistence.Entity",
+			"javax.persistence.Embeddable", "javax.persistence.MappedSuperclass", "javax.persistence.Converter",
+			"jakarta.persistence.Entity", "jakarta.persistence.Embeddable", "jakarta.persistence.MappedSuperclass",
+			"jakarta.persistence.Converter");
+
+	private static final String CLASS_RESOURCE_PATTERN = "/**/*.class";
+
+	private static final String PACKAGE_INFO_SUFFIX = ".package-info";
+
+	private PersistenceUnitScanner() {
+	}
+
+	static void scanComponentsIndex(CandidateComponentsIndex index, MutablePersistenceUnitInfo unit, String pkg) {
+		Set<String> candidates = new LinkedHashSet<>();
+		for (String annotationType : ENTITY_TYPE_ANNOTATIONS) {
+			candidates.addAll(index.getCandidateTypes(pkg, annotationType));
+		}
+		candidates.forEach(unit::addManagedClassName);
+		index.getCandidateTypes(pkg, "package-info").forEach(unit::addManagedPackage);
+	}
+
+	static void scanClassPath(ResourcePatternResolver resolver, MutablePersistenceUnitInfo unit, String pkg) {
+		try {
+			String pattern = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX
+					+ ClassUtils.convertClassNameToResourcePath(pkg) + CLASS_RESOURCE_PATTERN;
+			Resource[] resources = resolver.getResources(pattern);
+			MetadataReaderFactory readerFactory = new CachingMetadataReaderFactory(resolver);
+			for (Resource resource : resources) {
+				if (resource.isReadable()) {
+					MetadataReader reader = readerFactory.getMetadataReader(resource);
+					String className = reader.getClassMetadata().getClassName();
+					AnnotationMetadata metadata = reader.getAnnotationMetadata();
+					if (ENTITY_TYPE_ANNOTATIONS.stream().anyMatch(metadata::hasAnnotation)) {
+						unit.addManagedClassName(className);
+						if (unit.getPersistenceUnitRootUrl() == null) {
+							URL url = resource.getURL();
+							if (ResourceUtils.isJarURL(url)) {
+								unit.setPersistenceUnitRootUrl(ResourceUtils.extractJarFileURL(url));
+							}
+						}
+					}
+					else if (className.endsWith(PACKAGE_INFO_SUFFIX)) {
+						unit.addManagedPackage(className.substring(0, className.length() - PACKAGE_INFO_SUFFIX.length()));
+					}
+				}
+			}
+		}
+		catch (IOException ex) {
+			throw new PersistenceException("Failed to scan classpath for unlisted entity classes", ex);
+		}
+	}
+
+}
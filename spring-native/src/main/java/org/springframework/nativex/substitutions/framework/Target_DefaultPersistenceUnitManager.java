@@ -17,11 +17,17 @@
 package org.springframework.nativex.substitutions.framework;
 
 import java.net.URL;
+import java.util.List;
 
+import com.oracle.svm.core.annotate.Alias;
 import com.oracle.svm.core.annotate.Substitute;
 import com.oracle.svm.core.annotate.TargetClass;
 
+import org.springframework.aot.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.context.index.CandidateComponentsIndex;
+import org.springframework.core.io.support.ResourcePatternResolver;
 import org.springframework.nativex.substitutions.OnlyIfPresent;
+import org.springframework.orm.jpa.persistenceunit.MutablePersistenceUnitInfo;
 
 /**
  * Workaround for javax.persistence.PersistenceException: Unable to resolve persistence unit
@@ -29,13 +35,42 @@ import org.springframework.nativex.substitutions.OnlyIfPresent;
  * resolved to URL because it does not exist at
  * org.springframework.core.io.ClassPathResource.getURL(ClassPathResource.java:195)
  *
+ * <p>The managed types of the default persistence unit that were found at build time
+ * are used if available. Otherwise, packages are scanned as the original
+ * implementation does, see {@link PersistenceUnitScanner}.
+ *
  * @author Andy Clement
+ * @author Stephane Nicoll
  */
 @TargetClass(className = "org.springframework.orm.jpa.persistenceunit.DefaultPersistenceUnitManager", onlyWith = OnlyIfPresent.class)
 final class Target_DefaultPersistenceUnitManager {
 
+	@Alias
+	private ResourcePatternResolver resourcePatternResolver;
+
+	@Alias
+	private CandidateComponentsIndex componentsIndex;
+
 	@Substitute
 	public URL determineDefaultPersistenceUnitRootUrl() {
 		return null;
 	}
+
+	@Substitute
+	private void scanPackage(Target_SpringPersistenceUnitInfo scannedUnit, String pkg) {
+		MutablePersistenceUnitInfo unit = (MutablePersistenceUnitInfo) (Object) scannedUnit;
+		PersistenceManagedTypes managedTypes = PersistenceManagedTypes.get();
+		List<String> managedClassNames = (managedTypes != null) ? managedTypes.getManagedClassNames(pkg) : null;
+		if (managedClassNames != null) {
+			managedClassNames.forEach(unit::addManagedClassName);
+			managedTypes.getManagedPackages(pkg).forEach(unit::addManagedPackage);
+		}
+		else if (this.componentsIndex != null) {
+			PersistenceUnitScanner.scanComponentsIndex(this.componentsIndex, unit, pkg);
+		}
+		else {
+			PersistenceUnitScanner.scanClassPath(this.resourcePatternResolver, unit, pkg);
+		}
+	}
+
 }
@@ -32,6 +32,7 @@ import com.oracle.svm.core.annotate.TargetClass;
 import org.springframework.nativex.substitutions.LogbackIsAround;
 import org.springframework.nativex.substitutions.OnlyIfPresent;
 import org.springframework.nativex.substitutions.RemoveXmlSupport;
+import org.springframework.nativex.substitutions.WithAotLogbackConfiguration;
 
 @TargetClass(className = "ch.qos.logback.classic.util.ContextInitializer", onlyWith = { OnlyIfPresent.class, LogbackIsAround.class })
 final class Target_ContextInitializer {
@@ -48,7 +49,11 @@ final class Target_ContextInitializer {
 		if (urlString.endsWith("groovy")) {
 			throw new LogbackException("Logback Groovy configuration is not supported on native");
 		} else if (urlString.endsWith("xml")) {
-			throw new LogbackException("Logback XML configuration is not supported yet, see https://github.com/spring-projects-experimental/spring-native/issues/625");
+			if (new WithAotLogbackConfiguration().getAsBoolean()
+					&& Target_StaticLogbackConfiguration.configure(urlString, loggerContext, null)) {
+				return;
+			}
+			throw new LogbackException("Logback XML configuration at " + urlString + " has not been translated at build time by the Spring AOT plugin");
 		}
 	}
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.substitutions.logback;
+
+import java.net.URL;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.util.ContextInitializer;
+import ch.qos.logback.core.joran.spi.JoranException;
+import com.oracle.svm.core.annotate.Substitute;
+import com.oracle.svm.core.annotate.TargetClass;
+
+import org.springframework.boot.logging.LoggingInitializationContext;
+import org.springframework.nativex.substitutions.LogbackIsAround;
+import org.springframework.nativex.substitutions.OnlyIfPresent;
+import org.springframework.nativex.substitutions.WithAotLogbackConfiguration;
+
+/**
+ * Apply the Logback configuration translated at build time with the {@code Environment}
+ * of the application, so that {@code <springProfile>} and {@code <springProperty>} are
+ * honored.
+ */
+@TargetClass(className = "org.springframework.boot.logging.logback.LogbackLoggingSystem", onlyWith = { WithAotLogbackConfiguration.class, OnlyIfPresent.class, LogbackIsAround.class })
+final class Target_LogbackLoggingSystem {
+
+	@Substitute
+	private void configureByResourceUrl(LoggingInitializationContext initializationContext, LoggerContext loggerContext,
+			URL url) throws JoranException {
+		if (!Target_StaticLogbackConfiguration.configure(url.toString(), loggerContext, initializationContext.getEnvironment())) {
+			new ContextInitializer(loggerContext).configureByResource(url);
+		}
+	}
+
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.beans.factory;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.support.RootBeanDefinition;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link IndexedListableBeanFactory}.
+ *
+ * @author agent
+ */
+class IndexedListableBeanFactoryTests {
+
+	private final IndexedListableBeanFactory beanFactory = new IndexedListableBeanFactory();
+
+	@Test
+	void getBeanNamesForTypeWithIndexedType() {
+		registerIndexedBeans();
+		assertThat(this.beanFactory.hasBeanTypeIndex()).isTrue();
+		assertThat(this.beanFactory.getBeanNamesForType(Service.class)).containsExactly("one", "two");
+		assertThat(this.beanFactory.getBeanNamesForType(SpecificService.class)).containsExactly("two");
+	}
+
+	@Test
+	void getBeanNamesForTypeWithIndexedTypeUsesIndex() {
+		registerBean("one", Service.class);
+		registerBean("two", SpecificService.class);
+		this.beanFactory.setBeanTypeIndex(BeanTypeIndex.builder().bean("one", Service.class.getName())
+				.bean("two", SpecificService.class.getName()).type(Service.class.getName(), "two").build());
+		assertThat(this.beanFactory.getBeanNamesForType(Service.class)).containsExactly("two");
+	}
+
+	@Test
+	void getBeanNamesForTypeWithUnindexedType() {
+		registerIndexedBeans();
+		assertThat(this.beanFactory.getBeanNamesForType(Runnable.class)).isEmpty();
+		assertThat(this.beanFactory.getBeanNamesForType(SpecificService.class, false, false)).containsExactly("two");
+	}
+
+	@Test
+	void getBeanNamesForTypeWithBeanRegisteredAfterIndex() {
+		registerIndexedBeans();
+		registerBean("three", SpecificService.class);
+		assertThat(this.beanFactory.hasBeanTypeIndex()).isTrue();
+		assertThat(this.beanFactory.getBeanNamesForType(Service.class)).containsExactly("one", "two", "three");
+	}
+
+	@Test
+	void getBeanNamesForTypeWithBeanRegisteredBeforeIndex() {
+		registerBean("infrastructure", SpecificService.class);
+		registerIndexedBeans();
+		assertThat(this.beanFactory.hasBeanTypeIndex()).isTrue();
+		assertThat(this.beanFactory.getBeanNamesForType(Service.class)).containsExactly("infrastructure", "one", "two");
+	}
+
+	@Test
+	void getBeanNamesForTypeWithManualSingleton() {
+		registerIndexedBeans();
+		this.beanFactory.registerSingleton("manual", new SpecificService());
+		assertThat(this.beanFactory.getBeanNamesForType(SpecificService.class)).containsExactly("two", "manual");
+	}
+
+	@Test
+	void getBeanNamesForTypeWithInstanceOfDifferentType() {
+		this.beanFactory.registerBeanDefinition("one", new RootBeanDefinition(Service.class, SpecificService::new));
+		registerBean("two", SpecificService.class);
+		this.beanFactory.setBeanTypeIndex(BeanTypeIndex.builder().bean("one", Service.class.getName())
+				.bean("two", SpecificService.class.getName()).type(SpecificService.class.getName(), "two").build());
+		this.beanFactory.getBean("one");
+		assertThat(this.beanFactory.getBeanNamesForType(SpecificService.class)).containsExactly("one", "two");
+	}
+
+	@Test
+	void overrideBeanDefinitionDiscardsIndex() {
+		registerIndexedBeans();
+		registerBean("one", Runnable.class);
+		assertThat(this.beanFactory.hasBeanTypeIndex()).isFalse();
+		assertThat(this.beanFactory.getBeanNamesForType(Service.class)).containsExactly("two");
+	}
+
+	@Test
+	void removeBeanDefinitionDiscardsIndex() {
+		registerIndexedBeans();
+		this.beanFactory.removeBeanDefinition("two");
+		assertThat(this.beanFactory.hasBeanTypeIndex()).isFalse();
+		assertThat(this.beanFactory.getBeanNamesForType(Service.class)).containsExactly("one");
+	}
+
+	@Test
+	void registerPrototypeBeanDefinitionDiscardsIndex() {
+		registerIndexedBeans();
+		RootBeanDefinition beanDefinition = new RootBeanDefinition(SpecificService.class);
+		beanDefinition.setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
+		this.beanFactory.registerBeanDefinition("three", beanDefinition);
+		assertThat(this.beanFactory.hasBeanTypeIndex()).isFalse();
+		assertThat(this.beanFactory.getBeanNamesForType(Service.class, false, true)).containsExactly("one", "two");
+	}
+
+	@Test
+	void registerLazyBeanDefinitionKeepsIndex() {
+		registerIndexedBeans();
+		RootBeanDefinition beanDefinition = new RootBeanDefinition(SpecificService.class);
+		beanDefinition.setLazyInit(true);
+		this.beanFactory.registerBeanDefinition("three", beanDefinition);
+		assertThat(this.beanFactory.hasBeanTypeIndex()).isTrue();
+		assertThat(this.beanFactory.getBeanNamesForType(Service.class, false, false)).containsExactly("one", "two",
+				"three");
+	}
+
+	@Test
+	void clearMetadataCacheWithBeanClassChangedInPlaceChecksBean() {
+		registerIndexedBeans();
+		assertThat(this.beanFactory.getBeanNamesForType(SpecificService.class)).containsExactly("two");
+		((RootBeanDefinition) this.beanFactory.getBeanDefinition("one")).setBeanClass(SpecificService.class);
+		this.beanFactory.clearMetadataCache();
+		assertThat(this.beanFactory.hasBeanTypeIndex()).isTrue();
+		assertThat(this.beanFactory.getBeanNamesForType(SpecificService.class)).containsExactly("one", "two");
+	}
+
+	@Test
+	void clearMetadataCacheWithScopeChangedInPlaceDiscardsIndex() {
+		registerIndexedBeans();
+		this.beanFactory.getBeanDefinition("one").setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
+		this.beanFactory.clearMetadataCache();
+		assertThat(this.beanFactory.hasBeanTypeIndex()).isFalse();
+		assertThat(this.beanFactory.getBeanNamesForType(Service.class, false, true)).containsExactly("two");
+	}
+
+	@Test
+	void setBeanTypeIndexWithMismatchingTypeIgnoresIndex() {
+		registerBean("one", Service.class);
+		this.beanFactory.setBeanTypeIndex(BeanTypeIndex.builder().bean("one", SpecificService.class.getName())
+				.type(SpecificService.class.getName(), "one").build());
+		assertThat(this.beanFactory.hasBeanTypeIndex()).isFalse();
+		assertThat(this.beanFactory.getBeanNamesForType(SpecificService.class)).isEmpty();
+	}
+
+	@Test
+	void setBeanTypeIndexWithUnknownBeanIgnoresIndex() {
+		registerBean("one", Service.class);
+		this.beanFactory.setBeanTypeIndex(BeanTypeIndex.builder().bean("one", Service.class.getName())
+				.bean("two", Service.class.getName()).type(Service.class.getName(), "one", "two").build());
+		assertThat(this.beanFactory.hasBeanTypeIndex()).isFalse();
+	}
+
+	private void registerIndexedBeans() {
+		registerBean("one", Service.class);
+		registerBean("two", SpecificService.class);
+		this.beanFactory.setBeanTypeIndex(BeanTypeIndex.builder()
+				.bean("one", Service.class.getName())
+				.bean("two", SpecificService.class.getName())
+				.type(Service.class.getName(), "one", "two")
+				.type(SpecificService.class.getName(), "two")
+				.type(Object.class.getName(), "one", "two").build());
+	}
+
+	private void registerBean(String beanName, Class<?> beanType) {
+		this.beanFactory.registerBeanDefinition(beanName, new RootBeanDefinition(beanType));
+	}
+
+
+	static class Service {
+
+	}
+
+	static class SpecificService extends Service {
+
+	}
+
+}
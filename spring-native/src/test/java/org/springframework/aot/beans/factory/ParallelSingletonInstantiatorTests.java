@@ -0,0 +1,279 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.beans.factory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ParallelSingletonInstantiator}.
+ *
+ * @author agent
+ */
+class ParallelSingletonInstantiatorTests {
+
+	private final IndexedListableBeanFactory beanFactory = new IndexedListableBeanFactory();
+
+	private final List<String> creationOrder = Collections.synchronizedList(new ArrayList<>());
+
+	private final Map<String, Thread> creationThreads = new ConcurrentHashMap<>();
+
+	private final List<String> postProcessedBeans = Collections.synchronizedList(new ArrayList<>());
+
+	private final Map<String, Thread> postProcessingThreads = new ConcurrentHashMap<>();
+
+	@Test
+	void getBeanNamesSortsBeansAfterTheirDependencies() {
+		registerBean("c", "a", "b");
+		registerBean("b", "a");
+		registerBean("a");
+		BeanDependencyGraph graph = BeanDependencyGraph.builder().bean("c", "a", "b").bean("b", "a").bean("a").build();
+		assertThat(new ParallelSingletonInstantiator(this.beanFactory, graph, 4).getBeanNames())
+				.containsExactly("a", "b", "c");
+	}
+
+	@Test
+	void getBeanNamesExcludesCycles() {
+		registerBean("a", "b");
+		registerBean("b", "a");
+		registerBean("c");
+		BeanDependencyGraph graph = BeanDependencyGraph.builder().bean("a", "b").bean("b", "a").bean("c").build();
+		assertThat(new ParallelSingletonInstantiator(this.beanFactory, graph, 4).getBeanNames()).containsExactly("c");
+	}
+
+	@Test
+	void getBeanNamesExcludesBeansThatDependOnMainThreadBeans() {
+		registerBean("a");
+		this.beanFactory.registerBeanDefinition("lifecycle", new RootBeanDefinition(LifecycleBean.class));
+		registerBean("b", "lifecycle");
+		BeanDependencyGraph graph = BeanDependencyGraph.builder().bean("a").bean("lifecycle").bean("b", "lifecycle")
+				.build();
+		assertThat(new ParallelSingletonInstantiator(this.beanFactory, graph, 4).getBeanNames()).containsExactly("a");
+	}
+
+	@Test
+	void preInstantiateSingletonsCreatesBeansAfterTheirDependencies() {
+		BeanDependencyGraph.Builder graph = BeanDependencyGraph.builder();
+		for (int i = 0; i < 50; i++) {
+			String[] dependencies = (i < 2) ? new String[0] : new String[] { "bean" + (i / 2 - 1), "bean" + (i - 2) };
+			registerBean("bean" + i, dependencies);
+			graph.bean("bean" + i, dependencies);
+		}
+		this.beanFactory.setBeanDependencyGraph(graph.build());
+		this.beanFactory.setInstantiationParallelism(4);
+		this.beanFactory.preInstantiateSingletons();
+		assertThat(this.creationOrder).hasSize(50);
+		for (int i = 2; i < 50; i++) {
+			int index = this.creationOrder.indexOf("bean" + i);
+			assertThat(this.creationOrder.indexOf("bean" + (i / 2 - 1))).isLessThan(index);
+			assertThat(this.creationOrder.indexOf("bean" + (i - 2))).isLessThan(index);
+		}
+		assertThat(this.creationThreads.values()).doesNotContain(Thread.currentThread());
+	}
+
+	@Test
+	void preInstantiateSingletonsInvokesPostProcessorsOnTheMainThread() {
+		registerBean("a");
+		registerBean("b", "a");
+		this.beanFactory.registerBeanDefinition("lifecycle", new RootBeanDefinition(LifecycleBean.class, LifecycleBean::new));
+		addPostProcessor();
+		this.beanFactory.setBeanDependencyGraph(BeanDependencyGraph.builder().bean("a").bean("b", "a").bean("lifecycle")
+				.build());
+		this.beanFactory.setInstantiationParallelism(2);
+		this.beanFactory.preInstantiateSingletons();
+		assertThat(this.creationThreads.values()).doesNotContain(Thread.currentThread());
+		assertThat(this.postProcessedBeans).containsExactlyInAnyOrder("a", "b", "lifecycle");
+		assertThat(this.postProcessingThreads.values()).containsOnly(Thread.currentThread());
+		assertThat(this.beanFactory.getBean(LifecycleBean.class).thread).isEqualTo(Thread.currentThread());
+	}
+
+	@Test
+	void getBeanWhileWorkerInstantiatesBeanWaitsForTheWorker() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger instances = new AtomicInteger();
+		this.beanFactory.registerBeanDefinition("slow", new RootBeanDefinition(SampleBean.class, () -> {
+			started.countDown();
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			instances.incrementAndGet();
+			return new SampleBean();
+		}));
+		addPostProcessor();
+		this.beanFactory.setBeanDependencyGraph(BeanDependencyGraph.builder().bean("slow").build());
+		this.beanFactory.setInstantiationParallelism(2);
+		Thread bootstrap = new Thread(this.beanFactory::preInstantiateSingletons);
+		bootstrap.start();
+		assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+		AtomicReference<Object> bean = new AtomicReference<>();
+		Thread client = new Thread(() -> bean.set(this.beanFactory.getBean("slow")));
+		client.start();
+		client.join(200);
+		assertThat(client.isAlive()).isTrue();
+		assertThat(bean.get()).isNull();
+		release.countDown();
+		client.join(10000);
+		bootstrap.join(10000);
+		assertThat(bean.get()).isSameAs(this.beanFactory.getBean("slow"));
+		assertThat(instances).hasValue(1);
+		assertThat(this.postProcessedBeans).containsExactly("slow");
+		assertThat(this.postProcessingThreads.get("slow")).isIn(bootstrap, client);
+	}
+
+	@Test
+	void getBeanUnderSingletonLockWhileWorkerInstantiatesBeanWaitsForTheWorker() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger instances = new AtomicInteger();
+		registerBean("a");
+		this.beanFactory.registerBeanDefinition("slow", new RootBeanDefinition(SampleBean.class, () -> {
+			started.countDown();
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			instances.incrementAndGet();
+			return new SampleBean();
+		}));
+		AtomicReference<Object> slowBean = new AtomicReference<>();
+		this.beanFactory.addBeanPostProcessor(new BeanPostProcessor() {
+
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (beanName.equals("a")) {
+					try {
+						assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+					}
+					catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					}
+					new Thread(() -> {
+						try {
+							Thread.sleep(200);
+						}
+						catch (InterruptedException ex) {
+							Thread.currentThread().interrupt();
+						}
+						release.countDown();
+					}).start();
+					slowBean.set(beanFactory.getBean("slow"));
+				}
+				return bean;
+			}
+
+		});
+		this.beanFactory.setBeanDependencyGraph(BeanDependencyGraph.builder().bean("a").bean("slow").build());
+		this.beanFactory.setInstantiationParallelism(2);
+		this.beanFactory.preInstantiateSingletons();
+		assertThat(instances).hasValue(1);
+		assertThat(slowBean.get()).isSameAs(this.beanFactory.getBean("slow"));
+	}
+
+	@Test
+	void preInstantiateSingletonsCreatesBeansOutsideTheGraphOnTheMainThread() {
+		registerBean("a");
+		this.beanFactory.registerBeanDefinition("lifecycle", new RootBeanDefinition(LifecycleBean.class));
+		this.beanFactory.setBeanDependencyGraph(BeanDependencyGraph.builder().bean("a").bean("lifecycle").build());
+		this.beanFactory.setInstantiationParallelism(2);
+		this.beanFactory.preInstantiateSingletons();
+		assertThat(this.creationThreads.get("a")).isNotEqualTo(Thread.currentThread());
+		assertThat(this.beanFactory.getBean(LifecycleBean.class).thread).isEqualTo(Thread.currentThread());
+	}
+
+	@Test
+	void preInstantiateSingletonsWithBeanRequiringUncreatedBeanDefersToTheMainThread() {
+		this.beanFactory.registerBeanDefinition("lifecycle", new RootBeanDefinition(LifecycleBean.class));
+		registerBean("a", "lifecycle");
+		this.beanFactory.setBeanDependencyGraph(BeanDependencyGraph.builder().bean("a").build());
+		this.beanFactory.setInstantiationParallelism(2);
+		this.beanFactory.preInstantiateSingletons();
+		assertThat(this.creationThreads.get("a")).isEqualTo(Thread.currentThread());
+		assertThat(this.creationOrder).containsExactly("a");
+	}
+
+	@Test
+	void preInstantiateSingletonsWithoutParallelismUsesMainThread() {
+		registerBean("a");
+		registerBean("b", "a");
+		this.beanFactory.setBeanDependencyGraph(BeanDependencyGraph.builder().bean("a").bean("b", "a").build());
+		this.beanFactory.preInstantiateSingletons();
+		assertThat(this.creationOrder).containsExactly("a", "b");
+		assertThat(this.creationThreads.values()).containsOnly(Thread.currentThread());
+	}
+
+	private void addPostProcessor() {
+		this.beanFactory.addBeanPostProcessor(new BeanPostProcessor() {
+
+			@Override
+			public Object postProcessBeforeInitialization(Object bean, String beanName) {
+				postProcessedBeans.add(beanName);
+				postProcessingThreads.put(beanName, Thread.currentThread());
+				return bean;
+			}
+
+		});
+	}
+
+	private void registerBean(String beanName, String... dependencies) {
+		this.beanFactory.registerBeanDefinition(beanName, new RootBeanDefinition(SampleBean.class, () -> {
+			for (String dependency : dependencies) {
+				this.beanFactory.getBean(dependency);
+			}
+			this.creationOrder.add(beanName);
+			this.creationThreads.put(beanName, Thread.currentThread());
+			return new SampleBean();
+		}));
+	}
+
+
+	static class SampleBean {
+
+	}
+
+	static class LifecycleBean implements InitializingBean {
+
+		private Thread thread;
+
+		@Override
+		public void afterPropertiesSet() {
+			this.thread = Thread.currentThread();
+		}
+
+	}
+
+}
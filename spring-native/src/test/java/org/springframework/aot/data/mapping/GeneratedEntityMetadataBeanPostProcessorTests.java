@@ -0,0 +1,138 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.data.mapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mapping.context.MappingContextEvent;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link GeneratedEntityMetadataBeanPostProcessor}.
+ *
+ * @author agent
+ */
+class GeneratedEntityMetadataBeanPostProcessorTests {
+
+	private final List<String> accesses = new ArrayList<>();
+
+	private final List<Object> events = new ArrayList<>();
+
+	@Test
+	void postProcessMappingContextUsesGeneratedPropertyAccessor() {
+		MongoMappingContext mappingContext = createMappingContext(personMetadata(true));
+		MongoPersistentEntity<?> entity = mappingContext.getRequiredPersistentEntity(Person.class);
+		Person person = new Person();
+		PersistentPropertyAccessor<Person> accessor = entity.getPropertyAccessor(person);
+		accessor.setProperty(entity.getRequiredPersistentProperty("name"), "John");
+		assertThat(accessor.getProperty(entity.getRequiredPersistentProperty("name"))).isEqualTo("John");
+		assertThat(person.name).isEqualTo("John");
+		assertThat(this.accesses).containsExactly("set:name", "get:name");
+	}
+
+	@Test
+	void postProcessMappingContextUsesGeneratedPropertyAccessorForEntityDiscoveredLater() {
+		MongoMappingContext mappingContext = new MongoMappingContext();
+		mappingContext.afterPropertiesSet();
+		createPostProcessor(personMetadata(true)).postProcessAfterInitialization(mappingContext, "mappingContext");
+		MongoPersistentEntity<?> entity = mappingContext.getRequiredPersistentEntity(Person.class);
+		Person person = new Person();
+		entity.getPropertyAccessor(person).setProperty(entity.getRequiredPersistentProperty("name"), "John");
+		assertThat(person.name).isEqualTo("John");
+		assertThat(this.accesses).containsExactly("set:name");
+		assertThat(this.events).singleElement().isInstanceOfSatisfying(MappingContextEvent.class,
+				(event) -> assertThat(event.getPersistentEntity()).isSameAs(entity));
+	}
+
+	@Test
+	void postProcessMappingContextWithPropertyThatIsNotWritableKeepsDefaultPropertyAccessor() {
+		MongoMappingContext mappingContext = createMappingContext(personMetadata(false));
+		MongoPersistentEntity<?> entity = mappingContext.getRequiredPersistentEntity(Person.class);
+		Person person = new Person();
+		entity.getPropertyAccessor(person).setProperty(entity.getRequiredPersistentProperty("name"), "John");
+		assertThat(person.name).isEqualTo("John");
+		assertThat(this.accesses).isEmpty();
+	}
+
+	@Test
+	void postProcessMongoConverterUsesGeneratedInstantiator() {
+		GeneratedEntityMetadataBeanPostProcessor postProcessor = createPostProcessor(personMetadata(true));
+		MongoMappingContext mappingContext = new MongoMappingContext();
+		MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+		postProcessor.postProcessBeforeInitialization(converter, "converter");
+		converter.afterPropertiesSet();
+		Person person = converter.read(Person.class, new Document("name", "John").append("age", 42));
+		assertThat(person.name).isEqualTo("John");
+		assertThat(person.age).isEqualTo(42);
+		assertThat(this.accesses).contains("new");
+	}
+
+	private MongoMappingContext createMappingContext(GeneratedEntityMetadata metadata) {
+		MongoMappingContext mappingContext = new MongoMappingContext();
+		mappingContext.setInitialEntitySet(Set.of(Person.class));
+		mappingContext.afterPropertiesSet();
+		createPostProcessor(metadata).postProcessAfterInitialization(mappingContext, "mappingContext");
+		return mappingContext;
+	}
+
+	private GeneratedEntityMetadataBeanPostProcessor createPostProcessor(GeneratedEntityMetadata metadata) {
+		return new GeneratedEntityMetadataBeanPostProcessor(this.events::add, List.of(metadata));
+	}
+
+	private GeneratedEntityMetadata personMetadata(boolean nameWritable) {
+		return GeneratedEntityMetadata.builder(Person.class)
+				.instantiator(0, (args) -> {
+					this.accesses.add("new");
+					return new Person();
+				})
+				.property("id", (bean) -> ((Person) bean).id, (bean, value) -> ((Person) bean).id = (String) value)
+				.property("name", (bean) -> {
+					this.accesses.add("get:name");
+					return ((Person) bean).name;
+				}, (!nameWritable) ? null : (bean, value) -> {
+					this.accesses.add("set:name");
+					((Person) bean).name = (String) value;
+				})
+				.property("age", (bean) -> ((Person) bean).age, (bean, value) -> ((Person) bean).age = (int) value)
+				.build();
+	}
+
+
+	static class Person {
+
+		@Id
+		String id;
+
+		String name;
+
+		int age;
+
+	}
+
+}
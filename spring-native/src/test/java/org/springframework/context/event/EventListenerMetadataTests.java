@@ -2,6 +2,9 @@ package org.springframework.context.event;
 
 import org.junit.jupiter.api.Test;
 
+import org.springframework.core.Ordered;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 
 /**
@@ -17,4 +20,15 @@ class EventListenerMetadataTests {
 				.withMessageContaining("'doesNotExist'").withMessageContaining(Object.class.getName());
 	}
 
+	@Test
+	void metadataWithDirectMethod() {
+		EventListenerMetadata metadata = EventListenerMetadata.forBean("test", Object.class)
+				.directMethod("test-id", ContextRefreshedEvent.class, (bean, event) -> {});
+		assertThat(metadata.getMethod()).isNull();
+		assertThat(metadata.getListenerId()).isEqualTo("test-id");
+		assertThat(metadata.getEventType()).isEqualTo(ContextRefreshedEvent.class);
+		assertThat(metadata.getInvoker()).isNotNull();
+		assertThat(metadata.getOrder()).isEqualTo(Ordered.LOWEST_PRECEDENCE);
+	}
+
 }
@@ -70,6 +70,53 @@ class EventListenerRegistrarTests {
 		context.close();
 	}
 
+	@Test
+	void registerDirectEventListener() {
+		GenericApplicationContext context = new GenericApplicationContext();
+		TestComponent testComponent = mock(TestComponent.class);
+		context.registerBean("test", TestComponent.class, () -> testComponent);
+		context.registerBean("infrastructure", EventListenerRegistrar.class,
+				() -> new EventListenerRegistrar(context, List.of(EventListenerMetadata.forBean("test", TestComponent.class)
+						.directMethod("test-closed", ContextClosedEvent.class, (bean, event) -> ((TestComponent) bean).onClosed(event)))));
+		context.refresh();
+		verifyNoInteractions(testComponent);
+		assertThat(context.getApplicationListeners()).anySatisfy((listener) ->
+				assertThat(listener).isInstanceOf(DirectApplicationListener.class)
+						.hasFieldOrPropertyWithValue("listenerId", "test-closed"));
+		context.close();
+		verify(testComponent).onClosed(any(ContextClosedEvent.class));
+		verifyNoMoreInteractions(testComponent);
+	}
+
+	@Test
+	void registerDirectEventListenerWithPayload() {
+		GenericApplicationContext context = new GenericApplicationContext();
+		TestComponent testComponent = mock(TestComponent.class);
+		context.registerBean("test", TestComponent.class, () -> testComponent);
+		context.registerBean("infrastructure", EventListenerRegistrar.class,
+				() -> new EventListenerRegistrar(context, List.of(EventListenerMetadata.forBean("test", TestComponent.class)
+						.directMethod("test-payload", String.class, (bean, event) -> ((TestComponent) bean).onPayload(event)))));
+		context.refresh();
+		context.publishEvent("hello");
+		context.publishEvent(42);
+		verify(testComponent).onPayload("hello");
+		verifyNoMoreInteractions(testComponent);
+		context.close();
+	}
+
+	@Test
+	void registerDirectEventListenerWithOrder() {
+		GenericApplicationContext context = new GenericApplicationContext();
+		context.registerBean("test", TestComponent.class, TestComponent::new);
+		context.registerBean("infrastructure", EventListenerRegistrar.class,
+				() -> new EventListenerRegistrar(context, List.of(EventListenerMetadata.forBean("test", TestComponent.class)
+						.order(42).directMethod("test-payload", String.class, (bean, event) -> ((TestComponent) bean).onPayload(event)))));
+		context.refresh();
+		assertThat(context.getApplicationListeners()).filteredOn(DirectApplicationListener.class::isInstance)
+				.singleElement().hasFieldOrPropertyWithValue("order", 42);
+		context.close();
+	}
+
 	static class TestComponent {
 
 		@EventListener(classes = ContextRefreshedEvent.class)
@@ -82,6 +129,11 @@ class EventListenerRegistrarTests {
 
 		}
 
+		@EventListener
+		public void onPayload(String payload) {
+
+		}
+
 	}
 
 }
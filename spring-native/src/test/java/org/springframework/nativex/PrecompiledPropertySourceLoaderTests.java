@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.DigestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link PrecompiledPropertySourceLoader}.
+ *
+ * @author agent
+ */
+class PrecompiledPropertySourceLoaderTests {
+
+	private static final String LOCATION = "org/springframework/nativex/precompiled.properties";
+
+	@Test
+	void fileExtensionsWithoutPrecompiledPropertySources() {
+		assertThat(new PrecompiledPropertySourceLoader(null).getFileExtensions()).isEmpty();
+	}
+
+	@Test
+	void fileExtensionsMatchDefaultLoaders() {
+		assertThat(new PrecompiledPropertySourceLoader(new TestPropertySources(null)).getFileExtensions())
+				.containsExactly("properties", "xml", "yml", "yaml");
+	}
+
+	@Test
+	void loadWithUnchangedFileUsesPrecompiledPropertySources() throws IOException {
+		ClassPathResource resource = new ClassPathResource(LOCATION);
+		PrecompiledPropertySourceLoader loader = new PrecompiledPropertySourceLoader(new TestPropertySources(digest(resource)));
+		List<PropertySource<?>> propertySources = loader.load("test", resource);
+		assertThat(propertySources).singleElement().satisfies((propertySource) -> {
+			assertThat(propertySource.getName()).isEqualTo("test");
+			assertThat(propertySource.getProperty("app.name")).isEqualTo("precompiled");
+		});
+	}
+
+	@Test
+	void loadWithChangedFileDelegatesToRegularLoader() throws IOException {
+		ClassPathResource resource = new ClassPathResource(LOCATION);
+		PrecompiledPropertySourceLoader loader = new PrecompiledPropertySourceLoader(new TestPropertySources("outdated"));
+		List<PropertySource<?>> propertySources = loader.load("test", resource);
+		assertThat(propertySources).singleElement().satisfies((propertySource) ->
+				assertThat(propertySource.getProperty("app.name")).hasToString("test"));
+	}
+
+	@Test
+	void loadWithFileNotPrecompiledDelegatesToRegularLoader() throws IOException {
+		ClassPathResource resource = new ClassPathResource(LOCATION);
+		PrecompiledPropertySourceLoader loader = new PrecompiledPropertySourceLoader(new TestPropertySources(null));
+		List<PropertySource<?>> propertySources = loader.load("test", resource);
+		assertThat(propertySources).singleElement().satisfies((propertySource) ->
+				assertThat(propertySource.getProperty("app.name")).hasToString("test"));
+	}
+
+	private static String digest(Resource resource) throws IOException {
+		try (InputStream in = resource.getInputStream()) {
+			return DigestUtils.md5DigestAsHex(in);
+		}
+	}
+
+
+	static class TestPropertySources implements PrecompiledPropertySources {
+
+		private final String digest;
+
+		TestPropertySources(String digest) {
+			this.digest = digest;
+		}
+
+		@Override
+		public String getDigest(String location) {
+			return LOCATION.equals(location) ? this.digest : null;
+		}
+
+		@Override
+		public List<PropertySource<?>> load(String location, String name, Resource resource) {
+			return Collections.singletonList(new MapPropertySource(name, Collections.singletonMap("app.name", "precompiled")));
+		}
+
+	}
+
+}